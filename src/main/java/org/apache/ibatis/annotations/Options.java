@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -144,6 +144,15 @@ public @interface Options {
    */
   String databaseId() default "";
 
+  /**
+   * Returns the replication lag, in milliseconds, a read replica may have to serve the select. {@code 0} makes the
+   * select always read from the primary.
+   *
+   * @return the tolerated replication lag; a negative value means no hint
+   * @since 3.5.12
+   */
+  long maxReplicaLag() default -1;
+
   /**
    * The container annotation for {@link Options}.
    * @author Kazuki Shimizu
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -23,10 +23,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.result.LongKeyedMapResultHandler;
+import org.apache.ibatis.executor.result.PrimitiveArrayResultHandler;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
@@ -37,6 +45,11 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.tracing.Span;
+import org.apache.ibatis.tracing.SpanKind;
+import org.apache.ibatis.tracing.TraceScope;
+import org.apache.ibatis.tracing.Tracer;
+import org.apache.ibatis.util.LongKeyedMap;
 
 /**
  * @author Clinton Begin
@@ -55,6 +68,59 @@ public class MapperMethod {
   }
 
   public Object execute(SqlSession sqlSession, Object[] args) {
+    Tracer tracer = sqlSession.getConfiguration().getTracer();
+    if (tracer != null) {
+      return executeTraced(sqlSession, args, tracer);
+    }
+    if (method.returnsFuture()) {
+      return executeAsync(sqlSession, args, null);
+    }
+    return executeSync(sqlSession, args);
+  }
+
+  private Object executeTraced(SqlSession sqlSession, Object[] args, Tracer tracer) {
+    if (method.returnsFuture()) {
+      // 异步调用的 Span 在调用线程上创建，在执行线程上激活，在 CompletableFuture 完成时结束
+      Span span = tracer.startSpan(SpanKind.MAPPER_METHOD, command.getName(), TraceScope.currentSpan());
+      CompletableFuture<Object> future;
+      try {
+        future = executeAsync(sqlSession, args, span);
+      } catch (RuntimeException | Error e) {
+        span.setError(e);
+        span.end();
+        throw e;
+      }
+      // 返回原始的 future，取消操作才能作用到异步执行上
+      future.whenComplete((result, error) -> {
+        if (error != null) {
+          span.setError(error);
+        }
+        span.end();
+      });
+      return future;
+    }
+    TraceScope scope = TraceScope.start(sqlSession.getConfiguration(), SpanKind.MAPPER_METHOD, command.getName());
+    try {
+      return executeSync(sqlSession, args);
+    } catch (RuntimeException | Error e) {
+      TraceScope.fail(scope, e);
+      throw e;
+    } finally {
+      TraceScope.close(scope);
+    }
+  }
+
+  private CompletableFuture<Object> executeAsync(SqlSession sqlSession, Object[] args, Span span) {
+    // 每次调用都在独立的 SqlSession（独立的连接和 Executor）中执行，多个调用可以并行；
+    // 调用不属于 sqlSession 的事务，成功后单独提交
+    return sqlSession.getConfiguration().getAsyncSqlSessionFactory().openAsyncSession().execute(session -> {
+      try (TraceScope scope = TraceScope.activate(span)) {
+        return executeSync(session, args);
+      }
+    });
+  }
+
+  private Object executeSync(SqlSession sqlSession, Object[] args) {
     Object result;
     switch (command.getType()) {
       case INSERT: {
@@ -83,13 +149,20 @@ public class MapperMethod {
           // 则查询的结果集将会由 ResultHandler 对象进行处理
           executeWithResultHandler(sqlSession, args);
           result = null;
+        } else if (method.returnsPrimitiveArray()) {
+          // long[]、int[] 直接从结果集中读取列值，不逐行装箱
+          result = executeForPrimitiveArray(sqlSession, args);
         } else if (method.returnsMany()) {
           // executeForMany() 方法处理返回值为集合或数组的场景
           result = executeForMany(sqlSession, args);
+        } else if (method.returnsLongKeyedMap()) {
+          result = executeForLongKeyedMap(sqlSession, args);
         } else if (method.returnsMap()) {
           result = executeForMap(sqlSession, args);
         } else if (method.returnsCursor()) {
           result = executeForCursor(sqlSession, args);
+        } else if (method.returnsStream()) {
+          result = executeForStream(sqlSession, args);
         } else {
           Object param = method.convertArgsToSqlCommandParam(args);
           result = sqlSession.selectOne(command.getName(), param);
@@ -165,6 +238,22 @@ public class MapperMethod {
     return result;
   }
 
+  private Object executeForPrimitiveArray(SqlSession sqlSession, Object[] args) {
+    Object param = method.convertArgsToSqlCommandParam(args);
+    RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+    PrimitiveArrayResultHandler handler = new PrimitiveArrayResultHandler(method.getReturnType().getComponentType());
+    sqlSession.select(command.getName(), param, rowBounds, handler);
+    return handler.toArray();
+  }
+
+  private <V> LongKeyedMap<V> executeForLongKeyedMap(SqlSession sqlSession, Object[] args) {
+    Object param = method.convertArgsToSqlCommandParam(args);
+    RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+    LongKeyedMapResultHandler<V> handler = new LongKeyedMapResultHandler<>(method.getMapKey());
+    sqlSession.select(command.getName(), param, rowBounds, handler);
+    return handler.getMappedResults();
+  }
+
   private <T> Cursor<T> executeForCursor(SqlSession sqlSession, Object[] args) {
     Cursor<T> result;
     Object param = method.convertArgsToSqlCommandParam(args);
@@ -177,6 +266,29 @@ public class MapperMethod {
     return result;
   }
 
+  private BaseStream<?, ?> executeForStream(SqlSession sqlSession, Object[] args) {
+    // Stream 由游标支撑，关闭 Stream 时关闭游标及其 Statement
+    Stream<Object> stream = this.<Object>executeForCursor(sqlSession, args).stream();
+    Class<?> returnType = method.getReturnType();
+    if (IntStream.class.equals(returnType)) {
+      return stream.mapToInt(value -> toNumber(value).intValue());
+    } else if (LongStream.class.equals(returnType)) {
+      return stream.mapToLong(value -> toNumber(value).longValue());
+    } else if (DoubleStream.class.equals(returnType)) {
+      return stream.mapToDouble(value -> toNumber(value).doubleValue());
+    }
+    return stream;
+  }
+
+  private Number toNumber(Object value) {
+    if (value instanceof Number) {
+      return (Number) value;
+    }
+    throw new BindingException("Mapper method '" + command.getName() + "' cannot return "
+        + (value == null ? "null" : "a " + value.getClass().getName()) + " as an element of a "
+        + method.getReturnType().getSimpleName() + ".");
+  }
+
   private <E> Object convertToDeclaredCollection(Configuration config, List<E> list) {
     Object collection = config.getObjectFactory().create(method.getReturnType());
     MetaObject metaObject = config.newMetaObject(collection);
@@ -298,9 +410,13 @@ public class MapperMethod {
 
     private final boolean returnsMany;
     private final boolean returnsMap;
+    private final boolean returnsPrimitiveArray;
+    private final boolean returnsLongKeyedMap;
     private final boolean returnsVoid;
     private final boolean returnsCursor;
+    private final boolean returnsStream;
     private final boolean returnsOptional;
+    private final boolean returnsFuture;
     private final Class<?> returnType;
     private final String mapKey;
     private final Integer resultHandlerIndex;
@@ -310,22 +426,37 @@ public class MapperMethod {
     public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
       // 通过 TypeParameterResolver 工具类解析方法的返回值类型，初始化 returnType 字段值
       Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+      // 返回值为 CompletableFuture 时异步执行，其余字段根据 CompletableFuture 的类型参数初始化
+      this.returnsFuture = CompletableFuture.class.equals(method.getReturnType());
+      if (this.returnsFuture) {
+        resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+            ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+      }
       if (resolvedReturnType instanceof Class<?>) {
         this.returnType = (Class<?>) resolvedReturnType;
       } else if (resolvedReturnType instanceof ParameterizedType) {
         this.returnType = (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType();
       } else {
-        this.returnType = method.getReturnType();
+        this.returnType = this.returnsFuture ? Object.class : method.getReturnType();
       }
       // 根据返回值类型，初始化 returnsVoid、returnsMany、returnsCursor、
       // returnsMap、returnsOptional 这五个与方法返回值类型相关的字段
-      this.returnsVoid = void.class.equals(this.returnType);
+      this.returnsVoid = void.class.equals(this.returnType) || (this.returnsFuture && Void.class.equals(this.returnType));
       this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
       this.returnsCursor = Cursor.class.equals(this.returnType);
+      this.returnsStream = Stream.class.equals(this.returnType) || IntStream.class.equals(this.returnType)
+          || LongStream.class.equals(this.returnType) || DoubleStream.class.equals(this.returnType);
       this.returnsOptional = Optional.class.equals(this.returnType);
       // 如果返回值为 Map 类型，则从方法的 @MapKey 注解中获取 Map 中为 key 的字段名称
-      this.mapKey = getMapKey(method);
+      this.mapKey = getMapKey(method, this.returnsFuture ? this.returnType : method.getReturnType());
       this.returnsMap = this.mapKey != null;
+      this.returnsPrimitiveArray = long[].class.equals(this.returnType) || int[].class.equals(this.returnType);
+      // LongKeyedMap 的 @MapKey 指定的是作为 key 的列名
+      this.returnsLongKeyedMap = LongKeyedMap.class.equals(this.returnType);
+      if (this.returnsLongKeyedMap && this.mapKey == null) {
+        throw new BindingException("Mapper method '" + method.getName()
+            + "' returns a LongKeyedMap and must name its key column with @MapKey.");
+      }
       // 解析方法中 RowBounds 类型参数以及 ResultHandler 类型参数的下标索引位置，
       // 初始化 rowBoundsIndex 和 resultHandlerIndex 字段
       this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
@@ -333,6 +464,10 @@ public class MapperMethod {
       // 创建 ParamNameResolver 工具对象，在创建 ParamNameResolver 对象的时候，
       // 会解析方法的参数列表信息
       this.paramNameResolver = new ParamNameResolver(configuration, method);
+      if (this.returnsFuture && (this.returnsCursor || this.returnsStream)) {
+        throw new BindingException("Mapper method '" + method.getName() + "' cannot return a "
+            + this.returnType.getSimpleName() + " asynchronously because it is closed with the session of the call.");
+      }
     }
 
     public Object convertArgsToSqlCommandParam(Object[] args) {
@@ -367,6 +502,26 @@ public class MapperMethod {
       return returnsMap;
     }
 
+    /**
+     * return whether return type is {@code long[]} or {@code int[]}.
+     *
+     * @return return {@code true}, if return type is a primitive array read without boxing
+     * @since 3.5.12
+     */
+    public boolean returnsPrimitiveArray() {
+      return returnsPrimitiveArray;
+    }
+
+    /**
+     * return whether return type is {@link LongKeyedMap}.
+     *
+     * @return return {@code true}, if return type is {@link LongKeyedMap}
+     * @since 3.5.12
+     */
+    public boolean returnsLongKeyedMap() {
+      return returnsLongKeyedMap;
+    }
+
     public boolean returnsVoid() {
       return returnsVoid;
     }
@@ -375,6 +530,17 @@ public class MapperMethod {
       return returnsCursor;
     }
 
+    /**
+     * return whether return type is {@code java.util.stream.Stream}, {@code IntStream}, {@code LongStream} or
+     * {@code DoubleStream}.
+     *
+     * @return return {@code true}, if return type is a stream backed by a cursor
+     * @since 3.5.12
+     */
+    public boolean returnsStream() {
+      return returnsStream;
+    }
+
     /**
      * return whether return type is {@code java.util.Optional}.
      *
@@ -385,6 +551,16 @@ public class MapperMethod {
       return returnsOptional;
     }
 
+    /**
+     * return whether return type is {@code java.util.concurrent.CompletableFuture}.
+     *
+     * @return return {@code true}, if return type is {@code java.util.concurrent.CompletableFuture}
+     * @since 3.5.12
+     */
+    public boolean returnsFuture() {
+      return returnsFuture;
+    }
+
     private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
       Integer index = null;
       final Class<?>[] argTypes = method.getParameterTypes();
@@ -404,9 +580,9 @@ public class MapperMethod {
       return mapKey;
     }
 
-    private String getMapKey(Method method) {
+    private String getMapKey(Method method, Class<?> returnType) {
       String mapKey = null;
-      if (Map.class.isAssignableFrom(method.getReturnType())) {
+      if (Map.class.isAssignableFrom(returnType)) {
         final MapKey mapKeyAnnotation = method.getAnnotation(MapKey.class);
         if (mapKeyAnnotation != null) {
           mapKey = mapKeyAnnotation.value();
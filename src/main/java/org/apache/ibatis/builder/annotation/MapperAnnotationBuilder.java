@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -27,13 +27,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import org.apache.ibatis.annotations.Arg;
@@ -89,6 +92,7 @@ import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.UnknownTypeHandler;
+import org.apache.ibatis.util.LongKeyedMap;
 
 /**
  * @author Clinton Begin
@@ -135,7 +139,7 @@ public class MapperAnnotationBuilder {
         }
       }
     }
-    parsePendingMethods();
+    configuration.parsePendingMethods(false);
   }
 
   private boolean canHaveStatement(Method method) {
@@ -143,21 +147,6 @@ public class MapperAnnotationBuilder {
     return !method.isBridge() && !method.isDefault();
   }
 
-  private void parsePendingMethods() {
-    Collection<MethodResolver> incompleteMethods = configuration.getIncompleteMethods();
-    synchronized (incompleteMethods) {
-      Iterator<MethodResolver> iter = incompleteMethods.iterator();
-      while (iter.hasNext()) {
-        try {
-          iter.next().resolve();
-          iter.remove();
-        } catch (IncompleteElementException e) {
-          // This method is still missing a resource
-        }
-      }
-    }
-  }
-
   private void loadXmlResource() {
     // Spring may not know the real resource name so we check a flag
     // to prevent loading again a resource twice
@@ -312,6 +301,13 @@ public class MapperAnnotationBuilder {
         if (selectKey != null) {
           keyGenerator = handleSelectKeyAnnotation(selectKey, mappedStatementId, getParameterType(method), languageDriver);
           keyProperty = selectKey.keyProperty();
+        } else if (configuration.hasKeyGenerator(mappedStatementId + SelectKeyGenerator.SELECT_KEY_SUFFIX)) {
+          // 与 XML 映射一致，使用预先注册的 KeyGenerator（例如 SequenceKeyGenerator）
+          keyGenerator = configuration.getKeyGenerator(mappedStatementId + SelectKeyGenerator.SELECT_KEY_SUFFIX);
+          if (options != null) {
+            keyProperty = options.keyProperty();
+            keyColumn = options.keyColumn();
+          }
         } else if (options == null) {
           keyGenerator = configuration.isUseGeneratedKeys() ? Jdbc3KeyGenerator.INSTANCE : NoKeyGenerator.INSTANCE;
         } else {
@@ -379,7 +375,8 @@ public class MapperAnnotationBuilder {
           languageDriver,
           // ResultSets
           options != null ? nullOrEmpty(options.resultSets()) : null,
-          statementAnnotation.isDirtySelect());
+          statementAnnotation.isDirtySelect(),
+          options != null && options.maxReplicaLag() > -1 ? options.maxReplicaLag() : null);
     });
   }
 
@@ -411,10 +408,28 @@ public class MapperAnnotationBuilder {
   private Class<?> getReturnType(Method method) {
     Class<?> returnType = method.getReturnType();
     Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, type);
+    if (CompletableFuture.class.equals(returnType)) {
+      // 异步方法根据 CompletableFuture 的类型参数确定结果类型
+      resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+          ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+      returnType = Object.class;
+      if (Void.class.equals(resolvedReturnType)) {
+        resolvedReturnType = void.class;
+      } else if (resolvedReturnType instanceof ParameterizedType) {
+        returnType = (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType();
+      }
+    }
     if (resolvedReturnType instanceof Class) {
       returnType = (Class<?>) resolvedReturnType;
       if (returnType.isArray()) {
         returnType = returnType.getComponentType();
+      } else if (IntStream.class.equals(returnType)) {
+        // 基本类型的 Stream 由单列的数值结果组成
+        returnType = Integer.class;
+      } else if (LongStream.class.equals(returnType)) {
+        returnType = Long.class;
+      } else if (DoubleStream.class.equals(returnType)) {
+        returnType = Double.class;
       }
       // gcode issue #508
       if (void.class.equals(returnType)) {
@@ -426,7 +441,8 @@ public class MapperAnnotationBuilder {
     } else if (resolvedReturnType instanceof ParameterizedType) {
       ParameterizedType parameterizedType = (ParameterizedType) resolvedReturnType;
       Class<?> rawType = (Class<?>) parameterizedType.getRawType();
-      if (Collection.class.isAssignableFrom(rawType) || Cursor.class.isAssignableFrom(rawType)) {
+      if (Collection.class.isAssignableFrom(rawType) || Cursor.class.isAssignableFrom(rawType)
+          || Stream.class.equals(rawType) || LongKeyedMap.class.equals(rawType)) {
         Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
         if (actualTypeArguments != null && actualTypeArguments.length == 1) {
           Type returnTypeParameter = actualTypeArguments[0];
@@ -605,7 +621,7 @@ public class MapperAnnotationBuilder {
 
     assistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType, fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass, resultSetTypeEnum,
         flushCache, useCache, false,
-        keyGenerator, keyProperty, keyColumn, databaseId, languageDriver, null, false);
+        keyGenerator, keyProperty, keyColumn, databaseId, languageDriver, null, false, 0L);
 
     id = assistant.applyCurrentNamespace(id, false);
 
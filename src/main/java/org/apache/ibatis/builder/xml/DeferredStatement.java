@@ -0,0 +1,203 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.session.Configuration;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * A statement of a mapper XML file that is compiled into a {@link org.apache.ibatis.mapping.MappedStatement} on its
+ * first use, when lazy statement compilation is enabled.
+ * <p>
+ * The references of the statement (result maps, parameter maps, types and included SQL fragments) are recorded when it
+ * is registered, so that they can be checked by {@link #validate()} without compiling the statement.
+ *
+ * @since 3.5.12
+ * @see Configuration#isLazyStatementCompilationEnabled()
+ */
+public class DeferredStatement {
+
+  private final Configuration configuration;
+  private final XMLStatementBuilder statementBuilder;
+  private final String id;
+  private final String localId;
+  private final String databaseId;
+  private final String resource;
+  private final List<String> aliases = new ArrayList<>();
+  private final List<String> resultMapIds = new ArrayList<>();
+  private final String parameterMapId;
+  private final List<String> types = new ArrayList<>();
+  private final List<String> sqlFragmentIds = new ArrayList<>();
+  private volatile boolean compiled;
+  private boolean compiling;
+
+  DeferredStatement(Configuration configuration, XMLStatementBuilder statementBuilder,
+      MapperBuilderAssistant builderAssistant, XNode context, String localId, String databaseId) {
+    this.configuration = configuration;
+    this.statementBuilder = statementBuilder;
+    this.id = builderAssistant.applyCurrentNamespace(localId, false);
+    this.localId = localId;
+    this.databaseId = databaseId;
+    this.resource = builderAssistant.getResource();
+    String resultMap = context.getStringAttribute("resultMap");
+    if (resultMap != null) {
+      for (String resultMapId : resultMap.split(",")) {
+        resultMapIds.add(builderAssistant.applyCurrentNamespace(resultMapId.trim(), true));
+      }
+    }
+    this.parameterMapId = builderAssistant.applyCurrentNamespace(context.getStringAttribute("parameterMap"), true);
+    addType(context.getStringAttribute("parameterType"));
+    addType(context.getStringAttribute("resultType"));
+    addType(context.getStringAttribute("lang"));
+    Element element = (Element) context.getNode();
+    NodeList includes = element.getElementsByTagName("include");
+    for (int i = 0; i < includes.getLength(); i++) {
+      String refid = ((Element) includes.item(i)).getAttribute("refid");
+      // 引用中含有占位符时，只有在编译时才能确定具体的 SQL 片段
+      if (!refid.contains("${")) {
+        sqlFragmentIds.add(builderAssistant.applyCurrentNamespace(refid, true));
+      }
+    }
+    if (element.getElementsByTagName("selectKey").getLength() > 0) {
+      // <selectKey> 对应的 MappedStatement 在编译外层语句时一并创建
+      aliases.add(id + SelectKeyGenerator.SELECT_KEY_SUFFIX);
+    }
+  }
+
+  private void addType(String type) {
+    if (type != null && !type.startsWith("[")) {
+      types.add(type);
+    }
+  }
+
+  /**
+   * Gets the full id of the statement.
+   *
+   * @return the id, including the namespace
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the other statement ids created when this statement is compiled, such as the id of its
+   * <code>&lt;selectKey&gt;</code> statement.
+   *
+   * @return the other ids
+   */
+  public List<String> getAliases() {
+    return Collections.unmodifiableList(aliases);
+  }
+
+  public String getDatabaseId() {
+    return databaseId;
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public boolean isCompiled() {
+    return compiled;
+  }
+
+  /**
+   * Returns whether this statement is being compiled by the current call, in which case adding its mapped statement is
+   * not a duplicate.
+   *
+   * @return true while the statement is being compiled
+   */
+  public boolean isCompiling() {
+    return compiling;
+  }
+
+  /**
+   * Compiles the statement and adds it to the configuration. The caller must hold the lock that serializes the
+   * compilation of deferred statements, because compiling rewrites the DOM of the mapper file.
+   */
+  public void compile() {
+    if (compiled || compiling) {
+      return;
+    }
+    compiling = true;
+    try {
+      statementBuilder.buildStatementNode(localId, databaseId);
+      compiled = true;
+    } catch (RuntimeException e) {
+      throw new BuilderException("Error compiling the statement '" + id + "' of '" + resource + "'. Cause: " + e, e);
+    } finally {
+      compiling = false;
+    }
+  }
+
+  /**
+   * Checks the references of the statement without compiling it.
+   *
+   * @return the problems found, or an empty list
+   */
+  public List<String> validate() {
+    List<String> problems = new ArrayList<>();
+    for (String resultMapId : resultMapIds) {
+      if (!configuration.hasResultMap(resultMapId)) {
+        problems.add(describe("result map", resultMapId));
+      }
+    }
+    if (parameterMapId != null && !configuration.hasParameterMap(parameterMapId)) {
+      problems.add(describe("parameter map", parameterMapId));
+    }
+    for (String type : types) {
+      if (!isResolvable(type)) {
+        problems.add(describe("type", type));
+      }
+    }
+    for (String sqlFragmentId : sqlFragmentIds) {
+      if (!configuration.getSqlFragments().containsKey(sqlFragmentId)) {
+        problems.add(describe("SQL fragment", sqlFragmentId));
+      }
+    }
+    return problems;
+  }
+
+  private boolean isResolvable(String type) {
+    if (configuration.getTypeAliasRegistry().getTypeAliases().containsKey(type.toLowerCase(Locale.ENGLISH))) {
+      return true;
+    }
+    // 只查找类文件而不加载类，以免校验本身就占用了 metaspace
+    try {
+      Resources.getResourceURL(type.replace('.', '/') + ".class");
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private String describe(String kind, String reference) {
+    return "The statement '" + id + "' of '" + resource + "' references an unknown " + kind + " '" + reference + "'.";
+  }
+
+}
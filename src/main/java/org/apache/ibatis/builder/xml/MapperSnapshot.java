@@ -0,0 +1,333 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.parsing.XPathParser;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * A binary snapshot of parsed and validated mapper XML documents.
+ * <p>
+ * Each document is stored with the CRC-32 checksum and the length of the resource it was parsed from. When a mapper
+ * resource is loaded and its content still matches, the document is rebuilt from the snapshot, skipping XML parsing
+ * and DTD validation; otherwise the resource is parsed as usual and the snapshot is updated. A snapshot is typically
+ * recorded at build time by building the configuration once with an empty snapshot and writing it:
+ *
+ * <pre>
+ * configuration.setMapperSnapshot(new MapperSnapshot());
+ * // ... load the mappers ...
+ * configuration.getMapperSnapshot().write(outputStream);
+ * </pre>
+ *
+ * At runtime it is loaded with the <code>mapperSnapshot</code> setting, which names a classpath resource. Properties
+ * are substituted when the documents are used, so a snapshot does not depend on the configuration variables.
+ *
+ * @since 3.5.12
+ */
+public class MapperSnapshot {
+
+  private static final int MAGIC = 0x4D425353;
+  private static final int FORMAT_VERSION = 1;
+
+  private static final byte ELEMENT = 1;
+  private static final byte TEXT = 2;
+  private static final byte CDATA = 3;
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicInteger reusedDocuments = new AtomicInteger();
+  private final AtomicInteger parsedDocuments = new AtomicInteger();
+
+  /**
+   * Reads a snapshot written by {@link #write(OutputStream)}.
+   *
+   * @param inputStream
+   *          the input stream, which is not closed
+   * @return the snapshot
+   * @throws IOException
+   *           if the stream cannot be read or is not a snapshot of this format
+   */
+  public static MapperSnapshot read(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a mapper snapshot.");
+    }
+    int version = in.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new IOException("Unsupported mapper snapshot format " + version + ".");
+    }
+    MapperSnapshot snapshot = new MapperSnapshot();
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      String resource = in.readUTF();
+      long checksum = in.readLong();
+      int length = in.readInt();
+      byte[] document = new byte[in.readInt()];
+      in.readFully(document);
+      snapshot.entries.put(resource, new Entry(checksum, length, document));
+    }
+    return snapshot;
+  }
+
+  /**
+   * Writes the documents of this snapshot.
+   *
+   * @param outputStream
+   *          the output stream, which is flushed but not closed
+   * @throws IOException
+   *           if the snapshot cannot be written
+   */
+  public void write(OutputStream outputStream) throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    // 按资源名排序，保证相同的映射文件生成相同的快照
+    Map<String, Entry> sorted = new TreeMap<>(entries);
+    out.writeInt(sorted.size());
+    for (Map.Entry<String, Entry> e : sorted.entrySet()) {
+      Entry entry = e.getValue();
+      out.writeUTF(e.getKey());
+      out.writeLong(entry.checksum);
+      out.writeInt(entry.length);
+      out.writeInt(entry.document.length);
+      out.write(entry.document);
+    }
+    out.flush();
+  }
+
+  /**
+   * Returns whether the snapshot holds a document for the resource.
+   *
+   * @param resource
+   *          the resource
+   * @return true if there is a document for the resource, whether or not it is still current
+   */
+  public boolean contains(String resource) {
+    return entries.containsKey(resource);
+  }
+
+  /**
+   * Returns the number of documents that were taken from this snapshot.
+   *
+   * @return the number of reused documents
+   */
+  public int getReusedDocuments() {
+    return reusedDocuments.get();
+  }
+
+  /**
+   * Returns the number of documents that had to be parsed because they were missing or stale.
+   *
+   * @return the number of parsed documents
+   */
+  public int getParsedDocuments() {
+    return parsedDocuments.get();
+  }
+
+  /**
+   * Creates the parser of a mapper resource, taking its document from the snapshot when the resource is unchanged.
+   *
+   * @param resource
+   *          the resource name the document is stored under
+   * @param inputStream
+   *          the content of the resource, which is read fully but not closed
+   * @param variables
+   *          the configuration variables
+   * @return the parser
+   */
+  public XPathParser newParser(String resource, InputStream inputStream, Properties variables) {
+    byte[] content;
+    try {
+      content = readFully(inputStream);
+    } catch (IOException e) {
+      throw new BuilderException("Error reading mapper resource " + resource + ". Cause: " + e, e);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(content, 0, content.length);
+    long checksum = crc.getValue();
+    Entry entry = entries.get(resource);
+    if (entry != null && entry.checksum == checksum && entry.length == content.length) {
+      // 映射文件没有变化，直接由快照重建 DOM，不再进行 XML 解析和 DTD 校验
+      reusedDocuments.incrementAndGet();
+      return new XPathParser(decode(entry.document), true, variables, new XMLMapperEntityResolver());
+    }
+    // 快照中没有该文件或者已经过期，正常解析并更新快照
+    parsedDocuments.incrementAndGet();
+    XPathParser parser = new XPathParser(new ByteArrayInputStream(content), true, variables,
+        new XMLMapperEntityResolver());
+    Document document = parser.evalNode("/*").getNode().getOwnerDocument();
+    entries.put(resource, new Entry(checksum, content.length, encode(document)));
+    return parser;
+  }
+
+  private static byte[] readFully(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int n;
+    while ((n = inputStream.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] encode(Document document) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      writeNode(out, document.getDocumentElement(), new HashMap<>());
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new BuilderException("Error encoding mapper document. Cause: " + e, e);
+    }
+  }
+
+  private static void writeNode(DataOutputStream out, Node node, Map<String, Integer> strings) throws IOException {
+    switch (node.getNodeType()) {
+      case Node.ELEMENT_NODE:
+        out.writeByte(ELEMENT);
+        writeString(out, node.getNodeName(), strings);
+        NamedNodeMap attributes = node.getAttributes();
+        out.writeInt(attributes.getLength());
+        for (int i = 0; i < attributes.getLength(); i++) {
+          Node attribute = attributes.item(i);
+          writeString(out, attribute.getNodeName(), strings);
+          writeString(out, attribute.getNodeValue(), strings);
+        }
+        List<Node> children = new ArrayList<>();
+        NodeList childNodes = node.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+          short type = childNodes.item(i).getNodeType();
+          if (type == Node.ELEMENT_NODE || type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE) {
+            children.add(childNodes.item(i));
+          }
+        }
+        out.writeInt(children.size());
+        for (Node child : children) {
+          writeNode(out, child, strings);
+        }
+        break;
+      case Node.CDATA_SECTION_NODE:
+        out.writeByte(CDATA);
+        writeString(out, node.getNodeValue(), strings);
+        break;
+      default:
+        out.writeByte(TEXT);
+        writeString(out, node.getNodeValue(), strings);
+        break;
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value, Map<String, Integer> strings)
+      throws IOException {
+    // 元素名、属性名等重复出现的字符串只写一次，之后用序号引用
+    Integer index = strings.get(value);
+    if (index != null) {
+      out.writeInt(index);
+      return;
+    }
+    strings.put(value, strings.size());
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(-1);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static Document decode(byte[] encoded) {
+    try {
+      Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+      document.appendChild(readNode(in, document, new ArrayList<>()));
+      return document;
+    } catch (IOException | ParserConfigurationException e) {
+      throw new BuilderException("Error decoding mapper document. Cause: " + e, e);
+    }
+  }
+
+  private static Node readNode(DataInputStream in, Document document, List<String> strings) throws IOException {
+    byte type = in.readByte();
+    if (type == ELEMENT) {
+      Element element = document.createElement(readString(in, strings));
+      int attributes = in.readInt();
+      for (int i = 0; i < attributes; i++) {
+        element.setAttribute(readString(in, strings), readString(in, strings));
+      }
+      int children = in.readInt();
+      for (int i = 0; i < children; i++) {
+        element.appendChild(readNode(in, document, strings));
+      }
+      return element;
+    } else if (type == CDATA) {
+      return document.createCDATASection(readString(in, strings));
+    } else if (type == TEXT) {
+      return document.createTextNode(readString(in, strings));
+    }
+    throw new IOException("Unknown node type " + type + " in mapper snapshot.");
+  }
+
+  private static String readString(DataInputStream in, List<String> strings) throws IOException {
+    int index = in.readInt();
+    if (index >= 0) {
+      return strings.get(index);
+    }
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    String value = new String(bytes, StandardCharsets.UTF_8);
+    strings.add(value);
+    return value;
+  }
+
+  private static class Entry {
+    private final long checksum;
+    private final int length;
+    private final byte[] document;
+
+    Entry(long checksum, int length, byte[] document) {
+      this.checksum = checksum;
+      this.length = length;
+      this.document = document;
+    }
+  }
+
+}
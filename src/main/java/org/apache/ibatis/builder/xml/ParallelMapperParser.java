@@ -0,0 +1,229 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.io.ResolverUtil;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Loads a set of mappers, parsing their XML documents in parallel.
+ * <p>
+ * Parsing (and validating) the mapper XML files is the costly part of loading mappers and does not touch the
+ * {@link Configuration}, so all documents are parsed concurrently on the common fork/join pool first. The parsed
+ * documents are then applied to the configuration one by one in the order the mappers were added, exactly as
+ * {@link XMLConfigBuilder} does without parallel parsing, so references between mappers (result map
+ * <code>extends</code>, <code>cache-ref</code>, <code>include</code>) are resolved in the same deterministic order.
+ * For mapper interfaces, the XML file next to the interface is parsed in parallel as well.
+ *
+ * @since 3.5.12
+ */
+public class ParallelMapperParser {
+
+  private final Configuration configuration;
+  private final List<MapperSource> sources = new ArrayList<>();
+
+  public ParallelMapperParser(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  /**
+   * Adds a mapper XML file on the classpath.
+   *
+   * @param resource
+   *          the resource path
+   */
+  public void addResource(String resource) {
+    sources.add(new MapperSource(resource, null, null));
+  }
+
+  /**
+   * Adds a mapper XML file at a URL.
+   *
+   * @param url
+   *          the URL
+   */
+  public void addUrl(String url) {
+    sources.add(new MapperSource(null, url, null));
+  }
+
+  /**
+   * Adds a mapper interface, together with the XML file next to it if there is one.
+   *
+   * @param type
+   *          the mapper interface
+   */
+  public void addMapper(Class<?> type) {
+    sources.add(new MapperSource(null, null, type));
+  }
+
+  /**
+   * Adds the mapper interfaces of a package, sorted by name so that they are always loaded in the same order.
+   *
+   * @param packageName
+   *          the package name
+   * @param superType
+   *          the super type the interfaces must be assignable to
+   */
+  public void addMappers(String packageName, Class<?> superType) {
+    ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
+    resolverUtil.find(new ResolverUtil.IsA(superType), packageName);
+    List<Class<?>> mapperClasses = new ArrayList<>(resolverUtil.getClasses());
+    mapperClasses.sort(Comparator.comparing(Class::getName));
+    mapperClasses.forEach(this::addMapper);
+  }
+
+  /**
+   * Parses all the added mappers and registers them in the configuration.
+   */
+  public void parse() {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    // 由调用线程的类加载器加载映射文件，避免公共线程池中的线程找不到应用的资源
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    List<Future<XPathParser>> documents = new ArrayList<>(sources.size());
+    // 第一阶段：并行解析全部映射文件，这一阶段不会修改 Configuration
+    for (MapperSource source : sources) {
+      documents.add(CompletableFuture.supplyAsync(withContextClassLoader(classLoader, source::createParser), pool));
+    }
+    try {
+      // 第二阶段：按照添加的顺序逐个应用到 Configuration 中，保证引用的解析顺序与串行解析时一致
+      for (int i = 0; i < sources.size(); i++) {
+        sources.get(i).apply(documents.get(i));
+      }
+    } finally {
+      documents.forEach(document -> document.cancel(false));
+    }
+  }
+
+  private static <T> Supplier<T> withContextClassLoader(ClassLoader classLoader, Callable<T> task) {
+    return () -> {
+      Thread thread = Thread.currentThread();
+      ClassLoader original = thread.getContextClassLoader();
+      thread.setContextClassLoader(classLoader);
+      try {
+        return task.call();
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new CompletionException(e);
+      } finally {
+        thread.setContextClassLoader(original);
+      }
+    };
+  }
+
+  private XPathParser newParser(InputStream inputStream, String resource) throws IOException {
+    try (InputStream in = inputStream) {
+      return XMLMapperBuilder.newParser(in, configuration, resource);
+    }
+  }
+
+  private class MapperSource {
+    private final String resource;
+    private final String url;
+    private final Class<?> type;
+
+    MapperSource(String resource, String url, Class<?> type) {
+      this.resource = resource;
+      this.url = url;
+      this.type = type;
+    }
+
+    private String getXmlResource() {
+      return type.getName().replace('.', '/') + ".xml";
+    }
+
+    XPathParser createParser() throws IOException {
+      if (resource != null) {
+        return newParser(Resources.getResourceAsStream(resource), resource);
+      } else if (url != null) {
+        return newParser(Resources.getUrlAsStream(url), url);
+      } else if (!type.isInterface()) {
+        return null;
+      }
+      // 与 MapperAnnotationBuilder#loadXmlResource 查找映射文件的方式一致
+      InputStream inputStream = type.getResourceAsStream("/" + getXmlResource());
+      if (inputStream == null) {
+        try {
+          inputStream = Resources.getResourceAsStream(type.getClassLoader(), getXmlResource());
+        } catch (IOException e) {
+          // ignore, resource is not required
+        }
+      }
+      return inputStream == null ? null : newParser(inputStream, getXmlResource());
+    }
+
+    void apply(Future<XPathParser> document) {
+      if (type == null) {
+        String location = resource != null ? resource : url;
+        ErrorContext.instance().resource(location);
+        new XMLMapperBuilder(await(document), configuration, location, configuration.getSqlFragments(), null).parse();
+        return;
+      }
+      XPathParser parser = await(document);
+      boolean bound = false;
+      if (parser != null && !configuration.hasMapper(type)
+          && !configuration.isResourceLoaded("namespace:" + type.getName())) {
+        // 先应用接口对应的映射文件，它会在绑定命名空间时注册该接口并解析注解
+        new XMLMapperBuilder(parser, configuration, getXmlResource(), configuration.getSqlFragments(), type.getName())
+            .parse();
+        bound = configuration.hasMapper(type);
+      }
+      if (!bound) {
+        configuration.addMapper(type);
+      }
+    }
+
+    private XPathParser await(Future<XPathParser> document) {
+      try {
+        return document.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new BuilderException("Interrupted while parsing mapper " + this + ".", e);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new BuilderException("Error parsing mapper " + this + ". Cause: " + cause, cause);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return resource != null ? resource : url != null ? url : type.getName();
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.Properties;
@@ -25,12 +26,15 @@ import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.dialect.Dialect;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.jdbc.SqlLogHandler;
 import org.apache.ibatis.mapping.DatabaseIdProvider;
 import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.metrics.StatementMetricsCollector;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.plugin.Interceptor;
@@ -44,6 +48,7 @@ import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.tracing.Tracer;
 import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.type.JdbcType;
 
@@ -105,6 +110,10 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
     parsed = true;
     parseConfiguration(parser.evalNode("/configuration"));
+    if (configuration.isLazyStatementCompilationEnabled()) {
+      // 延迟编译的语句在后台校验其引用，不影响启动
+      configuration.validateDeferredStatementsAsync();
+    }
     return configuration;
   }
 
@@ -282,8 +291,24 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setProxyFactory((ProxyFactory) createInstance(props.getProperty("proxyFactory")));
     configuration.setLazyLoadingEnabled(booleanValueOf(props.getProperty("lazyLoadingEnabled"), false));
     configuration.setAggressiveLazyLoading(booleanValueOf(props.getProperty("aggressiveLazyLoading"), false));
+    configuration.setNestedQueryBatchSize(integerValueOf(props.getProperty("nestedQueryBatchSize"), 100));
+    configuration.setRowBoundsPushdownEnabled(booleanValueOf(props.getProperty("rowBoundsPushdownEnabled"), false));
+    configuration.setDialect((Dialect) createInstance(props.getProperty("dialect")));
+    configuration.setMultiStatementQueriesEnabled(booleanValueOf(props.getProperty("multiStatementQueriesEnabled"), false));
+    configuration.setMultiRowInsertSize(integerValueOf(props.getProperty("multiRowInsertSize"), 0));
+    configuration.setParallelMapperParsingEnabled(booleanValueOf(props.getProperty("parallelMapperParsingEnabled"), false));
+    configuration.setMapperSnapshot(mapperSnapshotOf(props.getProperty("mapperSnapshot")));
+    configuration.setStreamingMapperParsingEnabled(booleanValueOf(props.getProperty("streamingMapperParsingEnabled"), false));
+    configuration.setLazyStatementCompilationEnabled(booleanValueOf(props.getProperty("lazyStatementCompilationEnabled"), false));
+    configuration.setCompositePluginChainEnabled(booleanValueOf(props.getProperty("compositePluginChainEnabled"), false));
+    configuration.setStructuredSqlLoggingEnabled(booleanValueOf(props.getProperty("structuredSqlLoggingEnabled"), false));
+    configuration.setSqlLogSampleRate(doubleValueOf(props.getProperty("sqlLogSampleRate"), 1.0));
+    configuration.setSqlLogHandler((SqlLogHandler) createInstance(props.getProperty("sqlLogHandler")));
+    configuration.setStatementMetricsCollector((StatementMetricsCollector) createInstance(props.getProperty("statementMetricsCollector")));
+    configuration.setTracer((Tracer) createInstance(props.getProperty("tracer")));
     configuration.setMultipleResultSetsEnabled(booleanValueOf(props.getProperty("multipleResultSetsEnabled"), true));
     configuration.setUseColumnLabel(booleanValueOf(props.getProperty("useColumnLabel"), true));
+    configuration.setUseColumnIndex(booleanValueOf(props.getProperty("useColumnIndex"), false));
     configuration.setUseGeneratedKeys(booleanValueOf(props.getProperty("useGeneratedKeys"), false));
     configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
@@ -419,7 +444,10 @@ public class XMLConfigBuilder extends BaseBuilder {
   }
 
   private void mapperElement(XNode parent) throws Exception {
-    if (parent != null) {
+    if (parent != null && configuration.isParallelMapperParsingEnabled()) {
+      // 并行解析全部映射文件，再按照声明的顺序逐个注册
+      parallelMapperElement(parent);
+    } else if (parent != null) {
       for (XNode child : parent.getChildren()) {
         // 遍历每个子标签
         if ("package".equals(child.getName())) {
@@ -459,6 +487,41 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
   }
 
+  private MapperSnapshot mapperSnapshotOf(String resource) {
+    if (resource == null) {
+      return null;
+    }
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      return MapperSnapshot.read(inputStream);
+    } catch (IOException e) {
+      // 快照不存在或者格式不兼容时，正常解析全部映射文件，并记录一份新的快照
+      return new MapperSnapshot();
+    }
+  }
+
+  private void parallelMapperElement(XNode parent) throws Exception {
+    ParallelMapperParser mapperParser = new ParallelMapperParser(configuration);
+    for (XNode child : parent.getChildren()) {
+      if ("package".equals(child.getName())) {
+        mapperParser.addMappers(child.getStringAttribute("name"), Object.class);
+      } else {
+        String resource = child.getStringAttribute("resource");
+        String url = child.getStringAttribute("url");
+        String mapperClass = child.getStringAttribute("class");
+        if (resource != null && url == null && mapperClass == null) {
+          mapperParser.addResource(resource);
+        } else if (resource == null && url != null && mapperClass == null) {
+          mapperParser.addUrl(url);
+        } else if (resource == null && url == null && mapperClass != null) {
+          mapperParser.addMapper(Resources.classForName(mapperClass));
+        } else {
+          throw new BuilderException("A mapper element may only specify a url, resource or class, but not more than one.");
+        }
+      }
+    }
+    mapperParser.parse();
+  }
+
   private boolean isSpecifiedEnvironment(String id) {
     if (environment == null) {
       throw new BuilderException("No environment specified.");
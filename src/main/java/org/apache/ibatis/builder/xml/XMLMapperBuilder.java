@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,10 +19,8 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -42,12 +40,15 @@ import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultFlag;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.parsing.StreamingDocumentBuilder;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 
 /**
  * @author Clinton Begin
@@ -78,8 +79,14 @@ public class XMLMapperBuilder extends BaseBuilder {
   }
 
   public XMLMapperBuilder(InputStream inputStream, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
-    this(new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver()),
-        configuration, resource, sqlFragments);
+    this(newParser(inputStream, configuration, resource), configuration, resource, sqlFragments);
+  }
+
+  XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments, String namespace) {
+    this(parser, configuration, resource, sqlFragments);
+    if (namespace != null) {
+      this.builderAssistant.setCurrentNamespace(namespace);
+    }
   }
 
   private XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
@@ -90,6 +97,21 @@ public class XMLMapperBuilder extends BaseBuilder {
     this.resource = resource;
   }
 
+  static XPathParser newParser(InputStream inputStream, Configuration configuration, String resource) {
+    MapperSnapshot snapshot = configuration.getMapperSnapshot();
+    if (snapshot != null) {
+      // 映射文件没有变化时，直接使用快照中已经解析好的文档
+      return snapshot.newParser(resource, inputStream, configuration.getVariables());
+    }
+    if (configuration.isStreamingMapperParsingEnabled()) {
+      // 由 SAX 事件直接构建 DOM，省去 DocumentBuilder 的延迟节点表
+      XMLMapperEntityResolver entityResolver = new XMLMapperEntityResolver();
+      Document document = new StreamingDocumentBuilder(true, entityResolver).parse(new InputSource(inputStream));
+      return new XPathParser(document, true, configuration.getVariables(), entityResolver);
+    }
+    return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+  }
+
   public void parse() {
     if (!configuration.isResourceLoaded(resource)) {
       // 解析整个 Mapper.xml 映射文件的内容
@@ -100,11 +122,11 @@ public class XMLMapperBuilder extends BaseBuilder {
       bindMapperForNamespace();
     }
     // 处理解析失败的 <resultMap> 标签
-    parsePendingResultMaps();
+    configuration.parsePendingResultMaps(false);
     // 处理解析失败的 <cache-ref> 标签
-    parsePendingCacheRefs();
+    configuration.parsePendingCacheRefs(false);
     // 处理解析失败的 SQL 语句标签
-    parsePendingStatements();
+    configuration.parsePendingStatements(false);
   }
 
   public XNode getSqlFragment(String refid) {
@@ -147,58 +169,18 @@ public class XMLMapperBuilder extends BaseBuilder {
     for (XNode context : list) {
       final XMLStatementBuilder statementParser = new XMLStatementBuilder(configuration, builderAssistant, context, requiredDatabaseId);
       try {
-        statementParser.parseStatementNode();
+        if (configuration.isLazyStatementCompilationEnabled()) {
+          // 延迟到第一次使用时再编译该语句
+          statementParser.deferStatementNode();
+        } else {
+          statementParser.parseStatementNode();
+        }
       } catch (IncompleteElementException e) {
         configuration.addIncompleteStatement(statementParser);
       }
     }
   }
 
-  private void parsePendingResultMaps() {
-    Collection<ResultMapResolver> incompleteResultMaps = configuration.getIncompleteResultMaps();
-    synchronized (incompleteResultMaps) {
-      Iterator<ResultMapResolver> iter = incompleteResultMaps.iterator();
-      while (iter.hasNext()) {
-        try {
-          iter.next().resolve();
-          iter.remove();
-        } catch (IncompleteElementException e) {
-          // ResultMap is still missing a resource...
-        }
-      }
-    }
-  }
-
-  private void parsePendingCacheRefs() {
-    Collection<CacheRefResolver> incompleteCacheRefs = configuration.getIncompleteCacheRefs();
-    synchronized (incompleteCacheRefs) {
-      Iterator<CacheRefResolver> iter = incompleteCacheRefs.iterator();
-      while (iter.hasNext()) {
-        try {
-          iter.next().resolveCacheRef();
-          iter.remove();
-        } catch (IncompleteElementException e) {
-          // Cache ref is still missing a resource...
-        }
-      }
-    }
-  }
-
-  private void parsePendingStatements() {
-    Collection<XMLStatementBuilder> incompleteStatements = configuration.getIncompleteStatements();
-    synchronized (incompleteStatements) {
-      Iterator<XMLStatementBuilder> iter = incompleteStatements.iterator();
-      while (iter.hasNext()) {
-        try {
-          iter.next().parseStatementNode();
-          iter.remove();
-        } catch (IncompleteElementException e) {
-          // Statement is still missing a resource...
-        }
-      }
-    }
-  }
-
   private void cacheRefElement(XNode context) {
     if (context != null) {
       configuration.addCacheRef(builderAssistant.getCurrentNamespace(), context.getStringAttribute("namespace"));
@@ -415,6 +397,9 @@ public class XMLMapperBuilder extends BaseBuilder {
     String javaType = context.getStringAttribute("javaType");
     String jdbcType = context.getStringAttribute("jdbcType");
     String nestedSelect = context.getStringAttribute("select");
+    // batchSelect 用于批量加载：把多行外层记录的 column 值收集起来，通过一条 IN (...) 查询一次性加载
+    String nestedBatchSelect = context.getStringAttribute("batchSelect");
+    String batchKey = context.getStringAttribute("batchKey");
     String nestedResultMap = context.getStringAttribute("resultMap", () ->
         processNestedResultMappings(context, Collections.emptyList(), resultType));
     String notNullColumn = context.getStringAttribute("notNullColumn");
@@ -428,7 +413,7 @@ public class XMLMapperBuilder extends BaseBuilder {
     JdbcType jdbcTypeEnum = resolveJdbcType(jdbcType);
     // 根据上面解析到的信息，调用 MapperBuilderAssistant.buildResultMapping()
     //  方法创建 ResultMapping 对象。
-    return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy);
+    return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy, nestedBatchSelect, batchKey);
   }
 
   private String processNestedResultMappings(XNode context, List<ResultMapping> resultMappings, Class<?> enclosingType) {
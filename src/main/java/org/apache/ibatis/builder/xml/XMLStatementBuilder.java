@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -60,7 +60,27 @@ public class XMLStatementBuilder extends BaseBuilder {
     if (!databaseIdMatchesCurrent(id, databaseId, this.requiredDatabaseId)) {
       return;
     }
+    buildStatementNode(id, databaseId);
+  }
+
+  /**
+   * Registers the statement to be compiled on its first use instead of parsing it now.
+   *
+   * @since 3.5.12
+   * @see Configuration#isLazyStatementCompilationEnabled()
+   */
+  public void deferStatementNode() {
+    String id = context.getStringAttribute("id");
+    String databaseId = context.getStringAttribute("databaseId");
+
+    if (!databaseIdMatchesCurrent(id, databaseId, this.requiredDatabaseId)) {
+      return;
+    }
+    configuration.addDeferredStatement(
+        new DeferredStatement(configuration, this, builderAssistant, context, id, databaseId));
+  }
 
+  void buildStatementNode(String id, String databaseId) {
     String nodeName = context.getNode().getNodeName();
     SqlCommandType sqlCommandType = SqlCommandType.valueOf(nodeName.toUpperCase(Locale.ENGLISH));
     boolean isSelect = sqlCommandType == SqlCommandType.SELECT;
@@ -114,11 +134,13 @@ public class XMLStatementBuilder extends BaseBuilder {
     String keyColumn = context.getStringAttribute("keyColumn");
     String resultSets = context.getStringAttribute("resultSets");
     boolean dirtySelect = context.getBooleanAttribute("affectData", Boolean.FALSE);
+    // 查询允许的从库复制延迟（毫秒），读写分离时使用
+    Long maxReplicaLag = context.getLongAttribute("maxReplicaLag");
     // 根据上述属性信息创建 MappedStatement 对象，并添加到 Configuration.mappedStatements 集合中保存
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
         fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
         resultSetTypeEnum, flushCache, useCache, resultOrdered,
-        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, dirtySelect);
+        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, dirtySelect, maxReplicaLag);
   }
 
   private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
@@ -161,11 +183,11 @@ public class XMLStatementBuilder extends BaseBuilder {
     // 通过 LanguageDriver 解析 <selectKey> 标签中的 SQL 语句，得到对应的 SqlSource 对象
     SqlSource sqlSource = langDriver.createSqlSource(configuration, nodeToHandle, parameterTypeClass);
     SqlCommandType sqlCommandType = SqlCommandType.SELECT;
-    // 创建 MappedStatement 对象
+    // 创建 MappedStatement 对象，<selectKey> 与所属的写操作一起执行，始终使用主库
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
       fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
       resultSetTypeEnum, flushCache, useCache, resultOrdered,
-      keyGenerator, keyProperty, keyColumn, databaseId, langDriver, null, false);
+      keyGenerator, keyProperty, keyColumn, databaseId, langDriver, null, false, 0L);
     id = builderAssistant.applyCurrentNamespace(id, false);
     // 创建 <selectKey> 标签对应的 KeyGenerator 对象，
     // 这个 KeyGenerator 对象会添加到 Configuration.keyGenerators 集合中
@@ -190,6 +212,11 @@ public class XMLStatementBuilder extends BaseBuilder {
     if (!this.configuration.hasStatement(id, false)) {
       return true;
     }
+    // 尚未编译的语句直接比较其 databaseId，不会因此触发编译
+    DeferredStatement deferred = this.configuration.getDeferredStatement(id);
+    if (deferred != null) {
+      return deferred.getDatabaseId() == null;
+    }
     // skip this statement if there is a previous one with a not null databaseId
     MappedStatement previous = this.configuration.getMappedStatement(id, false); // issue #2
     return previous.getDatabaseId() == null;
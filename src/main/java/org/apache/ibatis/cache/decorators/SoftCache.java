@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.ibatis.cache.Cache;
 
@@ -39,6 +40,7 @@ public class SoftCache implements Cache {
   private final Deque<Object> hardLinksToAvoidGarbageCollection;
   // 指定了强连接的个数，默认值是 256，也就是最近访问的 256 个 Value 无法直接被 GC 回收。
   private int numberOfHardLinks;
+  private final ReentrantLock lock = new ReentrantLock();
 
   public SoftCache(Cache delegate) {
     this.delegate = delegate;
@@ -81,12 +83,15 @@ public class SoftCache implements Cache {
         delegate.removeObject(key);
       } else { // 未被 GC 回收
         // 将 Value 添加到 hardLinksToAvoidGarbageCollection 集合中，防止被 GC 回收
-        synchronized (hardLinksToAvoidGarbageCollection) {
+        lock.lock();
+        try {
           hardLinksToAvoidGarbageCollection.addFirst(result);
           // 检查 hardLinksToAvoidGarbageCollection 长度，超过上限，则清理最早添加的 Value
           if (hardLinksToAvoidGarbageCollection.size() > numberOfHardLinks) {
             hardLinksToAvoidGarbageCollection.removeLast();
           }
+        } finally {
+          lock.unlock();
         }
       }
     }
@@ -103,8 +108,11 @@ public class SoftCache implements Cache {
 
   @Override
   public void clear() {
-    synchronized (hardLinksToAvoidGarbageCollection) {
+    lock.lock();
+    try {
       hardLinksToAvoidGarbageCollection.clear();
+    } finally {
+      lock.unlock();
     }
     removeGarbageCollectedItems();
     delegate.clear();
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,6 +16,13 @@
 package org.apache.ibatis.cursor;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.ibatis.cursor.defaults.CursorSpliterator;
 
 /**
  * Cursor contract to handle fetching items lazily using an Iterator.
@@ -44,4 +51,36 @@ public interface Cursor<T> extends Closeable, Iterable<T> {
    * @return -1 if the first cursor item has not been retrieved. The index of the current item retrieved.
    */
   int getCurrentIndex();
+
+  /**
+   * Returns a spliterator over the items of this cursor. Items are reported in the order of the result set; they are
+   * not reported as non null because a row whose columns are all null is mapped to <code>null</code> unless
+   * <code>returnInstanceForEmptyRow</code> is enabled. A parallel stream splits off at most
+   * {@value org.apache.ibatis.cursor.defaults.CursorSpliterator#DEFAULT_MAX_BATCHES} batches of
+   * {@value org.apache.ibatis.cursor.defaults.CursorSpliterator#DEFAULT_BATCH_SIZE} items; the remaining items are
+   * processed by the thread that reads the cursor.
+   *
+   * @return the spliterator
+   * @since 3.5.12
+   */
+  @Override
+  default Spliterator<T> spliterator() {
+    return new CursorSpliterator<>(iterator());
+  }
+
+  /**
+   * Returns a sequential stream over the items of this cursor. Closing the stream closes this cursor.
+   *
+   * @return the stream
+   * @since 3.5.12
+   */
+  default Stream<T> stream() {
+    return StreamSupport.stream(spliterator(), false).onClose(() -> {
+      try {
+        close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
 }
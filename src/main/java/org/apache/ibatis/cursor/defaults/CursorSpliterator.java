@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the items of a cursor that splits off fixed-size batches for a parallel stream. At most
+ * <code>maxBatches</code> batches are split off; the remaining items are then processed by the thread that reads the
+ * cursor, so that a parallel stream never buffers more than <code>batchSize * maxBatches</code> items of the result
+ * set.
+ *
+ * @since 3.5.12
+ */
+public class CursorSpliterator<T> implements Spliterator<T> {
+
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+  public static final int DEFAULT_MAX_BATCHES = 16;
+
+  private final Iterator<T> iterator;
+  private final int batchSize;
+  private int remainingBatches;
+
+  public CursorSpliterator(Iterator<T> iterator) {
+    this(iterator, DEFAULT_BATCH_SIZE);
+  }
+
+  public CursorSpliterator(Iterator<T> iterator, int batchSize) {
+    this(iterator, batchSize, DEFAULT_MAX_BATCHES);
+  }
+
+  public CursorSpliterator(Iterator<T> iterator, int batchSize, int maxBatches) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be positive but was " + batchSize + ".");
+    }
+    if (maxBatches < 0) {
+      throw new IllegalArgumentException("The maximum number of batches must not be negative but was " + maxBatches
+          + ".");
+    }
+    this.iterator = iterator;
+    this.batchSize = batchSize;
+    this.remainingBatches = maxBatches;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (!iterator.hasNext()) {
+      return false;
+    }
+    action.accept(iterator.next());
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    iterator.forEachRemaining(action);
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    // 大小未知的 spliterator 会被并行流一直拆分，直到返回 null，因此拆分次数必须有上限
+    if (remainingBatches == 0 || !iterator.hasNext()) {
+      return null;
+    }
+    remainingBatches--;
+    // 从游标中预取一批数据交给其他线程处理，游标本身仍然只在一个线程中被读取
+    Object[] batch = new Object[batchSize];
+    int size = 0;
+    while (size < batchSize && iterator.hasNext()) {
+      batch[size++] = iterator.next();
+    }
+    return Spliterators.spliterator(batch, 0, size, Spliterator.ORDERED);
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return Spliterator.ORDERED;
+  }
+
+}
@@ -0,0 +1,283 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * A cursor that reads and maps the rows of another cursor on a producer thread into a bounded buffer.
+ * <p>
+ * The producer blocks while the buffer is full, so at most <code>prefetchSize</code> objects are held in memory
+ * whatever the size of the result set. The producer uses the connection of the session until the cursor is consumed or
+ * closed; the session must not run other statements meanwhile. Closing the cursor, or the session, waits for the
+ * producer to stop. Producers run on a shared pool of daemon threads; a producer whose cursor was dropped without being
+ * closed or consumed stops and closes the underlying cursor once the cursor has been garbage collected.
+ *
+ * @since 3.5.12
+ */
+public class PrefetchingCursor<T> implements Cursor<T> {
+
+  private static final AtomicInteger threadNumber = new AtomicInteger();
+  // 所有游标共用的生产者线程池，空闲线程会被回收
+  private static final ExecutorService PRODUCERS = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "mybatis-cursor-prefetch-" + threadNumber.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+  // 缓冲区不能存放 null，使用占位对象表示映射结果为 null 的行以及读取结束
+  private static final Object NULL_ITEM = new Object();
+  private static final Object END = new Object();
+  private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+  private final Cursor<T> delegate;
+  private final int prefetchSize;
+  private final int startIndex;
+
+  private volatile boolean closed;
+  private Producer<T> producer;
+  private boolean iteratorRetrieved;
+  private boolean consumed;
+  private int consumedCount;
+
+  public PrefetchingCursor(Cursor<T> delegate, int prefetchSize) {
+    this.delegate = delegate;
+    this.prefetchSize = prefetchSize;
+    this.startIndex = delegate.getCurrentIndex();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return producer != null && !closed && !consumed;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return startIndex + consumedCount;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (closed || consumed) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    producer = new Producer<>(this, delegate, delegate.iterator(), prefetchSize);
+    PRODUCERS.execute(producer);
+    return new PrefetchingIterator(producer);
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (producer != null) {
+      producer.stop();
+    }
+    try {
+      delegate.close();
+    } catch (Exception e) {
+      // ignore
+    }
+  }
+
+  /**
+   * Reads the delegate into the buffer. It references the cursor only weakly, so that a cursor that is dropped without
+   * being closed can be garbage collected and its producer can stop.
+   */
+  private static class Producer<T> implements Runnable {
+
+    private final WeakReference<PrefetchingCursor<T>> owner;
+    private final Cursor<T> delegate;
+    private final Iterator<T> source;
+    private final BlockingQueue<Object> buffer;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile boolean stopped;
+    private volatile Throwable failure;
+    private volatile Thread thread;
+
+    Producer(PrefetchingCursor<T> owner, Cursor<T> delegate, Iterator<T> source, int prefetchSize) {
+      this.owner = new WeakReference<>(owner);
+      this.delegate = delegate;
+      this.source = source;
+      this.buffer = new ArrayBlockingQueue<>(prefetchSize);
+    }
+
+    @Override
+    public void run() {
+      thread = Thread.currentThread();
+      try {
+        try {
+          while (!stopped && source.hasNext()) {
+            T item = source.next();
+            if (!offer(item == null ? NULL_ITEM : item)) {
+              return;
+            }
+          }
+        } catch (Throwable t) {
+          failure = t;
+        }
+        offer(END);
+      } finally {
+        // 嵌套查询会在生产者线程上记录错误上下文，线程归还线程池前清除
+        ErrorContext.instance().reset();
+        thread = null;
+        done.countDown();
+      }
+    }
+
+    private boolean offer(Object item) {
+      try {
+        // 缓冲区满时阻塞（背压），并定期检查游标是否已被关闭或者已被回收
+        while (!buffer.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+          if (stopped) {
+            return false;
+          }
+          if (owner.get() == null) {
+            // 游标既没有关闭也没有读完就被丢弃，由生产者关闭底层游标，释放结果集
+            stopped = true;
+            buffer.clear();
+            try {
+              delegate.close();
+            } catch (Exception e) {
+              // ignore
+            }
+            return false;
+          }
+        }
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    Object take() throws InterruptedException {
+      return buffer.take();
+    }
+
+    void stop() {
+      stopped = true;
+      await();
+      buffer.clear();
+      // 唤醒可能阻塞在 take() 上的消费者线程，生产者已经结束，缓冲区一定有空位
+      buffer.offer(END);
+    }
+
+    void await() {
+      if (thread == Thread.currentThread()) {
+        return;
+      }
+      try {
+        done.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    Throwable takeFailure() {
+      Throwable t = failure;
+      failure = null;
+      return t;
+    }
+  }
+
+  private class PrefetchingIterator implements Iterator<T> {
+
+    private final Producer<T> producer;
+    private Object next;
+
+    PrefetchingIterator(Producer<T> producer) {
+      this.producer = producer;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) {
+        return true;
+      }
+      if (consumed || closed) {
+        return false;
+      }
+      Object item;
+      try {
+        item = producer.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ExecutorException("Interrupted while waiting for the next item of the cursor.", e);
+      }
+      if (item == END) {
+        if (closed) {
+          // 游标在等待期间被其他线程关闭
+          return false;
+        }
+        consumed = true;
+        producer.await();
+        Throwable t = producer.takeFailure();
+        if (t != null) {
+          if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+          } else if (t instanceof Error) {
+            throw (Error) t;
+          }
+          throw new ExecutorException("Error fetching the next item of the cursor.  Cause: " + t, t);
+        }
+        return false;
+      }
+      next = item;
+      return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Object item = next;
+      next = null;
+      consumedCount++;
+      return item == NULL_ITEM ? null : (T) item;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+  }
+}
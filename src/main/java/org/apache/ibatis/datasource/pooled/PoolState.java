@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -40,75 +40,129 @@ public class PoolState {
     this.dataSource = dataSource;
   }
 
-  public synchronized long getRequestCount() {
-    return requestCount;
+  public long getRequestCount() {
+    dataSource.lock.lock();
+    try {
+      return requestCount;
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized long getAverageRequestTime() {
-    return requestCount == 0 ? 0 : accumulatedRequestTime / requestCount;
+  public long getAverageRequestTime() {
+    dataSource.lock.lock();
+    try {
+      return requestCount == 0 ? 0 : accumulatedRequestTime / requestCount;
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized long getAverageWaitTime() {
-    return hadToWaitCount == 0 ? 0 : accumulatedWaitTime / hadToWaitCount;
-
+  public long getAverageWaitTime() {
+    dataSource.lock.lock();
+    try {
+      return hadToWaitCount == 0 ? 0 : accumulatedWaitTime / hadToWaitCount;
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized long getHadToWaitCount() {
-    return hadToWaitCount;
+  public long getHadToWaitCount() {
+    dataSource.lock.lock();
+    try {
+      return hadToWaitCount;
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized long getBadConnectionCount() {
-    return badConnectionCount;
+  public long getBadConnectionCount() {
+    dataSource.lock.lock();
+    try {
+      return badConnectionCount;
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized long getClaimedOverdueConnectionCount() {
-    return claimedOverdueConnectionCount;
+  public long getClaimedOverdueConnectionCount() {
+    dataSource.lock.lock();
+    try {
+      return claimedOverdueConnectionCount;
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized long getAverageOverdueCheckoutTime() {
-    return claimedOverdueConnectionCount == 0 ? 0 : accumulatedCheckoutTimeOfOverdueConnections / claimedOverdueConnectionCount;
+  public long getAverageOverdueCheckoutTime() {
+    dataSource.lock.lock();
+    try {
+      return claimedOverdueConnectionCount == 0 ? 0 : accumulatedCheckoutTimeOfOverdueConnections / claimedOverdueConnectionCount;
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized long getAverageCheckoutTime() {
-    return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
+  public long getAverageCheckoutTime() {
+    dataSource.lock.lock();
+    try {
+      return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized int getIdleConnectionCount() {
-    return idleConnections.size();
+  public int getIdleConnectionCount() {
+    dataSource.lock.lock();
+    try {
+      return idleConnections.size();
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
-  public synchronized int getActiveConnectionCount() {
-    return activeConnections.size();
+  public int getActiveConnectionCount() {
+    dataSource.lock.lock();
+    try {
+      return activeConnections.size();
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
   @Override
-  public synchronized String toString() {
-    StringBuilder builder = new StringBuilder();
-    builder.append("\n===CONFIGURATION==============================================");
-    builder.append("\n jdbcDriver                     ").append(dataSource.getDriver());
-    builder.append("\n jdbcUrl                        ").append(dataSource.getUrl());
-    builder.append("\n jdbcUsername                   ").append(dataSource.getUsername());
-    builder.append("\n jdbcPassword                   ").append(dataSource.getPassword() == null ? "NULL" : "************");
-    builder.append("\n poolMaxActiveConnections       ").append(dataSource.poolMaximumActiveConnections);
-    builder.append("\n poolMaxIdleConnections         ").append(dataSource.poolMaximumIdleConnections);
-    builder.append("\n poolMaxCheckoutTime            ").append(dataSource.poolMaximumCheckoutTime);
-    builder.append("\n poolTimeToWait                 ").append(dataSource.poolTimeToWait);
-    builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
-    builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
-    builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
-    builder.append("\n ---STATUS-----------------------------------------------------");
-    builder.append("\n activeConnections              ").append(getActiveConnectionCount());
-    builder.append("\n idleConnections                ").append(getIdleConnectionCount());
-    builder.append("\n requestCount                   ").append(getRequestCount());
-    builder.append("\n averageRequestTime             ").append(getAverageRequestTime());
-    builder.append("\n averageCheckoutTime            ").append(getAverageCheckoutTime());
-    builder.append("\n claimedOverdue                 ").append(getClaimedOverdueConnectionCount());
-    builder.append("\n averageOverdueCheckoutTime     ").append(getAverageOverdueCheckoutTime());
-    builder.append("\n hadToWait                      ").append(getHadToWaitCount());
-    builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
-    builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
-    builder.append("\n===============================================================");
-    return builder.toString();
+  public String toString() {
+    dataSource.lock.lock();
+    try {
+      StringBuilder builder = new StringBuilder();
+      builder.append("\n===CONFIGURATION==============================================");
+      builder.append("\n jdbcDriver                     ").append(dataSource.getDriver());
+      builder.append("\n jdbcUrl                        ").append(dataSource.getUrl());
+      builder.append("\n jdbcUsername                   ").append(dataSource.getUsername());
+      builder.append("\n jdbcPassword                   ").append(dataSource.getPassword() == null ? "NULL" : "************");
+      builder.append("\n poolMaxActiveConnections       ").append(dataSource.poolMaximumActiveConnections);
+      builder.append("\n poolMaxIdleConnections         ").append(dataSource.poolMaximumIdleConnections);
+      builder.append("\n poolMaxCheckoutTime            ").append(dataSource.poolMaximumCheckoutTime);
+      builder.append("\n poolTimeToWait                 ").append(dataSource.poolTimeToWait);
+      builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
+      builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
+      builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+      builder.append("\n ---STATUS-----------------------------------------------------");
+      builder.append("\n activeConnections              ").append(getActiveConnectionCount());
+      builder.append("\n idleConnections                ").append(getIdleConnectionCount());
+      builder.append("\n requestCount                   ").append(getRequestCount());
+      builder.append("\n averageRequestTime             ").append(getAverageRequestTime());
+      builder.append("\n averageCheckoutTime            ").append(getAverageCheckoutTime());
+      builder.append("\n claimedOverdue                 ").append(getClaimedOverdueConnectionCount());
+      builder.append("\n averageOverdueCheckoutTime     ").append(getAverageOverdueCheckoutTime());
+      builder.append("\n hadToWait                      ").append(getHadToWaitCount());
+      builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
+      builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+      builder.append("\n===============================================================");
+      return builder.toString();
+    } finally {
+      dataSource.lock.unlock();
+    }
   }
 
 }
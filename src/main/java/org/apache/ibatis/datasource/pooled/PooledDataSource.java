@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -60,7 +60,8 @@ public class PooledDataSource implements DataSource {
 
   private int expectedConnectionTypeCode;
 
-  private final Lock lock = new ReentrantLock();
+  // PoolState 的统计方法也使用这把锁，等待连接时通过 Condition 挂起，不会固定虚拟线程
+  final Lock lock = new ReentrantLock();
   private final Condition condition = lock.newCondition();
 
   public PooledDataSource() {
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,29 +18,45 @@ package org.apache.ibatis.executor;
 import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOLDER;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.bulk.BulkInsert;
+import org.apache.ibatis.executor.bulk.BulkWriter;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.logging.jdbc.ConnectionLogger;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.metrics.StatementMetricsCollector;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.tracing.SpanKind;
+import org.apache.ibatis.tracing.TraceScope;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
@@ -50,6 +66,9 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 public abstract class BaseExecutor implements Executor {
 
   private static final Log log = LogFactory.getLog(BaseExecutor.class);
+  // 批量加载时每条多行插入的默认行数，以及每次执行批处理前累积的多行插入条数
+  private static final int BULK_INSERT_ROWS = 64;
+  private static final int BULK_INSERT_BATCHES = 16;
 
   protected Transaction transaction;
   protected Executor wrapper;
@@ -58,6 +77,8 @@ public abstract class BaseExecutor implements Executor {
   protected PerpetualCache localCache;
   protected PerpetualCache localOutputParameterCache;
   protected Configuration configuration;
+  // 为空时使用 Configuration 的环境
+  private Environment environment;
 
   protected int queryStack;
   private boolean closed;
@@ -114,7 +135,87 @@ public abstract class BaseExecutor implements Executor {
       throw new ExecutorException("Executor was closed.");
     }
     clearLocalCache();
-    return doUpdate(ms, parameter);
+    TraceScope scope = TraceScope.start(configuration, SpanKind.UPDATE, ms.getId());
+    try {
+      return doUpdate(ms, parameter);
+    } catch (SQLException | RuntimeException | Error e) {
+      TraceScope.fail(scope, e);
+      throw e;
+    } finally {
+      TraceScope.close(scope);
+    }
+  }
+
+  @Override
+  public long bulkInsert(MappedStatement ms, Iterator<?> parameterObjects) throws SQLException {
+    ErrorContext.instance().resource(ms.getResource()).activity("loading rows in bulk").object(ms.getId());
+    if (closed) {
+      throw new ExecutorException("Executor was closed.");
+    }
+    clearLocalCache();
+    // 之前缓存的批量语句需要先于本次加载的数据执行
+    flushStatements();
+    BulkInsert insert = BulkInsert.parse(ms);
+    if (insert != null) {
+      Connection connection = getConnection(ms);
+      for (BulkWriter writer : configuration.getBulkWriters()) {
+        if (writer.supports(connection)) {
+          return writer.write(connection, insert, insert.encode(parameterObjects));
+        }
+      }
+    }
+    return doBulkInsert(ms, parameterObjects);
+  }
+
+  /**
+   * Inserts the rows with multi-row batches when no {@link BulkWriter} applies. Generated keys are assigned to the
+   * parameter objects as with any batched insert.
+   *
+   * @param ms
+   *          the insert statement
+   * @param parameterObjects
+   *          the parameter objects of the rows
+   * @return the number of rows inserted
+   * @throws SQLException
+   *           the SQL exception
+   * @since 3.5.12
+   */
+  protected long doBulkInsert(MappedStatement ms, Iterator<?> parameterObjects) throws SQLException {
+    int rowsPerInsert = configuration.getMultiRowInsertSize() > 1 ? configuration.getMultiRowInsertSize()
+        : BULK_INSERT_ROWS;
+    // 与当前Executor共享同一个事务，但不关闭它
+    BatchExecutor batchExecutor = new BatchExecutor(configuration, transaction, rowsPerInsert);
+    long rows = 0;
+    int pending = 0;
+    try {
+      while (parameterObjects.hasNext()) {
+        batchExecutor.update(ms, parameterObjects.next());
+        // 定期执行批处理，避免驱动中积压过多数据
+        if (++pending == rowsPerInsert * BULK_INSERT_BATCHES) {
+          rows += countRows(batchExecutor.flushStatements());
+          pending = 0;
+        }
+      }
+      return rows + countRows(batchExecutor.flushStatements());
+    } catch (SQLException | RuntimeException e) {
+      // 丢弃尚未执行的语句并关闭它们
+      batchExecutor.flushStatements(true);
+      throw e;
+    }
+  }
+
+  private static long countRows(List<BatchResult> results) {
+    long rows = 0;
+    for (BatchResult result : results) {
+      for (int count : result.getUpdateCounts()) {
+        if (count > 0) {
+          rows += count;
+        } else if (count == Statement.SUCCESS_NO_INFO) {
+          rows++;
+        }
+      }
+    }
+    return rows;
   }
 
   @Override
@@ -136,9 +237,21 @@ public abstract class BaseExecutor implements Executor {
     return query(ms, parameter, rowBounds, resultHandler, key, boundSql);
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, CacheKey key, BoundSql boundSql) throws SQLException {
+    TraceScope scope = TraceScope.start(configuration, SpanKind.QUERY, ms.getId());
+    try {
+      return queryWithLocalCache(ms, parameter, rowBounds, resultHandler, key, boundSql);
+    } catch (SQLException | RuntimeException | Error e) {
+      TraceScope.fail(scope, e);
+      throw e;
+    } finally {
+      TraceScope.close(scope);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <E> List<E> queryWithLocalCache(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, CacheKey key, BoundSql boundSql) throws SQLException {
     ErrorContext.instance().resource(ms.getResource()).activity("executing a query").object(ms.getId());
     if (closed) {
       throw new ExecutorException("Executor was closed.");
@@ -157,6 +270,13 @@ public abstract class BaseExecutor implements Executor {
         // 对存储过程出参的处理：如果命中一级缓存，则获取缓存中保存的输出参数，
         // 然后记录到用户传入的实参对象中
         handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
+        StatementMetricsCollector metricsCollector = configuration.getStatementMetricsCollector();
+        if (metricsCollector != null) {
+          metricsCollector.recordCacheHit(ms);
+        }
+        if (configuration.getTracer() != null) {
+          TraceScope.currentSpan().setTag("localCache", "hit");
+        }
       } else {
         // queryFromDatabase()方法内部首先会在localCache中设置一个占位符，
         // 然后调用doQuery()方法完成数据库查询，并得到映射后的结果对象,
@@ -187,6 +307,68 @@ public abstract class BaseExecutor implements Executor {
     return doQueryCursor(ms, parameter, rowBounds, boundSql);
   }
 
+  @Override
+  public List<List<Object>> queryBatch(List<BatchedQuery> queries) throws SQLException {
+    ErrorContext.instance().activity("executing a query batch");
+    if (closed) {
+      throw new ExecutorException("Executor was closed.");
+    }
+    List<List<Object>> results = new ArrayList<>(Collections.nCopies(queries.size(), null));
+    // 一级缓存未命中、且可以合并为一条 SQL 的查询
+    List<BatchedQuery> pipelined = new ArrayList<>();
+    List<Integer> pipelinedIndexes = new ArrayList<>();
+    for (int i = 0; i < queries.size(); i++) {
+      BatchedQuery query = queries.get(i);
+      query.prepare(wrapper);
+      MappedStatement ms = query.getMappedStatement();
+      if (queryStack == 0 && ms.isFlushCacheRequired()) {
+        clearLocalCache();
+      }
+      if (configuration.isMultiStatementQueriesEnabled() && isPipelinable(ms)
+          && localCache.getObject(query.getCacheKey()) == null) {
+        pipelined.add(query);
+        pipelinedIndexes.add(i);
+      }
+    }
+    if (pipelined.size() > 1) {
+      for (BatchedQuery query : pipelined) {
+        localCache.putObject(query.getCacheKey(), EXECUTION_PLACEHOLDER);
+      }
+      List<List<Object>> lists;
+      try {
+        queryStack++;
+        lists = doQueryBatch(pipelined);
+      } finally {
+        queryStack--;
+        for (BatchedQuery query : pipelined) {
+          localCache.removeObject(query.getCacheKey());
+        }
+      }
+      for (int i = 0; i < pipelined.size(); i++) {
+        localCache.putObject(pipelined.get(i).getCacheKey(), lists.get(i));
+        results.set(pipelinedIndexes.get(i), lists.get(i));
+      }
+    }
+    // 其余的查询（包括命中一级缓存的查询）逐条执行
+    for (int i = 0; i < queries.size(); i++) {
+      if (results.get(i) == null) {
+        BatchedQuery query = queries.get(i);
+        results.set(i, query(query.getMappedStatement(), query.getParameter(), RowBounds.DEFAULT, NO_RESULT_HANDLER,
+            query.getCacheKey(), query.getBoundSql()));
+      }
+    }
+    if (queryStack == 0) {
+      for (DeferredLoad deferredLoad : deferredLoads) {
+        deferredLoad.load();
+      }
+      deferredLoads.clear();
+      if (configuration.getLocalCacheScope() == LocalCacheScope.STATEMENT) {
+        clearLocalCache();
+      }
+    }
+    return results;
+  }
+
   @Override
   public void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key, Class<?> targetType) {
     if (closed) {
@@ -209,6 +391,20 @@ public abstract class BaseExecutor implements Executor {
     cacheKey.update(ms.getId());
     cacheKey.update(rowBounds.getOffset());
     cacheKey.update(rowBounds.getLimit());
+    if (rowBounds instanceof KeysetRowBounds) {
+      // 键集分页的结果取决于上一页最后一条记录的 key
+      KeysetRowBounds keysetRowBounds = (KeysetRowBounds) rowBounds;
+      for (String keyColumn : keysetRowBounds.getKeyColumns()) {
+        cacheKey.update(keyColumn);
+      }
+      Object[] lastKeys = keysetRowBounds.getLastKeys();
+      if (lastKeys != null) {
+        for (Object lastKey : lastKeys) {
+          cacheKey.update(lastKey);
+        }
+      }
+      cacheKey.update(keysetRowBounds.isDescending());
+    }
     cacheKey.update(boundSql.getSql());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
@@ -230,9 +426,10 @@ public abstract class BaseExecutor implements Executor {
         cacheKey.update(value);
       }
     }
-    if (configuration.getEnvironment() != null) {
+    Environment environment = getEnvironment();
+    if (environment != null) {
       // issue #176
-      cacheKey.update(configuration.getEnvironment().getId());
+      cacheKey.update(environment.getId());
     }
     return cacheKey;
   }
@@ -286,6 +483,100 @@ public abstract class BaseExecutor implements Executor {
   protected abstract <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql)
       throws SQLException;
 
+  /**
+   * Executes several selects as one multi-statement SQL and maps their result sets one after the other, as the
+   * result sets of a statement with several result maps.
+   *
+   * @param queries
+   *          at least two selects that are {@link #isPipelinable(MappedStatement) pipelinable}
+   * @return the results of the selects, in the same order
+   * @throws SQLException
+   *           the SQL exception
+   * @since 3.5.12
+   */
+  protected List<List<Object>> doQueryBatch(List<BatchedQuery> queries) throws SQLException {
+    MappedStatement first = queries.get(0).getMappedStatement();
+    StringBuilder sql = new StringBuilder();
+    List<ResultMap> resultMaps = new ArrayList<>(queries.size());
+    boolean dirtySelect = false;
+    Long maxReplicaLag = null;
+    for (BatchedQuery query : queries) {
+      MappedStatement ms = query.getMappedStatement();
+      if (sql.length() > 0) {
+        sql.append(";\n");
+      }
+      sql.append(trimStatementTerminator(query.getBoundSql().getSql()));
+      resultMaps.add(ms.getResultMaps().get(0));
+      dirtySelect |= ms.isDirtySelect();
+      if (ms.getMaxReplicaLag() != null) {
+        maxReplicaLag = maxReplicaLag == null ? ms.getMaxReplicaLag() : Math.min(maxReplicaLag, ms.getMaxReplicaLag());
+      }
+    }
+    // 合并后的语句按顺序使用各个查询的 ResultMap 处理对应的结果集
+    MappedStatement batchStatement = new MappedStatement.Builder(configuration, first.getId(),
+        new StaticSqlSource(configuration, sql.toString()), SqlCommandType.SELECT)
+        .resource(first.getResource())
+        .fetchSize(first.getFetchSize())
+        .timeout(first.getTimeout())
+        .resultSetType(first.getResultSetType())
+        .databaseId(first.getDatabaseId())
+        .resultMaps(resultMaps)
+        .dirtySelect(dirtySelect)
+        .maxReplicaLag(maxReplicaLag)
+        .build();
+    BoundSql boundSql = batchStatement.getBoundSql(null);
+    Statement stmt = null;
+    try {
+      StatementHandler handler = configuration.newStatementHandler(wrapper, batchStatement, null, RowBounds.DEFAULT,
+          null, boundSql);
+      stmt = handler.prepare(getConnection(batchStatement), transaction.getTimeout());
+      // 每个查询的 ParameterHandler 只设置合并后 SQL 中属于自己的占位符
+      int offset = 0;
+      for (BatchedQuery query : queries) {
+        ParameterHandler parameterHandler = configuration.newParameterHandler(query.getMappedStatement(),
+            query.getParameter(), query.getBoundSql());
+        parameterHandler.setParameters(OffsetPreparedStatement.newInstance((PreparedStatement) stmt, offset));
+        offset += query.getBoundSql().getParameterMappings().size();
+      }
+      List<Object> results = handler.query(stmt, NO_RESULT_HANDLER);
+      if (results.size() != queries.size() || !results.stream().allMatch(List.class::isInstance)) {
+        throw new ExecutorException("A query batch of " + queries.size() + " selects returned " + results.size()
+            + " results. Check that the driver supports several statements in one prepared statement.");
+      }
+      List<List<Object>> lists = new ArrayList<>(queries.size());
+      for (Object result : results) {
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) result;
+        lists.add(list);
+      }
+      return lists;
+    } finally {
+      closeStatement(stmt);
+    }
+  }
+
+  /**
+   * Returns whether a select can be a part of a multi-statement SQL: a prepared statement mapping exactly one result
+   * set.
+   *
+   * @param ms
+   *          the select
+   * @return true if the select can be pipelined
+   * @since 3.5.12
+   */
+  protected boolean isPipelinable(MappedStatement ms) {
+    return ms.getSqlCommandType() == SqlCommandType.SELECT && ms.getStatementType() == StatementType.PREPARED
+        && ms.getResultMaps().size() == 1 && ms.getResultSets() == null;
+  }
+
+  private static String trimStatementTerminator(String sql) {
+    String trimmed = sql.trim();
+    while (trimmed.endsWith(";")) {
+      trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+    }
+    return trimmed;
+  }
+
   protected void closeStatement(Statement statement) {
     if (statement != null) {
       try {
@@ -344,7 +635,29 @@ public abstract class BaseExecutor implements Executor {
 
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
-    if (statementLog.isDebugEnabled()) {
+    // 开启结构化 SQL 日志时不再使用日志代理
+    if (statementLog.isDebugEnabled() && !configuration.isStructuredSqlLoggingEnabled()) {
+      return ConnectionLogger.newInstance(connection, statementLog, queryStack);
+    } else {
+      return connection;
+    }
+  }
+
+  /**
+   * Gets the connection the transaction chooses for a statement.
+   *
+   * @param ms
+   *          the statement about to be executed
+   * @return the connection
+   * @throws SQLException
+   *           the SQL exception
+   * @since 3.5.12
+   */
+  protected Connection getConnection(MappedStatement ms) throws SQLException {
+    Connection connection = transaction.getConnection(ms);
+    Log statementLog = ms.getStatementLog();
+    // 开启结构化 SQL 日志时不再使用日志代理
+    if (statementLog.isDebugEnabled() && !configuration.isStructuredSqlLoggingEnabled()) {
       return ConnectionLogger.newInstance(connection, statementLog, queryStack);
     } else {
       return connection;
@@ -356,6 +669,22 @@ public abstract class BaseExecutor implements Executor {
     this.wrapper = wrapper;
   }
 
+  @Override
+  public Environment getEnvironment() {
+    return environment != null ? environment : configuration.getEnvironment();
+  }
+
+  /**
+   * Sets the environment of an executor that does not run against the environment of the configuration.
+   *
+   * @param environment
+   *          the environment of the transaction
+   * @since 3.5.12
+   */
+  public void setEnvironment(Environment environment) {
+    this.environment = environment;
+  }
+
   private static class DeferredLoad {
 
     private final MetaObject resultObject;
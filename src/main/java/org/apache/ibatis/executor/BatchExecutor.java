@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,9 +17,11 @@ package org.apache.ibatis.executor;
 
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -27,12 +29,16 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.keygen.SequenceKeyGenerator;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.tracing.SpanKind;
+import org.apache.ibatis.tracing.TraceScope;
 import org.apache.ibatis.transaction.Transaction;
 
 /**
@@ -44,11 +50,23 @@ public class BatchExecutor extends BaseExecutor {
 
   private final List<Statement> statementList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  // statementList 中每个 Statement 每次执行插入的行数，普通语句为 1
+  private final List<Integer> rowsPerExecution = new ArrayList<>();
   private String currentSql;
   private MappedStatement currentStatement;
+  // 尚未组装成多行插入的数据行
+  private MultiRowInsert pendingInsert;
+  // 最近一次无法改写为多行插入的SQL模板，避免重复解析
+  private String unrewritableSql;
+  private final int multiRowInsertSize;
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
+    this(configuration, transaction, configuration.getMultiRowInsertSize());
+  }
+
+  BatchExecutor(Configuration configuration, Transaction transaction, int multiRowInsertSize) {
     super(configuration, transaction);
+    this.multiRowInsertSize = multiRowInsertSize;
   }
 
   @Override
@@ -59,6 +77,26 @@ public class BatchExecutor extends BaseExecutor {
     final BoundSql boundSql = handler.getBoundSql();
     // 获取此次追加的SQL模板
     final String sql = boundSql.getSql();
+    final int rowsPerInsert = multiRowInsertSize;
+    if (rowsPerInsert > 1 && MultiRowInsert.supports(ms)) {
+      if (pendingInsert == null || !pendingInsert.matches(ms, sql)) {
+        addPendingRows();
+        pendingInsert = sql.equals(unrewritableSql) ? null : MultiRowInsert.parse(ms, sql);
+        if (pendingInsert == null) {
+          unrewritableSql = sql;
+        }
+      }
+      if (pendingInsert != null) {
+        // 暂存该行，凑满 multiRowInsertSize 行之后追加一次多行插入
+        pendingInsert.addRow(parameterObject, boundSql);
+        if (pendingInsert.getPendingRows() == rowsPerInsert) {
+          addRows(pendingInsert, rowsPerInsert);
+        }
+        return BATCH_UPDATE_RETURN_VALUE;
+      }
+    } else {
+      addPendingRows();
+    }
     final Statement stmt;
     // 比较此次追加的SQL模板与最近一次追加的SQL模板，以及两个MappedStatement对象
     if (sql.equals(currentSql) && ms.equals(currentStatement)) {
@@ -71,7 +109,7 @@ public class BatchExecutor extends BaseExecutor {
       BatchResult batchResult = batchResultList.get(last);
       batchResult.addParameterObject(parameterObject);
     } else {
-      Connection connection = getConnection(ms.getStatementLog());
+      Connection connection = getConnection(ms);
       // 创建新的Statement对象
       stmt = handler.prepare(connection, transaction.getTimeout());
       handler.parameterize(stmt);// 设置实参
@@ -82,11 +120,74 @@ public class BatchExecutor extends BaseExecutor {
       statementList.add(stmt);
       // 为新Statement对象添加新的BatchResult对象
       batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      rowsPerExecution.add(1);
     }
     handler.batch(stmt);
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  /**
+   * Adds the remaining rows of the pending insert with statements whose sizes are powers of two, so that the tail of a
+   * batch reuses the same few SQL texts whatever its length.
+   */
+  private void addPendingRows() throws SQLException {
+    if (pendingInsert == null) {
+      return;
+    }
+    MultiRowInsert insert = pendingInsert;
+    pendingInsert = null;
+    int remaining;
+    while ((remaining = insert.getPendingRows()) > 0) {
+      addRows(insert, Integer.highestOneBit(remaining));
+    }
+  }
+
+  private void addRows(MultiRowInsert insert, int rows) throws SQLException {
+    final MappedStatement ms = insert.getMappedStatement();
+    final Configuration configuration = ms.getConfiguration();
+    final String sql = insert.getSql(rows);
+    final BoundSql boundSql = new BoundSql(configuration, sql, Collections.emptyList(), null);
+    final StatementHandler handler = configuration.newStatementHandler(this, ms, null, RowBounds.DEFAULT, null, boundSql);
+    final Statement stmt;
+    final BatchResult batchResult;
+    Integer index = insert.getStatementIndex(rows);
+    if (index != null) {
+      // 相同行数的多行插入复用同一个Statement对象
+      stmt = statementList.get(index);
+      applyTransactionTimeout(stmt);
+      batchResult = batchResultList.get(index);
+    } else {
+      stmt = handler.prepare(getConnection(ms), transaction.getTimeout());
+      insert.setStatementIndex(rows, statementList.size());
+      batchResult = new BatchResult(ms, sql);
+      statementList.add(stmt);
+      batchResultList.add(batchResult);
+      rowsPerExecution.add(rows);
+    }
+    // 由每一行自己的ParameterHandler设置实参，按照前面各行的占位符个数平移下标
+    PreparedStatement ps = (PreparedStatement) stmt;
+    int offset = 0;
+    for (int i = 0; i < rows; i++) {
+      Object parameterObject = insert.getParameterObject(i);
+      BoundSql rowBoundSql = insert.getBoundSql(i);
+      ParameterHandler parameterHandler = configuration.newParameterHandler(ms, parameterObject, rowBoundSql);
+      parameterHandler.setParameters(OffsetPreparedStatement.newInstance(ps, offset));
+      offset += rowBoundSql.getParameterMappings().size();
+      batchResult.addParameterObject(parameterObject);
+    }
+    handler.batch(stmt);
+    insert.removeRows(rows);
+    // 之后追加的普通语句不能复用多行插入的Statement对象
+    currentSql = null;
+  }
+
+  @Override
+  protected List<List<Object>> doQueryBatch(List<BatchedQuery> queries) throws SQLException {
+    // 与 doQuery() 相同，先执行缓存的批量更新
+    flushStatements();
+    return super.doQueryBatch(queries);
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -95,7 +196,7 @@ public class BatchExecutor extends BaseExecutor {
       flushStatements();
       Configuration configuration = ms.getConfiguration();
       StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameterObject, rowBounds, resultHandler, boundSql);
-      Connection connection = getConnection(ms.getStatementLog());
+      Connection connection = getConnection(ms);
       stmt = handler.prepare(connection, transaction.getTimeout());
       handler.parameterize(stmt);
       return handler.query(stmt, resultHandler);
@@ -109,7 +210,7 @@ public class BatchExecutor extends BaseExecutor {
     flushStatements();
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
-    Connection connection = getConnection(ms.getStatementLog());
+    Connection connection = getConnection(ms);
     Statement stmt = handler.prepare(connection, transaction.getTimeout());
     handler.parameterize(stmt);
     Cursor<E> cursor = handler.queryCursor(stmt);
@@ -126,57 +227,91 @@ public class BatchExecutor extends BaseExecutor {
       if (isRollback) {
         return Collections.emptyList();
       }
-      for (int i = 0, n = statementList.size(); i < n; i++) {
-        Statement stmt = statementList.get(i);
-        applyTransactionTimeout(stmt);
-        BatchResult batchResult = batchResultList.get(i);
-        try {
-          // 调用Statement.executeBatch()方法批量执行其中记录的SQL语句，并使用返回的int数组
-          // 更新BatchResult.updateCounts字段，其中每一个元素都表示一条SQL语句影响的记录条数
-          batchResult.setUpdateCounts(stmt.executeBatch());
-          MappedStatement ms = batchResult.getMappedStatement();
-          List<Object> parameterObjects = batchResult.getParameterObjects();
-          // 获取配置的KeyGenerator对象
-          KeyGenerator keyGenerator = ms.getKeyGenerator();
-          if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
-            // 获取数据库生成的主键，并记录到实参中对应的字段
-            Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
-            jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
-          } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
-            // 其他类型的KeyGenerator，会调用其processAfter()方法
-            for (Object parameter : parameterObjects) {
-              keyGenerator.processAfter(this, ms, stmt, parameter);
+      addPendingRows();
+      // 只有真正向数据库发送批处理语句时才创建 Span，commit() 时的空刷新不会产生 Span
+      TraceScope scope = statementList.isEmpty() ? null
+          : TraceScope.start(configuration, SpanKind.FLUSH_STATEMENTS, "flushStatements");
+      try {
+        for (int i = 0, n = statementList.size(); i < n; i++) {
+          Statement stmt = statementList.get(i);
+          applyTransactionTimeout(stmt);
+          BatchResult batchResult = batchResultList.get(i);
+          try {
+            // 调用Statement.executeBatch()方法批量执行其中记录的SQL语句，并使用返回的int数组
+            // 更新BatchResult.updateCounts字段，其中每一个元素都表示一条SQL语句影响的记录条数
+            int[] updateCounts = stmt.executeBatch();
+            int rows = rowsPerExecution.get(i);
+            batchResult.setUpdateCounts(rows > 1 ? splitUpdateCounts(updateCounts, rows) : updateCounts);
+            MappedStatement ms = batchResult.getMappedStatement();
+            List<Object> parameterObjects = batchResult.getParameterObjects();
+            // 获取配置的KeyGenerator对象
+            KeyGenerator keyGenerator = ms.getKeyGenerator();
+            if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
+              // 获取数据库生成的主键，并记录到实参中对应的字段
+              Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
+              jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
+            } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())
+                && !SequenceKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
+              // SequenceKeyGenerator 在执行之前就已经分配好主键，不需要逐个实参调用 processAfter()
+              // 其他类型的KeyGenerator，会调用其processAfter()方法
+              for (Object parameter : parameterObjects) {
+                keyGenerator.processAfter(this, ms, stmt, parameter);
+              }
             }
+            // Close statement to close cursor #1109
+            closeStatement(stmt);
+          } catch (BatchUpdateException e) {
+            StringBuilder message = new StringBuilder();
+            message.append(batchResult.getMappedStatement().getId())
+                .append(" (batch index #")
+                .append(i + 1)
+                .append(")")
+                .append(" failed.");
+            if (i > 0) {
+              message.append(" ")
+                  .append(i)
+                  .append(" prior sub executor(s) completed successfully, but will be rolled back.");
+            }
+            throw new BatchExecutorException(message.toString(), e, results, batchResult);
           }
-          // Close statement to close cursor #1109
-          closeStatement(stmt);
-        } catch (BatchUpdateException e) {
-          StringBuilder message = new StringBuilder();
-          message.append(batchResult.getMappedStatement().getId())
-              .append(" (batch index #")
-              .append(i + 1)
-              .append(")")
-              .append(" failed.");
-          if (i > 0) {
-            message.append(" ")
-                .append(i)
-                .append(" prior sub executor(s) completed successfully, but will be rolled back.");
-          }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
+          // 添加BatchResult到results集合
+          results.add(batchResult);
         }
-        // 添加BatchResult到results集合
-        results.add(batchResult);
+        if (scope != null) {
+          scope.getSpan().setTag("statements", results.size());
+        }
+        return results;
+      } catch (SQLException | RuntimeException | Error e) {
+        TraceScope.fail(scope, e);
+        throw e;
+      } finally {
+        TraceScope.close(scope);
       }
-      return results;
     } finally {
       // 释放资源
       for (Statement stmt : statementList) {
         closeStatement(stmt);
       }
       currentSql = null;
+      pendingInsert = null;
       statementList.clear();
       batchResultList.clear();
+      rowsPerExecution.clear();
+    }
+  }
+
+  /**
+   * Splits the update count of each multi-row insert into one count per row, so that the counts line up with the
+   * parameter objects of the batch result.
+   */
+  private static int[] splitUpdateCounts(int[] updateCounts, int rows) {
+    int[] rowCounts = new int[updateCounts.length * rows];
+    for (int i = 0; i < updateCounts.length; i++) {
+      int count = updateCounts[i];
+      int rowCount = count == rows ? 1 : count == Statement.EXECUTE_FAILED ? count : Statement.SUCCESS_NO_INFO;
+      Arrays.fill(rowCounts, i * rows, (i + 1) * rows, rowCount);
     }
+    return rowCounts;
   }
 
 }
@@ -0,0 +1,64 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * A select of a query batch, see {@link Executor#queryBatch(java.util.List)}.
+ *
+ * @since 3.5.12
+ */
+public class BatchedQuery {
+
+  private final MappedStatement mappedStatement;
+  private final Object parameter;
+  // 由最外层的 Executor 计算一次，被装饰的 Executor 直接复用
+  private BoundSql boundSql;
+  private CacheKey cacheKey;
+
+  public BatchedQuery(MappedStatement mappedStatement, Object parameter) {
+    this.mappedStatement = mappedStatement;
+    this.parameter = parameter;
+  }
+
+  public MappedStatement getMappedStatement() {
+    return mappedStatement;
+  }
+
+  public Object getParameter() {
+    return parameter;
+  }
+
+  BoundSql getBoundSql() {
+    return boundSql;
+  }
+
+  CacheKey getCacheKey() {
+    return cacheKey;
+  }
+
+  void prepare(Executor executor) {
+    if (boundSql == null) {
+      boundSql = mappedStatement.getBoundSql(parameter);
+      cacheKey = executor.createCacheKey(mappedStatement, parameter, RowBounds.DEFAULT, boundSql);
+    }
+  }
+
+}
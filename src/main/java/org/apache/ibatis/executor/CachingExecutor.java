@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
@@ -23,6 +26,7 @@ import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
@@ -118,6 +122,51 @@ public class CachingExecutor implements Executor {
     return delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
   }
 
+  @Override
+  public List<List<Object>> queryBatch(List<BatchedQuery> queries) throws SQLException {
+    List<List<Object>> results = new ArrayList<>(Collections.nCopies(queries.size(), null));
+    // 二级缓存未命中的查询交给被装饰的 Executor 一起执行
+    List<BatchedQuery> misses = new ArrayList<>();
+    List<Integer> missIndexes = new ArrayList<>();
+    for (int i = 0; i < queries.size(); i++) {
+      BatchedQuery query = queries.get(i);
+      query.prepare(this);
+      MappedStatement ms = query.getMappedStatement();
+      Cache cache = ms.getCache();
+      if (cache != null) {
+        flushCacheIfRequired(ms);
+        if (ms.isUseCache()) {
+          ensureNoOutParams(ms, query.getBoundSql());
+          @SuppressWarnings("unchecked")
+          List<Object> list = (List<Object>) tcm.getObject(cache, query.getCacheKey());
+          if (list != null) {
+            results.set(i, list);
+            continue;
+          }
+        }
+      }
+      misses.add(query);
+      missIndexes.add(i);
+    }
+    if (!misses.isEmpty()) {
+      List<List<Object>> lists = delegate.queryBatch(misses);
+      for (int i = 0; i < misses.size(); i++) {
+        MappedStatement ms = misses.get(i).getMappedStatement();
+        if (ms.getCache() != null && ms.isUseCache()) {
+          tcm.putObject(ms.getCache(), misses.get(i).getCacheKey(), lists.get(i));
+        }
+        results.set(missIndexes.get(i), lists.get(i));
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public long bulkInsert(MappedStatement ms, Iterator<?> parameterObjects) throws SQLException {
+    flushCacheIfRequired(ms);
+    return delegate.bulkInsert(ms, parameterObjects);
+  }
+
   @Override
   public List<BatchResult> flushStatements() throws SQLException {
     return delegate.flushStatements();
@@ -182,4 +231,9 @@ public class CachingExecutor implements Executor {
     throw new UnsupportedOperationException("This method should not be called");
   }
 
+  @Override
+  public Environment getEnvironment() {
+    return delegate.getEnvironment();
+  }
+
 }
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,11 +16,14 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.ResultHandler;
@@ -42,6 +45,46 @@ public interface Executor {
 
   <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException;
 
+  /**
+   * Executes several selects, in one round trip to the database when the executor and the driver support it.
+   *
+   * @param queries
+   *          the selects to execute
+   * @return the results of the selects, in the same order
+   * @throws SQLException
+   *           the SQL exception
+   * @since 3.5.12
+   */
+  default List<List<Object>> queryBatch(List<BatchedQuery> queries) throws SQLException {
+    List<List<Object>> results = new ArrayList<>(queries.size());
+    for (BatchedQuery query : queries) {
+      results.add(query(query.getMappedStatement(), query.getParameter(), RowBounds.DEFAULT, NO_RESULT_HANDLER));
+    }
+    return results;
+  }
+
+  /**
+   * Inserts the rows of an insert statement in bulk, through a database-native loader when one applies. This default
+   * implementation executes the statement once per row.
+   *
+   * @param ms
+   *          the insert statement
+   * @param parameterObjects
+   *          the parameter objects of the rows
+   * @return the number of rows inserted
+   * @throws SQLException
+   *           the SQL exception
+   * @since 3.5.12
+   * @see org.apache.ibatis.executor.bulk.BulkWriter
+   */
+  default long bulkInsert(MappedStatement ms, Iterator<?> parameterObjects) throws SQLException {
+    long rows = 0;
+    while (parameterObjects.hasNext()) {
+      rows += update(ms, parameterObjects.next());
+    }
+    return rows;
+  }
+
   List<BatchResult> flushStatements() throws SQLException;
 
   void commit(boolean required) throws SQLException;
@@ -64,4 +107,15 @@ public interface Executor {
 
   void setExecutorWrapper(Executor executor);
 
+  /**
+   * Returns the environment this executor runs against. Its id goes into the cache keys, and lazy loads that run after
+   * the executor was closed open their connections from it.
+   *
+   * @return the environment, or {@code null} for the environment of the configuration
+   * @since 3.5.12
+   */
+  default Environment getEnvironment() {
+    return null;
+  }
+
 }
@@ -0,0 +1,220 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.executor.keygen.SequenceKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+
+/**
+ * The rows of a single-row <code>INSERT ... VALUES (...)</code> that the batch executor has not yet added to a
+ * multi-row insert, together with the statements it prepared for each number of rows.
+ *
+ * @since 3.5.12
+ */
+final class MultiRowInsert {
+
+  private final MappedStatement mappedStatement;
+  private final String sql;
+  // VALUES 关键字之前（含 VALUES）的部分
+  private final String prefix;
+  // 一行数据对应的 "(...)"
+  private final String rowValues;
+  private final List<Object> parameterObjects = new ArrayList<>();
+  private final List<BoundSql> boundSqls = new ArrayList<>();
+  // 行数 -> 对应的 Statement 在 BatchExecutor.statementList 中的下标
+  private final Map<Integer, Integer> statementIndexes = new HashMap<>();
+
+  private MultiRowInsert(MappedStatement mappedStatement, String sql, String prefix, String rowValues) {
+    this.mappedStatement = mappedStatement;
+    this.sql = sql;
+    this.prefix = prefix;
+    this.rowValues = rowValues;
+  }
+
+  /**
+   * Returns whether the rows of the statement may be inserted by one multi-row insert. Keys selected after each row
+   * cannot be told apart once several rows are inserted at once.
+   */
+  static boolean supports(MappedStatement ms) {
+    if (ms.getSqlCommandType() != SqlCommandType.INSERT || ms.getStatementType() != StatementType.PREPARED) {
+      return false;
+    }
+    KeyGenerator keyGenerator = ms.getKeyGenerator();
+    return keyGenerator instanceof NoKeyGenerator || keyGenerator instanceof Jdbc3KeyGenerator
+        || keyGenerator instanceof SequenceKeyGenerator
+        || keyGenerator instanceof SelectKeyGenerator && ((SelectKeyGenerator) keyGenerator).isExecuteBefore();
+  }
+
+  /**
+   * Splits the SQL of a single-row insert at its <code>VALUES</code> group.
+   *
+   * @return the multi-row insert, or <code>null</code> if the SQL does not end with exactly one top-level
+   *         <code>VALUES (...)</code> group, or has placeholders or comments outside of it
+   */
+  static MultiRowInsert parse(MappedStatement ms, String sql) {
+    int valuesEnd = -1;
+    int depth = 0;
+    int length = sql.length();
+    int i = 0;
+    while (i < length && valuesEnd < 0) {
+      char c = sql.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        i = skipQuoted(sql, i);
+        if (i < 0) {
+          return null;
+        }
+        continue;
+      }
+      if (c == '?' || isCommentStart(sql, i)) {
+        return null;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (depth == 0 && sql.regionMatches(true, i, "VALUES", 0, 6)
+          && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))
+          && (i + 6 == length || !isIdentifierPart(sql.charAt(i + 6)))) {
+        valuesEnd = i + 6;
+      }
+      i++;
+    }
+    if (valuesEnd < 0) {
+      return null;
+    }
+    int start = valuesEnd;
+    while (start < length && Character.isWhitespace(sql.charAt(start))) {
+      start++;
+    }
+    if (start == length || sql.charAt(start) != '(') {
+      return null;
+    }
+    // 查找与 VALUES 之后的 "(" 匹配的 ")"
+    depth = 0;
+    i = start;
+    int end = -1;
+    while (i < length && end < 0) {
+      char c = sql.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        i = skipQuoted(sql, i);
+        if (i < 0) {
+          return null;
+        }
+        continue;
+      }
+      if (isCommentStart(sql, i)) {
+        return null;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        end = i + 1;
+      }
+      i++;
+    }
+    if (end < 0 || !sql.substring(end).trim().isEmpty()) {
+      // 已经是多行插入，或者后面还有 ON DUPLICATE KEY、RETURNING 等子句
+      return null;
+    }
+    return new MultiRowInsert(ms, sql, sql.substring(0, valuesEnd), sql.substring(start, end));
+  }
+
+  private static int skipQuoted(String sql, int start) {
+    char quote = sql.charAt(start);
+    int i = start + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == quote) {
+        // 连续两个引号表示转义
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  private static boolean isCommentStart(String sql, int i) {
+    return sql.startsWith("--", i) || sql.startsWith("/*", i);
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+
+  boolean matches(MappedStatement ms, String sql) {
+    return mappedStatement.equals(ms) && this.sql.equals(sql);
+  }
+
+  MappedStatement getMappedStatement() {
+    return mappedStatement;
+  }
+
+  String getSql(int rows) {
+    if (rows == 1) {
+      return sql;
+    }
+    StringBuilder builder = new StringBuilder(prefix.length() + (rowValues.length() + 2) * rows + 1);
+    builder.append(prefix).append(' ').append(rowValues);
+    for (int i = 1; i < rows; i++) {
+      builder.append(", ").append(rowValues);
+    }
+    return builder.toString();
+  }
+
+  void addRow(Object parameterObject, BoundSql boundSql) {
+    parameterObjects.add(parameterObject);
+    boundSqls.add(boundSql);
+  }
+
+  int getPendingRows() {
+    return parameterObjects.size();
+  }
+
+  Object getParameterObject(int row) {
+    return parameterObjects.get(row);
+  }
+
+  BoundSql getBoundSql(int row) {
+    return boundSqls.get(row);
+  }
+
+  void removeRows(int rows) {
+    parameterObjects.subList(0, rows).clear();
+    boundSqls.subList(0, rows).clear();
+  }
+
+  Integer getStatementIndex(int rows) {
+    return statementIndexes.get(rows);
+  }
+
+  void setStatementIndex(int rows, int index) {
+    statementIndexes.put(rows, index);
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Shifts the parameter indexes set on a prepared statement, so that the parameter handler of one select of a query
+ * batch sets the placeholders of that select within the combined SQL.
+ *
+ * @since 3.5.12
+ */
+final class OffsetPreparedStatement implements InvocationHandler {
+
+  private final PreparedStatement delegate;
+  private final int offset;
+
+  private OffsetPreparedStatement(PreparedStatement delegate, int offset) {
+    this.delegate = delegate;
+    this.offset = offset;
+  }
+
+  static PreparedStatement newInstance(PreparedStatement statement, int offset) {
+    if (offset == 0) {
+      return statement;
+    }
+    InvocationHandler handler = new OffsetPreparedStatement(statement, offset);
+    ClassLoader cl = PreparedStatement.class.getClassLoader();
+    return (PreparedStatement) Proxy.newProxyInstance(cl, new Class[] { PreparedStatement.class }, handler);
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] params) throws Throwable {
+    try {
+      // 只有 PreparedStatement 声明的 setXxx(int parameterIndex, ...) 方法需要平移下标
+      if (method.getDeclaringClass() == PreparedStatement.class && method.getName().startsWith("set")
+          && params != null && params.length > 1 && params[0] instanceof Integer) {
+        Object[] shifted = params.clone();
+        shifted[0] = (Integer) params[0] + offset;
+        return method.invoke(delegate, shifted);
+      }
+      return method.invoke(delegate, params);
+    } catch (Throwable t) {
+      throw ExceptionUtil.unwrapThrowable(t);
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -25,7 +25,6 @@ import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.statement.StatementHandler;
-import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
@@ -39,6 +38,8 @@ import org.apache.ibatis.transaction.Transaction;
 public class ReuseExecutor extends BaseExecutor {
   // 缓存已有的 Statement 对象，该缓存的 Key 是 SQL 模板，Value 是 SQL 模板对应的 Statement 对象
   private final Map<String, Statement> statementMap = new HashMap<>();
+  // Statement 对象所在的连接
+  private final Map<String, Connection> statementConnections = new HashMap<>();
 
   public ReuseExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -48,7 +49,7 @@ public class ReuseExecutor extends BaseExecutor {
   public int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.update(stmt);
   }
 
@@ -56,7 +57,7 @@ public class ReuseExecutor extends BaseExecutor {
   public <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.query(stmt, resultHandler);
   }
 
@@ -64,7 +65,7 @@ public class ReuseExecutor extends BaseExecutor {
   protected <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.queryCursor(stmt);
   }
 
@@ -76,20 +77,28 @@ public class ReuseExecutor extends BaseExecutor {
     }
     // 清空statementMap集合
     statementMap.clear();
+    statementConnections.clear();
     return Collections.emptyList();
   }
 
-  private Statement prepareStatement(StatementHandler handler, Log statementLog) throws SQLException {
+  private Statement prepareStatement(StatementHandler handler, MappedStatement ms) throws SQLException {
     Statement stmt;
     BoundSql boundSql = handler.getBoundSql();
     String sql = boundSql.getSql();
-    if (hasStatementFor(sql)) {// 查询缓存
+    // 事务可能为不同的语句选择不同的连接（如读写分离），只重用在同一个连接上创建的 Statement
+    Connection target = transaction.getConnection(ms);
+    if (hasStatementFor(sql) && statementConnections.get(sql) == target) {// 查询缓存
       stmt = getStatement(sql); // 重用
       applyTransactionTimeout(stmt);
     } else { // 查不到再创建
-      Connection connection = getConnection(statementLog);
+      Statement previous = statementMap.get(sql);
+      if (previous != null) {
+        closeStatement(previous);
+      }
+      Connection connection = getConnection(ms);
       stmt = handler.prepare(connection, transaction.getTimeout());
       putStatement(sql, stmt);
+      statementConnections.put(sql, target);
     }
     handler.parameterize(stmt);
     return stmt;
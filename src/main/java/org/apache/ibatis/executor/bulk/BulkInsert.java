@@ -0,0 +1,160 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.bulk;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+
+/**
+ * The table and columns of a plain single-row insert statement, and the encoder that turns its parameter objects into
+ * column values with the statement's parameter mappings and type handlers.
+ *
+ * @since 3.5.12
+ */
+public class BulkInsert {
+
+  private static final Pattern INSERT_PATTERN = Pattern.compile(
+      "\\s*insert\\s+into\\s+([\\w.$\"`\\[\\]]+)\\s*\\(([^()]+)\\)\\s*values\\s*\\(([^()]+)\\)\\s*",
+      Pattern.CASE_INSENSITIVE);
+
+  private final MappedStatement mappedStatement;
+  private final String table;
+  private final List<String> columns;
+
+  private BulkInsert(MappedStatement mappedStatement, String table, List<String> columns) {
+    this.mappedStatement = mappedStatement;
+    this.table = table;
+    this.columns = Collections.unmodifiableList(columns);
+  }
+
+  /**
+   * Parses an insert statement of the form <code>INSERT INTO table (c1, ..., cn) VALUES (?, ..., ?)</code>. Only
+   * statements without dynamic SQL qualify, so that every row is inserted with the same SQL, and only statements
+   * without a key generator: a <code>&lt;selectKey&gt;</code> has to run for each row, and generated keys
+   * (<code>useGeneratedKeys</code> with a <code>keyProperty</code>) cannot be read back from a database-native load.
+   *
+   * @param ms
+   *          the insert statement
+   * @return the parsed insert, or <code>null</code> if the rows of the statement cannot be loaded by a
+   *         {@link BulkWriter}
+   */
+  public static BulkInsert parse(MappedStatement ms) {
+    SqlSource sqlSource = ms.getSqlSource();
+    if (ms.getSqlCommandType() != SqlCommandType.INSERT || ms.getStatementType() != StatementType.PREPARED
+        || !(sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource)) {
+      return null;
+    }
+    // selectKey 需要为每一行执行，COPY 等原生加载方式也无法回填自增主键，都只能退回到批处理执行
+    Class<?> keyGeneratorType = ms.getKeyGenerator().getClass();
+    if (!NoKeyGenerator.class.equals(keyGeneratorType) && !(Jdbc3KeyGenerator.class.equals(keyGeneratorType)
+        && (ms.getKeyProperties() == null || ms.getKeyProperties().length == 0))) {
+      return null;
+    }
+    BoundSql boundSql = ms.getBoundSql(null);
+    Matcher matcher = INSERT_PATTERN.matcher(boundSql.getSql());
+    if (!matcher.matches()) {
+      return null;
+    }
+    List<String> columns = new ArrayList<>();
+    for (String column : matcher.group(2).split(",")) {
+      columns.add(column.trim());
+    }
+    String[] values = matcher.group(3).split(",");
+    if (values.length != columns.size() || boundSql.getParameterMappings().size() != columns.size()) {
+      return null;
+    }
+    for (String value : values) {
+      // 每一列都必须直接对应一个占位符，COPY 无法执行 SQL 表达式
+      if (!"?".equals(value.trim())) {
+        return null;
+      }
+    }
+    return new BulkInsert(ms, matcher.group(1), columns);
+  }
+
+  public MappedStatement getMappedStatement() {
+    return mappedStatement;
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Encodes a parameter object into the values the statement would bind to its placeholders.
+   *
+   * @param parameterObject
+   *          the parameter object of one row
+   * @return the values of the row, in column order
+   * @throws SQLException
+   *           if a type handler failed to encode a value
+   */
+  public Object[] encode(Object parameterObject) throws SQLException {
+    Object[] values = new Object[columns.size()];
+    BoundSql boundSql = mappedStatement.getBoundSql(parameterObject);
+    ParameterHandler parameterHandler = mappedStatement.getConfiguration().newParameterHandler(mappedStatement,
+        parameterObject, boundSql);
+    parameterHandler.setParameters(CapturingPreparedStatement.newInstance(values));
+    return values;
+  }
+
+  /**
+   * Returns an iterator that lazily encodes each parameter object.
+   *
+   * @param parameterObjects
+   *          the parameter objects of the rows
+   * @return the values of the rows
+   */
+  public Iterator<Object[]> encode(Iterator<?> parameterObjects) {
+    return new Iterator<Object[]>() {
+      @Override
+      public boolean hasNext() {
+        return parameterObjects.hasNext();
+      }
+
+      @Override
+      public Object[] next() {
+        try {
+          return encode(parameterObjects.next());
+        } catch (SQLException e) {
+          throw new ExecutorException("Could not encode a row of '" + mappedStatement.getId() + "'. Cause: " + e, e);
+        }
+      }
+    };
+  }
+
+}
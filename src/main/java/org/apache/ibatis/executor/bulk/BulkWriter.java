@@ -0,0 +1,61 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.bulk;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * Loads the rows of a bulk insert through a database-native facility, bypassing the INSERT statement.
+ * <p>
+ * Writers are registered with {@link org.apache.ibatis.session.Configuration#addBulkWriter(BulkWriter)}. When no
+ * writer supports the connection, or the insert statement is not a plain single-row <code>INSERT</code>, the rows are
+ * inserted with multi-row batches instead.
+ *
+ * @since 3.5.12
+ * @see org.apache.ibatis.session.SqlSession#bulkInsert(String, Iterator)
+ */
+public interface BulkWriter {
+
+  /**
+   * Returns whether this writer can load rows through the connection.
+   *
+   * @param connection
+   *          the connection of the session
+   * @return true if this writer should load the rows
+   * @throws SQLException
+   *           if the connection could not be inspected
+   */
+  boolean supports(Connection connection) throws SQLException;
+
+  /**
+   * Loads the rows into the table of the insert. The rows are encoded lazily, so the writer should consume them as a
+   * stream.
+   *
+   * @param connection
+   *          the connection of the session
+   * @param insert
+   *          the table and columns the statement inserts into
+   * @param rows
+   *          the values of each row, in column order, as set by the statement's type handlers
+   * @return the number of rows loaded
+   * @throws SQLException
+   *           if the rows could not be loaded
+   */
+  long write(Connection connection, BulkInsert insert, Iterator<Object[]> rows) throws SQLException;
+
+}
@@ -0,0 +1,64 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.bulk;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+
+/**
+ * Records the values that the parameter handler of a statement sets, instead of sending them to the database.
+ *
+ * @since 3.5.12
+ */
+final class CapturingPreparedStatement implements InvocationHandler {
+
+  private final Object[] values;
+
+  private CapturingPreparedStatement(Object[] values) {
+    this.values = values;
+  }
+
+  static PreparedStatement newInstance(Object[] values) {
+    InvocationHandler handler = new CapturingPreparedStatement(values);
+    ClassLoader cl = PreparedStatement.class.getClassLoader();
+    return (PreparedStatement) Proxy.newProxyInstance(cl, new Class[] { PreparedStatement.class }, handler);
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] params) throws Throwable {
+    String name = method.getName();
+    if (method.getDeclaringClass() == Object.class) {
+      return "toString".equals(name) ? "CapturingPreparedStatement" + values.length
+          : "hashCode".equals(name) ? System.identityHashCode(proxy) : proxy == params[0];
+    }
+    if (name.startsWith("set") && params != null && params.length > 1 && params[0] instanceof Integer) {
+      // setNull(index, sqlType) 的第二个参数是类型，不是值
+      values[(Integer) params[0] - 1] = "setNull".equals(name) ? null : params[1];
+      return null;
+    }
+    if ("clearParameters".equals(name)) {
+      Arrays.fill(values, null);
+      return null;
+    }
+    // 例如 ArrayTypeHandler 需要通过 getConnection() 创建 java.sql.Array
+    throw new SQLFeatureNotSupportedException("Bulk inserts cannot encode a parameter that requires " + name + "().");
+  }
+
+}
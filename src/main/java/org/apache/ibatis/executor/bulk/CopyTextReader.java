@@ -0,0 +1,145 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.bulk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Iterator;
+
+/**
+ * Streams rows in the text format of PostgreSQL <code>COPY ... FROM STDIN</code>: one line per row, columns separated
+ * by tabs, <code>\N</code> for null, and backslash escapes for backslashes, tabs and line breaks. Rows are encoded only
+ * as the reader is consumed.
+ *
+ * @since 3.5.12
+ */
+public class CopyTextReader extends Reader {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final Iterator<Object[]> rows;
+  private final StringBuilder buffer = new StringBuilder();
+  private int position;
+
+  public CopyTextReader(Iterator<Object[]> rows) {
+    this.rows = rows;
+  }
+
+  @Override
+  public int read(char[] cbuf, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    // 缓冲区读完之后才编码下一行，内存占用与总行数无关
+    while (position == buffer.length()) {
+      if (!rows.hasNext()) {
+        return -1;
+      }
+      buffer.setLength(0);
+      position = 0;
+      appendRow(buffer, rows.next());
+    }
+    int count = Math.min(len, buffer.length() - position);
+    buffer.getChars(position, position + count, cbuf, off);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public void close() {
+    buffer.setLength(0);
+    position = 0;
+  }
+
+  static void appendRow(StringBuilder builder, Object[] values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        builder.append('\t');
+      }
+      appendValue(builder, values[i]);
+    }
+    builder.append('\n');
+  }
+
+  private static void appendValue(StringBuilder builder, Object value) throws IOException {
+    if (value == null) {
+      builder.append("\\N");
+    } else if (value instanceof Boolean) {
+      builder.append((Boolean) value ? 't' : 'f');
+    } else if (value instanceof byte[]) {
+      appendBytes(builder, (byte[]) value);
+    } else if (value instanceof InputStream) {
+      appendBytes(builder, readBytes((InputStream) value));
+    } else if (value instanceof Reader) {
+      appendEscaped(builder, readChars((Reader) value));
+    } else {
+      appendEscaped(builder, value.toString());
+    }
+  }
+
+  private static void appendBytes(StringBuilder builder, byte[] bytes) {
+    // bytea 的十六进制格式 "\x..."，其中的反斜杠本身需要转义
+    builder.append("\\\\x");
+    for (byte b : bytes) {
+      builder.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+  }
+
+  private static void appendEscaped(StringBuilder builder, CharSequence text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\t':
+          builder.append("\\t");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        default:
+          builder.append(c);
+      }
+    }
+  }
+
+  private static byte[] readBytes(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] chunk = new byte[8192];
+    int n;
+    while ((n = in.read(chunk)) != -1) {
+      out.write(chunk, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static CharSequence readChars(Reader reader) throws IOException {
+    StringBuilder text = new StringBuilder();
+    char[] chunk = new char[8192];
+    int n;
+    while ((n = reader.read(chunk)) != -1) {
+      text.append(chunk, 0, n);
+    }
+    return text;
+  }
+
+}
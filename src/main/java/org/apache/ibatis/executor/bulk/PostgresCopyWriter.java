@@ -0,0 +1,80 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Loads rows with PostgreSQL <code>COPY ... FROM STDIN</code> through the <code>CopyManager</code> of the PostgreSQL
+ * JDBC driver. The driver is accessed reflectively, so it remains an optional dependency.
+ *
+ * @since 3.5.12
+ */
+public class PostgresCopyWriter implements BulkWriter {
+
+  private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+
+  private final Class<?> connectionType;
+
+  public PostgresCopyWriter() {
+    Class<?> type;
+    try {
+      type = Resources.classForName(PG_CONNECTION);
+    } catch (ClassNotFoundException e) {
+      // 类路径中没有 PostgreSQL 驱动
+      type = null;
+    }
+    this.connectionType = type;
+  }
+
+  @Override
+  public boolean supports(Connection connection) throws SQLException {
+    return connectionType != null && connection.isWrapperFor(connectionType);
+  }
+
+  @Override
+  public long write(Connection connection, BulkInsert insert, Iterator<Object[]> rows) throws SQLException {
+    String sql = "COPY " + insert.getTable() + " (" + String.join(", ", insert.getColumns()) + ") FROM STDIN";
+    try (Reader reader = new CopyTextReader(rows)) {
+      // 相当于 ((PGConnection) connection).getCopyAPI().copyIn(sql, reader)
+      Object pgConnection = connection.unwrap(connectionType);
+      Object copyManager = connectionType.getMethod("getCopyAPI").invoke(pgConnection);
+      Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+      return (Long) copyIn.invoke(copyManager, sql, reader);
+    } catch (InvocationTargetException e) {
+      Throwable cause = ExceptionUtil.unwrapThrowable(e);
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new SQLException("Could not copy rows into " + insert.getTable() + ". Cause: " + cause, cause);
+    } catch (ReflectiveOperationException | IOException e) {
+      throw new SQLException("Could not copy rows into " + insert.getTable() + ". Cause: " + e, e);
+    }
+  }
+
+}
@@ -0,0 +1,47 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.dialect;
+
+/**
+ * Rewrites a select so that the database itself skips the <code>offset</code> rows and returns at most
+ * <code>limit</code> rows of a {@link org.apache.ibatis.session.RowBounds}, instead of the driver transferring every
+ * row that is then discarded by the result set handler.
+ * <p>
+ * The paged statement receives the offset and the limit as two placeholders that are appended after every placeholder
+ * of the original statement, so the SQL is the same for every page and can be cached by the driver.
+ *
+ * @since 3.5.12
+ * @see DialectRegistry
+ */
+public interface Dialect {
+
+  /**
+   * Returns the statement that reads a single page of the given select.
+   *
+   * @param sql
+   *          the original select, without trailing semicolons and comments
+   * @return the select with a paging clause containing exactly two placeholders
+   */
+  String getPagedSql(String sql);
+
+  /**
+   * Returns the order of the two placeholders added by {@link #getPagedSql(String)}.
+   *
+   * @return true if the offset is bound before the limit
+   */
+  boolean isOffsetBeforeLimit();
+
+}
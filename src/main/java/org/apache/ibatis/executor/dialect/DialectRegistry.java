@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.dialect;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the <code>databaseId</code> returned by the {@link org.apache.ibatis.mapping.DatabaseIdProvider} to a
+ * {@link Dialect}. Database ids are compared ignoring case.
+ *
+ * @since 3.5.12
+ */
+public class DialectRegistry {
+
+  private final Map<String, Dialect> dialects = new ConcurrentHashMap<>();
+
+  public DialectRegistry() {
+    Dialect limitOffset = new LimitOffsetDialect();
+    register("h2", limitOffset);
+    register("hsql", limitOffset);
+    register("hsqldb", limitOffset);
+    register("postgresql", limitOffset);
+    register("postgres", limitOffset);
+    register("mysql", limitOffset);
+    register("mariadb", limitOffset);
+    register("derby", new OffsetFetchDialect());
+  }
+
+  public void register(String databaseId, Dialect dialect) {
+    dialects.put(databaseId.toLowerCase(Locale.ENGLISH), dialect);
+  }
+
+  /**
+   * Returns the dialect registered for a database id.
+   *
+   * @param databaseId
+   *          the database id, may be null
+   * @return the dialect, or null if none is registered
+   */
+  public Dialect getDialect(String databaseId) {
+    if (databaseId == null) {
+      return null;
+    }
+    return dialects.get(databaseId.toLowerCase(Locale.ENGLISH));
+  }
+
+}
@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.dialect;
+
+/**
+ * Appends the SQL:2008 <code>OFFSET ? ROWS FETCH NEXT ? ROWS ONLY</code> clause. Supported by Derby, and also by H2,
+ * HSQLDB, PostgreSQL, Oracle 12c and later and SQL Server 2012 and later.
+ *
+ * @since 3.5.12
+ */
+public class OffsetFetchDialect implements Dialect {
+
+  @Override
+  public String getPagedSql(String sql) {
+    return sql + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+  }
+
+  @Override
+  public boolean isOffsetBeforeLimit() {
+    return true;
+  }
+
+}
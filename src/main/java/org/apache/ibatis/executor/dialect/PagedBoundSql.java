@@ -0,0 +1,209 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.dialect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Builds the {@link BoundSql} of one page of a select using a {@link Dialect}.
+ *
+ * @since 3.5.12
+ */
+public final class PagedBoundSql {
+
+  public static final String OFFSET_PARAMETER = "_rowBoundsOffset";
+  public static final String LIMIT_PARAMETER = "_rowBoundsLimit";
+  public static final String LAST_KEY_PARAMETER = "_rowBoundsLastKey";
+
+  // 语句末尾已有分页或者加锁子句时不能再追加分页子句
+  private static final Pattern TRAILING_CLAUSE = Pattern.compile(
+      "\\b(LIMIT|OFFSET|FETCH|FOR\\s+(UPDATE|SHARE|READ|FETCH|NO\\s+KEY|KEY)|LOCK\\s+IN|WITH\\s+(RS|RR|CS|UR))\\b",
+      Pattern.CASE_INSENSITIVE);
+
+  private PagedBoundSql() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Returns whether the row bounds of a statement can be applied by the database.
+   * <p>
+   * Only prepared selects are rewritten. Selects with nested result maps are excluded because their row bounds count
+   * result objects, not rows.
+   *
+   * @param mappedStatement
+   *          the mapped statement
+   * @param rowBounds
+   *          the row bounds
+   * @return true if the statement can be paged in SQL
+   */
+  public static boolean isPageable(MappedStatement mappedStatement, RowBounds rowBounds) {
+    if (mappedStatement.getSqlCommandType() != SqlCommandType.SELECT
+        || mappedStatement.getStatementType() != StatementType.PREPARED
+        || mappedStatement.hasNestedResultMaps()) {
+      return false;
+    }
+    return rowBounds instanceof KeysetRowBounds
+        || rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET
+        || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT;
+  }
+
+  /**
+   * Returns the {@link BoundSql} of one page of a select.
+   * <p>
+   * Trailing semicolons and comments are removed from the select. A select whose outermost query already ends with a
+   * <code>LIMIT</code>, <code>OFFSET</code> or <code>FETCH</code> clause, or with a locking clause such as
+   * <code>FOR UPDATE</code>, cannot be paged.
+   *
+   * @param configuration
+   *          the configuration
+   * @param boundSql
+   *          the bound select
+   * @param rowBounds
+   *          the row bounds
+   * @param dialect
+   *          the dialect of the database
+   * @return the bound select of the page, or null if the select cannot be paged
+   */
+  public static BoundSql create(Configuration configuration, BoundSql boundSql, RowBounds rowBounds, Dialect dialect) {
+    String sql = toPageableSql(boundSql.getSql());
+    if (sql == null) {
+      return null;
+    }
+    List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+    Object[] lastKeys = null;
+    if (rowBounds instanceof KeysetRowBounds) {
+      // 键集分页：包装成子查询，从上一页最后一条记录的 key 之后开始读取，而不是跳过前面的记录
+      KeysetRowBounds keysetRowBounds = (KeysetRowBounds) rowBounds;
+      String[] keyColumns = keysetRowBounds.getKeyColumns();
+      lastKeys = keysetRowBounds.getLastKeys();
+      String comparison = keysetRowBounds.isDescending() ? " < ?" : " > ?";
+      StringBuilder keysetSql = new StringBuilder("SELECT * FROM (").append(sql).append(") keyset_page_");
+      if (lastKeys != null) {
+        // 多列 key 逐列比较：a > ? OR (a = ? AND b > ?) ...，不依赖数据库对行值比较的支持
+        keysetSql.append(" WHERE ");
+        boolean composite = keyColumns.length > 1;
+        for (int i = 0; i < keyColumns.length; i++) {
+          keysetSql.append(i == 0 ? "" : " OR ").append(composite ? "(" : "");
+          for (int j = 0; j < i; j++) {
+            keysetSql.append(keyColumns[j]).append(" = ? AND ");
+            parameterMappings.add(lastKeyMapping(configuration, lastKeys, j));
+          }
+          keysetSql.append(keyColumns[i]).append(comparison).append(composite ? ")" : "");
+          parameterMappings.add(lastKeyMapping(configuration, lastKeys, i));
+        }
+      }
+      keysetSql.append(" ORDER BY ");
+      for (int i = 0; i < keyColumns.length; i++) {
+        keysetSql.append(i == 0 ? "" : ", ").append(keyColumns[i]).append(keysetRowBounds.isDescending() ? " DESC" : "");
+      }
+      sql = keysetSql.toString();
+    }
+    ParameterMapping offsetMapping = new ParameterMapping.Builder(configuration, OFFSET_PARAMETER, Integer.class).build();
+    ParameterMapping limitMapping = new ParameterMapping.Builder(configuration, LIMIT_PARAMETER, Integer.class).build();
+    if (dialect.isOffsetBeforeLimit()) {
+      parameterMappings.add(offsetMapping);
+      parameterMappings.add(limitMapping);
+    } else {
+      parameterMappings.add(limitMapping);
+      parameterMappings.add(offsetMapping);
+    }
+
+    BoundSql pagedBoundSql = new BoundSql(configuration, dialect.getPagedSql(sql), parameterMappings, boundSql.getParameterObject());
+    // 复制动态 SQL 生成的附加参数（如 foreach 的 __frch_ 参数、bind 变量）
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      String name = new PropertyTokenizer(parameterMapping.getProperty()).getName();
+      if (boundSql.hasAdditionalParameter(name)) {
+        pagedBoundSql.setAdditionalParameter(name, boundSql.getAdditionalParameter(name));
+      }
+    }
+    if (lastKeys != null) {
+      for (int i = 0; i < lastKeys.length; i++) {
+        pagedBoundSql.setAdditionalParameter(lastKeyParameter(i), lastKeys[i]);
+      }
+    }
+    pagedBoundSql.setAdditionalParameter(OFFSET_PARAMETER, rowBounds.getOffset());
+    pagedBoundSql.setAdditionalParameter(LIMIT_PARAMETER, rowBounds.getLimit());
+    return pagedBoundSql;
+  }
+
+  private static ParameterMapping lastKeyMapping(Configuration configuration, Object[] lastKeys, int index) {
+    return new ParameterMapping.Builder(configuration, lastKeyParameter(index), lastKeys[index].getClass()).build();
+  }
+
+  private static String lastKeyParameter(int index) {
+    return index == 0 ? LAST_KEY_PARAMETER : LAST_KEY_PARAMETER + index;
+  }
+
+  private static String toPageableSql(String sql) {
+    String masked = mask(sql);
+    int end = masked.length();
+    while (end > 0 && (Character.isWhitespace(masked.charAt(end - 1)) || masked.charAt(end - 1) == ';')) {
+      end--;
+    }
+    // 只检查最外层查询的结尾：最后一个右括号之后的部分
+    String tail = masked.substring(masked.lastIndexOf(')', end - 1) + 1, end);
+    if (TRAILING_CLAUSE.matcher(tail).find()) {
+      return null;
+    }
+    return sql.substring(0, end);
+  }
+
+  /**
+   * Replaces comments, and the contents of literals and quoted identifiers, with blanks.
+   */
+  private static String mask(String sql) {
+    char[] chars = sql.toCharArray();
+    int i = 0;
+    while (i < chars.length) {
+      char c = chars[i];
+      char next = i + 1 < chars.length ? chars[i + 1] : 0;
+      int end;
+      if (c == '\'' || c == '"' || c == '`') {
+        end = sql.indexOf(c, i + 1);
+        end = end < 0 ? chars.length : end;
+        Arrays.fill(chars, i + 1, end, ' ');
+        i = end + 1;
+      } else if (c == '-' && next == '-') {
+        end = sql.indexOf('\n', i);
+        end = end < 0 ? chars.length : end;
+        Arrays.fill(chars, i, end, ' ');
+        i = end;
+      } else if (c == '/' && next == '*') {
+        end = sql.indexOf("*/", i + 2);
+        end = end < 0 ? chars.length : end + 2;
+        Arrays.fill(chars, i, end, ' ');
+        i = end;
+      } else {
+        i++;
+      }
+    }
+    return new String(chars);
+  }
+
+}
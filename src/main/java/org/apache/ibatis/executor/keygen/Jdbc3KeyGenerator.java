@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -34,7 +34,6 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.ArrayUtil;
-import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
@@ -230,23 +229,21 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
   }
 
   private class KeyAssigner {
-    private final Configuration configuration;
     private final ResultSetMetaData rsmd;
     private final TypeHandlerRegistry typeHandlerRegistry;
     private final int columnPosition;
     private final String paramName;
-    private final String propertyName;
+    private final KeyPropertySetter setter;
     private TypeHandler<?> typeHandler;
 
     protected KeyAssigner(Configuration configuration, ResultSetMetaData rsmd, int columnPosition, String paramName,
         String propertyName) {
       super();
-      this.configuration = configuration;
       this.rsmd = rsmd;
       this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
       this.columnPosition = columnPosition;
       this.paramName = paramName;
-      this.propertyName = propertyName;
+      this.setter = new KeyPropertySetter(configuration, propertyName);
     }
 
     protected void assign(ResultSet rs, Object param) {
@@ -254,23 +251,18 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
         // If paramName is set, param is ParamMap
         param = ((ParamMap<?>) param).get(paramName);
       }
-      MetaObject metaParam = configuration.newMetaObject(param);
       try {
         if (typeHandler == null) {
-          if (metaParam.hasSetter(propertyName)) {
-            Class<?> propertyType = metaParam.getSetterType(propertyName);
-            typeHandler = typeHandlerRegistry.getTypeHandler(propertyType,
-                JdbcType.forCode(rsmd.getColumnType(columnPosition)));
-          } else {
-            throw new ExecutorException("No setter found for the keyProperty '" + propertyName + "' in '"
-                + metaParam.getOriginalObject().getClass().getName() + "'.");
-          }
+          // TypeHandler 和 setter 在整个批次中只解析一次，之后的行直接复用
+          Class<?> propertyType = setter.getSetterType(param);
+          typeHandler = typeHandlerRegistry.getTypeHandler(propertyType,
+              JdbcType.forCode(rsmd.getColumnType(columnPosition)));
         }
         if (typeHandler == null) {
           // Error?
         } else {
           Object value = typeHandler.getResult(rs, columnPosition);
-          metaParam.setValue(propertyName, value);
+          setter.setValue(param, value);
         }
       } catch (SQLException e) {
         throw new ExecutorException("Error getting generated key or setting result to parameter object. Cause: " + e,
@@ -0,0 +1,115 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.keygen;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Sets a key property on the parameter objects of a statement.
+ * <p>
+ * The setter is resolved once and reused for as long as the parameter objects are of the same class, so assigning keys
+ * to a large batch does not build a {@link MetaObject} per row. Maps, objects with a custom object wrapper and nested
+ * properties still go through {@link MetaObject}.
+ *
+ * @since 3.5.12
+ */
+final class KeyPropertySetter {
+
+  private final Configuration configuration;
+  private final String propertyName;
+  private final boolean simpleProperty;
+  // 最近一次解析的结果，不可变对象，可以在多个线程之间共享
+  private volatile Resolved resolved;
+
+  KeyPropertySetter(Configuration configuration, String propertyName) {
+    this.configuration = configuration;
+    this.propertyName = propertyName;
+    this.simpleProperty = propertyName.indexOf('.') == -1 && propertyName.indexOf('[') == -1;
+  }
+
+  String getPropertyName() {
+    return propertyName;
+  }
+
+  Class<?> getSetterType(Object target) {
+    return resolve(target).setterType;
+  }
+
+  void setValue(Object target, Object value) {
+    Invoker invoker = resolve(target).invoker;
+    if (invoker == null) {
+      configuration.newMetaObject(target).setValue(propertyName, value);
+      return;
+    }
+    try {
+      try {
+        invoker.invoke(target, new Object[] { value });
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + propertyName + "' of '" + target.getClass()
+          + "' with value '" + value + "' Cause: " + t.toString(), t);
+    }
+  }
+
+  private Resolved resolve(Object target) {
+    Resolved current = resolved;
+    if (current != null && target != null && target.getClass() == current.type) {
+      return current;
+    }
+    // 参数类型发生变化（或第一次赋值）时，重新解析 setter
+    MetaObject metaParam = configuration.newMetaObject(target);
+    if (!metaParam.hasSetter(propertyName)) {
+      throw new ExecutorException("No setter found for the keyProperty '" + propertyName + "' in '"
+          + metaParam.getOriginalObject().getClass().getName() + "'.");
+    }
+    if (target == null) {
+      return new Resolved(null, metaParam.getSetterType(propertyName), null);
+    }
+    Invoker invoker = null;
+    if (simpleProperty && !(target instanceof Map) && !(target instanceof Collection)
+        && !configuration.getObjectWrapperFactory().hasWrapperFor(target)) {
+      Reflector reflector = configuration.getReflectorFactory().findForClass(target.getClass());
+      invoker = reflector.getSetInvoker(propertyName);
+    }
+    current = new Resolved(target.getClass(), metaParam.getSetterType(propertyName), invoker);
+    resolved = current;
+    return current;
+  }
+
+  private static final class Resolved {
+    private final Class<?> type;
+    private final Class<?> setterType;
+    private final Invoker invoker;
+
+    Resolved(Class<?> type, Class<?> setterType, Invoker invoker) {
+      this.type = type;
+      this.setterType = setterType;
+      this.invoker = invoker;
+    }
+  }
+
+}
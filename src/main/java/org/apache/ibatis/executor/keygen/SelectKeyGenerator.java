@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -41,6 +41,16 @@ public class SelectKeyGenerator implements KeyGenerator {
     this.keyStatement = keyStatement;
   }
 
+  /**
+   * Returns whether the key is selected before the statement is executed.
+   *
+   * @return true if the key is selected before the statement is executed
+   * @since 3.5.12
+   */
+  public boolean isExecuteBefore() {
+    return executeBefore;
+  }
+
   @Override
   public void processBefore(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
     if (executeBefore) {
@@ -62,7 +72,8 @@ public class SelectKeyGenerator implements KeyGenerator {
         final Configuration configuration = ms.getConfiguration();
         final MetaObject metaParam = configuration.newMetaObject(parameter);
         // 创建一个新的Executor对象来执行指定的select语句
-        Executor keyExecutor = configuration.newExecutor(executor.getTransaction(), ExecutorType.SIMPLE);
+        Executor keyExecutor = configuration.newExecutor(executor.getTransaction(), ExecutorType.SIMPLE,
+            executor.getEnvironment());
         // 拿到主键信息
         List<Object> values = keyExecutor.query(keyStatement, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
         if (values.size() == 0) {
@@ -0,0 +1,184 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.keygen;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
+import org.apache.ibatis.util.MapUtil;
+
+/**
+ * Assigns keys from a database sequence, reserving a whole block of values in a single round trip.
+ * <p>
+ * The sequence must be created with an increment equal to the block size (e.g.
+ * <code>CREATE SEQUENCE users_seq INCREMENT BY 50</code>): each execution of the next-value query reserves the values
+ * from the returned one up to (but not including) the returned one plus the block size, and the keys are then handed
+ * out from memory. Values that are reserved but not used (e.g. when the application stops) are lost, as with any
+ * sequence.
+ * <p>
+ * Keys are assigned before the statement is executed, to the single key property of the statement. Collection and
+ * array parameters (also when they are the only parameter of a mapper method) get a key per element. To use it for a
+ * mapped statement, register it before the mapper is loaded:
+ *
+ * <pre>
+ * configuration.addKeyGenerator("com.example.UserMapper.insert" + SelectKeyGenerator.SELECT_KEY_SUFFIX,
+ *     new SequenceKeyGenerator("select next value for users_seq", 50));
+ * </pre>
+ *
+ * @since 3.5.12
+ */
+public class SequenceKeyGenerator implements KeyGenerator {
+
+  private static final String SECOND_GENERIC_PARAM_NAME = ParamNameResolver.GENERIC_NAME_PREFIX + "2";
+
+  private final String nextValueSql;
+  private final int blockSize;
+  // 预取时会访问数据库，使用 ReentrantLock 避免固定虚拟线程
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ConcurrentMap<String, KeyPropertySetter> setters = new ConcurrentHashMap<>();
+  // 当前块中下一个可用的值，以及剩余的个数
+  private long nextValue;
+  private long remaining;
+
+  /**
+   * Creates a key generator for a sequence.
+   *
+   * @param nextValueSql
+   *          the query that returns the next value of the sequence in the first column of its only row, e.g.
+   *          <code>select nextval('users_seq')</code>
+   * @param blockSize
+   *          the increment of the sequence, i.e. the number of keys reserved by one execution of the query
+   */
+  public SequenceKeyGenerator(String nextValueSql, int blockSize) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("The block size of a sequence must be positive but was " + blockSize + ".");
+    }
+    this.nextValueSql = nextValueSql;
+    this.blockSize = blockSize;
+  }
+
+  public String getNextValueSql() {
+    return nextValueSql;
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  @Override
+  public void processBefore(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
+    String[] keyProperties = ms.getKeyProperties();
+    if (parameter == null || keyProperties == null || keyProperties.length == 0) {
+      return;
+    }
+    if (keyProperties.length > 1) {
+      throw new ExecutorException("A sequence assigns a single key property, but statement '" + ms.getId()
+          + "' declares " + Arrays.toString(keyProperties) + ".");
+    }
+    KeyPropertySetter setter = MapUtil.computeIfAbsent(setters, keyProperties[0],
+        k -> new KeyPropertySetter(ms.getConfiguration(), k));
+    if ((parameter instanceof ParamMap || parameter instanceof StrictMap) && setter.getPropertyName().indexOf('.') == -1
+        && !((Map<?, ?>) parameter).containsKey(SECOND_GENERIC_PARAM_NAME)) {
+      // 只有一个参数（例如集合参数被包装成 ParamMap），主键属性属于这个参数本身
+      parameter = ((Map<?, ?>) parameter).values().iterator().next();
+    }
+    if (parameter instanceof Collection) {
+      for (Object element : (Collection<?>) parameter) {
+        assign(executor, setter, element);
+      }
+    } else if (parameter instanceof Object[]) {
+      for (Object element : (Object[]) parameter) {
+        assign(executor, setter, element);
+      }
+    } else {
+      assign(executor, setter, parameter);
+    }
+  }
+
+  @Override
+  public void processAfter(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
+    // do nothing
+  }
+
+  private void assign(Executor executor, KeyPropertySetter setter, Object parameter) {
+    Class<?> keyType = setter.getSetterType(parameter);
+    setter.setValue(parameter, toKeyType(nextValue(executor), keyType, setter.getPropertyName()));
+  }
+
+  private long nextValue(Executor executor) {
+    lock.lock();
+    try {
+      if (remaining == 0) {
+        // 当前块已经用完，执行一次查询预留下一个块
+        nextValue = reserveBlock(executor);
+        remaining = blockSize;
+      }
+      remaining--;
+      return nextValue++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long reserveBlock(Executor executor) {
+    try {
+      Connection connection = executor.getTransaction().getConnection();
+      try (Statement statement = connection.createStatement();
+          ResultSet rs = statement.executeQuery(nextValueSql)) {
+        if (!rs.next()) {
+          throw new ExecutorException("Sequence query '" + nextValueSql + "' returned no data.");
+        }
+        return rs.getLong(1);
+      }
+    } catch (SQLException e) {
+      throw new ExecutorException("Error reserving keys with '" + nextValueSql + "'. Cause: " + e, e);
+    }
+  }
+
+  private static Object toKeyType(long value, Class<?> keyType, String propertyName) {
+    if (keyType == Integer.class || keyType == int.class) {
+      if (value > Integer.MAX_VALUE) {
+        throw new ExecutorException("The sequence value " + value + " does not fit the int key property '"
+            + propertyName + "'.");
+      }
+      return (int) value;
+    } else if (keyType == String.class) {
+      return String.valueOf(value);
+    } else if (keyType == BigInteger.class) {
+      return BigInteger.valueOf(value);
+    } else if (keyType == BigDecimal.class) {
+      return BigDecimal.valueOf(value);
+    }
+    return value;
+  }
+
+}
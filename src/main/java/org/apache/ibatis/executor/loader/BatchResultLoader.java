@@ -0,0 +1,51 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A {@link ResultLoader} that resolves its value through a shared {@link ResultLoaderBatch}, so that loading one
+ * property also loads the same property of every other parent that is still pending in the batch.
+ * <p>
+ * The single-row statement is kept so that a deserialized proxy can still load the property on its own.
+ *
+ * @since 3.5.12
+ */
+public class BatchResultLoader extends ResultLoader {
+
+  private final ResultLoaderBatch batch;
+
+  public BatchResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject,
+      Class<?> targetType, CacheKey cacheKey, BoundSql boundSql, ResultLoaderBatch batch) {
+    super(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql);
+    this.batch = batch;
+    batch.addKey(parameterObject);
+  }
+
+  @Override
+  public Object loadResult() throws SQLException {
+    resultObject = batch.loadResult(parameterObject);
+    return resultObject;
+  }
+
+}
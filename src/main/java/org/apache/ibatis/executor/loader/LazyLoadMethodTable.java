@@ -0,0 +1,131 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Resolves, once per method of a proxied type, what a lazy loading proxy has to do when the method is invoked.
+ * <p>
+ * A table is built for the <code>aggressiveLazyLoading</code> and <code>lazyLoadTriggerMethods</code> settings that
+ * were in effect when it was created; {@link Cache#get(Class, Configuration)} replaces it when those settings change.
+ *
+ * @since 3.5.12
+ */
+public final class LazyLoadMethodTable {
+
+  private static final String FINALIZE_METHOD = "finalize";
+  private static final String WRITE_REPLACE_METHOD = "writeReplace";
+
+  public enum Action {
+    /** Serialize the proxy. */
+    WRITE_REPLACE,
+    /** Load every pending property. */
+    LOAD_ALL,
+    /** Forget the pending loader of the property being set. */
+    SET_PROPERTY,
+    /** Load the property being read if it is pending. */
+    GET_PROPERTY,
+    /** Nothing to do, call the target method directly. */
+    NONE
+  }
+
+  public static final class Entry {
+    private final Action action;
+    private final String property;
+
+    private Entry(Action action, String property) {
+      this.action = action;
+      this.property = property;
+    }
+
+    public Action getAction() {
+      return action;
+    }
+
+    public String getProperty() {
+      return property;
+    }
+  }
+
+  private static final Entry WRITE_REPLACE = new Entry(Action.WRITE_REPLACE, null);
+  private static final Entry LOAD_ALL = new Entry(Action.LOAD_ALL, null);
+  private static final Entry NONE = new Entry(Action.NONE, null);
+
+  private final boolean aggressive;
+  private final Set<String> lazyLoadTriggerMethods;
+  private final Map<Method, Entry> entries = new ConcurrentHashMap<>();
+
+  private LazyLoadMethodTable(boolean aggressive, Set<String> lazyLoadTriggerMethods) {
+    this.aggressive = aggressive;
+    this.lazyLoadTriggerMethods = new HashSet<>(lazyLoadTriggerMethods);
+  }
+
+  public Entry get(Method method) {
+    Entry entry = entries.get(method);
+    if (entry == null) {
+      entry = entries.computeIfAbsent(method, this::resolve);
+    }
+    return entry;
+  }
+
+  private Entry resolve(Method method) {
+    final String methodName = method.getName();
+    if (WRITE_REPLACE_METHOD.equals(methodName)) {
+      return WRITE_REPLACE;
+    } else if (FINALIZE_METHOD.equals(methodName)) {
+      return NONE;
+    } else if (aggressive || lazyLoadTriggerMethods.contains(methodName)) {
+      return LOAD_ALL;
+    } else if (PropertyNamer.isSetter(methodName)) {
+      return new Entry(Action.SET_PROPERTY, PropertyNamer.methodToProperty(methodName));
+    } else if (PropertyNamer.isGetter(methodName)) {
+      return new Entry(Action.GET_PROPERTY, PropertyNamer.methodToProperty(methodName));
+    } else {
+      return NONE;
+    }
+  }
+
+  private boolean matches(Configuration configuration) {
+    return aggressive == configuration.isAggressiveLazyLoading()
+        && lazyLoadTriggerMethods.equals(configuration.getLazyLoadTriggerMethods());
+  }
+
+  /**
+   * Holds the tables of the types proxied by one {@link ProxyFactory}.
+   */
+  public static final class Cache {
+
+    private final Map<Class<?>, LazyLoadMethodTable> tables = new ConcurrentHashMap<>();
+
+    public LazyLoadMethodTable get(Class<?> type, Configuration configuration) {
+      LazyLoadMethodTable table = tables.get(type);
+      if (table == null || !table.matches(configuration)) {
+        table = new LazyLoadMethodTable(configuration.isAggressiveLazyLoading(), configuration.getLazyLoadTriggerMethods());
+        tables.put(type, table);
+      }
+      return table;
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -31,6 +31,9 @@ import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.tracing.Span;
+import org.apache.ibatis.tracing.SpanKind;
+import org.apache.ibatis.tracing.TraceScope;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.TransactionFactory;
 
@@ -53,6 +56,8 @@ public class ResultLoader {
   protected final BoundSql boundSql;
   protected final ResultExtractor resultExtractor;
   protected final long creatorThreadId;
+  // 创建延迟加载时的 Span，加载时作为父 Span（加载可能发生在其他线程或者会话关闭之后）
+  protected final Span parentSpan;
 
   protected boolean loaded;
   protected Object resultObject;
@@ -68,14 +73,23 @@ public class ResultLoader {
     this.boundSql = boundSql;
     this.resultExtractor = new ResultExtractor(configuration, objectFactory);
     this.creatorThreadId = Thread.currentThread().getId();
+    this.parentSpan = configuration.getTracer() == null ? null : TraceScope.currentSpan();
   }
 
   public Object loadResult() throws SQLException {
-    // 先通过 selectList() 方法执行 boundSql 这条延迟加载的 SQL 语句
-    List<Object> list = selectList();
-    // 接下来通过 resultExtractor 从这个 List 集合中提取到延迟加载的真正对象
-    resultObject = resultExtractor.extractObjectFromList(list, targetType);
-    return resultObject;
+    TraceScope scope = TraceScope.start(configuration, SpanKind.LOAD_RESULT, mappedStatement.getId(), parentSpan);
+    try {
+      // 先通过 selectList() 方法执行 boundSql 这条延迟加载的 SQL 语句
+      List<Object> list = selectList();
+      // 接下来通过 resultExtractor 从这个 List 集合中提取到延迟加载的真正对象
+      resultObject = resultExtractor.extractObjectFromList(list, targetType);
+      return resultObject;
+    } catch (SQLException | RuntimeException | Error e) {
+      TraceScope.fail(scope, e);
+      throw e;
+    } finally {
+      TraceScope.close(scope);
+    }
   }
 
   private <E> List<E> selectList() throws SQLException {
@@ -94,7 +108,15 @@ public class ResultLoader {
   }
 
   private Executor newExecutor() {
-    final Environment environment = configuration.getEnvironment();
+    return newExecutor(configuration, executor);
+  }
+
+  static Executor newExecutor(Configuration configuration, Executor executor) {
+    // 使用原 Executor 的环境，例如分片会话的延迟加载要回到所在的分片
+    Environment environment = executor.getEnvironment();
+    if (environment == null) {
+      environment = configuration.getEnvironment();
+    }
     if (environment == null) {
       throw new ExecutorException("ResultLoader could not load lazily.  Environment was not configured.");
     }
@@ -104,7 +126,7 @@ public class ResultLoader {
     }
     final TransactionFactory transactionFactory = environment.getTransactionFactory();
     final Transaction tx = transactionFactory.newTransaction(ds, null, false);
-    return configuration.newExecutor(tx, ExecutorType.SIMPLE);
+    return configuration.newExecutor(tx, ExecutorType.SIMPLE, environment);
   }
 
   public boolean wasNull() {
@@ -0,0 +1,172 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.tracing.Span;
+import org.apache.ibatis.tracing.SpanKind;
+import org.apache.ibatis.tracing.TraceScope;
+
+/**
+ * Collects the keys of a nested select that are pending across the rows of one result set and resolves them with as
+ * few executions of the batch select as possible.
+ * <p>
+ * The batch select receives the pending keys as a collection parameter (<code>list</code> or <code>collection</code>)
+ * and must return rows that expose the key under the configured key property. Rows are distributed back to the
+ * requesting parents by that key.
+ *
+ * @since 3.5.12
+ */
+public class ResultLoaderBatch {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement mappedStatement;
+  private final String keyProperty;
+  private final Class<?> targetType;
+  private final ResultExtractor resultExtractor;
+  private final long creatorThreadId;
+  private final Span parentSpan;
+  // 加载过程中会执行批量查询，使用 ReentrantLock 避免固定虚拟线程
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // 尚未加载的 key，key 为归一化之后的值，value 为原始值（作为批量 SQL 的实参）
+  private final Map<Object, Object> pendingKeys = new LinkedHashMap<>();
+  // 已加载的结果，按照归一化之后的 key 分组
+  private final Map<Object, List<Object>> loadedRows = new HashMap<>();
+
+  public ResultLoaderBatch(Configuration configuration, Executor executor, MappedStatement mappedStatement,
+      String keyProperty, Class<?> targetType) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.mappedStatement = mappedStatement;
+    this.keyProperty = keyProperty;
+    this.targetType = targetType;
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+    this.creatorThreadId = Thread.currentThread().getId();
+    this.parentSpan = configuration.getTracer() == null ? null : TraceScope.currentSpan();
+  }
+
+  public void addKey(Object key) {
+    lock.lock();
+    try {
+      Object normalizedKey = normalizeKey(key);
+      if (!loadedRows.containsKey(normalizedKey)) {
+        pendingKeys.putIfAbsent(normalizedKey, key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public Object loadResult(Object key) throws SQLException {
+    lock.lock();
+    try {
+      Object normalizedKey = normalizeKey(key);
+      if (!loadedRows.containsKey(normalizedKey)) {
+        pendingKeys.putIfAbsent(normalizedKey, key);
+        TraceScope scope = TraceScope.start(configuration, SpanKind.LOAD_RESULT, mappedStatement.getId(), parentSpan);
+        try {
+          loadPendingKeys();
+        } catch (SQLException | RuntimeException | Error e) {
+          TraceScope.fail(scope, e);
+          throw e;
+        } finally {
+          TraceScope.close(scope);
+        }
+      }
+      // 每个外层对象都需要拿到一个独立的集合对象
+      List<Object> rows = new ArrayList<>(loadedRows.getOrDefault(normalizedKey, Collections.emptyList()));
+      return resultExtractor.extractObjectFromList(rows, targetType);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void loadPendingKeys() throws SQLException {
+    final int batchSize = Math.max(1, configuration.getNestedQueryBatchSize());
+    Iterator<Map.Entry<Object, Object>> iterator = pendingKeys.entrySet().iterator();
+    while (iterator.hasNext()) {
+      // 按照 nestedQueryBatchSize 对待加载的 key 进行分块，每一块执行一次批量查询
+      List<Object> normalizedKeys = new ArrayList<>(batchSize);
+      List<Object> keys = new ArrayList<>(batchSize);
+      while (iterator.hasNext() && keys.size() < batchSize) {
+        Map.Entry<Object, Object> entry = iterator.next();
+        normalizedKeys.add(entry.getKey());
+        keys.add(entry.getValue());
+        iterator.remove();
+      }
+      for (Object row : selectList(keys)) {
+        if (row == null) {
+          continue;
+        }
+        MetaObject metaRow = configuration.newMetaObject(row);
+        if (!metaRow.hasGetter(keyProperty)) {
+          throw new ExecutorException("Batch select '" + mappedStatement.getId() + "' returned a row of type "
+              + row.getClass().getName() + " which has no key property '" + keyProperty + "'.");
+        }
+        loadedRows.computeIfAbsent(normalizeKey(metaRow.getValue(keyProperty)), k -> new ArrayList<>()).add(row);
+      }
+      for (Object normalizedKey : normalizedKeys) {
+        loadedRows.putIfAbsent(normalizedKey, Collections.emptyList());
+      }
+    }
+  }
+
+  private List<Object> selectList(List<Object> keys) throws SQLException {
+    Executor localExecutor = executor;
+    if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
+      localExecutor = ResultLoader.newExecutor(configuration, executor);
+    }
+    try {
+      Object parameterObject = ParamNameResolver.wrapToMapIfCollection(keys, null);
+      return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    } finally {
+      if (localExecutor != executor) {
+        localExecutor.close(false);
+      }
+    }
+  }
+
+  /**
+   * The parent column and the key property of the batch results may be read with different integral types (e.g.
+   * <code>Integer</code> vs <code>Long</code>), so they are compared as <code>Long</code>.
+   */
+  private static Object normalizeKey(Object key) {
+    if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+      return ((Number) key).longValue();
+    }
+    return key;
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -27,6 +27,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BaseExecutor;
@@ -35,6 +37,7 @@ import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
@@ -48,6 +51,12 @@ import org.apache.ibatis.session.RowBounds;
 public class ResultLoaderMap {
 
   private final Map<String, LoadPair> loaderMap = new HashMap<>();
+  // 代理对象在加载属性（可能执行 SQL）期间持有这把锁，使用 ReentrantLock 避免固定虚拟线程
+  private final Lock lock = new ReentrantLock();
+  // 全部延迟加载属性都已加载（或被 setter 覆盖）时为 true，代理对象据此跳过加锁直接调用目标方法
+  private volatile boolean empty = true;
+  // 结果对象无法被代理（例如 final 类）时为 false，此时延迟加载的属性改为立即加载
+  private boolean lazyLoadingSupported = true;
 
   public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader) {
     String upperFirst = getUppercaseFirstProperty(property);
@@ -57,6 +66,7 @@ public class ResultLoaderMap {
               + " already exists in the result map. The leftmost property of all lazy loaded properties must be unique within a result map.");
     }
     loaderMap.put(upperFirst, new LoadPair(property, metaResultObject, resultLoader));
+    empty = false;
   }
 
   public final Map<String, LoadPair> getProperties() {
@@ -71,6 +81,47 @@ public class ResultLoaderMap {
     return loaderMap.size();
   }
 
+  /**
+   * Returns whether every lazy property has been loaded. Unlike {@link #size()}, this method may be called without
+   * holding the lock of this map; once it returns <code>true</code> the loaded values are visible to the caller.
+   *
+   * @return true if no property is pending
+   * @since 3.5.12
+   */
+  public boolean isEmpty() {
+    return empty;
+  }
+
+  /**
+   * Returns the lock that proxies hold while they load or forget the properties of this map.
+   *
+   * @return the lock
+   * @since 3.5.12
+   */
+  public Lock getLock() {
+    return lock;
+  }
+
+  /**
+   * Returns whether the result object owning this map could be proxied. When it could not, the properties that were
+   * configured as lazy are loaded eagerly instead of being added to this map.
+   *
+   * @return false if lazy loading has been disabled for the result object
+   * @since 3.5.12
+   */
+  public boolean isLazyLoadingSupported() {
+    return lazyLoadingSupported;
+  }
+
+  /**
+   * Called by a {@link ProxyFactory} that returned the result object unproxied.
+   *
+   * @since 3.5.12
+   */
+  public void disableLazyLoading() {
+    this.lazyLoadingSupported = false;
+  }
+
   public boolean hasLoader(String property) {
     return loaderMap.containsKey(property.toUpperCase(Locale.ENGLISH));
   }
@@ -78,7 +129,12 @@ public class ResultLoaderMap {
   public boolean load(String property) throws SQLException {
     LoadPair pair = loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
     if (pair != null) {
-      pair.load();
+      try {
+        pair.load();
+      } finally {
+        // 属性值设置完成之后才更新标记，保证无锁读取的线程能看到加载好的属性值
+        empty = loaderMap.isEmpty();
+      }
       return true;
     }
     return false;
@@ -86,6 +142,7 @@ public class ResultLoaderMap {
 
   public void remove(String property) {
     loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
+    empty = loaderMap.isEmpty();
   }
 
   public void loadAll() throws SQLException {
@@ -290,6 +347,12 @@ public class ResultLoaderMap {
       return true;
     }
 
+    @Override
+    public Environment getEnvironment() {
+      // 反序列化后已不知道原来的环境，使用 Configuration 的环境
+      return null;
+    }
+
     @Override
     protected int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
       throw new UnsupportedOperationException("Not supported.");
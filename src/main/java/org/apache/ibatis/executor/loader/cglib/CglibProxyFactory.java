@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,7 +18,6 @@ package org.apache.ibatis.executor.loader.cglib;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.Enhancer;
@@ -27,6 +26,7 @@ import net.sf.cglib.proxy.MethodProxy;
 
 import org.apache.ibatis.executor.loader.AbstractEnhancedDeserializationProxy;
 import org.apache.ibatis.executor.loader.AbstractSerialStateHolder;
+import org.apache.ibatis.executor.loader.LazyLoadMethodTable;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.loader.WriteReplaceInterface;
@@ -36,7 +36,6 @@ import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.property.PropertyCopier;
-import org.apache.ibatis.reflection.property.PropertyNamer;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -46,9 +45,10 @@ import org.apache.ibatis.session.Configuration;
 @Deprecated
 public class CglibProxyFactory implements ProxyFactory {
 
-  private static final String FINALIZE_METHOD = "finalize";
   private static final String WRITE_REPLACE_METHOD = "writeReplace";
 
+  private final LazyLoadMethodTable.Cache methodTables = new LazyLoadMethodTable.Cache();
+
   public CglibProxyFactory() {
     try {
       Resources.classForName("net.sf.cglib.proxy.Enhancer");
@@ -59,7 +59,8 @@ public class CglibProxyFactory implements ProxyFactory {
 
   @Override
   public Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
-    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+    LazyLoadMethodTable methodTable = methodTables.get(target.getClass(), configuration);
+    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, methodTable, objectFactory, constructorArgTypes, constructorArgs);
   }
 
   public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
@@ -97,25 +98,23 @@ public class CglibProxyFactory implements ProxyFactory {
 
     private final Class<?> type;
     private final ResultLoaderMap lazyLoader;
-    private final boolean aggressive;
-    private final Set<String> lazyLoadTriggerMethods;
+    private final LazyLoadMethodTable methodTable;
     private final ObjectFactory objectFactory;
     private final List<Class<?>> constructorArgTypes;
     private final List<Object> constructorArgs;
 
-    private EnhancedResultObjectProxyImpl(Class<?> type, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    private EnhancedResultObjectProxyImpl(Class<?> type, ResultLoaderMap lazyLoader, LazyLoadMethodTable methodTable, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
       this.type = type;
       this.lazyLoader = lazyLoader;
-      this.aggressive = configuration.isAggressiveLazyLoading();
-      this.lazyLoadTriggerMethods = configuration.getLazyLoadTriggerMethods();
+      this.methodTable = methodTable;
       this.objectFactory = objectFactory;
       this.constructorArgTypes = constructorArgTypes;
       this.constructorArgs = constructorArgs;
     }
 
-    public static Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    public static Object createProxy(Object target, ResultLoaderMap lazyLoader, LazyLoadMethodTable methodTable, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
       final Class<?> type = target.getClass();
-      EnhancedResultObjectProxyImpl callback = new EnhancedResultObjectProxyImpl(type, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+      EnhancedResultObjectProxyImpl callback = new EnhancedResultObjectProxyImpl(type, lazyLoader, methodTable, objectFactory, constructorArgTypes, constructorArgs);
       Object enhanced = createStaticProxy(type, callback, constructorArgTypes, constructorArgs);
       PropertyCopier.copyBeanProperties(type, target, enhanced);
       return enhanced;
@@ -123,10 +122,12 @@ public class CglibProxyFactory implements ProxyFactory {
 
     @Override
     public Object intercept(Object enhanced, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-      final String methodName = method.getName();
+      final LazyLoadMethodTable.Entry entry = methodTable.get(method);
+      final LazyLoadMethodTable.Action action = entry.getAction();
       try {
-        synchronized (lazyLoader) {
-          if (WRITE_REPLACE_METHOD.equals(methodName)) {
+        if (action == LazyLoadMethodTable.Action.WRITE_REPLACE) {
+          lazyLoader.getLock().lock();
+          try {
             Object original;
             if (constructorArgTypes.isEmpty()) {
               original = objectFactory.create(type);
@@ -139,20 +140,24 @@ public class CglibProxyFactory implements ProxyFactory {
             } else {
               return original;
             }
-          } else {
-            if (lazyLoader.size() > 0 && !FINALIZE_METHOD.equals(methodName)) {
-              if (aggressive || lazyLoadTriggerMethods.contains(methodName)) {
+          } finally {
+            lazyLoader.getLock().unlock();
+          }
+        }
+        if (action != LazyLoadMethodTable.Action.NONE && !lazyLoader.isEmpty()) {
+          lazyLoader.getLock().lock();
+          try {
+            if (lazyLoader.size() > 0) {
+              if (action == LazyLoadMethodTable.Action.LOAD_ALL) {
                 lazyLoader.loadAll();
-              } else if (PropertyNamer.isSetter(methodName)) {
-                final String property = PropertyNamer.methodToProperty(methodName);
-                lazyLoader.remove(property);
-              } else if (PropertyNamer.isGetter(methodName)) {
-                final String property = PropertyNamer.methodToProperty(methodName);
-                if (lazyLoader.hasLoader(property)) {
-                  lazyLoader.load(property);
-                }
+              } else if (action == LazyLoadMethodTable.Action.SET_PROPERTY) {
+                lazyLoader.remove(entry.getProperty());
+              } else if (lazyLoader.hasLoader(entry.getProperty())) {
+                lazyLoader.load(entry.getProperty());
               }
             }
+          } finally {
+            lazyLoader.getLock().unlock();
           }
         }
         return methodProxy.invokeSuper(enhanced, args);
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,10 +15,15 @@
  */
 package org.apache.ibatis.executor.loader.javassist;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javassist.util.proxy.MethodHandler;
 import javassist.util.proxy.Proxy;
@@ -27,15 +32,16 @@ import javassist.util.proxy.ProxyFactory;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.AbstractEnhancedDeserializationProxy;
 import org.apache.ibatis.executor.loader.AbstractSerialStateHolder;
+import org.apache.ibatis.executor.loader.LazyLoadMethodTable;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.loader.WriteReplaceInterface;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.property.PropertyCopier;
-import org.apache.ibatis.reflection.property.PropertyNamer;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -43,9 +49,12 @@ import org.apache.ibatis.session.Configuration;
  */
 public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.ProxyFactory {
 
-  private static final String FINALIZE_METHOD = "finalize";
   private static final String WRITE_REPLACE_METHOD = "writeReplace";
 
+  private final LazyLoadMethodTable.Cache methodTables = new LazyLoadMethodTable.Cache();
+  // 按目标类型缓存生成的代理类、构造方法以及需要复制的字段，避免每次创建代理对象时重复生成字节码和反射查找
+  private final Map<Class<?>, ProxyClassDefinition> proxyClassDefinitions = new ConcurrentHashMap<>();
+
   public JavassistProxyFactory() {
     try {
       Resources.classForName("javassist.util.proxy.ProxyFactory");
@@ -56,7 +65,18 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
 
   @Override
   public Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
-    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+    final Class<?> type = target.getClass();
+    ProxyClassDefinition definition = proxyClassDefinitions.get(type);
+    if (definition == null) {
+      definition = proxyClassDefinitions.computeIfAbsent(type, ProxyClassDefinition::new);
+    }
+    if (!definition.isProxyable()) {
+      // final 类无法生成子类代理，退化为立即加载
+      lazyLoader.disableLazyLoading();
+      return target;
+    }
+    LazyLoadMethodTable methodTable = methodTables.get(type, configuration);
+    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, definition, methodTable, objectFactory, constructorArgTypes, constructorArgs);
   }
 
   public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
@@ -65,6 +85,21 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
 
   static Object createStaticProxy(Class<?> type, MethodHandler callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
 
+    ProxyFactory enhancer = newEnhancer(type);
+
+    Object enhanced;
+    Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
+    Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
+    try {
+      enhanced = enhancer.create(typesArray, valuesArray);
+    } catch (Exception e) {
+      throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+    }
+    ((Proxy) enhanced).setHandler(callback);
+    return enhanced;
+  }
+
+  private static ProxyFactory newEnhancer(Class<?> type) {
     ProxyFactory enhancer = new ProxyFactory();
     enhancer.setSuperclass(type);
 
@@ -79,86 +114,163 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     } catch (SecurityException e) {
       // nothing to do here
     }
+    return enhancer;
+  }
 
-    Object enhanced;
-    Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
-    Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
-    try {
-      enhanced = enhancer.create(typesArray, valuesArray);
-    } catch (Exception e) {
-      throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+  /**
+   * The proxy class of one result type, together with the resolved constructors and the fields that have to be copied
+   * from the original result object. It is created once per type, so creating a proxy only instantiates the class
+   * and copies field values.
+   */
+  private static class ProxyClassDefinition {
+
+    private final Class<?> proxyClass;
+    private final Field[] fields;
+    private final Map<List<Class<?>>, Constructor<?>> constructors = new ConcurrentHashMap<>();
+
+    ProxyClassDefinition(Class<?> type) {
+      if (Modifier.isFinal(type.getModifiers())) {
+        if (LogHolder.log.isDebugEnabled()) {
+          LogHolder.log.debug("Cannot create lazy loading proxy for final class " + type.getName()
+              + ", its lazy properties will be loaded eagerly.");
+        }
+        this.proxyClass = null;
+      } else {
+        try {
+          this.proxyClass = newEnhancer(type).createClass();
+        } catch (Exception e) {
+          throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+        }
+      }
+      this.fields = resolveFields(type);
+    }
+
+    private static Field[] resolveFields(Class<?> type) {
+      List<Field> fields = new ArrayList<>();
+      for (Class<?> parent = type; parent != null; parent = parent.getSuperclass()) {
+        for (Field field : parent.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers())) {
+            continue;
+          }
+          try {
+            if (Reflector.canControlMemberAccessible()) {
+              field.setAccessible(true);
+            }
+            fields.add(field);
+          } catch (RuntimeException e) {
+            // Nothing useful to do, the field is not accessible and cannot be copied.
+          }
+        }
+      }
+      return fields.toArray(new Field[0]);
+    }
+
+    boolean isProxyable() {
+      return proxyClass != null;
+    }
+
+    Object newInstance(MethodHandler callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+      Object enhanced;
+      try {
+        Constructor<?> constructor = constructors.get(constructorArgTypes);
+        if (constructor == null) {
+          Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
+          constructor = proxyClass.getConstructor(typesArray);
+          constructors.putIfAbsent(Arrays.asList(typesArray), constructor);
+        }
+        enhanced = constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
+      } catch (Exception e) {
+        throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+      }
+      ((Proxy) enhanced).setHandler(callback);
+      return enhanced;
+    }
+
+    void copyProperties(Object sourceBean, Object destinationBean) {
+      for (Field field : fields) {
+        try {
+          field.set(destinationBean, field.get(sourceBean));
+        } catch (Exception e) {
+          // Nothing useful to do, will only fail on final fields, which will be ignored.
+        }
+      }
     }
-    ((Proxy) enhanced).setHandler(callback);
-    return enhanced;
   }
 
   private static class EnhancedResultObjectProxyImpl implements MethodHandler {
 
     private final Class<?> type;
     private final ResultLoaderMap lazyLoader;
-    private final boolean aggressive;
-    private final Set<String> lazyLoadTriggerMethods;
+    private final ProxyClassDefinition definition;
+    // 按方法预先解析好的延迟加载行为（是否触发全部加载、对应的属性名等），同一类型的代理对象共享
+    private final LazyLoadMethodTable methodTable;
     private final ObjectFactory objectFactory;
     private final List<Class<?>> constructorArgTypes;
     private final List<Object> constructorArgs;
 
-    private EnhancedResultObjectProxyImpl(Class<?> type, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    private EnhancedResultObjectProxyImpl(Class<?> type, ResultLoaderMap lazyLoader, ProxyClassDefinition definition, LazyLoadMethodTable methodTable, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
       this.type = type;
       this.lazyLoader = lazyLoader;
-      this.aggressive = configuration.isAggressiveLazyLoading();
-      this.lazyLoadTriggerMethods = configuration.getLazyLoadTriggerMethods();
+      this.definition = definition;
+      this.methodTable = methodTable;
       this.objectFactory = objectFactory;
       this.constructorArgTypes = constructorArgTypes;
       this.constructorArgs = constructorArgs;
     }
 
-    public static Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    public static Object createProxy(Object target, ResultLoaderMap lazyLoader, ProxyClassDefinition definition, LazyLoadMethodTable methodTable, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
       final Class<?> type = target.getClass();
-      EnhancedResultObjectProxyImpl callback = new EnhancedResultObjectProxyImpl(type, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
-      Object enhanced = createStaticProxy(type, callback, constructorArgTypes, constructorArgs);
-      PropertyCopier.copyBeanProperties(type, target, enhanced);
+      EnhancedResultObjectProxyImpl callback = new EnhancedResultObjectProxyImpl(type, lazyLoader, definition, methodTable, objectFactory, constructorArgTypes, constructorArgs);
+      Object enhanced = definition.newInstance(callback, constructorArgTypes, constructorArgs);
+      definition.copyProperties(target, enhanced);
       return enhanced;
     }
 
     @Override
     public Object invoke(Object enhanced, Method method, Method methodProxy, Object[] args) throws Throwable {
-      final String methodName = method.getName();
+      final LazyLoadMethodTable.Entry entry = methodTable.get(method);
+      final LazyLoadMethodTable.Action action = entry.getAction();
       try {
-        synchronized (lazyLoader) { // 在 lazyLoader 集合上加锁防止并发
-          if (WRITE_REPLACE_METHOD.equals(methodName)) {
+        if (action == LazyLoadMethodTable.Action.WRITE_REPLACE) {
+          lazyLoader.getLock().lock();
+          try {
             Object original;
             if (constructorArgTypes.isEmpty()) {
               original = objectFactory.create(type);
             } else {
               original = objectFactory.create(type, constructorArgTypes, constructorArgs);
             }
-            PropertyCopier.copyBeanProperties(type, enhanced, original);
+            definition.copyProperties(enhanced, original);
             if (lazyLoader.size() > 0) {
               return new JavassistSerialStateHolder(original, lazyLoader.getProperties(), objectFactory, constructorArgTypes, constructorArgs);
             } else {
               return original;
             }
-          } else {
+          } finally {
+            lazyLoader.getLock().unlock();
+          }
+        }
+        // 延迟加载的属性全部加载完成之后(lazyLoader.isEmpty())，或者此次调用的方法与延迟加载无关时，直接调用目标方法，不再加锁
+        if (action != LazyLoadMethodTable.Action.NONE && !lazyLoader.isEmpty()) {
+          lazyLoader.getLock().lock(); // 在 lazyLoader 集合上加锁防止并发
+          try {
             // 通过 lazyLoader 集合的长度，判断是否存在延迟加载的属性。
-            if (lazyLoader.size() > 0 && !FINALIZE_METHOD.equals(methodName)) {
-              // 优先检查全局的 aggressiveLazyLoading 配置和 lazyLoadTriggerMethods 配置
-              if (aggressive || lazyLoadTriggerMethods.contains(methodName)) {
+            if (lazyLoader.size() > 0) {
+              if (action == LazyLoadMethodTable.Action.LOAD_ALL) {
                 // 如果 aggressiveLazyLoading 配置为 true，或此次调用方法名称包含于 lazyLoadTriggerMethods 配置的方法名列表中，
                 // 会立刻将该对象的全部延迟加载属性都加载上来，即触发 ResultLoaderMap.loadAll() 方法。
                 lazyLoader.loadAll();
-              } else if (PropertyNamer.isSetter(methodName)) {
+              } else if (action == LazyLoadMethodTable.Action.SET_PROPERTY) {
                 // 检查此次调用的方法是否为属性对应的 setter 方法，如果是，则该属性已经被赋值，无须再执行延迟加载操作，
                 // 可以从 ResultLoaderMap 集合中删除该属性以及对应的 ResultLoader 对象。
-                final String property = PropertyNamer.methodToProperty(methodName);
-                lazyLoader.remove(property);
-              } else if (PropertyNamer.isGetter(methodName)) {
+                lazyLoader.remove(entry.getProperty());
+              } else if (lazyLoader.hasLoader(entry.getProperty())) {
                 // 检测此次调用的方法是否为属性对应的 getter 方法，如果是，触发对应的 ResultLoader.load() 方法，完成延迟加载。
-                final String property = PropertyNamer.methodToProperty(methodName);
-                if (lazyLoader.hasLoader(property)) {
-                  lazyLoader.load(property);
-                }
+                lazyLoader.load(entry.getProperty());
               }
             }
+          } finally {
+            lazyLoader.getLock().unlock();
           }
         }
         // 完成上述延迟加载操作之后，会释放 loaderMap 集合上的锁，然后调用目标对象的方法，完成真正的属性读写操作。
@@ -0,0 +1,72 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.util.LongKeyedMap;
+
+/**
+ * Collects the mapped rows into a {@link LongKeyedMap}, keyed by a numeric column that is read with
+ * <code>ResultSet.getLong()</code> instead of through the properties of the mapped object. The result map must not
+ * have nested result maps.
+ *
+ * @since 3.5.12
+ */
+public class LongKeyedMapResultHandler<V> implements RowAwareResultHandler<V> {
+
+  private final LongKeyedMap<V> mappedResults = new LongKeyedMap<>();
+  private final String keyColumn;
+  private long currentKey;
+  private boolean keyRead;
+
+  public LongKeyedMapResultHandler(String keyColumn) {
+    this.keyColumn = keyColumn;
+  }
+
+  @Override
+  public boolean requiresResultObject() {
+    return true;
+  }
+
+  @Override
+  public void readRow(ResultSet rs) throws SQLException {
+    currentKey = rs.getLong(keyColumn);
+    if (rs.wasNull()) {
+      throw new ExecutorException("The key column '" + keyColumn + "' of row " + (mappedResults.size() + 1)
+          + " is null.");
+    }
+    keyRead = true;
+  }
+
+  @Override
+  public void handleResult(ResultContext<? extends V> context) {
+    if (!keyRead) {
+      throw new ExecutorException("Cannot read the key column '" + keyColumn
+          + "' of a result map with nested result maps.");
+    }
+    mappedResults.put(currentKey, context.getResultObject());
+    keyRead = false;
+  }
+
+  public LongKeyedMap<V> getMappedResults() {
+    return mappedResults;
+  }
+
+}
@@ -0,0 +1,170 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.session.ResultContext;
+
+/**
+ * Collects a single numeric column into a growable <code>long[]</code> or <code>int[]</code>, reading it with
+ * <code>ResultSet.getLong()</code> instead of mapping and boxing each row. Null values, and values that do not fit in
+ * an <code>int</code> when collecting an <code>int[]</code>, are rejected.
+ *
+ * @since 3.5.12
+ */
+public class PrimitiveArrayResultHandler implements RowAwareResultHandler<Object> {
+
+  private final Class<?> componentType;
+  private final String columnLabel;
+  private long[] longValues;
+  private int[] intValues;
+  private int size;
+
+  /**
+   * Reads the first column of each row.
+   *
+   * @param componentType
+   *          <code>long.class</code> or <code>int.class</code>
+   */
+  public PrimitiveArrayResultHandler(Class<?> componentType) {
+    this(componentType, null);
+  }
+
+  /**
+   * Reads the column with the given label.
+   *
+   * @param componentType
+   *          <code>long.class</code> or <code>int.class</code>
+   * @param columnLabel
+   *          the column label, or <code>null</code> for the first column
+   */
+  public PrimitiveArrayResultHandler(Class<?> componentType, String columnLabel) {
+    if (componentType != long.class && componentType != int.class) {
+      throw new IllegalArgumentException("Unsupported component type " + componentType + ", expected long or int.");
+    }
+    this.componentType = componentType;
+    this.columnLabel = columnLabel;
+    // 只分配目标类型的缓冲区，int[] 不必先以两倍内存收集为 long
+    if (componentType == int.class) {
+      intValues = new int[16];
+    } else {
+      longValues = new long[16];
+    }
+  }
+
+  @Override
+  public boolean requiresResultObject() {
+    return false;
+  }
+
+  @Override
+  public void readRow(ResultSet rs) throws SQLException {
+    long value = columnLabel == null ? rs.getLong(1) : rs.getLong(columnLabel);
+    if (rs.wasNull()) {
+      throw new ExecutorException("Row " + (size + 1) + " has a null value, which cannot be stored in a "
+          + componentType + "[].");
+    }
+    add(value);
+  }
+
+  @Override
+  public void handleResult(ResultContext<?> context) {
+    // 嵌套映射的结果仍然逐行映射，此时从映射结果中取值
+    Object value = context.getResultObject();
+    if (!(value instanceof Number)) {
+      throw value == null
+          ? new ExecutorException(
+              "Row " + (size + 1) + " has a null value, which cannot be stored in a " + componentType + "[].")
+          : new ExecutorException("Cannot store a " + value.getClass().getName() + " in a " + componentType + "[].");
+    }
+    add(((Number) value).longValue());
+  }
+
+  private void add(long value) {
+    if (intValues != null) {
+      // 超出 int 范围的值在读取时立即拒绝
+      if ((int) value != value) {
+        throw new ExecutorException("Row " + (size + 1) + " has the value " + value + ", which cannot be stored in a "
+            + componentType + "[].");
+      }
+      if (size == intValues.length) {
+        intValues = Arrays.copyOf(intValues, size + (size >> 1));
+      }
+      intValues[size++] = (int) value;
+    } else {
+      if (size == longValues.length) {
+        longValues = Arrays.copyOf(longValues, size + (size >> 1));
+      }
+      longValues[size++] = value;
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the values read so far as an array of the component type.
+   *
+   * @return a new <code>long[]</code> or <code>int[]</code> of the values, in row order
+   */
+  public Object toArray() {
+    return componentType == int.class ? toIntArray() : toLongArray();
+  }
+
+  /**
+   * Returns the values read so far.
+   *
+   * @return a new array of the values, in row order
+   */
+  public long[] toLongArray() {
+    if (longValues != null) {
+      return Arrays.copyOf(longValues, size);
+    }
+    long[] longs = new long[size];
+    for (int i = 0; i < size; i++) {
+      longs[i] = intValues[i];
+    }
+    return longs;
+  }
+
+  /**
+   * Returns the values read so far, narrowed to <code>int</code>.
+   *
+   * @return a new array of the values, in row order
+   * @throws ExecutorException
+   *           if the handler collects a <code>long[]</code> and a value does not fit in an <code>int</code>
+   */
+  public int[] toIntArray() {
+    if (intValues != null) {
+      return Arrays.copyOf(intValues, size);
+    }
+    int[] ints = new int[size];
+    for (int i = 0; i < size; i++) {
+      ints[i] = (int) longValues[i];
+      if (ints[i] != longValues[i]) {
+        throw new ExecutorException(
+            "Row " + (i + 1) + " has the value " + longValues[i] + ", which cannot be stored in a int[].");
+      }
+    }
+    return ints;
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * A result handler that reads columns of each row straight from the result set, e.g. to store them in primitive
+ * arrays without boxing.
+ * <p>
+ * For result maps without nested result maps, {@link #readRow(ResultSet)} is called for every row before the row is
+ * mapped. When {@link #requiresResultObject()} returns false the row is not mapped at all and
+ * {@link #handleResult(org.apache.ibatis.session.ResultContext)} is not called for it. Rows of nested result maps are
+ * always mapped and only passed to <code>handleResult</code>.
+ *
+ * @since 3.5.12
+ */
+public interface RowAwareResultHandler<T> extends ResultHandler<T> {
+
+  /**
+   * Returns whether the rows must also be mapped to result objects and passed to <code>handleResult</code>.
+   *
+   * @return true if the rows are mapped after they have been read
+   */
+  boolean requiresResultObject();
+
+  /**
+   * Reads the current row of the result set. The handler must not move the cursor of the result set.
+   *
+   * @param rs
+   *          the result set, positioned on the current row
+   * @throws SQLException
+   *           if a column could not be read
+   */
+  void readRow(ResultSet rs) throws SQLException;
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -38,14 +38,18 @@ import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.executor.loader.ResultLoaderBatch;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
+import org.apache.ibatis.executor.result.RowAwareResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.Discriminator;
@@ -60,6 +64,7 @@ import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.CursorRowBounds;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -98,10 +103,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
+  // batch nested queries
+  private final Map<String, ResultLoaderBatch> resultLoaderBatches = new HashMap<>();
+  private final List<PendingBatchLoad> pendingBatchLoads = new ArrayList<>();
+  private boolean deferBatchLoads;
+
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
   private final Map<String, List<String>> constructorAutoMappingColumns = new HashMap<>();
 
+  // 是否按列索引读取属性映射和自动映射的列值
+  private final boolean useColumnIndex;
+
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
@@ -110,17 +123,34 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
+  private static class PendingBatchLoad {
+    public MetaObject metaObject;
+    public String property;
+    public ResultLoader resultLoader;
+  }
+
   private static class UnMappedColumnAutoMapping {
     private final String column;
     private final String property;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
+    // 解析列索引时使用的结果集，以及该列在其中的索引
+    private final ResultSetWrapper resultSetWrapper;
+    private final int columnIndex;
 
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive,
+        ResultSetWrapper resultSetWrapper) {
       this.column = column;
       this.property = property;
       this.typeHandler = typeHandler;
       this.primitive = primitive;
+      this.resultSetWrapper = resultSetWrapper;
+      this.columnIndex = resultSetWrapper.getColumnIndex(column);
+    }
+
+    private int getColumnIndex(ResultSetWrapper rsw) {
+      // 自动映射按 ResultMap 缓存，可能被后续结果集复用，此时列的位置需要重新查找
+      return rsw == resultSetWrapper ? columnIndex : rsw.getColumnIndex(column);
     }
   }
 
@@ -136,6 +166,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.objectFactory = configuration.getObjectFactory();
     this.reflectorFactory = configuration.getReflectorFactory();
     this.resultHandler = resultHandler;
+    this.useColumnIndex = configuration.isUseColumnIndex() && configuration.isUseColumnLabel();
   }
 
   //
@@ -200,6 +231,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     int resultMapCount = resultMaps.size();
     // 验证结果映射计数
     validateResultMapsCount(rsw, resultMapCount);
+    // 只有结果全部收集完成之后才返回给调用方时，才能推迟批量嵌套查询，等所有行映射完成后统一加载
+    deferBatchLoads = resultHandler == null;
     // 遍历ResultMap集合
     while (rsw != null && resultMapCount > resultSetCount) {
       // 根据ResultMap中定义的映射规则处理ResultSet，并将映射得到的Java对象添加到
@@ -232,6 +265,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         resultSetCount++;
       }
     }
+    // 执行推迟的批量嵌套查询，将结果设置到外层对象中
+    loadPendingBatches();
     // 返回全部映射得到的Java对象
     return collapseSingleResultList(multipleResults);
   }
@@ -251,7 +286,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
-    return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    DefaultCursor<E> cursor = new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    if (rowBounds instanceof CursorRowBounds && ((CursorRowBounds) rowBounds).getPrefetchSize() > 0) {
+      // 在单独的线程中预取并映射记录
+      return new PrefetchingCursor<>(cursor, ((CursorRowBounds) rowBounds).getPrefetchSize());
+    }
+    return cursor;
   }
 
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
@@ -332,6 +372,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  private void loadPendingBatches() throws SQLException {
+    try {
+      for (PendingBatchLoad pendingBatchLoad : pendingBatchLoads) {
+        pendingBatchLoad.metaObject.setValue(pendingBatchLoad.property, pendingBatchLoad.resultLoader.loadResult());
+      }
+    } finally {
+      pendingBatchLoads.clear();
+      deferBatchLoads = false;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private List<Object> collapseSingleResultList(List<Object> multipleResults) {
     return multipleResults.size() == 1 ? (List<Object>) multipleResults.get(0) : multipleResults;
@@ -374,8 +425,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ResultSet resultSet = rsw.getResultSet();
     // 1. 执行 skipRows() 方法跳过多余的记录，定位到指定的行
     skipRows(resultSet, rowBounds);
+    RowAwareResultHandler<?> rowReader = parentMapping == null && resultHandler instanceof RowAwareResultHandler
+        ? (RowAwareResultHandler<?>) resultHandler : null;
     // 2. 通过 shouldProcessMoreRows() 方法，检测是否还有需要映射的数据记录
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      if (rowReader != null) {
+        // 由 ResultHandler 直接读取当前行的列值，不需要映射结果对象时跳过映射
+        rowReader.readRow(resultSet);
+        if (!rowReader.requiresResultObject()) {
+          resultContext.nextResultObject(null);
+          continue;
+        }
+      }
       // 3. 如果存在需要映射的记录，则先通过 resolveDiscriminatedResultMap() 方法
       // 处理映射中用到的 Discriminator，决定此次映射实际使用的 ResultMap。
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
@@ -515,24 +576,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
-    // 首先从 ResultSetWrapper 中明确需要映射的列名集合
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    // 首先从 ResultSetWrapper 中获取每个属性映射对应的列索引，每个结果集只解析一次，
+    // 不再逐行拼接前缀并查找列名
+    final int[] columnIndexes = rsw.getPropertyColumnIndexes(resultMap, columnPrefix);
     boolean foundValues = false;
     // 获取 ResultMap 中定义的 ResultMapping 对象集合
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
     // 遍历全部 ResultMapping 集合
-    for (ResultMapping propertyMapping : propertyMappings) {
-      // 针对每个 ResultMapping 对象为 column 属性值添加指定的前缀，得到最终的列名
-      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      if (propertyMapping.getNestedResultMapId() != null) {
-        // the user added a column attribute to a nested result map, ignore it
-        column = null;
-      }
-      if (propertyMapping.isCompositeResult()
-          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
-          || propertyMapping.getResultSet() != null) {
+    for (int i = 0; i < columnIndexes.length; i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
+      if (propertyMapping.isCompositeResult() || columnIndexes[i] > 0 || propertyMapping.getResultSet() != null) {
         // 然后执行 getPropertyMappingValue() 方法完成映射，得到对应的属性值
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, columnIndexes[i], lazyLoader, columnPrefix);
         final String property = propertyMapping.getProperty();
         if (property == null) {
           continue;
@@ -552,7 +607,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, int columnIndex, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
     if (propertyMapping.getNestedQueryId() != null) {
       // 嵌套映射
@@ -565,6 +620,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     } else {
       // 基本类型的映射，直接可以通过 TypeHandler 从 ResultSet 中读取列值，并在转化之后返回
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
+      if (useColumnIndex && columnIndex > 0) {
+        // 按列索引读取，驱动不需要再逐行解析列名
+        return typeHandler.getResult(rs, columnIndex);
+      }
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
       return typeHandler.getResult(rs, column);
     }
@@ -608,7 +667,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
             autoMapping.add(
               // 经过上述检测之后，就可以创建 UnMappedColumnAutoMapping 对象将该列与对应的属性进行关联。
               // 在 UnMappedColumnAutoMapping 中记录了列名、属性名以及相关的 TypeHandler。
-              new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive())
+              new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive(), rsw)
             );
           } else {
             // 如果不存在合适的 TypeHandler，依旧是通过全局配置的 AutoMappingUnknownColumnBehavior 进行处理。
@@ -640,7 +699,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       // 最后，遍历上面得到 UnMappedColumnAutoMapping 集合
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
         //通过其中的 TypeHandler 读取列值并转换成相应的 Java 类型
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = useColumnIndex
+            ? mapping.typeHandler.getResult(rsw.getResultSet(), mapping.getColumnIndex(rsw))
+            : mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -956,12 +1017,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERRED;
       } else {
-        // 创建ResultLoader对象
-        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        // 创建ResultLoader对象，配置了 batchSelect 时创建的是共享同一个 ResultLoaderBatch 的 BatchResultLoader
+        final ResultLoader resultLoader = createNestedQueryResultLoader(propertyMapping, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
         // 根据是否延迟加载的配置决定value的值
-        if (propertyMapping.isLazy()) {
+        if (propertyMapping.isLazy() && lazyLoader.isLazyLoadingSupported()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERRED;
+        } else if (resultLoader instanceof BatchResultLoader && deferBatchLoads) {
+          addPendingBatchLoad(metaResultObject, property, resultLoader);
+          value = DEFERRED;
         } else {
           value = resultLoader.loadResult();
         }
@@ -970,6 +1034,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  private ResultLoader createNestedQueryResultLoader(ResultMapping propertyMapping, MappedStatement nestedQuery, Object nestedQueryParameterObject,
+      Class<?> targetType, CacheKey key, BoundSql nestedBoundSql) {
+    final String nestedBatchQueryId = propertyMapping.getNestedBatchQueryId();
+    if (nestedBatchQueryId == null) {
+      return new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+    }
+    final String batchId = nestedBatchQueryId + ":" + propertyMapping.getBatchKey() + ":" + targetType.getName();
+    final ResultLoaderBatch batch = resultLoaderBatches.computeIfAbsent(batchId, k -> new ResultLoaderBatch(configuration, executor,
+        configuration.getMappedStatement(nestedBatchQueryId), propertyMapping.getBatchKey(), targetType));
+    return new BatchResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql, batch);
+  }
+
+  private void addPendingBatchLoad(MetaObject metaResultObject, String property, ResultLoader resultLoader) {
+    PendingBatchLoad pendingBatchLoad = new PendingBatchLoad();
+    pendingBatchLoad.metaObject = metaResultObject;
+    pendingBatchLoad.property = property;
+    pendingBatchLoad.resultLoader = resultLoader;
+    pendingBatchLoads.add(pendingBatchLoad);
+  }
+
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
       return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
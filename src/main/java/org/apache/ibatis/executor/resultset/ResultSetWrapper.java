@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import java.util.Set;
 
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.ObjectTypeHandler;
@@ -51,6 +52,10 @@ public class ResultSetWrapper {
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   // ResultSet 与 ResultMap 不参与映射的列
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  // ResultMap 中每个属性映射对应的列索引（从 1 开始，0 表示该列不在结果集中）
+  private final Map<String, int[]> propertyColumnIndexesMap = new HashMap<>();
+  // 大写列名到列索引的映射，按需创建
+  private Map<String, Integer> columnIndexes;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
@@ -134,6 +139,64 @@ public class ResultSetWrapper {
     return handler;
   }
 
+  /**
+   * Gets the 1-based index of a column. Like {@link ResultSet#findColumn(String)}, the name is compared ignoring case
+   * and the first matching column wins.
+   *
+   * @param columnName
+   *          the column name
+   * @return the column index, or 0 if the result set has no such column
+   * @since 3.5.12
+   */
+  public int getColumnIndex(String columnName) {
+    if (columnIndexes == null) {
+      columnIndexes = new HashMap<>();
+      for (int i = 0; i < columnNames.size(); i++) {
+        columnIndexes.putIfAbsent(columnNames.get(i).toUpperCase(Locale.ENGLISH), i + 1);
+      }
+    }
+    return columnIndexes.getOrDefault(columnName.toUpperCase(Locale.ENGLISH), 0);
+  }
+
+  /**
+   * Gets the columns read by the property mappings of a result map, resolved once per result set.
+   *
+   * @param resultMap
+   *          the result map
+   * @param columnPrefix
+   *          the column prefix
+   * @return the 1-based column index of each of {@link ResultMap#getPropertyResultMappings()}, or 0 for the mappings
+   *         that do not read a column of this result set
+   * @throws SQLException
+   *           if the mapped columns cannot be determined
+   * @since 3.5.12
+   */
+  public int[] getPropertyColumnIndexes(ResultMap resultMap, String columnPrefix) throws SQLException {
+    final String mapKey = getMapKey(resultMap, columnPrefix);
+    int[] indexes = propertyColumnIndexesMap.get(mapKey);
+    if (indexes == null) {
+      final List<String> mappedColumnNames = getMappedColumnNames(resultMap, columnPrefix);
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      indexes = new int[propertyMappings.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        String column = propertyMapping.getColumn();
+        if (column == null || propertyMapping.getNestedResultMapId() != null) {
+          // 没有配置列名，或者是嵌套映射上的列名（会被忽略）
+          continue;
+        }
+        if (columnPrefix != null && !columnPrefix.isEmpty()) {
+          column = columnPrefix + column;
+        }
+        if (mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+          indexes[i] = getColumnIndex(column);
+        }
+      }
+      propertyColumnIndexesMap.put(mapKey, indexes);
+    }
+    return indexes;
+  }
+
   private Class<?> resolveClass(String className) {
     try {
       // #699 className could be null
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -22,13 +22,18 @@ import java.sql.Statement;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.dialect.Dialect;
+import org.apache.ibatis.executor.dialect.PagedBoundSql;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.metrics.StatementExecutionRecorder;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.CursorRowBounds;
+import org.apache.ibatis.session.KeysetRowBounds;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.TypeHandlerRegistry;
@@ -49,6 +54,8 @@ public abstract class BaseStatementHandler implements StatementHandler {
   protected final RowBounds rowBounds;
 
   protected BoundSql boundSql;
+  // 配置了 StatementMetricsCollector 时才会创建
+  protected final StatementExecutionRecorder recorder;
 
   protected BaseStatementHandler(Executor executor, MappedStatement mappedStatement, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     this.configuration = mappedStatement.getConfiguration();
@@ -64,10 +71,32 @@ public abstract class BaseStatementHandler implements StatementHandler {
       boundSql = mappedStatement.getBoundSql(parameterObject);
     }
 
+    RowBounds resultSetRowBounds = rowBounds;
+    if (PagedBoundSql.isPageable(mappedStatement, rowBounds)) {
+      // 将 RowBounds 下推到 SQL 中由数据库完成分页，结果集中不再需要跳过记录
+      Dialect dialect = configuration.getDialect();
+      BoundSql pagedBoundSql = null;
+      if (dialect != null && (configuration.isRowBoundsPushdownEnabled() || rowBounds instanceof KeysetRowBounds)) {
+        // 无法分页的语句返回 null，此时仍由结果集处理器跳过记录
+        pagedBoundSql = PagedBoundSql.create(configuration, boundSql, rowBounds, dialect);
+      }
+      if (pagedBoundSql != null) {
+        boundSql = pagedBoundSql;
+        resultSetRowBounds = rowBounds instanceof CursorRowBounds ? ((CursorRowBounds) rowBounds).unbounded() : RowBounds.DEFAULT;
+      } else if (dialect == null && rowBounds instanceof KeysetRowBounds) {
+        throw new ExecutorException("Keyset pagination of '" + mappedStatement.getId()
+            + "' requires a dialect, but none is registered for databaseId '" + configuration.getDatabaseId() + "'.");
+      } else if (rowBounds instanceof KeysetRowBounds) {
+        throw new ExecutorException("Keyset pagination of '" + mappedStatement.getId()
+            + "' is not possible because its select ends with a paging or locking clause.");
+      }
+    }
+
     this.boundSql = boundSql;
 
     this.parameterHandler = configuration.newParameterHandler(mappedStatement, parameterObject, boundSql);
-    this.resultSetHandler = configuration.newResultSetHandler(executor, mappedStatement, rowBounds, parameterHandler, resultHandler, boundSql);
+    this.resultSetHandler = configuration.newResultSetHandler(executor, mappedStatement, resultSetRowBounds, parameterHandler, resultHandler, boundSql);
+    this.recorder = StatementExecutionRecorder.newInstance(mappedStatement);
   }
 
   @Override
@@ -83,11 +112,17 @@ public abstract class BaseStatementHandler implements StatementHandler {
   @Override
   public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
     ErrorContext.instance().sql(boundSql.getSql());
+    if (recorder != null) {
+      recorder.beginPrepare();
+    }
     Statement statement = null;
     try {
       statement = instantiateStatement(connection);
       setStatementTimeout(statement, transactionTimeout);
       setFetchSize(statement);
+      if (recorder != null) {
+        recorder.endPrepare();
+      }
       return statement;
     } catch (SQLException e) {
       closeStatement(statement);
@@ -100,6 +135,29 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected abstract Statement instantiateStatement(Connection connection) throws SQLException;
 
+  /**
+   * Marks the start of the execution of the statement for the {@link StatementExecutionRecorder}.
+   *
+   * @since 3.5.12
+   */
+  protected void recordExecuteStart() {
+    if (recorder != null) {
+      recorder.beginExecute();
+    }
+  }
+
+  /**
+   * Marks the end of the execution of the statement, and the start of fetching and mapping its rows, for the
+   * {@link StatementExecutionRecorder}.
+   *
+   * @since 3.5.12
+   */
+  protected void recordExecuteEnd() {
+    if (recorder != null) {
+      recorder.endExecute();
+    }
+  }
+
   protected void setStatementTimeout(Statement stmt, Integer transactionTimeout) throws SQLException {
     Integer queryTimeout = null;
     if (mappedStatement.getTimeout() != null) {
@@ -114,6 +172,11 @@ public abstract class BaseStatementHandler implements StatementHandler {
   }
 
   protected void setFetchSize(Statement stmt) throws SQLException {
+    if (rowBounds instanceof CursorRowBounds && ((CursorRowBounds) rowBounds).getFetchSize() != null) {
+      // 单次调用指定的 fetchSize 优先于语句和全局的配置
+      stmt.setFetchSize(((CursorRowBounds) rowBounds).getFetchSize());
+      return;
+    }
     Integer fetchSize = mappedStatement.getFetchSize();
     if (fetchSize != null) {
       stmt.setFetchSize(fetchSize);
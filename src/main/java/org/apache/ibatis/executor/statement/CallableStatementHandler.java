@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -47,6 +47,7 @@ public class CallableStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    recordExecuteStart();
     cs.execute();
     int rows = cs.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
@@ -65,7 +66,9 @@ public class CallableStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    recordExecuteStart();
     cs.execute(); // 执行存储过程
+    recordExecuteEnd();
     // 处理存储过程返回的结果集
     List<E> resultList = resultSetHandler.handleResultSets(cs);
     // 处理输出参数，可能修改resultList集合
@@ -77,7 +80,9 @@ public class CallableStatementHandler extends BaseStatementHandler {
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    recordExecuteStart();
     cs.execute();
+    recordExecuteEnd();
     Cursor<E> resultList = resultSetHandler.handleCursorResultSets(cs);
     resultSetHandler.handleOutputParameters(cs);
     return resultList;
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.logging.jdbc.StructuredSqlLogger;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.ResultHandler;
@@ -34,7 +35,9 @@ import org.apache.ibatis.session.RowBounds;
  */
 public class RoutingStatementHandler implements StatementHandler {
 
-  private final StatementHandler delegate;
+  private final BaseStatementHandler delegate;
+  // 开启结构化 SQL 日志并且本次执行被采样时才会创建
+  private final StructuredSqlLogger sqlLogger;
 
   public RoutingStatementHandler(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     // 下面就是根据MappedStatement的配置，生成一个相应的StatementHandler对象，
@@ -56,11 +59,22 @@ public class RoutingStatementHandler implements StatementHandler {
         // 抛出异常
         throw new ExecutorException("Unknown statement type: " + ms.getStatementType());
     }
+    sqlLogger = StructuredSqlLogger.newInstance(ms);
   }
 
   @Override
   public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
-    return delegate.prepare(connection, transactionTimeout);
+    if (sqlLogger == null && delegate.recorder == null) {
+      return delegate.prepare(connection, transactionTimeout);
+    }
+    long start = System.nanoTime();
+    try {
+      return delegate.prepare(connection, transactionTimeout);
+    } catch (SQLException | RuntimeException | Error e) {
+      // 语句无法创建时（例如表不存在）同样记录一次执行
+      finish(start, -1, e);
+      throw e;
+    }
   }
 
   @Override
@@ -75,17 +89,68 @@ public class RoutingStatementHandler implements StatementHandler {
 
   @Override
   public int update(Statement statement) throws SQLException {
-    return delegate.update(statement);
+    if (sqlLogger == null && delegate.recorder == null) {
+      return delegate.update(statement);
+    }
+    long start = System.nanoTime();
+    int rows = -1;
+    Throwable failure = null;
+    try {
+      rows = delegate.update(statement);
+      return rows;
+    } catch (SQLException | RuntimeException | Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      finish(start, rows, failure);
+    }
   }
 
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
-    return delegate.query(statement, resultHandler);
+    if (sqlLogger == null && delegate.recorder == null) {
+      return delegate.query(statement, resultHandler);
+    }
+    long start = System.nanoTime();
+    int rows = -1;
+    Throwable failure = null;
+    try {
+      List<E> results = delegate.query(statement, resultHandler);
+      // 使用 ResultHandler 时结果不会保存在 List 中，行数未知
+      rows = resultHandler == null ? results.size() : -1;
+      return results;
+    } catch (SQLException | RuntimeException | Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      finish(start, rows, failure);
+    }
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
-    return delegate.queryCursor(statement);
+    if (sqlLogger == null && delegate.recorder == null) {
+      return delegate.queryCursor(statement);
+    }
+    long start = System.nanoTime();
+    Throwable failure = null;
+    try {
+      return delegate.queryCursor(statement);
+    } catch (SQLException | RuntimeException | Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      finish(start, -1, failure);
+    }
+  }
+
+  private void finish(long start, int rows, Throwable failure) {
+    if (sqlLogger != null) {
+      sqlLogger.log(delegate.getBoundSql(), start, rows, failure);
+    }
+    if (delegate.recorder != null) {
+      delegate.recorder.finish(delegate.getBoundSql(), rows, failure);
+    }
   }
 
   @Override
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -47,6 +47,7 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     int rows;
+    recordExecuteStart();
     if (keyGenerator instanceof Jdbc3KeyGenerator) {
       // 首先会通过 Statement.execute() 方法执行 insert、update 或 delete 类型的 SQL 语句
       statement.execute(sql, Statement.RETURN_GENERATED_KEYS);
@@ -77,7 +78,9 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     // 获取SQL语句
     String sql = boundSql.getSql();
     // 执行SQL语句
+    recordExecuteStart();
     statement.execute(sql);
+    recordExecuteEnd();
     // 处理ResultSet映射，得到结果对象
     return resultSetHandler.handleResultSets(statement);
   }
@@ -85,7 +88,9 @@ public class SimpleStatementHandler extends BaseStatementHandler {
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     String sql = boundSql.getSql();
+    recordExecuteStart();
     statement.execute(sql);
+    recordExecuteEnd();
     return resultSetHandler.handleCursorResultSets(statement);
   }
 
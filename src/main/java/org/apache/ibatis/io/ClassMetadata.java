@@ -0,0 +1,271 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The name, super types and runtime visible annotations of a class, read from its class file or from a type index
+ * without loading the class.
+ *
+ * @since 3.5.12
+ * @see ClassMetadataReader
+ */
+public final class ClassMetadata {
+
+  private static final String NONE = "-";
+
+  private final String className;
+  private final String superClassName;
+  private final List<String> interfaceNames;
+  private final List<String> annotationNames;
+
+  public ClassMetadata(String className, String superClassName, List<String> interfaceNames,
+      List<String> annotationNames) {
+    this.className = className;
+    this.superClassName = superClassName;
+    this.interfaceNames = Collections.unmodifiableList(new ArrayList<>(interfaceNames));
+    this.annotationNames = Collections.unmodifiableList(new ArrayList<>(annotationNames));
+  }
+
+  /**
+   * Gets the binary name of the class, e.g. <code>com.example.Outer$Inner</code>.
+   *
+   * @return the class name
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Gets the binary name of the super class.
+   *
+   * @return the super class name, or null for <code>java.lang.Object</code>
+   */
+  public String getSuperClassName() {
+    return superClassName;
+  }
+
+  public List<String> getInterfaceNames() {
+    return interfaceNames;
+  }
+
+  /**
+   * Gets the names of the annotations that are present on the class at runtime. Inherited annotations are not
+   * included.
+   *
+   * @return the annotation names
+   */
+  public List<String> getAnnotationNames() {
+    return annotationNames;
+  }
+
+  /**
+   * Reads the metadata from a class file.
+   *
+   * @param inputStream
+   *          the content of the class file, which is not closed
+   * @return the metadata
+   * @throws IOException
+   *           if the stream cannot be read or is not a class file
+   */
+  public static ClassMetadata read(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+    if (in.readInt() != 0xCAFEBABE) {
+      throw new IOException("Not a class file.");
+    }
+    // minor_version, major_version
+    in.skipBytes(4);
+    int constantPoolCount = in.readUnsignedShort();
+    // 常量池中只需要保留 UTF8 常量以及 CONSTANT_Class 指向的名称
+    String[] utf8 = new String[constantPoolCount];
+    int[] classNameIndexes = new int[constantPoolCount];
+    for (int i = 1; i < constantPoolCount; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1: // Utf8
+          utf8[i] = in.readUTF();
+          break;
+        case 7: // Class
+          classNameIndexes[i] = in.readUnsignedShort();
+          break;
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          in.skipBytes(2);
+          break;
+        case 15: // MethodHandle
+          in.skipBytes(3);
+          break;
+        case 3: // Integer
+        case 4: // Float
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          in.skipBytes(4);
+          break;
+        case 5: // Long
+        case 6: // Double
+          in.skipBytes(8);
+          i++;
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag + ".");
+      }
+    }
+    // access_flags
+    in.skipBytes(2);
+    String className = binaryName(utf8[classNameIndexes[in.readUnsignedShort()]]);
+    int superClass = in.readUnsignedShort();
+    String superClassName = superClass == 0 ? null : binaryName(utf8[classNameIndexes[superClass]]);
+    int interfaceCount = in.readUnsignedShort();
+    List<String> interfaceNames = new ArrayList<>(interfaceCount);
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaceNames.add(binaryName(utf8[classNameIndexes[in.readUnsignedShort()]]));
+    }
+    // 跳过字段和方法，只读取类上的注解
+    skipMembers(in);
+    skipMembers(in);
+    List<String> annotationNames = new ArrayList<>();
+    int attributeCount = in.readUnsignedShort();
+    for (int i = 0; i < attributeCount; i++) {
+      String attributeName = utf8[in.readUnsignedShort()];
+      int length = in.readInt();
+      if (!"RuntimeVisibleAnnotations".equals(attributeName)) {
+        skipFully(in, length);
+        continue;
+      }
+      int annotationCount = in.readUnsignedShort();
+      for (int j = 0; j < annotationCount; j++) {
+        String descriptor = utf8[in.readUnsignedShort()];
+        annotationNames.add(binaryName(descriptor.substring(1, descriptor.length() - 1)));
+        skipElementValuePairs(in);
+      }
+    }
+    return new ClassMetadata(className, superClassName, interfaceNames, annotationNames);
+  }
+
+  private static void skipMembers(DataInputStream in) throws IOException {
+    int count = in.readUnsignedShort();
+    for (int i = 0; i < count; i++) {
+      // access_flags, name_index, descriptor_index
+      in.skipBytes(6);
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        in.skipBytes(2);
+        skipFully(in, in.readInt());
+      }
+    }
+  }
+
+  private static void skipElementValuePairs(DataInputStream in) throws IOException {
+    int pairCount = in.readUnsignedShort();
+    for (int i = 0; i < pairCount; i++) {
+      in.skipBytes(2);
+      skipElementValue(in);
+    }
+  }
+
+  private static void skipElementValue(DataInputStream in) throws IOException {
+    int tag = in.readUnsignedByte();
+    switch (tag) {
+      case 'e':
+        in.skipBytes(4);
+        break;
+      case '@':
+        in.skipBytes(2);
+        skipElementValuePairs(in);
+        break;
+      case '[':
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+          skipElementValue(in);
+        }
+        break;
+      default:
+        // 基本类型、字符串以及 Class 均为一个常量池索引
+        in.skipBytes(2);
+        break;
+    }
+  }
+
+  private static void skipFully(DataInputStream in, int length) throws IOException {
+    int remaining = length;
+    while (remaining > 0) {
+      int skipped = in.skipBytes(remaining);
+      if (skipped <= 0) {
+        throw new IOException("Unexpected end of class file.");
+      }
+      remaining -= skipped;
+    }
+  }
+
+  private static String binaryName(String internalName) {
+    return internalName.replace('/', '.');
+  }
+
+  /**
+   * Parses a line of a type index written by {@link #toIndexLine()}.
+   *
+   * @param line
+   *          the line
+   * @return the metadata
+   */
+  public static ClassMetadata fromIndexLine(String line) {
+    String[] fields = line.trim().split(" ");
+    if (fields.length != 4) {
+      throw new IllegalArgumentException("Invalid type index entry '" + line + "'.");
+    }
+    return new ClassMetadata(fields[0], NONE.equals(fields[1]) ? null : fields[1], list(fields[2]), list(fields[3]));
+  }
+
+  /**
+   * Formats the metadata as a line of a type index: the class name, the super class name, the interface names and the
+   * annotation names separated by spaces, where lists are separated by commas and empty values are written as
+   * <code>-</code>.
+   *
+   * @return the line
+   */
+  public String toIndexLine() {
+    return className + " " + (superClassName == null ? NONE : superClassName) + " " + join(interfaceNames) + " "
+        + join(annotationNames);
+  }
+
+  private static List<String> list(String field) {
+    return NONE.equals(field) ? Collections.emptyList() : Arrays.asList(field.split(","));
+  }
+
+  private static String join(List<String> names) {
+    return names.isEmpty() ? NONE : String.join(",", names);
+  }
+
+  @Override
+  public String toString() {
+    return toIndexLine();
+  }
+
+}
@@ -0,0 +1,229 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Reads {@link ClassMetadata} from the type indexes and class files of a class loader, so that candidate classes can be
+ * checked without loading them.
+ * <p>
+ * A type index is a <code>META-INF/mybatis/types.index</code> resource, usually generated at build time by
+ * {@link TypeIndexProcessor}, that lists the metadata of the classes of a JAR file or directory. An index may also
+ * declare packages it fully covers with <code>@package</code> lines; {@link ResolverUtil} takes the classes of such a
+ * package and its sub-packages from the indexes instead of listing the class path. Other packages are still listed,
+ * and the indexes only save reading the class files of their candidates.
+ *
+ * @since 3.5.12
+ */
+public class ClassMetadataReader {
+
+  /**
+   * The resource name of the type indexes.
+   */
+  public static final String INDEX_RESOURCE = "META-INF/mybatis/types.index";
+
+  /**
+   * The prefix of the index lines that declare a package, and its sub-packages, whose classes are all listed.
+   */
+  public static final String PACKAGE_PREFIX = "@package ";
+
+  private static final Log log = LogFactory.getLog(ClassMetadataReader.class);
+
+  private final ClassLoader classLoader;
+  private Map<String, ClassMetadata> index;
+  private Set<String> indexedPackages;
+  private final Map<String, ClassMetadata> classFiles = new HashMap<>();
+
+  public ClassMetadataReader(ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * Gets the indexed classes of a package and its sub-packages.
+   *
+   * @param packagePath
+   *          the package path, e.g. <code>com/example/mapper</code>
+   * @return the class names, or an empty list if no class of the package is indexed
+   */
+  public List<String> getIndexedClassNames(String packagePath) {
+    String prefix = packagePath.replace('/', '.') + ".";
+    List<String> classNames = new ArrayList<>();
+    for (String className : getIndex().keySet()) {
+      if (className.startsWith(prefix)) {
+        classNames.add(className);
+      }
+    }
+    return classNames;
+  }
+
+  /**
+   * Checks whether a type index declares that it lists all classes of a package, either with an <code>@package</code>
+   * line for the package itself or for one of its parent packages.
+   *
+   * @param packagePath
+   *          the package path, e.g. <code>com/example/mapper</code>
+   * @return true if the classes of the package can be taken from the indexes without listing the class path
+   */
+  public boolean isIndexedPackage(String packagePath) {
+    getIndex();
+    String packageName = packagePath.replace('/', '.');
+    for (String indexedPackage : indexedPackages) {
+      if (packageName.equals(indexedPackage) || packageName.startsWith(indexedPackage + ".")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the metadata of a class from the type indexes, or from its class file.
+   *
+   * @param className
+   *          the binary class name
+   * @return the metadata, or null if the class file cannot be found or read
+   */
+  public ClassMetadata getMetadata(String className) {
+    ClassMetadata metadata = getIndex().get(className);
+    if (metadata != null) {
+      return metadata;
+    }
+    if (classFiles.containsKey(className)) {
+      return classFiles.get(className);
+    }
+    try (InputStream in = classLoader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+      metadata = in == null ? null : ClassMetadata.read(in);
+    } catch (IOException e) {
+      log.debug("Could not read the class file of " + className + ". Cause: " + e);
+      metadata = null;
+    }
+    classFiles.put(className, metadata);
+    return metadata;
+  }
+
+  /**
+   * Checks whether a class is, extends or implements the given type.
+   *
+   * @param className
+   *          the binary class name
+   * @param typeName
+   *          the binary name of the super type
+   * @return false only if the class is known not to be assignable to the type; true if it is, or if a class of its
+   *         hierarchy cannot be read
+   */
+  public boolean mayBeAssignableTo(String className, String typeName) {
+    return "java.lang.Object".equals(typeName) || mayBeAssignableTo(className, typeName, new HashSet<>());
+  }
+
+  private boolean mayBeAssignableTo(String className, String typeName, Set<String> visited) {
+    if (className.equals(typeName)) {
+      return true;
+    }
+    if (!visited.add(className)) {
+      return false;
+    }
+    ClassMetadata metadata = getMetadata(className);
+    if (metadata == null) {
+      return true;
+    }
+    if (metadata.getSuperClassName() != null && mayBeAssignableTo(metadata.getSuperClassName(), typeName, visited)) {
+      return true;
+    }
+    for (String interfaceName : metadata.getInterfaceNames()) {
+      if (mayBeAssignableTo(interfaceName, typeName, visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether a class is annotated with the given annotation.
+   *
+   * @param className
+   *          the binary class name
+   * @param annotationName
+   *          the binary name of the annotation
+   * @param inherited
+   *          whether the annotation is <code>@Inherited</code>, in which case the super classes are checked as well
+   * @return false only if the class is known not to be annotated; true if it is, or if its class file cannot be read
+   */
+  public boolean mayBeAnnotatedWith(String className, String annotationName, boolean inherited) {
+    ClassMetadata metadata = getMetadata(className);
+    if (metadata == null) {
+      return true;
+    }
+    if (metadata.getAnnotationNames().contains(annotationName)) {
+      return true;
+    }
+    return inherited && metadata.getSuperClassName() != null
+        && mayBeAnnotatedWith(metadata.getSuperClassName(), annotationName, true);
+  }
+
+  private Map<String, ClassMetadata> getIndex() {
+    if (index == null) {
+      index = readIndex();
+    }
+    return index;
+  }
+
+  private Map<String, ClassMetadata> readIndex() {
+    Map<String, ClassMetadata> entries = new LinkedHashMap<>();
+    Set<String> packages = new HashSet<>();
+    try {
+      Enumeration<URL> urls = classLoader.getResources(INDEX_RESOURCE);
+      while (urls.hasMoreElements()) {
+        URL url = urls.nextElement();
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            if (line.startsWith(PACKAGE_PREFIX)) {
+              packages.add(line.substring(PACKAGE_PREFIX.length()).trim());
+            } else if (!line.trim().isEmpty() && !line.startsWith("#")) {
+              ClassMetadata metadata = ClassMetadata.fromIndexLine(line);
+              entries.putIfAbsent(metadata.getClassName(), metadata);
+            }
+          }
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      log.warn("Could not read the type indexes. Cause: " + e);
+      indexedPackages = Collections.emptySet();
+      return Collections.emptyMap();
+    }
+    indexedPackages = packages;
+    return entries;
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package org.apache.ibatis.io;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -37,6 +38,10 @@ import org.apache.ibatis.logging.LogFactory;
  * by calling {@link #setClassLoader(ClassLoader)} prior to invoking any of the {@code find()}
  * methods.</p>
  *
+ * <p>Candidate classes are first checked from their class files by {@link Test#mayMatch(String, ClassMetadataReader)},
+ * so that only the classes that may match are loaded. The classes of a package that is listed in a type index
+ * (see {@link ClassMetadataReader}) are taken from the index instead of the class path.</p>
+ *
  * <p>General searches are initiated by calling the {@link #find(Test, String)} and supplying
  * a package name and a Test instance. This will cause the named package <b>and all sub-packages</b>
  * to be scanned for classes that meet the test. There are also utility methods for the common
@@ -79,6 +84,21 @@ public class ResolverUtil<T> {
      * @return true, if successful
      */
     boolean matches(Class<?> type);
+
+    /**
+     * Will be called with candidate classes before they are loaded. Classes for which this returns false are not
+     * loaded, nor passed to {@link #matches(Class)}.
+     *
+     * @param className
+     *          the binary class name
+     * @param reader
+     *          the reader of the class metadata
+     * @return false if the class cannot match
+     * @since 3.5.12
+     */
+    default boolean mayMatch(String className, ClassMetadataReader reader) {
+      return true;
+    }
   }
 
   /**
@@ -106,6 +126,11 @@ public class ResolverUtil<T> {
       return type != null && parent.isAssignableFrom(type);
     }
 
+    @Override
+    public boolean mayMatch(String className, ClassMetadataReader reader) {
+      return reader.mayBeAssignableTo(className, parent.getName());
+    }
+
     @Override
     public String toString() {
       return "is assignable to " + parent.getSimpleName();
@@ -137,6 +162,11 @@ public class ResolverUtil<T> {
       return type != null && type.isAnnotationPresent(annotation);
     }
 
+    @Override
+    public boolean mayMatch(String className, ClassMetadataReader reader) {
+      return reader.mayBeAnnotatedWith(className, annotation.getName(), annotation.isAnnotationPresent(Inherited.class));
+    }
+
     @Override
     public String toString() {
       return "annotated with @" + annotation.getSimpleName();
@@ -152,6 +182,8 @@ public class ResolverUtil<T> {
    */
   private ClassLoader classloader;
 
+  private ClassMetadataReader metadataReader;
+
   /**
    * Provides access to the classes discovered so far. If no calls have been made to
    * any of the {@code find()} methods, this set will be empty.
@@ -180,6 +212,21 @@ public class ResolverUtil<T> {
    */
   public void setClassLoader(ClassLoader classloader) {
     this.classloader = classloader;
+    this.metadataReader = null;
+  }
+
+  /**
+   * Returns the reader used to check candidate classes, and to list the classes of indexed packages, without loading
+   * them.
+   *
+   * @return the class metadata reader
+   * @since 3.5.12
+   */
+  public ClassMetadataReader getMetadataReader() {
+    if (metadataReader == null) {
+      metadataReader = new ClassMetadataReader(getClassLoader());
+    }
+    return metadataReader;
   }
 
   /**
@@ -245,6 +292,15 @@ public class ResolverUtil<T> {
   public ResolverUtil<T> find(Test test, String packageName) {
     String path = getPackagePath(packageName);
 
+    // 只有类型索引声明完整覆盖的包才直接使用索引，其他包仍然扫描类路径（索引只用于检查候选类）
+    ClassMetadataReader metadataReader = getMetadataReader();
+    if (metadataReader.isIndexedPackage(path)) {
+      for (String className : metadataReader.getIndexedClassNames(path)) {
+        addIfMatching(test, className.replace('.', '/') + ".class");
+      }
+      return this;
+    }
+
     try {
       List<String> children = VFS.getInstance().list(path);
       for (String child : children) {
@@ -287,6 +343,10 @@ public class ResolverUtil<T> {
         log.debug("Checking to see if class " + externalName + " matches criteria [" + test + "]");
       }
 
+      // 先根据类文件判断，不可能匹配的类不会被加载
+      if (!test.mayMatch(externalName, getMetadataReader())) {
+        return;
+      }
       Class<?> type = loader.loadClass(externalName);
       if (test.matches(type)) {
         matches.add((Class<T>) type);
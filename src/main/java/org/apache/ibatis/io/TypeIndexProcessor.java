@@ -0,0 +1,191 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An annotation processor that writes the type index read by {@link ClassMetadataReader} for the classes being
+ * compiled, so that the type aliases, type handlers and mappers of a package can be found without scanning the class
+ * path.
+ * <p>
+ * The processor is not registered as a service; enable it explicitly, e.g. with
+ * <code>javac -processor org.apache.ibatis.io.TypeIndexProcessor</code> or the <code>annotationProcessors</code> of the
+ * maven-compiler-plugin. Entries written by a previous compilation into the same output directory are kept.
+ * <p>
+ * The <code>mybatis.typeIndex.packages</code> option (e.g. <code>-Amybatis.typeIndex.packages=com.example.app</code>)
+ * declares comma separated packages whose classes, including those of their sub-packages, are all compiled into this
+ * output. Only the classes of declared packages are taken from the index without listing the class path; declare a
+ * package only if no other JAR file or directory contributes classes to it.
+ *
+ * @since 3.5.12
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(TypeIndexProcessor.PACKAGES_OPTION)
+public class TypeIndexProcessor extends AbstractProcessor {
+
+  /**
+   * The option that declares the packages fully covered by the index.
+   */
+  public static final String PACKAGES_OPTION = "mybatis.typeIndex.packages";
+
+  private final Map<String, ClassMetadata> entries = new TreeMap<>();
+  private final Set<String> packages = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    String packagesOption = processingEnv.getOptions().get(PACKAGES_OPTION);
+    if (packagesOption != null) {
+      for (String packageName : packagesOption.split(",")) {
+        if (!packageName.trim().isEmpty()) {
+          packages.add(packageName.trim());
+        }
+      }
+    }
+    // 增量编译时保留之前写入的条目
+    try {
+      FileObject previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+          ClassMetadataReader.INDEX_RESOURCE);
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(previous.openInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          // 覆盖的包以本次编译的选项为准，不保留之前的声明
+          if (!line.trim().isEmpty() && !line.startsWith("#") && !line.startsWith(ClassMetadataReader.PACKAGE_PREFIX)) {
+            ClassMetadata metadata = ClassMetadata.fromIndexLine(line);
+            entries.put(metadata.getClassName(), metadata);
+          }
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // no previous index
+    }
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+      return false;
+    }
+    for (Element element : roundEnv.getRootElements()) {
+      if (element instanceof TypeElement) {
+        addType((TypeElement) element);
+      }
+    }
+    return false;
+  }
+
+  private void addType(TypeElement type) {
+    String superClassName = null;
+    TypeMirror superClass = type.getSuperclass();
+    if (superClass.getKind() == TypeKind.DECLARED) {
+      superClassName = binaryName(superClass);
+    } else if (type.getKind() == ElementKind.INTERFACE || type.getKind() == ElementKind.ANNOTATION_TYPE) {
+      // 与类文件保持一致，接口的父类为 java.lang.Object
+      superClassName = "java.lang.Object";
+    }
+    List<String> interfaceNames = new ArrayList<>();
+    for (TypeMirror interfaceType : type.getInterfaces()) {
+      if (interfaceType.getKind() == TypeKind.DECLARED) {
+        interfaceNames.add(binaryName(interfaceType));
+      }
+    }
+    if (type.getKind() == ElementKind.ANNOTATION_TYPE && interfaceNames.isEmpty()) {
+      interfaceNames.add("java.lang.annotation.Annotation");
+    }
+    List<String> annotationNames = new ArrayList<>();
+    for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      Retention retention = annotationType.getAnnotation(Retention.class);
+      // 只有运行时可见的注解才会出现在类文件的 RuntimeVisibleAnnotations 中
+      if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+        annotationNames.add(processingEnv.getElementUtils().getBinaryName(annotationType).toString());
+      }
+    }
+    String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+    entries.put(className, new ClassMetadata(className, superClassName, interfaceNames, annotationNames));
+    for (Element enclosed : type.getEnclosedElements()) {
+      if (enclosed instanceof TypeElement) {
+        addType((TypeElement) enclosed);
+      }
+    }
+  }
+
+  private String binaryName(TypeMirror type) {
+    TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+    return processingEnv.getElementUtils().getBinaryName(element).toString();
+  }
+
+  private void writeIndex() {
+    if (entries.isEmpty()) {
+      return;
+    }
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+          ClassMetadataReader.INDEX_RESOURCE);
+      try (Writer writer = file.openWriter()) {
+        writer.write("# Generated by " + TypeIndexProcessor.class.getName() + "\n");
+        for (String packageName : packages) {
+          writer.write(ClassMetadataReader.PACKAGE_PREFIX + packageName + "\n");
+        }
+        for (ClassMetadata metadata : entries.values()) {
+          writer.write(metadata.toIndexLine());
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not write " + ClassMetadataReader.INDEX_RESOURCE + ". Cause: " + e);
+    }
+  }
+
+}
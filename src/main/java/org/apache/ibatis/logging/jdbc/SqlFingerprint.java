@@ -0,0 +1,143 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+/**
+ * Computes a fingerprint of a SQL statement that is stable across its literal values, the length of its
+ * <code>IN</code> lists and its whitespace, so that the executions of one statement can be grouped in the logs.
+ *
+ * @since 3.5.12
+ */
+public final class SqlFingerprint {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private SqlFingerprint() {
+    // Prevent Instantiation
+  }
+
+  /**
+   * Normalizes the SQL: whitespace is collapsed (and removed around parentheses and before commas), string and numeric literals are replaced with <code>?</code> and a
+   * list of placeholders (e.g. <code>(?, ?, ?)</code>) becomes <code>(?...)</code>.
+   *
+   * @param sql
+   *          the SQL
+   *
+   * @return the normalized SQL
+   */
+  public static String normalize(String sql) {
+    StringBuilder builder = new StringBuilder(sql.length());
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        // 连续的空白字符合并为一个空格
+        while (i < length && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        // 括号和逗号两侧的空白直接去掉
+        if (builder.length() > 0 && i < length && builder.charAt(builder.length() - 1) != '('
+            && ",)".indexOf(sql.charAt(i)) < 0) {
+          builder.append(' ');
+        }
+      } else if (c == '\'') {
+        // 字符串字面量，'' 是转义的单引号
+        i++;
+        while (i < length) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+              i += 2;
+              continue;
+            }
+            i++;
+            break;
+          }
+          i++;
+        }
+        appendPlaceholder(builder);
+      } else if (Character.isDigit(c) && !isIdentifierPart(builder)) {
+        // 数字字面量，不包括标识符中的数字（例如 t1）
+        while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+        appendPlaceholder(builder);
+      } else if (c == '?') {
+        i++;
+        appendPlaceholder(builder);
+      } else {
+        builder.append(c);
+        i++;
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Returns the fingerprint of the SQL: the 64-bit FNV-1a hash of its {@link #normalize(String) normalized} form, as
+   * 16 hexadecimal digits.
+   *
+   * @param sql
+   *          the SQL
+   *
+   * @return the fingerprint
+   */
+  public static String of(String sql) {
+    String normalized = normalize(sql);
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < normalized.length(); i++) {
+      hash ^= normalized.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    String hex = Long.toHexString(hash);
+    return "0000000000000000".substring(hex.length()) + hex;
+  }
+
+  private static void appendPlaceholder(StringBuilder builder) {
+    // 占位符列表（?, ?, ...）合并为 ?...
+    int end = builder.length();
+    if (end > 0 && builder.charAt(end - 1) == ' ') {
+      end--;
+    }
+    if (end > 0 && builder.charAt(end - 1) == ',') {
+      end--;
+      if (endsWith(builder, end, "?...")) {
+        builder.setLength(end);
+        return;
+      } else if (endsWith(builder, end, "?")) {
+        builder.setLength(end);
+        builder.append("...");
+        return;
+      }
+    }
+    builder.append('?');
+  }
+
+  private static boolean endsWith(StringBuilder builder, int end, String suffix) {
+    int start = end - suffix.length();
+    return start >= 0 && builder.indexOf(suffix, start) == start;
+  }
+
+  private static boolean isIdentifierPart(StringBuilder builder) {
+    if (builder.length() == 0) {
+      return false;
+    }
+    char last = builder.charAt(builder.length() - 1);
+    return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+  }
+
+}
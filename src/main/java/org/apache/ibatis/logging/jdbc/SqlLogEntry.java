@@ -0,0 +1,123 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.util.List;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * One execution of a mapped statement, as reported to a {@link SqlLogHandler}. The entry holds the types of the
+ * parameters but not their values.
+ *
+ * @since 3.5.12
+ */
+public final class SqlLogEntry {
+
+  private final MappedStatement mappedStatement;
+  private final String sql;
+  private final List<String> parameterTypes;
+  private final long durationNanos;
+  private final int rows;
+  private final Throwable failure;
+  private String fingerprint;
+
+  public SqlLogEntry(MappedStatement mappedStatement, String sql, List<String> parameterTypes, long durationNanos,
+      int rows, Throwable failure) {
+    this.mappedStatement = mappedStatement;
+    this.sql = sql;
+    this.parameterTypes = parameterTypes;
+    this.durationNanos = durationNanos;
+    this.rows = rows;
+    this.failure = failure;
+  }
+
+  public MappedStatement getMappedStatement() {
+    return mappedStatement;
+  }
+
+  public String getStatementId() {
+    return mappedStatement.getId();
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Returns the {@link SqlFingerprint fingerprint} of the SQL.
+   *
+   * @return the fingerprint
+   */
+  public String getFingerprint() {
+    if (fingerprint == null) {
+      fingerprint = SqlFingerprint.of(sql);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Returns the simple class names of the parameter values, in the order of the placeholders (<code>null</code> for a
+   * null value).
+   *
+   * @return the parameter types
+   */
+  public List<String> getParameterTypes() {
+    return parameterTypes;
+  }
+
+  /**
+   * Returns the time from the execution of the statement until its results were mapped (or the cursor opened).
+   *
+   * @return the duration in nanoseconds
+   */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * Returns the number of mapped rows of a select or the update count of an insert, update or delete.
+   *
+   * @return the row count, or -1 if it is unknown (cursors, result handlers and failures)
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the exception thrown by the execution.
+   *
+   * @return the exception, or null if the statement succeeded
+   */
+  public Throwable getFailure() {
+    return failure;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("id=").append(getStatementId());
+    builder.append(" fingerprint=").append(getFingerprint());
+    builder.append(" types=").append(parameterTypes);
+    builder.append(" duration=").append(String.format("%.3f", durationNanos / 1_000_000.0)).append("ms");
+    builder.append(" rows=").append(rows);
+    if (failure != null) {
+      builder.append(" error=").append(failure.getClass().getSimpleName());
+    }
+    return builder.toString();
+  }
+
+}
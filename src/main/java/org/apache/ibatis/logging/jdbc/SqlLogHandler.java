@@ -0,0 +1,51 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Receives the executions of mapped statements when structured SQL logging is enabled. Unlike the logging proxies of
+ * this package, the handler is called once per execution, after the results have been mapped.
+ *
+ * @since 3.5.12
+ *
+ * @see org.apache.ibatis.session.Configuration#setStructuredSqlLoggingEnabled(boolean)
+ */
+public interface SqlLogHandler {
+
+  /**
+   * Returns whether the executions of the statement should be logged. Called before the execution, so that nothing is
+   * measured or collected for a statement that is not logged.
+   *
+   * @param ms
+   *          the mapped statement
+   *
+   * @return true to log the executions of the statement
+   */
+  default boolean isEnabled(MappedStatement ms) {
+    return true;
+  }
+
+  /**
+   * Logs one execution.
+   *
+   * @param entry
+   *          the execution
+   */
+  void log(SqlLogEntry entry);
+
+}
@@ -0,0 +1,38 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * The default {@link SqlLogHandler}: writes one debug line per execution to the statement log of the mapped
+ * statement, the log the logging proxies of this package write to.
+ *
+ * @since 3.5.12
+ */
+public class StatementLogHandler implements SqlLogHandler {
+
+  @Override
+  public boolean isEnabled(MappedStatement ms) {
+    return ms.getStatementLog().isDebugEnabled();
+  }
+
+  @Override
+  public void log(SqlLogEntry entry) {
+    entry.getMappedStatement().getStatementLog().debug("<==  Executed: " + entry);
+  }
+
+}
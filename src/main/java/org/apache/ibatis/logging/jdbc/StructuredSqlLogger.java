@@ -0,0 +1,123 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Reports one sampled execution of a mapped statement to the {@link SqlLogHandler} of the configuration. It is created
+ * per statement handler, and only if the execution is logged, so that statements that are not logged cost one check.
+ *
+ * @since 3.5.12
+ */
+public final class StructuredSqlLogger {
+
+  private final MappedStatement mappedStatement;
+  private final SqlLogHandler handler;
+
+  private StructuredSqlLogger(MappedStatement mappedStatement, SqlLogHandler handler) {
+    this.mappedStatement = mappedStatement;
+    this.handler = handler;
+  }
+
+  /**
+   * Decides whether the next execution of the statement is logged.
+   *
+   * @param ms
+   *          the mapped statement
+   *
+   * @return the logger, or null if structured SQL logging is disabled or the execution is not sampled
+   */
+  public static StructuredSqlLogger newInstance(MappedStatement ms) {
+    Configuration configuration = ms.getConfiguration();
+    if (!configuration.isStructuredSqlLoggingEnabled()) {
+      return null;
+    }
+    SqlLogHandler handler = configuration.getSqlLogHandler();
+    if (!handler.isEnabled(ms)) {
+      return null;
+    }
+    // 按照采样率决定是否记录本次执行
+    double sampleRate = configuration.getSqlLogSampleRate();
+    if (sampleRate <= 0 || sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return null;
+    }
+    return new StructuredSqlLogger(ms, handler);
+  }
+
+  /**
+   * Reports the execution.
+   *
+   * @param boundSql
+   *          the executed SQL
+   * @param startNanos
+   *          the {@link System#nanoTime()} when the execution started
+   * @param rows
+   *          the row count, or -1 if unknown
+   * @param failure
+   *          the exception thrown by the execution, or null
+   */
+  public void log(BoundSql boundSql, long startNanos, int rows, Throwable failure) {
+    long duration = System.nanoTime() - startNanos;
+    handler.log(new SqlLogEntry(mappedStatement, boundSql.getSql(), getParameterTypes(boundSql), duration, rows,
+        failure));
+  }
+
+  private List<String> getParameterTypes(BoundSql boundSql) {
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    if (parameterMappings == null || parameterMappings.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Configuration configuration = mappedStatement.getConfiguration();
+    Object parameterObject = boundSql.getParameterObject();
+    MetaObject metaObject = null;
+    List<String> types = new ArrayList<>(parameterMappings.size());
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        types.add("OUT");
+        continue;
+      }
+      // 与 DefaultParameterHandler 一样获取实参，只记录实参的类型
+      String property = parameterMapping.getProperty();
+      Object value;
+      if (boundSql.hasAdditionalParameter(property)) {
+        value = boundSql.getAdditionalParameter(property);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(property);
+      }
+      types.add(value == null ? "null" : value.getClass().getSimpleName());
+    }
+    return types;
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -14,6 +14,6 @@
  *    limitations under the License.
  */
 /**
- * Logging proxies that logs any JDBC statement.
+ * Logging proxies that logs any JDBC statement, and the structured SQL log that reports each execution once.
  */
 package org.apache.ibatis.logging.jdbc;
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -57,6 +57,7 @@ public final class MappedStatement {
   private LanguageDriver lang;
   private String[] resultSets;
   private boolean dirtySelect;
+  private Long maxReplicaLag;
 
   MappedStatement() {
     // constructor disabled
@@ -180,6 +181,20 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * Sets how stale, in milliseconds, the rows of a select may be when it is routed to a read replica.
+     *
+     * @param maxReplicaLag
+     *          the tolerated replication lag, <code>0</code> to always read from the primary, or <code>null</code> for
+     *          no hint
+     * @return the builder
+     * @since 3.5.12
+     */
+    public Builder maxReplicaLag(Long maxReplicaLag) {
+      mappedStatement.maxReplicaLag = maxReplicaLag;
+      return this;
+    }
+
     /**
      * Resul sets.
      *
@@ -300,6 +315,17 @@ public final class MappedStatement {
     return dirtySelect;
   }
 
+  /**
+   * Gets the replication lag, in milliseconds, a read replica may have to serve this statement.
+   *
+   * @return the tolerated lag, <code>0</code> if the statement must read from the primary, or <code>null</code> if the
+   *         statement has no hint
+   * @since 3.5.12
+   */
+  public Long getMaxReplicaLag() {
+    return maxReplicaLag;
+  }
+
   /**
    * Gets the resul sets.
    *
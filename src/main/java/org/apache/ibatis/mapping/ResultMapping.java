@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -38,6 +38,8 @@ public class ResultMapping {
   private TypeHandler<?> typeHandler;
   private String nestedResultMapId;
   private String nestedQueryId;
+  private String nestedBatchQueryId;
+  private String batchKey;
   private Set<String> notNullColumns;
   private String columnPrefix;
   private List<ResultFlag> flags;
@@ -92,6 +94,16 @@ public class ResultMapping {
       return this;
     }
 
+    public Builder nestedBatchQueryId(String nestedBatchQueryId) {
+      resultMapping.nestedBatchQueryId = nestedBatchQueryId;
+      return this;
+    }
+
+    public Builder batchKey(String batchKey) {
+      resultMapping.batchKey = batchKey;
+      return this;
+    }
+
     public Builder resultSet(String resultSet) {
       resultMapping.resultSet = resultSet;
       return this;
@@ -154,6 +166,17 @@ public class ResultMapping {
       if (resultMapping.nestedResultMapId == null && resultMapping.column == null && resultMapping.composites.isEmpty()) {
         throw new IllegalStateException("Mapping is missing column attribute for property " + resultMapping.property);
       }
+      if (resultMapping.nestedBatchQueryId != null) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException("Cannot define nestedBatchQueryId without nestedQueryId in property " + resultMapping.property);
+        }
+        if (resultMapping.batchKey == null) {
+          throw new IllegalStateException("Mapping is missing batchKey attribute for batch select in property " + resultMapping.property);
+        }
+        if (!resultMapping.composites.isEmpty()) {
+          throw new IllegalStateException("Batch select does not support composite columns in property " + resultMapping.property);
+        }
+      }
       if (resultMapping.getResultSet() != null) {
         int numColumns = 0;
         if (resultMapping.column != null) {
@@ -211,6 +234,26 @@ public class ResultMapping {
     return nestedQueryId;
   }
 
+  /**
+   * Gets the id of the statement that loads this property for many parent rows at once.
+   *
+   * @return the nested batch query id, or <code>null</code> when the property is loaded one row at a time
+   * @since 3.5.12
+   */
+  public String getNestedBatchQueryId() {
+    return nestedBatchQueryId;
+  }
+
+  /**
+   * Gets the property of the batch query results that holds the value of the parent key column.
+   *
+   * @return the batch key property
+   * @since 3.5.12
+   */
+  public String getBatchKey() {
+    return batchKey;
+  }
+
   public Set<String> getNotNullColumns() {
     return notNullColumns;
   }
@@ -291,6 +334,8 @@ public class ResultMapping {
     //sb.append(", typeHandler=").append(typeHandler); // typeHandler also doesn't have a useful .toString()
     sb.append(", nestedResultMapId='").append(nestedResultMapId).append('\'');
     sb.append(", nestedQueryId='").append(nestedQueryId).append('\'');
+    sb.append(", nestedBatchQueryId='").append(nestedBatchQueryId).append('\'');
+    sb.append(", batchKey='").append(batchKey).append('\'');
     sb.append(", notNullColumns=").append(notNullColumns);
     sb.append(", columnPrefix='").append(columnPrefix).append('\'');
     sb.append(", flags=").append(flags);
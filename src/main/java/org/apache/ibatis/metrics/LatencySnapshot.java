@@ -0,0 +1,65 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+/**
+ * A copy of a {@link LatencyHistogram}, in microseconds.
+ *
+ * @since 3.5.12
+ */
+public class LatencySnapshot {
+
+  private final long count;
+  private final double meanMicros;
+  private final double p50Micros;
+  private final double p95Micros;
+  private final double p99Micros;
+  private final double maxMicros;
+
+  public LatencySnapshot(LatencyHistogram histogram) {
+    this.count = histogram.getCount();
+    this.meanMicros = count == 0 ? 0 : histogram.getSumNanos() / 1000.0 / count;
+    this.p50Micros = histogram.getPercentileNanos(0.5) / 1000.0;
+    this.p95Micros = histogram.getPercentileNanos(0.95) / 1000.0;
+    this.p99Micros = histogram.getPercentileNanos(0.99) / 1000.0;
+    this.maxMicros = histogram.getMaxNanos() / 1000.0;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMeanMicros() {
+    return meanMicros;
+  }
+
+  public double getP50Micros() {
+    return p50Micros;
+  }
+
+  public double getP95Micros() {
+    return p95Micros;
+  }
+
+  public double getP99Micros() {
+    return p99Micros;
+  }
+
+  public double getMaxMicros() {
+    return maxMicros;
+  }
+
+}
@@ -0,0 +1,106 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * One execution of a mapped statement, as reported to a {@link StatementMetricsCollector}.
+ *
+ * @since 3.5.12
+ */
+public final class StatementExecution {
+
+  private final MappedStatement mappedStatement;
+  private final BoundSql boundSql;
+  private final long prepareNanos;
+  private final long executeNanos;
+  private final long fetchNanos;
+  private final int rows;
+  private final Throwable failure;
+
+  public StatementExecution(MappedStatement mappedStatement, BoundSql boundSql, long prepareNanos, long executeNanos,
+      long fetchNanos, int rows, Throwable failure) {
+    this.mappedStatement = mappedStatement;
+    this.boundSql = boundSql;
+    this.prepareNanos = prepareNanos;
+    this.executeNanos = executeNanos;
+    this.fetchNanos = fetchNanos;
+    this.rows = rows;
+    this.failure = failure;
+  }
+
+  public MappedStatement getMappedStatement() {
+    return mappedStatement;
+  }
+
+  public BoundSql getBoundSql() {
+    return boundSql;
+  }
+
+  /**
+   * Returns the time spent creating and configuring the JDBC statement (0 if a cached statement was reused).
+   *
+   * @return the duration in nanoseconds
+   */
+  public long getPrepareNanos() {
+    return prepareNanos;
+  }
+
+  /**
+   * Returns the time spent in <code>Statement.execute()</code>. For an insert, update or delete, this includes reading
+   * the generated keys.
+   *
+   * @return the duration in nanoseconds
+   */
+  public long getExecuteNanos() {
+    return executeNanos;
+  }
+
+  /**
+   * Returns the time spent fetching the rows and mapping them to objects, including nested selects. This is 0 for
+   * updates; for cursors, whose rows are fetched later, it only covers opening the cursor.
+   *
+   * @return the duration in nanoseconds
+   */
+  public long getFetchNanos() {
+    return fetchNanos;
+  }
+
+  public long getTotalNanos() {
+    return prepareNanos + executeNanos + fetchNanos;
+  }
+
+  /**
+   * Returns the number of mapped rows of a select or the update count of an insert, update or delete.
+   *
+   * @return the row count, or -1 if it is unknown (cursors, result handlers and failures)
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the exception thrown by the execution.
+   *
+   * @return the exception, or null if the statement succeeded
+   */
+  public Throwable getFailure() {
+    return failure;
+  }
+
+}
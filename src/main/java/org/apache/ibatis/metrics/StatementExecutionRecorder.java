@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Measures the phases of the executions of one statement handler and reports them to the
+ * {@link StatementMetricsCollector} of the configuration. A recorder is used by one thread at a time.
+ *
+ * @since 3.5.12
+ */
+public final class StatementExecutionRecorder {
+
+  private final StatementMetricsCollector collector;
+  private final MappedStatement mappedStatement;
+
+  private long prepareNanos;
+  private long executeNanos;
+  private long fetchNanos;
+  // 当前阶段的开始时间，阶段未结束时（例如抛出异常）由 finish() 补齐
+  private long phaseStart;
+  private Phase phase = Phase.NONE;
+
+  private enum Phase {
+    NONE, PREPARE, EXECUTE, FETCH
+  }
+
+  private StatementExecutionRecorder(StatementMetricsCollector collector, MappedStatement mappedStatement) {
+    this.collector = collector;
+    this.mappedStatement = mappedStatement;
+  }
+
+  /**
+   * Creates a recorder for the statement.
+   *
+   * @param ms
+   *          the mapped statement
+   *
+   * @return the recorder, or null if no collector is configured
+   */
+  public static StatementExecutionRecorder newInstance(MappedStatement ms) {
+    StatementMetricsCollector collector = ms.getConfiguration().getStatementMetricsCollector();
+    return collector == null ? null : new StatementExecutionRecorder(collector, ms);
+  }
+
+  public void beginPrepare() {
+    begin(Phase.PREPARE);
+  }
+
+  public void endPrepare() {
+    end();
+  }
+
+  public void beginExecute() {
+    begin(Phase.EXECUTE);
+  }
+
+  /**
+   * Ends the execution and begins fetching the rows.
+   */
+  public void endExecute() {
+    end();
+    begin(Phase.FETCH);
+  }
+
+  public void endFetch() {
+    end();
+  }
+
+  /**
+   * Reports the execution to the collector and resets the recorder.
+   *
+   * @param boundSql
+   *          the executed SQL
+   * @param rows
+   *          the row count, or -1 if unknown
+   * @param failure
+   *          the exception thrown by the execution, or null
+   */
+  public void finish(BoundSql boundSql, int rows, Throwable failure) {
+    end();
+    StatementExecution execution = new StatementExecution(mappedStatement, boundSql, prepareNanos, executeNanos,
+        fetchNanos, rows, failure);
+    prepareNanos = 0;
+    executeNanos = 0;
+    fetchNanos = 0;
+    collector.record(execution);
+  }
+
+  private void begin(Phase phase) {
+    this.phase = phase;
+    this.phaseStart = System.nanoTime();
+  }
+
+  private void end() {
+    long elapsed = System.nanoTime() - phaseStart;
+    switch (phase) {
+      case PREPARE:
+        prepareNanos += elapsed;
+        break;
+      case EXECUTE:
+        executeNanos += elapsed;
+        break;
+      case FETCH:
+        fetchNanos += elapsed;
+        break;
+      default:
+        break;
+    }
+    phase = Phase.NONE;
+  }
+
+}
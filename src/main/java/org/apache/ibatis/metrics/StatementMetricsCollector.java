@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Receives the executions of mapped statements, with the time spent in each of their phases.
+ * <p>
+ * Collectors are called by the executor thread, once per execution, so they should be cheap and thread-safe.
+ * {@link StatementMetricsRegistry} is the default implementation.
+ *
+ * @since 3.5.12
+ *
+ * @see org.apache.ibatis.session.Configuration#setStatementMetricsCollector(StatementMetricsCollector)
+ */
+public interface StatementMetricsCollector {
+
+  /**
+   * Records an execution of a statement.
+   *
+   * @param execution
+   *          the execution
+   */
+  void record(StatementExecution execution);
+
+  /**
+   * Records a select that was answered by the local (session) cache without going to the database.
+   *
+   * @param ms
+   *          the select
+   */
+  default void recordCacheHit(MappedStatement ms) {
+    // NOP
+  }
+
+}
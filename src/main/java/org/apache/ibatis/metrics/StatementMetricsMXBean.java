@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.List;
+
+/**
+ * The JMX view of a {@link StatementMetricsRegistry}.
+ *
+ * @since 3.5.12
+ */
+public interface StatementMetricsMXBean {
+
+  List<StatementStatsSnapshot> getStatements();
+
+  /**
+   * Returns the metrics in the Prometheus text exposition format.
+   *
+   * @return the metrics as text
+   */
+  String getText();
+
+  long getSlowStatementThresholdMillis();
+
+  void setSlowStatementThresholdMillis(long slowStatementThresholdMillis);
+
+  void reset();
+
+}
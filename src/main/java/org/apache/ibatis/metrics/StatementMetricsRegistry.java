@@ -0,0 +1,240 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.util.MapUtil;
+
+/**
+ * The default {@link StatementMetricsCollector}: keeps the {@link StatementStats} of each statement id, detects slow
+ * executions and exports the metrics as text or through JMX.
+ * <p>
+ * Recording is lock-free: the metrics of a statement are counters and {@link LatencyHistogram histograms} updated with
+ * atomic operations.
+ *
+ * @since 3.5.12
+ */
+public class StatementMetricsRegistry implements StatementMetricsCollector, StatementMetricsMXBean {
+
+  private static final Log log = LogFactory.getLog(StatementMetricsRegistry.class);
+
+  private static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
+
+  private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+  // 超过阈值的执行会回调 slowStatementListener，0 表示不检测
+  private volatile long slowStatementThresholdNanos;
+  private volatile SlowStatementListener slowStatementListener = StatementMetricsRegistry::logSlowStatement;
+  private ObjectName objectName;
+
+  @Override
+  public void record(StatementExecution execution) {
+    StatementStats stats = getOrCreate(execution.getMappedStatement().getId());
+    stats.record(execution);
+    long threshold = slowStatementThresholdNanos;
+    if (threshold > 0 && execution.getTotalNanos() >= threshold) {
+      stats.recordSlowExecution();
+      slowStatementListener.onSlowStatement(execution);
+    }
+  }
+
+  @Override
+  public void recordCacheHit(MappedStatement ms) {
+    getOrCreate(ms.getId()).recordCacheHit();
+  }
+
+  private StatementStats getOrCreate(String statementId) {
+    return MapUtil.computeIfAbsent(statements, statementId, StatementStats::new);
+  }
+
+  /**
+   * Gets the metrics of a statement.
+   *
+   * @param statementId
+   *          the statement id
+   *
+   * @return the metrics, or null if the statement has not been executed
+   */
+  public StatementStats getStatementStats(String statementId) {
+    return statements.get(statementId);
+  }
+
+  public Collection<StatementStats> getStatementStats() {
+    return statements.values();
+  }
+
+  @Override
+  public List<StatementStatsSnapshot> getStatements() {
+    List<StatementStatsSnapshot> snapshots = new ArrayList<>();
+    for (StatementStats stats : new TreeMap<>(statements).values()) {
+      snapshots.add(stats.snapshot());
+    }
+    return snapshots;
+  }
+
+  /**
+   * Sets the duration (prepare, execute and fetch) from which an execution is slow.
+   *
+   * @param threshold
+   *          the threshold, 0 to disable the detection
+   * @param unit
+   *          the unit of the threshold
+   */
+  public void setSlowStatementThreshold(long threshold, TimeUnit unit) {
+    this.slowStatementThresholdNanos = unit.toNanos(threshold);
+  }
+
+  @Override
+  public long getSlowStatementThresholdMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(slowStatementThresholdNanos);
+  }
+
+  @Override
+  public void setSlowStatementThresholdMillis(long slowStatementThresholdMillis) {
+    setSlowStatementThreshold(slowStatementThresholdMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sets the listener of slow executions. By default, they are logged as warnings.
+   *
+   * @param slowStatementListener
+   *          the listener
+   */
+  public void setSlowStatementListener(SlowStatementListener slowStatementListener) {
+    this.slowStatementListener = slowStatementListener;
+  }
+
+  @Override
+  public void reset() {
+    for (StatementStats stats : statements.values()) {
+      stats.reset();
+    }
+  }
+
+  @Override
+  public String getText() {
+    StringBuilder builder = new StringBuilder();
+    List<StatementStatsSnapshot> snapshots = getStatements();
+    appendCounter(builder, "mybatis_statement_executions_total", snapshots, StatementStatsSnapshot::getExecutions);
+    appendCounter(builder, "mybatis_statement_failures_total", snapshots, StatementStatsSnapshot::getFailures);
+    appendCounter(builder, "mybatis_statement_rows_total", snapshots, StatementStatsSnapshot::getRows);
+    appendCounter(builder, "mybatis_statement_cache_hits_total", snapshots, StatementStatsSnapshot::getCacheHits);
+    appendCounter(builder, "mybatis_statement_slow_total", snapshots, StatementStatsSnapshot::getSlowExecutions);
+    builder.append("# TYPE mybatis_statement_seconds summary\n");
+    for (StatementStats stats : new TreeMap<>(statements).values()) {
+      appendSummary(builder, stats.getStatementId(), "prepare", stats.getPrepare());
+      appendSummary(builder, stats.getStatementId(), "execute", stats.getExecute());
+      appendSummary(builder, stats.getStatementId(), "fetch", stats.getFetch());
+      appendSummary(builder, stats.getStatementId(), "total", stats.getTotal());
+    }
+    return builder.toString();
+  }
+
+  private interface CounterGetter {
+    long get(StatementStatsSnapshot snapshot);
+  }
+
+  private static void appendCounter(StringBuilder builder, String name, List<StatementStatsSnapshot> snapshots,
+      CounterGetter getter) {
+    builder.append("# TYPE ").append(name).append(" counter\n");
+    for (StatementStatsSnapshot snapshot : snapshots) {
+      builder.append(name).append("{statement=\"").append(escape(snapshot.getStatementId())).append("\"} ")
+          .append(getter.get(snapshot)).append('\n');
+    }
+  }
+
+  private static void appendSummary(StringBuilder builder, String statementId, String phase,
+      LatencyHistogram histogram) {
+    String labels = "statement=\"" + escape(statementId) + "\",phase=\"" + phase + "\"";
+    for (double quantile : QUANTILES) {
+      builder.append("mybatis_statement_seconds{").append(labels).append(",quantile=\"").append(quantile)
+          .append("\"} ").append(seconds(histogram.getPercentileNanos(quantile))).append('\n');
+    }
+    builder.append("mybatis_statement_seconds_sum{").append(labels).append("} ")
+        .append(seconds(histogram.getSumNanos())).append('\n');
+    builder.append("mybatis_statement_seconds_count{").append(labels).append("} ").append(histogram.getCount())
+        .append('\n');
+  }
+
+  private static String seconds(long nanos) {
+    return String.format(Locale.ROOT, "%.9f", nanos / 1_000_000_000.0);
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /**
+   * Registers the registry in the platform MBean server, as
+   * <code>org.apache.ibatis:type=StatementMetrics,name=&lt;name&gt;</code>.
+   *
+   * @param name
+   *          the name that distinguishes the registries of several configurations
+   *
+   * @return the object name of the MBean
+   */
+  public synchronized ObjectName registerMBean(String name) {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (objectName != null) {
+        server.unregisterMBean(objectName);
+      }
+      objectName = new ObjectName("org.apache.ibatis:type=StatementMetrics,name=" + ObjectName.quote(name));
+      server.registerMBean(this, objectName);
+      return objectName;
+    } catch (JMException e) {
+      throw new IllegalStateException("Error registering the statement metrics MBean '" + name + "'. Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Unregisters the registry from the platform MBean server if it was registered.
+   */
+  public synchronized void unregisterMBean() {
+    if (objectName != null) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+      } catch (JMException e) {
+        log.debug("Error unregistering the statement metrics MBean '" + objectName + "'. Cause: " + e);
+      }
+      objectName = null;
+    }
+  }
+
+  private static void logSlowStatement(StatementExecution execution) {
+    log.warn(String.format(Locale.ROOT,
+        "Slow statement '%s': %.3f ms (prepare %.3f ms, execute %.3f ms, fetch %.3f ms), rows %d. SQL: %s",
+        execution.getMappedStatement().getId(), execution.getTotalNanos() / 1e6, execution.getPrepareNanos() / 1e6,
+        execution.getExecuteNanos() / 1e6, execution.getFetchNanos() / 1e6, execution.getRows(),
+        execution.getBoundSql().getSql()));
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of one mapped statement in a {@link StatementMetricsRegistry}.
+ *
+ * @since 3.5.12
+ */
+public class StatementStats {
+
+  private final String statementId;
+  private final LongAdder executions = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder slowExecutions = new LongAdder();
+  private final LatencyHistogram prepare = new LatencyHistogram();
+  private final LatencyHistogram execute = new LatencyHistogram();
+  private final LatencyHistogram fetch = new LatencyHistogram();
+  private final LatencyHistogram total = new LatencyHistogram();
+
+  public StatementStats(String statementId) {
+    this.statementId = statementId;
+  }
+
+  void record(StatementExecution execution) {
+    executions.increment();
+    if (execution.getFailure() != null) {
+      failures.increment();
+    }
+    if (execution.getRows() > 0) {
+      rows.add(execution.getRows());
+    }
+    prepare.record(execution.getPrepareNanos());
+    execute.record(execution.getExecuteNanos());
+    fetch.record(execution.getFetchNanos());
+    total.record(execution.getTotalNanos());
+  }
+
+  void recordCacheHit() {
+    cacheHits.increment();
+  }
+
+  void recordSlowExecution() {
+    slowExecutions.increment();
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public long getExecutions() {
+    return executions.sum();
+  }
+
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  public long getRows() {
+    return rows.sum();
+  }
+
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  public long getSlowExecutions() {
+    return slowExecutions.sum();
+  }
+
+  public LatencyHistogram getPrepare() {
+    return prepare;
+  }
+
+  public LatencyHistogram getExecute() {
+    return execute;
+  }
+
+  public LatencyHistogram getFetch() {
+    return fetch;
+  }
+
+  public LatencyHistogram getTotal() {
+    return total;
+  }
+
+  /**
+   * Returns a copy of the metrics that can be exposed through JMX.
+   *
+   * @return the snapshot
+   */
+  public StatementStatsSnapshot snapshot() {
+    return new StatementStatsSnapshot(statementId, getExecutions(), getFailures(), getRows(), getCacheHits(),
+        getSlowExecutions(), new LatencySnapshot(prepare), new LatencySnapshot(execute), new LatencySnapshot(fetch),
+        new LatencySnapshot(total));
+  }
+
+  void reset() {
+    executions.reset();
+    failures.reset();
+    rows.reset();
+    cacheHits.reset();
+    slowExecutions.reset();
+    prepare.reset();
+    execute.reset();
+    fetch.reset();
+    total.reset();
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+/**
+ * A copy of the {@link StatementStats} of one statement.
+ *
+ * @since 3.5.12
+ */
+public class StatementStatsSnapshot {
+
+  private final String statementId;
+  private final long executions;
+  private final long failures;
+  private final long rows;
+  private final long cacheHits;
+  private final long slowExecutions;
+  private final LatencySnapshot prepare;
+  private final LatencySnapshot execute;
+  private final LatencySnapshot fetch;
+  private final LatencySnapshot total;
+
+  public StatementStatsSnapshot(String statementId, long executions, long failures, long rows, long cacheHits,
+      long slowExecutions, LatencySnapshot prepare, LatencySnapshot execute, LatencySnapshot fetch,
+      LatencySnapshot total) {
+    this.statementId = statementId;
+    this.executions = executions;
+    this.failures = failures;
+    this.rows = rows;
+    this.cacheHits = cacheHits;
+    this.slowExecutions = slowExecutions;
+    this.prepare = prepare;
+    this.execute = execute;
+    this.fetch = fetch;
+    this.total = total;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public long getExecutions() {
+    return executions;
+  }
+
+  public long getFailures() {
+    return failures;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public long getCacheHits() {
+    return cacheHits;
+  }
+
+  public long getSlowExecutions() {
+    return slowExecutions;
+  }
+
+  public LatencySnapshot getPrepare() {
+    return prepare;
+  }
+
+  public LatencySnapshot getExecute() {
+    return execute;
+  }
+
+  public LatencySnapshot getFetch() {
+    return fetch;
+  }
+
+  public LatencySnapshot getTotal() {
+    return total;
+  }
+
+}
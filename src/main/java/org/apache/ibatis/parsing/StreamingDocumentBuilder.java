@@ -0,0 +1,182 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.parsing;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
+
+/**
+ * Builds a DOM document from the events of a SAX parser instead of using a {@link javax.xml.parsers.DocumentBuilder}.
+ * <p>
+ * The document is built in a single pass without the deferred node tables of the default DOM parser, which is
+ * noticeably cheaper for large mapper files. The resulting tree is the same as the one built by {@link XPathParser}:
+ * the document is validated against its DTD when validation is enabled, entity references are expanded, comments are
+ * dropped, whitespace and CDATA sections are kept as separate nodes, and adjacent character data is merged into a
+ * single text node.
+ *
+ * @since 3.5.12
+ */
+public class StreamingDocumentBuilder {
+
+  private static final DOMImplementation DOM_IMPLEMENTATION;
+
+  static {
+    try {
+      DOM_IMPLEMENTATION = DocumentBuilderFactory.newInstance().newDocumentBuilder().getDOMImplementation();
+    } catch (ParserConfigurationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final boolean validation;
+  private final EntityResolver entityResolver;
+
+  public StreamingDocumentBuilder(boolean validation, EntityResolver entityResolver) {
+    this.validation = validation;
+    this.entityResolver = entityResolver;
+  }
+
+  public Document parse(InputSource inputSource) {
+    try {
+      SAXParserFactory factory = SAXParserFactory.newInstance();
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      factory.setValidating(validation);
+      factory.setNamespaceAware(false);
+
+      XMLReader reader = factory.newSAXParser().getXMLReader();
+      DocumentHandler handler = new DocumentHandler(DOM_IMPLEMENTATION.createDocument(null, null, null),
+          entityResolver);
+      reader.setContentHandler(handler);
+      reader.setErrorHandler(handler);
+      reader.setEntityResolver(handler);
+      // CDATA 的边界需要通过 LexicalHandler 获取
+      reader.setProperty("http://xml.org/sax/properties/lexical-handler", handler);
+      // 与 DocumentBuilder 一样，以解析之后的 systemId 调用 EntityResolver
+      reader.setFeature("http://xml.org/sax/features/use-entity-resolver2", false);
+      reader.parse(inputSource);
+      return handler.document;
+    } catch (Exception e) {
+      throw new BuilderException("Error creating document instance.  Cause: " + e, e);
+    }
+  }
+
+  private static class DocumentHandler extends DefaultHandler2 {
+
+    private final Document document;
+    private final EntityResolver entityResolver;
+    private final Deque<Node> parents = new ArrayDeque<>();
+    // 尚未写入 DOM 的字符数据，相邻的文本（包括实体展开的文本）合并为一个节点
+    private final StringBuilder characters = new StringBuilder();
+
+    DocumentHandler(Document document, EntityResolver entityResolver) {
+      this.document = document;
+      this.entityResolver = entityResolver;
+      this.parents.push(document);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      flushText();
+      Element element = document.createElement(qName);
+      for (int i = 0; i < attributes.getLength(); i++) {
+        element.setAttribute(attributes.getQName(i), attributes.getValue(i));
+      }
+      parents.peek().appendChild(element);
+      parents.push(element);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+      flushText();
+      parents.pop();
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      characters.append(ch, start, length);
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) {
+      // 与 DocumentBuilder 的 setIgnoringElementContentWhitespace(false) 保持一致，元素内容中的空白同样保留
+      characters.append(ch, start, length);
+    }
+
+    @Override
+    public void startCDATA() {
+      flushText();
+    }
+
+    @Override
+    public void endCDATA() {
+      parents.peek().appendChild(document.createCDATASection(characters.toString()));
+      characters.setLength(0);
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) {
+      flushText();
+      parents.peek().appendChild(document.createProcessingInstruction(target, data));
+    }
+
+    @Override
+    public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
+      return entityResolver == null ? null : entityResolver.resolveEntity(publicId, systemId);
+    }
+
+    @Override
+    public void error(SAXParseException exception) throws SAXException {
+      throw exception;
+    }
+
+    @Override
+    public void fatalError(SAXParseException exception) throws SAXException {
+      throw exception;
+    }
+
+    private void flushText() {
+      if (characters.length() == 0) {
+        return;
+      }
+      // 文档节点下不允许出现文本节点
+      if (parents.peek() != document) {
+        parents.peek().appendChild(document.createTextNode(characters.toString()));
+      }
+      characters.setLength(0);
+    }
+
+  }
+
+}
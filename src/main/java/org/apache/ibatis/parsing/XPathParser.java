@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
@@ -200,6 +202,13 @@ public class XPathParser {
 
   public List<XNode> evalNodes(Object root, String expression) {
     List<XNode> xnodes = new ArrayList<>();
+    List<Node> elements = selectElements(root, expression);
+    if (elements != null) {
+      for (Node element : elements) {
+        xnodes.add(new XNode(this, element, variables));
+      }
+      return xnodes;
+    }
     NodeList nodes = (NodeList) evaluate(expression, root, XPathConstants.NODESET);
     for (int i = 0; i < nodes.getLength(); i++) {
       xnodes.add(new XNode(this, nodes.item(i), variables));
@@ -212,6 +221,10 @@ public class XPathParser {
   }
 
   public XNode evalNode(Object root, String expression) {
+    List<Node> elements = selectElements(root, expression);
+    if (elements != null) {
+      return elements.isEmpty() ? null : new XNode(this, elements.get(0), variables);
+    }
     Node node = (Node) evaluate(expression, root, XPathConstants.NODE);
     if (node == null) {
       return null;
@@ -219,6 +232,76 @@ public class XPathParser {
     return new XNode(this, node, variables);
   }
 
+  /**
+   * Evaluates the simple location paths used by the builders, such as <code>/mapper/sql</code> or
+   * <code>select|insert|update|delete</code>, by walking the child elements instead of running XPath. The elements
+   * are returned in document order, as XPath would return them.
+   *
+   * @return the selected elements, or null if the expression is not a simple path of element names
+   */
+  private static List<Node> selectElements(Object root, String expression) {
+    if (!(root instanceof Node)) {
+      return null;
+    }
+    Node context = (Node) root;
+    if (expression.indexOf('|') >= 0) {
+      // 由多个子元素名称组成的并集，例如 select|insert|update|delete
+      String[] names = expression.split("\\|", -1);
+      for (int i = 0; i < names.length; i++) {
+        names[i] = names[i].trim();
+        if (!isElementName(names[i])) {
+          return null;
+        }
+      }
+      List<String> nameList = Arrays.asList(names);
+      List<Node> elements = new ArrayList<>();
+      for (Node child = context.getFirstChild(); child != null; child = child.getNextSibling()) {
+        if (child.getNodeType() == Node.ELEMENT_NODE && nameList.contains(child.getNodeName())) {
+          elements.add(child);
+        }
+      }
+      return elements;
+    }
+    String path = expression;
+    if (path.startsWith("/")) {
+      // 绝对路径从文档节点开始
+      context = context.getNodeType() == Node.DOCUMENT_NODE ? context : context.getOwnerDocument();
+      path = path.substring(1);
+    }
+    String[] steps = path.split("/", -1);
+    for (String step : steps) {
+      if (!isElementName(step)) {
+        return null;
+      }
+    }
+    List<Node> elements = Collections.singletonList(context);
+    for (String step : steps) {
+      List<Node> next = new ArrayList<>();
+      for (Node parent : elements) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+          if (child.getNodeType() == Node.ELEMENT_NODE && step.equals(child.getNodeName())) {
+            next.add(child);
+          }
+        }
+      }
+      elements = next;
+    }
+    return elements;
+  }
+
+  private static boolean isElementName(String name) {
+    if (name.isEmpty() || !(Character.isLetter(name.charAt(0)) || name.charAt(0) == '_')) {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private Object evaluate(String expression, Object root, QName returnType) {
     try {
       return xpath.evaluate(expression, root, returnType);
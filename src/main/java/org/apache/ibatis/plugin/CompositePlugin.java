@@ -0,0 +1,188 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.SQLException;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Applies all interceptors of an {@link InterceptorChain} to a target with a single object instead of one
+ * {@link Plugin} proxy per interceptor.
+ * <p>
+ * Each method of the plugin type is implemented directly: a method that no interceptor intercepts is called on the
+ * target without reflection, and an intercepted method goes straight to the outermost interceptor that intercepts it.
+ * The {@link Invocation} passed to that interceptor targets a view of the same chain restricted to the interceptors
+ * added before it, so {@link Invocation#proceed()} behaves as it does with nested proxies.
+ *
+ * @param <T>
+ *          the plugin type
+ *
+ * @since 3.5.12
+ */
+abstract class CompositePlugin<T> {
+
+  protected final T target;
+  protected final PluginDispatchTable table;
+  // 只有下标小于 level 的拦截器作用于当前视图
+  private final int level;
+  // 同一个链路上的所有视图，按照 level 延迟创建
+  private final Object[] views;
+
+  protected CompositePlugin(T target, PluginDispatchTable table, int level, Object[] views) {
+    this.target = target;
+    this.table = table;
+    this.level = level;
+    this.views = views;
+  }
+
+  /**
+   * Returns the methods of the plugin type in the order of their indexes.
+   *
+   * @return the methods, or null if the type has no composite implementation
+   */
+  static Method[] getMethods(Class<?> type) {
+    if (type == Executor.class) {
+      return ExecutorPlugin.METHODS;
+    } else if (type == StatementHandler.class) {
+      return StatementHandlerPlugin.METHODS;
+    } else if (type == ParameterHandler.class) {
+      return ParameterHandlerPlugin.METHODS;
+    } else if (type == ResultSetHandler.class) {
+      return ResultSetHandlerPlugin.METHODS;
+    }
+    return null;
+  }
+
+  /**
+   * Wraps the target with all interceptors of the table.
+   */
+  static Object wrap(Object target, Class<?> type, PluginDispatchTable table) {
+    if (!table.intercepts()) {
+      return target;
+    }
+    Object[] views = new Object[table.size() + 1];
+    Object plugin = newPlugin(target, type, table, table.size(), views);
+    views[table.size()] = plugin;
+    return plugin;
+  }
+
+  private static Object newPlugin(Object target, Class<?> type, PluginDispatchTable table, int level,
+      Object[] views) {
+    if (type == Executor.class) {
+      return new ExecutorPlugin((Executor) target, table, level, views);
+    } else if (type == StatementHandler.class) {
+      return new StatementHandlerPlugin((StatementHandler) target, table, level, views);
+    } else if (type == ParameterHandler.class) {
+      return new ParameterHandlerPlugin((ParameterHandler) target, table, level, views);
+    } else {
+      return new ResultSetHandlerPlugin((ResultSetHandler) target, table, level, views);
+    }
+  }
+
+  protected static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+    try {
+      return type.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * Returns whether the method is intercepted by any interceptor of this view.
+   */
+  protected final boolean intercepted(int method) {
+    return table.interceptorBelow(method, level) >= 0;
+  }
+
+  /**
+   * Calls the outermost interceptor of this view that intercepts the method.
+   */
+  protected final Object invoke(int method, Object... args) throws SQLException {
+    try {
+      return intercept(method, args);
+    } catch (SQLException | RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  /**
+   * Calls the outermost interceptor of this view that intercepts a method which declares no checked exception.
+   */
+  protected final Object invokeUnchecked(int method, Object... args) {
+    try {
+      return intercept(method, args);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  private Object intercept(int method, Object[] args) throws Throwable {
+    int index = table.interceptorBelow(method, level);
+    Object inner = view(index);
+    try {
+      return table.getInterceptor(index).intercept(new Invocation(inner, table.getMethod(method), args));
+    } catch (Exception e) {
+      // 与 Plugin 一致，拆掉反射调用产生的包装异常
+      throw ExceptionUtil.unwrapThrowable(e);
+    }
+  }
+
+  /**
+   * Returns the chain seen by the interceptor at the given index: the target wrapped by the interceptors added before
+   * it, or the target itself when none of them applies.
+   */
+  private Object view(int index) {
+    if (!table.wraps(index)) {
+      return target;
+    }
+    Object view = views[index];
+    if (view == null) {
+      // 并发创建时可能产生多个等价的视图，不影响调用结果
+      view = newPlugin(target, getType(), table, index, views);
+      views[index] = view;
+    }
+    return view;
+  }
+
+  protected abstract Class<?> getType();
+
+  @Override
+  public boolean equals(Object obj) {
+    return target.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return target.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return target.toString();
+  }
+
+}
@@ -0,0 +1,218 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.BatchedQuery;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * A {@link CompositePlugin} for {@link Executor}.
+ *
+ * @since 3.5.12
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+final class ExecutorPlugin extends CompositePlugin<Executor> implements Executor {
+
+  private static final int UPDATE = 0;
+  private static final int QUERY_WITH_CACHE_KEY = 1;
+  private static final int QUERY = 2;
+  private static final int QUERY_CURSOR = 3;
+  private static final int QUERY_BATCH = 4;
+  private static final int BULK_INSERT = 5;
+  private static final int FLUSH_STATEMENTS = 6;
+  private static final int COMMIT = 7;
+  private static final int ROLLBACK = 8;
+  private static final int CREATE_CACHE_KEY = 9;
+  private static final int IS_CACHED = 10;
+  private static final int CLEAR_LOCAL_CACHE = 11;
+  private static final int DEFER_LOAD = 12;
+  private static final int GET_TRANSACTION = 13;
+  private static final int CLOSE = 14;
+  private static final int IS_CLOSED = 15;
+  private static final int SET_EXECUTOR_WRAPPER = 16;
+  private static final int GET_ENVIRONMENT = 17;
+
+  static final Method[] METHODS = {
+      method(Executor.class, "update", MappedStatement.class, Object.class),
+      method(Executor.class, "query", MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+          CacheKey.class, BoundSql.class),
+      method(Executor.class, "query", MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class),
+      method(Executor.class, "queryCursor", MappedStatement.class, Object.class, RowBounds.class),
+      method(Executor.class, "queryBatch", List.class),
+      method(Executor.class, "bulkInsert", MappedStatement.class, Iterator.class),
+      method(Executor.class, "flushStatements"),
+      method(Executor.class, "commit", boolean.class),
+      method(Executor.class, "rollback", boolean.class),
+      method(Executor.class, "createCacheKey", MappedStatement.class, Object.class, RowBounds.class, BoundSql.class),
+      method(Executor.class, "isCached", MappedStatement.class, CacheKey.class),
+      method(Executor.class, "clearLocalCache"),
+      method(Executor.class, "deferLoad", MappedStatement.class, MetaObject.class, String.class, CacheKey.class,
+          Class.class),
+      method(Executor.class, "getTransaction"),
+      method(Executor.class, "close", boolean.class),
+      method(Executor.class, "isClosed"),
+      method(Executor.class, "setExecutorWrapper", Executor.class),
+      method(Executor.class, "getEnvironment") };
+
+  ExecutorPlugin(Executor target, PluginDispatchTable table, int level, Object[] views) {
+    super(target, table, level, views);
+  }
+
+  @Override
+  protected Class<?> getType() {
+    return Executor.class;
+  }
+
+  @Override
+  public int update(MappedStatement ms, Object parameter) throws SQLException {
+    return intercepted(UPDATE) ? (Integer) invoke(UPDATE, ms, parameter) : target.update(ms, parameter);
+  }
+
+  @Override
+  public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler,
+      CacheKey cacheKey, BoundSql boundSql) throws SQLException {
+    return intercepted(QUERY_WITH_CACHE_KEY)
+        ? (List<E>) invoke(QUERY_WITH_CACHE_KEY, ms, parameter, rowBounds, resultHandler, cacheKey, boundSql)
+        : target.query(ms, parameter, rowBounds, resultHandler, cacheKey, boundSql);
+  }
+
+  @Override
+  public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler)
+      throws SQLException {
+    return intercepted(QUERY) ? (List<E>) invoke(QUERY, ms, parameter, rowBounds, resultHandler)
+        : target.query(ms, parameter, rowBounds, resultHandler);
+  }
+
+  @Override
+  public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
+    return intercepted(QUERY_CURSOR) ? (Cursor<E>) invoke(QUERY_CURSOR, ms, parameter, rowBounds)
+        : target.queryCursor(ms, parameter, rowBounds);
+  }
+
+  @Override
+  public List<List<Object>> queryBatch(List<BatchedQuery> queries) throws SQLException {
+    return intercepted(QUERY_BATCH) ? (List<List<Object>>) invoke(QUERY_BATCH, queries) : target.queryBatch(queries);
+  }
+
+  @Override
+  public long bulkInsert(MappedStatement ms, Iterator<?> parameterObjects) throws SQLException {
+    return intercepted(BULK_INSERT) ? (Long) invoke(BULK_INSERT, ms, parameterObjects)
+        : target.bulkInsert(ms, parameterObjects);
+  }
+
+  @Override
+  public List<BatchResult> flushStatements() throws SQLException {
+    return intercepted(FLUSH_STATEMENTS) ? (List<BatchResult>) invoke(FLUSH_STATEMENTS) : target.flushStatements();
+  }
+
+  @Override
+  public void commit(boolean required) throws SQLException {
+    if (intercepted(COMMIT)) {
+      invoke(COMMIT, required);
+    } else {
+      target.commit(required);
+    }
+  }
+
+  @Override
+  public void rollback(boolean required) throws SQLException {
+    if (intercepted(ROLLBACK)) {
+      invoke(ROLLBACK, required);
+    } else {
+      target.rollback(required);
+    }
+  }
+
+  @Override
+  public CacheKey createCacheKey(MappedStatement ms, Object parameterObject, RowBounds rowBounds, BoundSql boundSql) {
+    return intercepted(CREATE_CACHE_KEY)
+        ? (CacheKey) invokeUnchecked(CREATE_CACHE_KEY, ms, parameterObject, rowBounds, boundSql)
+        : target.createCacheKey(ms, parameterObject, rowBounds, boundSql);
+  }
+
+  @Override
+  public boolean isCached(MappedStatement ms, CacheKey key) {
+    return intercepted(IS_CACHED) ? (Boolean) invokeUnchecked(IS_CACHED, ms, key) : target.isCached(ms, key);
+  }
+
+  @Override
+  public void clearLocalCache() {
+    if (intercepted(CLEAR_LOCAL_CACHE)) {
+      invokeUnchecked(CLEAR_LOCAL_CACHE);
+    } else {
+      target.clearLocalCache();
+    }
+  }
+
+  @Override
+  public void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key,
+      Class<?> targetType) {
+    if (intercepted(DEFER_LOAD)) {
+      invokeUnchecked(DEFER_LOAD, ms, resultObject, property, key, targetType);
+    } else {
+      target.deferLoad(ms, resultObject, property, key, targetType);
+    }
+  }
+
+  @Override
+  public Transaction getTransaction() {
+    return intercepted(GET_TRANSACTION) ? (Transaction) invokeUnchecked(GET_TRANSACTION) : target.getTransaction();
+  }
+
+  @Override
+  public void close(boolean forceRollback) {
+    if (intercepted(CLOSE)) {
+      invokeUnchecked(CLOSE, forceRollback);
+    } else {
+      target.close(forceRollback);
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return intercepted(IS_CLOSED) ? (Boolean) invokeUnchecked(IS_CLOSED) : target.isClosed();
+  }
+
+  @Override
+  public void setExecutorWrapper(Executor executor) {
+    if (intercepted(SET_EXECUTOR_WRAPPER)) {
+      invokeUnchecked(SET_EXECUTOR_WRAPPER, executor);
+    } else {
+      target.setExecutorWrapper(executor);
+    }
+  }
+
+  @Override
+  public Environment getEnvironment() {
+    return intercepted(GET_ENVIRONMENT) ? (Environment) invokeUnchecked(GET_ENVIRONMENT) : target.getEnvironment();
+  }
+
+}
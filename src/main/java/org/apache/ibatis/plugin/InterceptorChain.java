@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,9 +15,12 @@
  */
 package org.apache.ibatis.plugin;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Clinton Begin
@@ -25,6 +28,10 @@ import java.util.List;
 public class InterceptorChain {
 
   private final List<Interceptor> interceptors = new ArrayList<>();
+  // 按照目标类缓存的分发表，添加拦截器时清空
+  private final Map<Class<?>, Object> dispatchTables = new ConcurrentHashMap<>();
+  // 需要使用 Interceptor#plugin 逐层包装的目标类
+  private static final Object NESTED_PROXIES = new Object();
 
   public Object pluginAll(Object target) {
     for (Interceptor interceptor : interceptors) {
@@ -33,8 +40,45 @@ public class InterceptorChain {
     return target;
   }
 
+  /**
+   * Applies all interceptors to the target with a single composite object instead of one proxy per interceptor.
+   * Methods that no interceptor intercepts are called on the target directly, and the interceptors are dispatched by a
+   * table that is computed once per target class.
+   * <p>
+   * Falls back to {@link #pluginAll(Object)} if the type has no composite implementation, an interceptor overrides
+   * {@link Interceptor#plugin(Object)}, or an interceptor intercepts another interface of the target.
+   *
+   * @param <T>
+   *          the plugin type
+   * @param target
+   *          the target
+   * @param type
+   *          the plugin type ({@code Executor}, {@code StatementHandler}, {@code ParameterHandler} or
+   *          {@code ResultSetHandler})
+   *
+   * @return the target itself if no interceptor applies to it
+   *
+   * @since 3.5.12
+   */
+  public <T> T pluginAll(T target, Class<T> type) {
+    if (interceptors.isEmpty()) {
+      return target;
+    }
+    Object table = dispatchTables.computeIfAbsent(target.getClass(), targetClass -> {
+      Method[] methods = CompositePlugin.getMethods(type);
+      PluginDispatchTable dispatchTable = methods == null ? null
+          : PluginDispatchTable.create(targetClass, type, methods, interceptors);
+      return dispatchTable == null ? NESTED_PROXIES : dispatchTable;
+    });
+    if (table == NESTED_PROXIES) {
+      return type.cast(pluginAll(target));
+    }
+    return type.cast(CompositePlugin.wrap(target, type, (PluginDispatchTable) table));
+  }
+
   public void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    dispatchTables.clear();
   }
 
   public List<Interceptor> getInterceptors() {
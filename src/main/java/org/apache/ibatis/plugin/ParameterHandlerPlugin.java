@@ -0,0 +1,61 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+
+/**
+ * A {@link CompositePlugin} for {@link ParameterHandler}.
+ *
+ * @since 3.5.12
+ */
+final class ParameterHandlerPlugin extends CompositePlugin<ParameterHandler> implements ParameterHandler {
+
+  private static final int GET_PARAMETER_OBJECT = 0;
+  private static final int SET_PARAMETERS = 1;
+
+  static final Method[] METHODS = {
+      method(ParameterHandler.class, "getParameterObject"),
+      method(ParameterHandler.class, "setParameters", PreparedStatement.class) };
+
+  ParameterHandlerPlugin(ParameterHandler target, PluginDispatchTable table, int level, Object[] views) {
+    super(target, table, level, views);
+  }
+
+  @Override
+  protected Class<?> getType() {
+    return ParameterHandler.class;
+  }
+
+  @Override
+  public Object getParameterObject() {
+    return intercepted(GET_PARAMETER_OBJECT) ? invokeUnchecked(GET_PARAMETER_OBJECT) : target.getParameterObject();
+  }
+
+  @Override
+  public void setParameters(PreparedStatement ps) throws SQLException {
+    if (intercepted(SET_PARAMETERS)) {
+      invoke(SET_PARAMETERS, ps);
+    } else {
+      target.setParameters(ps);
+    }
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which interceptors intercept which method of a plugin type, for one target class and one list of interceptors.
+ * <p>
+ * Interceptors are numbered in the order they were added, so interceptor <code>i</code> wraps the interceptors
+ * <code>0..i-1</code> as it does with nested {@link Plugin} proxies.
+ *
+ * @since 3.5.12
+ */
+final class PluginDispatchTable {
+
+  private final Method[] methods;
+  private final Interceptor[] interceptors;
+  // 每个方法对应的拦截器下标，按照从内到外的顺序排列
+  private final int[][] interceptorIndexes;
+  // 每个拦截器是否作用于目标类型，不作用的拦截器不会创建任何代理
+  private final boolean[] applicable;
+
+  private PluginDispatchTable(Method[] methods, Interceptor[] interceptors, int[][] interceptorIndexes,
+      boolean[] applicable) {
+    this.methods = methods;
+    this.interceptors = interceptors;
+    this.interceptorIndexes = interceptorIndexes;
+    this.applicable = applicable;
+  }
+
+  /**
+   * Builds the dispatch table.
+   *
+   * @return the table, or null if the interceptors must be applied with {@link Interceptor#plugin(Object)}: an
+   *         interceptor overrides it, or intercepts another interface of the target class
+   */
+  static PluginDispatchTable create(Class<?> targetClass, Class<?> type, Method[] methods,
+      List<Interceptor> interceptors) {
+    List<List<Integer>> indexes = new ArrayList<>();
+    for (int m = 0; m < methods.length; m++) {
+      indexes.add(new ArrayList<>());
+    }
+    boolean[] applicable = new boolean[interceptors.size()];
+    for (int i = 0; i < interceptors.size(); i++) {
+      Interceptor interceptor = interceptors.get(i);
+      if (overridesPlugin(interceptor)) {
+        return null;
+      }
+      Map<Class<?>, Set<Method>> signatureMap = Plugin.getSignatureMap(interceptor);
+      for (Class<?> proxiedInterface : Plugin.getAllInterfaces(targetClass, signatureMap)) {
+        if (proxiedInterface != type) {
+          return null;
+        }
+        applicable[i] = true;
+        Set<Method> signatures = signatureMap.get(type);
+        for (int m = 0; m < methods.length; m++) {
+          if (signatures.contains(methods[m])) {
+            indexes.get(m).add(i);
+          }
+        }
+      }
+    }
+    int[][] interceptorIndexes = new int[methods.length][];
+    for (int m = 0; m < methods.length; m++) {
+      interceptorIndexes[m] = indexes.get(m).stream().mapToInt(Integer::intValue).toArray();
+    }
+    return new PluginDispatchTable(methods, interceptors.toArray(new Interceptor[0]), interceptorIndexes, applicable);
+  }
+
+  private static boolean overridesPlugin(Interceptor interceptor) {
+    try {
+      return interceptor.getClass().getMethod("plugin", Object.class).getDeclaringClass() != Interceptor.class;
+    } catch (NoSuchMethodException e) {
+      return true;
+    }
+  }
+
+  int size() {
+    return interceptors.length;
+  }
+
+  Method getMethod(int method) {
+    return methods[method];
+  }
+
+  Interceptor getInterceptor(int index) {
+    return interceptors[index];
+  }
+
+  /**
+   * Returns whether any interceptor applies to the target class.
+   */
+  boolean intercepts() {
+    return wraps(interceptors.length);
+  }
+
+  /**
+   * Returns whether any of the interceptors <code>0..level-1</code> applies to the target class. If none does, nested
+   * proxies would not have wrapped the target at that level.
+   */
+  boolean wraps(int level) {
+    for (int i = 0; i < level; i++) {
+      if (applicable[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the outermost interceptor below the given level that intercepts the method.
+   *
+   * @return the interceptor index, or -1 if the method is not intercepted below the level
+   */
+  int interceptorBelow(int method, int level) {
+    int[] indexes = interceptorIndexes[method];
+    for (int i = indexes.length - 1; i >= 0; i--) {
+      if (indexes[i] < level) {
+        return indexes[i];
+      }
+    }
+    return -1;
+  }
+
+}
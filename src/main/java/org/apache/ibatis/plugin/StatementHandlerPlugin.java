@@ -0,0 +1,117 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * A {@link CompositePlugin} for {@link StatementHandler}.
+ *
+ * @since 3.5.12
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+final class StatementHandlerPlugin extends CompositePlugin<StatementHandler> implements StatementHandler {
+
+  private static final int PREPARE = 0;
+  private static final int PARAMETERIZE = 1;
+  private static final int BATCH = 2;
+  private static final int UPDATE = 3;
+  private static final int QUERY = 4;
+  private static final int QUERY_CURSOR = 5;
+  private static final int GET_BOUND_SQL = 6;
+  private static final int GET_PARAMETER_HANDLER = 7;
+
+  static final Method[] METHODS = {
+      method(StatementHandler.class, "prepare", Connection.class, Integer.class),
+      method(StatementHandler.class, "parameterize", Statement.class),
+      method(StatementHandler.class, "batch", Statement.class),
+      method(StatementHandler.class, "update", Statement.class),
+      method(StatementHandler.class, "query", Statement.class, ResultHandler.class),
+      method(StatementHandler.class, "queryCursor", Statement.class),
+      method(StatementHandler.class, "getBoundSql"),
+      method(StatementHandler.class, "getParameterHandler") };
+
+  StatementHandlerPlugin(StatementHandler target, PluginDispatchTable table, int level, Object[] views) {
+    super(target, table, level, views);
+  }
+
+  @Override
+  protected Class<?> getType() {
+    return StatementHandler.class;
+  }
+
+  @Override
+  public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
+    return intercepted(PREPARE) ? (Statement) invoke(PREPARE, connection, transactionTimeout)
+        : target.prepare(connection, transactionTimeout);
+  }
+
+  @Override
+  public void parameterize(Statement statement) throws SQLException {
+    if (intercepted(PARAMETERIZE)) {
+      invoke(PARAMETERIZE, statement);
+    } else {
+      target.parameterize(statement);
+    }
+  }
+
+  @Override
+  public void batch(Statement statement) throws SQLException {
+    if (intercepted(BATCH)) {
+      invoke(BATCH, statement);
+    } else {
+      target.batch(statement);
+    }
+  }
+
+  @Override
+  public int update(Statement statement) throws SQLException {
+    return intercepted(UPDATE) ? (Integer) invoke(UPDATE, statement) : target.update(statement);
+  }
+
+  @Override
+  public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
+    return intercepted(QUERY) ? (List<E>) invoke(QUERY, statement, resultHandler)
+        : target.query(statement, resultHandler);
+  }
+
+  @Override
+  public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
+    return intercepted(QUERY_CURSOR) ? (Cursor<E>) invoke(QUERY_CURSOR, statement) : target.queryCursor(statement);
+  }
+
+  @Override
+  public BoundSql getBoundSql() {
+    return intercepted(GET_BOUND_SQL) ? (BoundSql) invokeUnchecked(GET_BOUND_SQL) : target.getBoundSql();
+  }
+
+  @Override
+  public ParameterHandler getParameterHandler() {
+    return intercepted(GET_PARAMETER_HANDLER) ? (ParameterHandler) invokeUnchecked(GET_PARAMETER_HANDLER)
+        : target.getParameterHandler();
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Runs statements asynchronously.
+ * <p>
+ * Every call opens its own {@link SqlSession}, and therefore gets its own connection and executor, on the executor
+ * returned by {@link Configuration#getAsyncExecutor()}. The session is committed when the call succeeds and closed
+ * afterwards, so independent calls run concurrently and do not share a transaction.
+ *
+ * @since 3.5.12
+ */
+public interface AsyncSqlSession {
+
+  <T> CompletableFuture<T> selectOne(String statement);
+
+  <T> CompletableFuture<T> selectOne(String statement, Object parameter);
+
+  <E> CompletableFuture<List<E>> selectList(String statement);
+
+  <E> CompletableFuture<List<E>> selectList(String statement, Object parameter);
+
+  <E> CompletableFuture<List<E>> selectList(String statement, Object parameter, RowBounds rowBounds);
+
+  <K, V> CompletableFuture<Map<K, V>> selectMap(String statement, Object parameter, String mapKey);
+
+  CompletableFuture<Integer> insert(String statement, Object parameter);
+
+  CompletableFuture<Integer> update(String statement, Object parameter);
+
+  CompletableFuture<Integer> delete(String statement, Object parameter);
+
+  /**
+   * Runs arbitrary work on a session of its own.
+   *
+   * @param <T>
+   *          the result type
+   * @param work
+   *          the work, which must not keep a reference to the session
+   * @return the result of the work
+   */
+  <T> CompletableFuture<T> execute(Function<SqlSession, T> work);
+
+  Configuration getConfiguration();
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,24 +15,39 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 
+import javax.sql.DataSource;
+
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
+import org.apache.ibatis.builder.xml.DeferredStatement;
+import org.apache.ibatis.builder.xml.MapperSnapshot;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.decorators.FifoCache;
@@ -41,13 +56,21 @@ import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
+import org.apache.ibatis.executor.BaseExecutor;
 import org.apache.ibatis.executor.BatchExecutor;
 import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.executor.bulk.BulkWriter;
+import org.apache.ibatis.executor.bulk.PostgresCopyWriter;
+import org.apache.ibatis.executor.dialect.Dialect;
+import org.apache.ibatis.executor.dialect.DialectRegistry;
+import org.apache.ibatis.executor.dialect.LimitOffsetDialect;
+import org.apache.ibatis.executor.dialect.OffsetFetchDialect;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
@@ -61,6 +84,8 @@ import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.logging.commons.JakartaCommonsLoggingImpl;
+import org.apache.ibatis.logging.jdbc.SqlLogHandler;
+import org.apache.ibatis.logging.jdbc.StatementLogHandler;
 import org.apache.ibatis.logging.jdk14.Jdk14LoggingImpl;
 import org.apache.ibatis.logging.log4j.Log4jImpl;
 import org.apache.ibatis.logging.log4j2.Log4j2Impl;
@@ -74,6 +99,7 @@ import org.apache.ibatis.mapping.ParameterMap;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultSetType;
 import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
+import org.apache.ibatis.metrics.StatementMetricsCollector;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.InterceptorChain;
@@ -88,9 +114,12 @@ import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.tracing.Tracer;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
+import org.apache.ibatis.transaction.readwrite.ReadWriteTransactionFactory;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeAliasRegistry;
 import org.apache.ibatis.type.TypeHandler;
@@ -110,6 +139,7 @@ public class Configuration {
   protected boolean multipleResultSetsEnabled = true;
   protected boolean useGeneratedKeys;
   protected boolean useColumnLabel = true;
+  protected boolean useColumnIndex;
   protected boolean cacheEnabled = true;
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
@@ -127,6 +157,26 @@ public class Configuration {
   protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
+  protected int nestedQueryBatchSize = 100;
+  protected boolean rowBoundsPushdownEnabled;
+  protected boolean multiStatementQueriesEnabled;
+  protected int multiRowInsertSize;
+  protected boolean parallelMapperParsingEnabled;
+  protected MapperSnapshot mapperSnapshot;
+  protected boolean streamingMapperParsingEnabled;
+  protected boolean lazyStatementCompilationEnabled;
+  protected boolean compositePluginChainEnabled;
+  protected boolean structuredSqlLoggingEnabled;
+  protected double sqlLogSampleRate = 1.0;
+  protected SqlLogHandler sqlLogHandler = new StatementLogHandler();
+  protected StatementMetricsCollector statementMetricsCollector;
+  protected Tracer tracer;
+  protected Dialect dialect;
+  protected java.util.concurrent.Executor asyncExecutor;
+  // 未设置 asyncExecutor 时使用的线程池，以及异步 Mapper 方法共用的 SqlSessionFactory，均在第一次使用时创建
+  private volatile ExecutorService defaultAsyncExecutor;
+  private volatile SqlSessionFactory asyncSqlSessionFactory;
+  private final ReentrantLock asyncLock = new ReentrantLock();
   protected ResultSetType defaultResultSetType;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
@@ -151,9 +201,12 @@ public class Configuration {
 
   protected final MapperRegistry mapperRegistry = new MapperRegistry(this);
   protected final InterceptorChain interceptorChain = new InterceptorChain();
+  // 内置的 PostgreSQL COPY 写入器始终位于最后
+  protected final List<BulkWriter> bulkWriters = new ArrayList<>(Collections.singletonList(new PostgresCopyWriter()));
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry(this);
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
   protected final LanguageDriverRegistry languageRegistry = new LanguageDriverRegistry();
+  protected final DialectRegistry dialectRegistry = new DialectRegistry();
 
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection")
       .conflictMessageProducer((savedValue, targetValue) ->
@@ -170,6 +223,15 @@ public class Configuration {
   protected final Collection<CacheRefResolver> incompleteCacheRefs = new LinkedList<>();
   protected final Collection<ResultMapResolver> incompleteResultMaps = new LinkedList<>();
   protected final Collection<MethodResolver> incompleteMethods = new LinkedList<>();
+  // 未完成元素集合上的锁，解析过程中可能执行 I/O（加载资源），使用 ReentrantLock 避免固定虚拟线程
+  private final ReentrantLock incompleteResultMapsLock = new ReentrantLock();
+  private final ReentrantLock incompleteCacheRefsLock = new ReentrantLock();
+  private final ReentrantLock incompleteStatementsLock = new ReentrantLock();
+  // 尚未编译的语句，key 为语句的完整 id、简称以及编译时一并创建的其他语句 id
+  protected final Map<String, List<DeferredStatement>> deferredStatements = new ConcurrentHashMap<>();
+  // 编译会修改映射文件的 DOM，因此所有延迟语句的编译都是串行的
+  private final ReentrantLock deferredStatementsLock = new ReentrantLock();
+  private final ReentrantLock incompleteMethodsLock = new ReentrantLock();
 
   /*
    * A map holds cache-ref relationship. The key is the namespace that
@@ -186,6 +248,7 @@ public class Configuration {
   public Configuration() {
     typeAliasRegistry.registerAlias("JDBC", JdbcTransactionFactory.class);
     typeAliasRegistry.registerAlias("MANAGED", ManagedTransactionFactory.class);
+    typeAliasRegistry.registerAlias("READ_WRITE", ReadWriteTransactionFactory.class);
 
     typeAliasRegistry.registerAlias("JNDI", JndiDataSourceFactory.class);
     typeAliasRegistry.registerAlias("POOLED", PooledDataSourceFactory.class);
@@ -199,6 +262,9 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
+    typeAliasRegistry.registerAlias("LIMIT_OFFSET", LimitOffsetDialect.class);
+    typeAliasRegistry.registerAlias("OFFSET_FETCH", OffsetFetchDialect.class);
+
     typeAliasRegistry.registerAlias("XML", XMLLanguageDriver.class);
     typeAliasRegistry.registerAlias("RAW", RawLanguageDriver.class);
 
@@ -423,6 +489,445 @@ public class Configuration {
     this.lazyLoadingEnabled = lazyLoadingEnabled;
   }
 
+  /**
+   * Gets the maximum number of keys that are resolved by one execution of a batch select.
+   *
+   * @return the nested query batch size
+   * @since 3.5.12
+   */
+  public int getNestedQueryBatchSize() {
+    return nestedQueryBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of keys that are resolved by one execution of a batch select.
+   *
+   * @param nestedQueryBatchSize
+   *          the new nested query batch size
+   * @since 3.5.12
+   */
+  public void setNestedQueryBatchSize(int nestedQueryBatchSize) {
+    this.nestedQueryBatchSize = nestedQueryBatchSize;
+  }
+
+  /**
+   * Gets whether the offset and the limit of row bounds are applied by the database.
+   *
+   * @return true if row bounds are pushed down into the SQL
+   * @since 3.5.12
+   */
+  public boolean isRowBoundsPushdownEnabled() {
+    return rowBoundsPushdownEnabled;
+  }
+
+  /**
+   * Sets whether the offset and the limit of row bounds are applied by the database. Requires a {@link Dialect}, either
+   * set explicitly or registered for the current database id; without one, rows are skipped while reading the result
+   * set.
+   *
+   * @param rowBoundsPushdownEnabled
+   *          true to push row bounds down into the SQL
+   * @since 3.5.12
+   */
+  public void setRowBoundsPushdownEnabled(boolean rowBoundsPushdownEnabled) {
+    this.rowBoundsPushdownEnabled = rowBoundsPushdownEnabled;
+  }
+
+  /**
+   * Gets whether the selects of a query batch are sent to the database as one multi-statement SQL.
+   *
+   * @return true if query batches are executed in one round trip
+   * @since 3.5.12
+   */
+  public boolean isMultiStatementQueriesEnabled() {
+    return multiStatementQueriesEnabled;
+  }
+
+  /**
+   * Sets whether the selects of a query batch are sent to the database as one multi-statement SQL, separated by
+   * semicolons, whose result sets are read one after the other. Requires a driver that accepts several statements in
+   * one prepared statement (e.g. PostgreSQL, SQL Server, or MySQL with <code>allowMultiQueries=true</code>); otherwise
+   * the selects of a batch are executed one by one.
+   *
+   * @param multiStatementQueriesEnabled
+   *          true to execute query batches in one round trip
+   * @since 3.5.12
+   * @see org.apache.ibatis.session.QueryBatch
+   */
+  public void setMultiStatementQueriesEnabled(boolean multiStatementQueriesEnabled) {
+    this.multiStatementQueriesEnabled = multiStatementQueriesEnabled;
+  }
+
+  /**
+   * Gets the number of rows the batch executor packs into one multi-row insert.
+   *
+   * @return the rows per multi-row insert, or 0 (or 1) if batched inserts are not rewritten
+   * @since 3.5.12
+   */
+  public int getMultiRowInsertSize() {
+    return multiRowInsertSize;
+  }
+
+  /**
+   * Sets the number of rows the batch executor packs into one multi-row insert. When greater than 1, consecutive
+   * batched executions of a single-row <code>INSERT ... VALUES (...)</code> are rewritten into
+   * <code>INSERT ... VALUES (...), (...), ...</code> statements of exactly this many rows; the remaining rows are
+   * inserted with statements whose sizes are powers of two, so that only a few distinct SQL texts reach the driver's
+   * statement cache. Generated keys are assigned to the rows as usual.
+   *
+   * @param multiRowInsertSize
+   *          the rows per multi-row insert (e.g. 64 or 256), or 0 to send one row per batched statement
+   * @since 3.5.12
+   */
+  public void setMultiRowInsertSize(int multiRowInsertSize) {
+    this.multiRowInsertSize = multiRowInsertSize;
+  }
+
+  /**
+   * Returns whether the mappers declared in the XML configuration are parsed in parallel.
+   *
+   * @return true if the mapper files are parsed in parallel
+   * @since 3.5.12
+   */
+  public boolean isParallelMapperParsingEnabled() {
+    return parallelMapperParsingEnabled;
+  }
+
+  /**
+   * Sets whether the mappers declared in the XML configuration are parsed in parallel. The mapper XML files are parsed
+   * concurrently and then registered one by one in the declared order; see
+   * {@link org.apache.ibatis.builder.xml.ParallelMapperParser}.
+   *
+   * @param parallelMapperParsingEnabled
+   *          true to parse the mapper files in parallel
+   * @since 3.5.12
+   */
+  public void setParallelMapperParsingEnabled(boolean parallelMapperParsingEnabled) {
+    this.parallelMapperParsingEnabled = parallelMapperParsingEnabled;
+  }
+
+  /**
+   * Gets the snapshot of parsed mapper documents.
+   *
+   * @return the snapshot, or null if mapper files are always parsed
+   * @since 3.5.12
+   */
+  public MapperSnapshot getMapperSnapshot() {
+    return mapperSnapshot;
+  }
+
+  /**
+   * Sets the snapshot of parsed mapper documents. Mapper files whose content matches the snapshot are not parsed
+   * again, and the documents of the other mapper files are added to it.
+   *
+   * @param mapperSnapshot
+   *          the snapshot, or null to always parse mapper files
+   * @since 3.5.12
+   */
+  public void setMapperSnapshot(MapperSnapshot mapperSnapshot) {
+    this.mapperSnapshot = mapperSnapshot;
+  }
+
+  /**
+   * Returns whether mapper XML files are parsed with {@link org.apache.ibatis.parsing.StreamingDocumentBuilder}.
+   *
+   * @return true if mapper files are parsed from a stream of SAX events
+   * @since 3.5.12
+   */
+  public boolean isStreamingMapperParsingEnabled() {
+    return streamingMapperParsingEnabled;
+  }
+
+  /**
+   * Sets whether mapper XML files are parsed with {@link org.apache.ibatis.parsing.StreamingDocumentBuilder} instead of
+   * the default DOM parser. Both produce the same document.
+   *
+   * @param streamingMapperParsingEnabled
+   *          true to parse mapper files from a stream of SAX events
+   * @since 3.5.12
+   */
+  public void setStreamingMapperParsingEnabled(boolean streamingMapperParsingEnabled) {
+    this.streamingMapperParsingEnabled = streamingMapperParsingEnabled;
+  }
+
+  /**
+   * Returns whether the statements of mapper XML files are compiled on their first use.
+   *
+   * @return true if the statements are compiled lazily
+   * @since 3.5.12
+   */
+  public boolean isLazyStatementCompilationEnabled() {
+    return lazyStatementCompilationEnabled;
+  }
+
+  /**
+   * Sets whether the statements of mapper XML files are compiled on their first use instead of when the mapper is
+   * loaded. A statement is compiled once, by the first {@link #getMappedStatement(String)} that asks for it; its
+   * references are checked in the background by {@link #validateDeferredStatementsAsync()}.
+   *
+   * @param lazyStatementCompilationEnabled
+   *          true to compile the statements lazily
+   * @since 3.5.12
+   */
+  public void setLazyStatementCompilationEnabled(boolean lazyStatementCompilationEnabled) {
+    this.lazyStatementCompilationEnabled = lazyStatementCompilationEnabled;
+  }
+
+  /**
+   * Returns whether the interceptors are applied with one composite object instead of nested proxies.
+   *
+   * @return true if the composite plugin chain is enabled
+   * @since 3.5.12
+   */
+  public boolean isCompositePluginChainEnabled() {
+    return compositePluginChainEnabled;
+  }
+
+  /**
+   * Sets whether the interceptors are applied to executors and statement, parameter and result set handlers with one
+   * composite object instead of one proxy per interceptor (see {@link InterceptorChain#pluginAll(Object, Class)}).
+   * Interceptors that unwrap the proxies of other plugins (e.g. with <code>h.target</code>) should keep the default.
+   *
+   * @param compositePluginChainEnabled
+   *          true to enable the composite plugin chain
+   * @since 3.5.12
+   */
+  public void setCompositePluginChainEnabled(boolean compositePluginChainEnabled) {
+    this.compositePluginChainEnabled = compositePluginChainEnabled;
+  }
+
+  /**
+   * Returns whether executed statements are reported to the {@link #getSqlLogHandler() SQL log handler} instead of
+   * being logged by JDBC logging proxies.
+   *
+   * @return true if structured SQL logging is enabled
+   * @since 3.5.12
+   */
+  public boolean isStructuredSqlLoggingEnabled() {
+    return structuredSqlLoggingEnabled;
+  }
+
+  /**
+   * Sets whether executed statements are reported to the {@link #getSqlLogHandler() SQL log handler}, once per
+   * execution and after the results have been mapped, with their statement id, SQL fingerprint, parameter types,
+   * duration and row count. When enabled, connections are no longer wrapped with the logging proxies of
+   * {@link org.apache.ibatis.logging.jdbc}, so parameter values and result rows are not logged.
+   *
+   * @param structuredSqlLoggingEnabled
+   *          true to enable structured SQL logging
+   * @since 3.5.12
+   */
+  public void setStructuredSqlLoggingEnabled(boolean structuredSqlLoggingEnabled) {
+    this.structuredSqlLoggingEnabled = structuredSqlLoggingEnabled;
+  }
+
+  /**
+   * Returns the fraction of the executions that are reported when structured SQL logging is enabled.
+   *
+   * @return the sample rate, 1.0 by default
+   * @since 3.5.12
+   */
+  public double getSqlLogSampleRate() {
+    return sqlLogSampleRate;
+  }
+
+  /**
+   * Sets the fraction of the executions that are reported when structured SQL logging is enabled.
+   *
+   * @param sqlLogSampleRate
+   *          the sample rate, from 0.0 (none) to 1.0 (all)
+   * @since 3.5.12
+   */
+  public void setSqlLogSampleRate(double sqlLogSampleRate) {
+    this.sqlLogSampleRate = sqlLogSampleRate;
+  }
+
+  /**
+   * Gets the handler of structured SQL logging. Unless one has been set, this is a {@link StatementLogHandler} that
+   * writes to the statement logs.
+   *
+   * @return the SQL log handler
+   * @since 3.5.12
+   */
+  public SqlLogHandler getSqlLogHandler() {
+    return sqlLogHandler;
+  }
+
+  /**
+   * Sets the handler of structured SQL logging.
+   *
+   * @param sqlLogHandler
+   *          the SQL log handler, or null for the default one
+   * @since 3.5.12
+   */
+  public void setSqlLogHandler(SqlLogHandler sqlLogHandler) {
+    this.sqlLogHandler = sqlLogHandler == null ? new StatementLogHandler() : sqlLogHandler;
+  }
+
+  /**
+   * Gets the collector of the per-statement metrics.
+   *
+   * @return the collector, or null if no metrics are collected
+   * @since 3.5.12
+   */
+  public StatementMetricsCollector getStatementMetricsCollector() {
+    return statementMetricsCollector;
+  }
+
+  /**
+   * Sets the collector that receives every execution of a mapped statement with the time spent preparing it,
+   * executing it and fetching and mapping its rows (see {@link org.apache.ibatis.metrics.StatementMetricsRegistry}).
+   *
+   * @param statementMetricsCollector
+   *          the collector, or null to collect no metrics
+   * @since 3.5.12
+   */
+  public void setStatementMetricsCollector(StatementMetricsCollector statementMetricsCollector) {
+    this.statementMetricsCollector = statementMetricsCollector;
+  }
+
+  /**
+   * Gets the tracer of mapper calls, queries, updates, batch flushes and lazy loads.
+   *
+   * @return the tracer, or null if nothing is traced
+   * @since 3.5.12
+   */
+  public Tracer getTracer() {
+    return tracer;
+  }
+
+  /**
+   * Sets the tracer that receives a span for each mapper call, <code>Executor.query</code>,
+   * <code>Executor.update</code>, <code>Executor.flushStatements</code> and lazy load, with explicit parent spans (see
+   * {@link org.apache.ibatis.tracing.SpanKind}).
+   *
+   * @param tracer
+   *          the tracer, or null to trace nothing
+   * @since 3.5.12
+   */
+  public void setTracer(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  /**
+   * Gets the dialect used to page selects. Unless one has been set explicitly, this is the dialect registered for the
+   * current database id.
+   *
+   * @return the dialect, or null if there is none
+   * @since 3.5.12
+   */
+  public Dialect getDialect() {
+    return dialect != null ? dialect : dialectRegistry.getDialect(databaseId);
+  }
+
+  /**
+   * Sets the dialect used to page selects, regardless of the database id.
+   *
+   * @param dialect
+   *          the dialect
+   * @since 3.5.12
+   */
+  public void setDialect(Dialect dialect) {
+    this.dialect = dialect;
+  }
+
+  /**
+   * Gets the registry of the dialects per database id.
+   *
+   * @return the dialect registry
+   * @since 3.5.12
+   */
+  public DialectRegistry getDialectRegistry() {
+    return dialectRegistry;
+  }
+
+  /**
+   * Gets the executor that runs asynchronous mapper methods and {@link AsyncSqlSession} calls. Unless one has been set,
+   * this is a pool of daemon threads of this configuration with as many threads as the pooled data source has
+   * connections (or as there are processors for other data sources); further calls wait in its queue instead of
+   * starting threads that would only wait for a connection. The queue holds at most 1024 calls; once it is full, a new
+   * call runs on the thread that makes it. A call made from one of the pool threads, such as an asynchronous call
+   * nested in another one, also runs on that thread, so it never waits for a pool thread its caller is holding.
+   *
+   * @return the async executor
+   * @since 3.5.12
+   */
+  public java.util.concurrent.Executor getAsyncExecutor() {
+    java.util.concurrent.Executor executor = asyncExecutor;
+    return executor != null ? executor : getDefaultAsyncExecutor();
+  }
+
+  private ExecutorService getDefaultAsyncExecutor() {
+    ExecutorService executor = defaultAsyncExecutor;
+    if (executor == null) {
+      asyncLock.lock();
+      try {
+        executor = defaultAsyncExecutor;
+        if (executor == null) {
+          defaultAsyncExecutor = executor = newDefaultAsyncExecutor();
+        }
+      } finally {
+        asyncLock.unlock();
+      }
+    }
+    return executor;
+  }
+
+  private ExecutorService newDefaultAsyncExecutor() {
+    DataSource dataSource = environment == null ? null : environment.getDataSource();
+    int threads = dataSource instanceof PooledDataSource
+        ? ((PooledDataSource) dataSource).getPoolMaximumActiveConnections()
+        : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadPoolExecutor executor = new DefaultAsyncExecutor(threads, runnable -> {
+      Thread thread = new Thread(runnable, "mybatis-async-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    // 空闲的线程会退出，Configuration 不再使用时不会留下线程
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Gets the session factory that asynchronous mapper methods open their sessions with. It is created on first use
+   * and shared by all mappers of this configuration.
+   * <p>
+   * An asynchronous mapper method ignores the session it was called on: it runs on a session of its own, with its own
+   * connection and transaction, which is committed when the call succeeds. A write is therefore not part of the
+   * transaction of the calling session and is not rolled back with it, and a read does not see the uncommitted changes
+   * of that transaction.
+   *
+   * @return the session factory
+   * @since 3.5.12
+   */
+  public SqlSessionFactory getAsyncSqlSessionFactory() {
+    SqlSessionFactory factory = asyncSqlSessionFactory;
+    if (factory == null) {
+      asyncLock.lock();
+      try {
+        factory = asyncSqlSessionFactory;
+        if (factory == null) {
+          asyncSqlSessionFactory = factory = new DefaultSqlSessionFactory(this);
+        }
+      } finally {
+        asyncLock.unlock();
+      }
+    }
+    return factory;
+  }
+
+  /**
+   * Sets the executor that runs asynchronous mapper methods and {@link AsyncSqlSession} calls.
+   *
+   * @param asyncExecutor
+   *          the async executor
+   * @since 3.5.12
+   */
+  public void setAsyncExecutor(java.util.concurrent.Executor asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
   public ProxyFactory getProxyFactory() {
     return proxyFactory;
   }
@@ -540,6 +1045,30 @@ public class Configuration {
     this.useColumnLabel = useColumnLabel;
   }
 
+  /**
+   * Returns whether mapped columns are read by their index.
+   *
+   * @return true if mapped columns are read by their index
+   * @since 3.5.12
+   */
+  public boolean isUseColumnIndex() {
+    return useColumnIndex;
+  }
+
+  /**
+   * Sets whether property mappings and auto-mappings read their columns by index. The index of each mapped column is
+   * resolved once per result set and handed to {@link org.apache.ibatis.type.TypeHandler#getResult(java.sql.ResultSet, int)},
+   * so the driver does not look up the column label for every row. Custom type handlers must then implement the
+   * index-based <code>getResult</code> too. Has no effect when {@link #isUseColumnLabel()} is false.
+   *
+   * @param useColumnIndex
+   *          true to read mapped columns by their index
+   * @since 3.5.12
+   */
+  public void setUseColumnIndex(boolean useColumnIndex) {
+    this.useColumnIndex = useColumnIndex;
+  }
+
   public LocalCacheScope getLocalCacheScope() {
     return localCacheScope;
   }
@@ -676,20 +1205,20 @@ public class Configuration {
 
   public ParameterHandler newParameterHandler(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
     ParameterHandler parameterHandler = mappedStatement.getLang().createParameterHandler(mappedStatement, parameterObject, boundSql);
-    parameterHandler = (ParameterHandler) interceptorChain.pluginAll(parameterHandler);
+    parameterHandler = pluginAll(parameterHandler, ParameterHandler.class);
     return parameterHandler;
   }
 
   public ResultSetHandler newResultSetHandler(Executor executor, MappedStatement mappedStatement, RowBounds rowBounds, ParameterHandler parameterHandler,
       ResultHandler resultHandler, BoundSql boundSql) {
     ResultSetHandler resultSetHandler = new DefaultResultSetHandler(executor, mappedStatement, parameterHandler, resultHandler, boundSql, rowBounds);
-    resultSetHandler = (ResultSetHandler) interceptorChain.pluginAll(resultSetHandler);
+    resultSetHandler = pluginAll(resultSetHandler, ResultSetHandler.class);
     return resultSetHandler;
   }
 
   public StatementHandler newStatementHandler(Executor executor, MappedStatement mappedStatement, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     StatementHandler statementHandler = new RoutingStatementHandler(executor, mappedStatement, parameterObject, rowBounds, resultHandler, boundSql);
-    statementHandler = (StatementHandler) interceptorChain.pluginAll(statementHandler);
+    statementHandler = pluginAll(statementHandler, StatementHandler.class);
     return statementHandler;
   }
 
@@ -698,22 +1227,50 @@ public class Configuration {
   }
 
   public Executor newExecutor(Transaction transaction, ExecutorType executorType) {
+    return newExecutor(transaction, executorType, null);
+  }
+
+  /**
+   * Creates an executor for a transaction of the given environment rather than the environment of this configuration.
+   * The cache keys of the executor carry the id of that environment.
+   *
+   * @param transaction
+   *          the transaction
+   * @param executorType
+   *          the executor type
+   * @param environment
+   *          the environment of the transaction, or {@code null} for the environment of this configuration
+   * @return the executor
+   * @since 3.5.12
+   */
+  public Executor newExecutor(Transaction transaction, ExecutorType executorType, Environment environment) {
     executorType = executorType == null ? defaultExecutorType : executorType;
-    Executor executor;
+    BaseExecutor baseExecutor;
     if (ExecutorType.BATCH == executorType) {
-      executor = new BatchExecutor(this, transaction);
+      baseExecutor = new BatchExecutor(this, transaction);
     } else if (ExecutorType.REUSE == executorType) {
-      executor = new ReuseExecutor(this, transaction);
+      baseExecutor = new ReuseExecutor(this, transaction);
     } else {
-      executor = new SimpleExecutor(this, transaction);
+      baseExecutor = new SimpleExecutor(this, transaction);
     }
+    // 在包装 CachingExecutor 和插件之前设置，嵌套查询和延迟加载经由 wrapper 时同样使用这个环境
+    baseExecutor.setEnvironment(environment);
+    Executor executor = baseExecutor;
     if (cacheEnabled) {
       executor = new CachingExecutor(executor);
     }
-    executor = (Executor) interceptorChain.pluginAll(executor);
+    executor = pluginAll(executor, Executor.class);
     return executor;
   }
 
+  private <T> T pluginAll(T target, Class<T> type) {
+    if (compositePluginChainEnabled) {
+      // 使用单个组合对象应用所有拦截器
+      return interceptorChain.pluginAll(target, type);
+    }
+    return type.cast(interceptorChain.pluginAll(target));
+  }
+
   public void addKeyGenerator(String id, KeyGenerator keyGenerator) {
     keyGenerators.put(id, keyGenerator);
   }
@@ -797,49 +1354,248 @@ public class Configuration {
   }
 
   public void addMappedStatement(MappedStatement ms) {
+    DeferredStatement deferred = getDeferredStatement(ms.getId());
+    if (deferred != null && !deferred.isCompiling()) {
+      throw new IllegalArgumentException("Mapped Statements collection already contains value for " + ms.getId()
+          + ". please check " + deferred.getResource() + " and " + ms.getResource());
+    }
     mappedStatements.put(ms.getId(), ms);
   }
 
   public Collection<String> getMappedStatementNames() {
     buildAllStatements();
-    return mappedStatements.keySet();
+    if (deferredStatements.isEmpty()) {
+      return mappedStatements.keySet();
+    }
+    // 尚未编译的语句也包含在内，但不会因此触发编译
+    Set<String> names = new HashSet<>(mappedStatements.keySet());
+    names.addAll(deferredStatements.keySet());
+    return names;
   }
 
   public Collection<MappedStatement> getMappedStatements() {
     buildAllStatements();
+    compileDeferredStatements();
     return mappedStatements.values();
   }
 
+  /**
+   * Registers a statement that is compiled on its first use.
+   *
+   * @param statement
+   *          the deferred statement
+   * @since 3.5.12
+   */
+  public void addDeferredStatement(DeferredStatement statement) {
+    deferredStatementsLock.lock();
+    try {
+      String id = statement.getId();
+      if (mappedStatements.containsKey(id) || getDeferredStatement(id) != null) {
+        String previous = mappedStatements.containsKey(id) ? mappedStatements.get(id).getResource()
+            : getDeferredStatement(id).getResource();
+        throw new IllegalArgumentException("Mapped Statements collection already contains value for " + id
+            + ". please check " + previous + " and " + statement.getResource());
+      }
+      addDeferredStatement(id, statement);
+      addDeferredStatement(id.substring(id.lastIndexOf('.') + 1), statement);
+      for (String alias : statement.getAliases()) {
+        addDeferredStatement(alias, statement);
+      }
+    } finally {
+      deferredStatementsLock.unlock();
+    }
+  }
+
+  private void addDeferredStatement(String key, DeferredStatement statement) {
+    // 列表只在持有锁时整体替换，读取时无需加锁
+    List<DeferredStatement> statements = new ArrayList<>(deferredStatements.getOrDefault(key, Collections.emptyList()));
+    statements.add(statement);
+    deferredStatements.put(key, Collections.unmodifiableList(statements));
+  }
+
+  /**
+   * Gets the statement with the given id that is not compiled yet.
+   *
+   * @param id
+   *          the full id of the statement
+   * @return the deferred statement, or null if there is none
+   * @since 3.5.12
+   */
+  public DeferredStatement getDeferredStatement(String id) {
+    if (id == null) {
+      return null;
+    }
+    for (DeferredStatement statement : deferredStatements.getOrDefault(id, Collections.emptyList())) {
+      if (statement.getId().equals(id)) {
+        return statement;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the statements that are not compiled yet.
+   *
+   * @return the deferred statements
+   * @since 3.5.12
+   */
+  public Collection<DeferredStatement> getDeferredStatements() {
+    Set<DeferredStatement> statements = new LinkedHashSet<>();
+    deferredStatements.values().forEach(statements::addAll);
+    return statements;
+  }
+
+  /**
+   * Compiles the deferred statements that the given id refers to, either by their full id, their short name or the id
+   * of a statement created along with them.
+   *
+   * @param id
+   *          the statement id
+   */
+  protected void compileDeferredStatements(String id) {
+    if (deferredStatements.isEmpty() || id == null || !deferredStatements.containsKey(id)) {
+      return;
+    }
+    deferredStatementsLock.lock();
+    try {
+      for (DeferredStatement statement : deferredStatements.getOrDefault(id, Collections.emptyList())) {
+        compileDeferredStatement(statement);
+      }
+    } finally {
+      deferredStatementsLock.unlock();
+    }
+  }
+
+  protected void compileDeferredStatements() {
+    if (deferredStatements.isEmpty()) {
+      return;
+    }
+    deferredStatementsLock.lock();
+    try {
+      for (DeferredStatement statement : getDeferredStatements()) {
+        compileDeferredStatement(statement);
+      }
+    } finally {
+      deferredStatementsLock.unlock();
+    }
+  }
+
+  private void compileDeferredStatement(DeferredStatement statement) {
+    if (statement.isCompiled() || statement.isCompiling()) {
+      return;
+    }
+    statement.compile();
+    // 编译完成之后，从所有的 key 中移除该语句
+    Iterator<Map.Entry<String, List<DeferredStatement>>> iterator = deferredStatements.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, List<DeferredStatement>> entry = iterator.next();
+      if (entry.getValue().contains(statement)) {
+        List<DeferredStatement> statements = new ArrayList<>(entry.getValue());
+        statements.remove(statement);
+        if (statements.isEmpty()) {
+          iterator.remove();
+        } else {
+          entry.setValue(Collections.unmodifiableList(statements));
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks the references of the statements that are not compiled yet, without compiling them.
+   *
+   * @return the problems found, or an empty list
+   * @since 3.5.12
+   */
+  public List<String> validateDeferredStatements() {
+    // 仍未解析的 resultMap 可能引用了后加载的映射文件，校验前先尝试解析
+    parsePendingResultMaps(false);
+    List<String> problems = new ArrayList<>();
+    for (DeferredStatement statement : getDeferredStatements()) {
+      problems.addAll(statement.validate());
+    }
+    return problems;
+  }
+
+  /**
+   * Checks the references of the statements that are not compiled yet on the {@link #getAsyncExecutor() async
+   * executor}, and logs the problems found as warnings.
+   *
+   * @return a future completed with the problems found
+   * @since 3.5.12
+   */
+  public CompletableFuture<List<String>> validateDeferredStatementsAsync() {
+    return CompletableFuture.supplyAsync(this::validateDeferredStatements, getAsyncExecutor())
+        .whenComplete((problems, e) -> {
+          Log log = LogFactory.getLog(Configuration.class);
+          if (e != null) {
+            log.warn("Could not validate the deferred statements. Cause: " + e);
+          } else {
+            problems.forEach(log::warn);
+          }
+        });
+  }
+
   public Collection<XMLStatementBuilder> getIncompleteStatements() {
-    return incompleteStatements;
+    return snapshot(incompleteStatements, incompleteStatementsLock);
   }
 
   public void addIncompleteStatement(XMLStatementBuilder incompleteStatement) {
-    incompleteStatements.add(incompleteStatement);
+    incompleteStatementsLock.lock();
+    try {
+      incompleteStatements.add(incompleteStatement);
+    } finally {
+      incompleteStatementsLock.unlock();
+    }
   }
 
   public Collection<CacheRefResolver> getIncompleteCacheRefs() {
-    return incompleteCacheRefs;
+    return snapshot(incompleteCacheRefs, incompleteCacheRefsLock);
   }
 
   public void addIncompleteCacheRef(CacheRefResolver incompleteCacheRef) {
-    incompleteCacheRefs.add(incompleteCacheRef);
+    incompleteCacheRefsLock.lock();
+    try {
+      incompleteCacheRefs.add(incompleteCacheRef);
+    } finally {
+      incompleteCacheRefsLock.unlock();
+    }
   }
 
   public Collection<ResultMapResolver> getIncompleteResultMaps() {
-    return incompleteResultMaps;
+    return snapshot(incompleteResultMaps, incompleteResultMapsLock);
   }
 
   public void addIncompleteResultMap(ResultMapResolver resultMapResolver) {
-    incompleteResultMaps.add(resultMapResolver);
+    incompleteResultMapsLock.lock();
+    try {
+      incompleteResultMaps.add(resultMapResolver);
+    } finally {
+      incompleteResultMapsLock.unlock();
+    }
   }
 
   public void addIncompleteMethod(MethodResolver builder) {
-    incompleteMethods.add(builder);
+    incompleteMethodsLock.lock();
+    try {
+      incompleteMethods.add(builder);
+    } finally {
+      incompleteMethodsLock.unlock();
+    }
   }
 
   public Collection<MethodResolver> getIncompleteMethods() {
-    return incompleteMethods;
+    return snapshot(incompleteMethods, incompleteMethodsLock);
+  }
+
+  private static <T> Collection<T> snapshot(Collection<T> elements, ReentrantLock lock) {
+    // 返回加锁时的副本，调用方遍历时不会与并发的添加或解析冲突
+    lock.lock();
+    try {
+      return Collections.unmodifiableList(new ArrayList<>(elements));
+    } finally {
+      lock.unlock();
+    }
   }
 
   public MappedStatement getMappedStatement(String id) {
@@ -850,6 +1606,8 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
+    // 延迟编译的语句在第一次使用时编译
+    compileDeferredStatements(id);
     return mappedStatements.get(id);
   }
 
@@ -861,6 +1619,28 @@ public class Configuration {
     interceptorChain.addInterceptor(interceptor);
   }
 
+  /**
+   * Gets the writers that may load the rows of a bulk insert, in the order they are consulted.
+   *
+   * @return the bulk writers
+   * @since 3.5.12
+   */
+  public List<BulkWriter> getBulkWriters() {
+    return Collections.unmodifiableList(bulkWriters);
+  }
+
+  /**
+   * Adds a writer that loads the rows of bulk inserts through a database-native facility. Writers are consulted in the
+   * order they were added, before the built-in PostgreSQL COPY writer.
+   *
+   * @param bulkWriter
+   *          the bulk writer
+   * @since 3.5.12
+   */
+  public void addBulkWriter(BulkWriter bulkWriter) {
+    bulkWriters.add(bulkWriters.size() - 1, bulkWriter);
+  }
+
   public void addMappers(String packageName, Class<?> superType) {
     mapperRegistry.addMappers(packageName, superType);
   }
@@ -889,7 +1669,20 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
-    return mappedStatements.containsKey(statementName);
+    return mappedStatements.containsKey(statementName) || hasDeferredStatement(statementName);
+  }
+
+  private boolean hasDeferredStatement(String id) {
+    if (id == null) {
+      return false;
+    }
+    for (DeferredStatement statement : deferredStatements.getOrDefault(id, Collections.emptyList())) {
+      // 正在编译的语句尚未加入 mappedStatements，视为不存在
+      if (!statement.isCompiling()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   public void addCacheRef(String namespace, String referencedNamespace) {
@@ -902,35 +1695,25 @@ public class Configuration {
    * statement validation.
    */
   protected void buildAllStatements() {
-    parsePendingResultMaps();
-    if (!incompleteCacheRefs.isEmpty()) {
-      synchronized (incompleteCacheRefs) {
-        incompleteCacheRefs.removeIf(x -> x.resolveCacheRef() != null);
-      }
-    }
-    if (!incompleteStatements.isEmpty()) {
-      synchronized (incompleteStatements) {
-        incompleteStatements.removeIf(x -> {
-          x.parseStatementNode();
-          return true;
-        });
-      }
-    }
-    if (!incompleteMethods.isEmpty()) {
-      synchronized (incompleteMethods) {
-        incompleteMethods.removeIf(x -> {
-          x.resolve();
-          return true;
-        });
-      }
-    }
+    parsePendingResultMaps(true);
+    parsePendingCacheRefs(true);
+    parsePendingStatements(true);
+    parsePendingMethods(true);
   }
 
-  private void parsePendingResultMaps() {
+  /**
+   * Resolves the pending result maps, until no more of them can be resolved.
+   *
+   * @param reportUnresolved
+   *          whether to throw the {@link IncompleteElementException} of a result map that is still unresolvable
+   * @since 3.5.12
+   */
+  public void parsePendingResultMaps(boolean reportUnresolved) {
     if (incompleteResultMaps.isEmpty()) {
       return;
     }
-    synchronized (incompleteResultMaps) {
+    incompleteResultMapsLock.lock();
+    try {
       boolean resolved;
       IncompleteElementException ex = null;
       do {
@@ -946,10 +1729,102 @@ public class Configuration {
           }
         }
       } while (resolved);
-      if (!incompleteResultMaps.isEmpty() && ex != null) {
+      if (reportUnresolved && !incompleteResultMaps.isEmpty() && ex != null) {
         // At least one result map is unresolvable.
         throw ex;
       }
+    } finally {
+      incompleteResultMapsLock.unlock();
+    }
+  }
+
+  /**
+   * Resolves the pending cache references.
+   *
+   * @param reportUnresolved
+   *          whether to throw the {@link IncompleteElementException} of a cache reference that is still unresolvable
+   * @since 3.5.12
+   */
+  public void parsePendingCacheRefs(boolean reportUnresolved) {
+    if (incompleteCacheRefs.isEmpty()) {
+      return;
+    }
+    incompleteCacheRefsLock.lock();
+    try {
+      Iterator<CacheRefResolver> iterator = incompleteCacheRefs.iterator();
+      while (iterator.hasNext()) {
+        try {
+          iterator.next().resolveCacheRef();
+          iterator.remove();
+        } catch (IncompleteElementException e) {
+          // Cache ref is still missing a resource...
+          if (reportUnresolved) {
+            throw e;
+          }
+        }
+      }
+    } finally {
+      incompleteCacheRefsLock.unlock();
+    }
+  }
+
+  /**
+   * Parses the pending statements.
+   *
+   * @param reportUnresolved
+   *          whether to throw the {@link IncompleteElementException} of a statement that is still unresolvable
+   * @since 3.5.12
+   */
+  public void parsePendingStatements(boolean reportUnresolved) {
+    if (incompleteStatements.isEmpty()) {
+      return;
+    }
+    incompleteStatementsLock.lock();
+    try {
+      Iterator<XMLStatementBuilder> iterator = incompleteStatements.iterator();
+      while (iterator.hasNext()) {
+        try {
+          iterator.next().parseStatementNode();
+          iterator.remove();
+        } catch (IncompleteElementException e) {
+          // Statement is still missing a resource...
+          if (reportUnresolved) {
+            throw e;
+          }
+        }
+      }
+    } finally {
+      incompleteStatementsLock.unlock();
+    }
+  }
+
+  /**
+   * Resolves the pending annotated mapper methods.
+   *
+   * @param reportUnresolved
+   *          whether to throw the {@link IncompleteElementException} of a method that is still unresolvable
+   * @since 3.5.12
+   */
+  public void parsePendingMethods(boolean reportUnresolved) {
+    if (incompleteMethods.isEmpty()) {
+      return;
+    }
+    incompleteMethodsLock.lock();
+    try {
+      Iterator<MethodResolver> iterator = incompleteMethods.iterator();
+      while (iterator.hasNext()) {
+        try {
+          iterator.next().resolve();
+          iterator.remove();
+        } catch (IncompleteElementException e) {
+          // This method is still missing a resource
+          if (reportUnresolved) {
+            throw e;
+          }
+        }
+      }
+    } finally {
+      incompleteMethodsLock.unlock();
     }
   }
 
@@ -999,6 +1874,37 @@ public class Configuration {
     }
   }
 
+  /**
+   * The default async executor: a fixed number of threads with a bounded queue. Calls are run by the calling thread
+   * when the queue is full, or when the caller is itself one of the pool threads.
+   */
+  private static final class DefaultAsyncExecutor extends ThreadPoolExecutor {
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final ThreadLocal<Boolean> poolThread = new ThreadLocal<>();
+
+    DefaultAsyncExecutor(int threads, ThreadFactory threadFactory) {
+      super(threads, threads, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory,
+          new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+      poolThread.set(Boolean.TRUE);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      if (poolThread.get() != null) {
+        // 嵌套的异步调用直接在当前线程执行，不会排队等待被调用方自己占用的线程
+        command.run();
+      } else {
+        super.execute(command);
+      }
+    }
+  }
+
   protected static class StrictMap<V> extends ConcurrentHashMap<String, V> {
 
     private static final long serialVersionUID = -4950446264854982944L;
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Row bounds that also control how the rows of a single call are fetched.
+ * <p>
+ * The fetch size overrides the fetch size of the statement and the <code>defaultFetchSize</code> setting. A positive
+ * prefetch size makes a {@link org.apache.ibatis.cursor.Cursor} read and map rows on a separate thread into a buffer
+ * holding at most that many objects, so fetching from the database overlaps with processing the returned objects.
+ *
+ * @since 3.5.12
+ */
+public class CursorRowBounds extends RowBounds {
+
+  private final Integer fetchSize;
+  private final int prefetchSize;
+
+  /**
+   * @param fetchSize
+   *          the fetch size of the statement, or null to keep the configured one
+   * @param prefetchSize
+   *          the number of objects read ahead by a cursor, or 0 to read them on the calling thread
+   */
+  public CursorRowBounds(Integer fetchSize, int prefetchSize) {
+    this(NO_ROW_OFFSET, NO_ROW_LIMIT, fetchSize, prefetchSize);
+  }
+
+  public CursorRowBounds(int offset, int limit, Integer fetchSize, int prefetchSize) {
+    super(offset, limit);
+    this.fetchSize = fetchSize;
+    this.prefetchSize = prefetchSize;
+  }
+
+  public Integer getFetchSize() {
+    return fetchSize;
+  }
+
+  public int getPrefetchSize() {
+    return prefetchSize;
+  }
+
+  /**
+   * Returns row bounds with the same fetch options and no offset or limit. Used when the offset and the limit have
+   * already been applied by the SQL.
+   *
+   * @return the unbounded row bounds
+   */
+  public CursorRowBounds unbounded() {
+    return new CursorRowBounds(NO_ROW_OFFSET, NO_ROW_LIMIT, fetchSize, prefetchSize);
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.regex.Pattern;
+
+/**
+ * Row bounds that read the page following a known key instead of skipping rows.
+ * <p>
+ * The select is wrapped into <code>SELECT * FROM (...) WHERE keyColumn &gt; ? ORDER BY keyColumn</code>, so every page
+ * costs the same regardless of its position. With several key columns the rows are ordered by all of them, and the page
+ * starts after the last key compared column by column. Descending keys use <code>&lt;</code> and
+ * <code>ORDER BY ... DESC</code> for every key column; mixed directions are not supported.
+ * <p>
+ * The key columns must be part of the select list and together unique. They are written into the SQL, so each must be
+ * a plain identifier or a quoted identifier; anything else is rejected. Keyset row bounds require a
+ * {@link org.apache.ibatis.executor.dialect.Dialect} for the current database.
+ *
+ * @since 3.5.12
+ */
+public class KeysetRowBounds extends RowBounds {
+
+  // 普通标识符，或者用双引号、反引号、方括号引用的标识符
+  private static final Pattern IDENTIFIER = Pattern
+      .compile("[A-Za-z_][A-Za-z0-9_$]*|\"[^\"]+\"|`[^`]+`|\\[[^\\]]+\\]");
+
+  private final String[] keyColumns;
+  private final Object[] lastKeys;
+  private final boolean descending;
+
+  /**
+   * @param keyColumn
+   *          the column the rows are ordered by
+   * @param lastKey
+   *          the key of the last row of the previous page, or null to read the first page
+   * @param limit
+   *          the maximum number of rows of the page
+   */
+  public KeysetRowBounds(String keyColumn, Object lastKey, int limit) {
+    this(new String[] { keyColumn }, lastKey == null ? null : new Object[] { lastKey }, false, limit);
+  }
+
+  /**
+   * @param keyColumns
+   *          the columns the rows are ordered by, most significant first
+   * @param lastKeys
+   *          the values of the key columns in the last row of the previous page, or null to read the first page
+   * @param descending
+   *          true to read the rows in descending key order
+   * @param limit
+   *          the maximum number of rows of the page
+   */
+  public KeysetRowBounds(String[] keyColumns, Object[] lastKeys, boolean descending, int limit) {
+    super(NO_ROW_OFFSET, limit);
+    if (keyColumns == null || keyColumns.length == 0) {
+      throw new IllegalArgumentException("Keyset row bounds require at least one key column.");
+    }
+    for (String keyColumn : keyColumns) {
+      if (keyColumn == null || !IDENTIFIER.matcher(keyColumn).matches()) {
+        throw new IllegalArgumentException("Invalid key column '" + keyColumn + "' for keyset row bounds.");
+      }
+    }
+    if (lastKeys != null) {
+      if (lastKeys.length != keyColumns.length) {
+        throw new IllegalArgumentException("Keyset row bounds have " + keyColumns.length + " key columns but "
+            + lastKeys.length + " last keys.");
+      }
+      for (Object lastKey : lastKeys) {
+        if (lastKey == null) {
+          throw new IllegalArgumentException("The last keys of keyset row bounds must not be null.");
+        }
+      }
+    }
+    this.keyColumns = keyColumns.clone();
+    this.lastKeys = lastKeys == null ? null : lastKeys.clone();
+    this.descending = descending;
+  }
+
+  /**
+   * Returns the first key column.
+   *
+   * @return the most significant key column
+   */
+  public String getKeyColumn() {
+    return keyColumns[0];
+  }
+
+  /**
+   * Returns the value of the first key column in the last row of the previous page.
+   *
+   * @return the last key, or null to read the first page
+   */
+  public Object getLastKey() {
+    return lastKeys == null ? null : lastKeys[0];
+  }
+
+  public String[] getKeyColumns() {
+    return keyColumns.clone();
+  }
+
+  public Object[] getLastKeys() {
+    return lastKeys == null ? null : lastKeys.clone();
+  }
+
+  public boolean isDescending() {
+    return descending;
+  }
+
+}
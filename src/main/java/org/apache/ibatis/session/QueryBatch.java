@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects several selects and executes them together.
+ * <p>
+ * With the <code>multiStatementQueriesEnabled</code> setting and a driver that accepts several statements in one
+ * prepared statement, the selects that are not answered by a cache are sent to the database in one round trip and
+ * their result sets are mapped one after the other. Otherwise they are executed one by one.
+ *
+ * <pre>
+ * QueryBatch batch = sqlSession.newQueryBatch();
+ * QueryBatch.Result&lt;Author&gt; author = batch.selectOne("selectAuthor", 101);
+ * QueryBatch.Result&lt;List&lt;Post&gt;&gt; posts = batch.selectList("selectPostsOfAuthor", 101);
+ * batch.execute();
+ * render(author.get(), posts.get());
+ * </pre>
+ *
+ * @since 3.5.12
+ * @see SqlSession#newQueryBatch()
+ */
+public interface QueryBatch {
+
+  /**
+   * Adds a select that returns a single row.
+   *
+   * @param <T>
+   *          the returned object type
+   * @param statement
+   *          unique identifier matching the statement to use
+   * @param parameter
+   *          a parameter object to pass to the statement
+   * @return the result, available once the batch has been executed
+   */
+  <T> Result<T> selectOne(String statement, Object parameter);
+
+  /**
+   * Adds a select without parameter that returns a list.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          unique identifier matching the statement to use
+   * @return the result, available once the batch has been executed
+   */
+  <E> Result<List<E>> selectList(String statement);
+
+  /**
+   * Adds a select that returns a list.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          unique identifier matching the statement to use
+   * @param parameter
+   *          a parameter object to pass to the statement
+   * @return the result, available once the batch has been executed
+   */
+  <E> Result<List<E>> selectList(String statement, Object parameter);
+
+  /**
+   * Adds a select whose rows are returned as a map keyed by one of their properties.
+   *
+   * @param <K>
+   *          the returned Map keys type
+   * @param <V>
+   *          the returned Map values type
+   * @param statement
+   *          unique identifier matching the statement to use
+   * @param parameter
+   *          a parameter object to pass to the statement
+   * @param mapKey
+   *          the property to use as key for each value in the list
+   * @return the result, available once the batch has been executed
+   */
+  <K, V> Result<Map<K, V>> selectMap(String statement, Object parameter, String mapKey);
+
+  /**
+   * Returns the number of selects added so far.
+   *
+   * @return the number of selects
+   */
+  int size();
+
+  /**
+   * Executes all the selects of this batch. A batch can be executed only once.
+   */
+  void execute();
+
+  /**
+   * The result of a select of a query batch.
+   *
+   * @param <T>
+   *          the result type
+   */
+  interface Result<T> {
+
+    /**
+     * Returns the result of the select.
+     *
+     * @return the result
+     * @throws SqlSessionException
+     *           if the batch has not been executed yet
+     */
+    T get();
+  }
+
+}
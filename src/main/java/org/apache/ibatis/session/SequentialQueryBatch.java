@@ -0,0 +1,111 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A {@link QueryBatch} that executes its selects one by one through the methods of a session, in the order they were
+ * added.
+ *
+ * @since 3.5.12
+ * @see SqlSession#newQueryBatch()
+ */
+class SequentialQueryBatch implements QueryBatch {
+
+  private final SqlSession sqlSession;
+  private final List<SequentialResult<?>> results = new ArrayList<>();
+  private boolean executed;
+
+  SequentialQueryBatch(SqlSession sqlSession) {
+    this.sqlSession = sqlSession;
+  }
+
+  @Override
+  public <T> Result<T> selectOne(String statement, Object parameter) {
+    return add(statement, () -> sqlSession.selectOne(statement, parameter));
+  }
+
+  @Override
+  public <E> Result<List<E>> selectList(String statement) {
+    return selectList(statement, null);
+  }
+
+  @Override
+  public <E> Result<List<E>> selectList(String statement, Object parameter) {
+    return add(statement, () -> sqlSession.selectList(statement, parameter));
+  }
+
+  @Override
+  public <K, V> Result<Map<K, V>> selectMap(String statement, Object parameter, String mapKey) {
+    return add(statement, () -> sqlSession.selectMap(statement, parameter, mapKey));
+  }
+
+  @Override
+  public int size() {
+    return results.size();
+  }
+
+  @Override
+  public void execute() {
+    if (executed) {
+      throw new SqlSessionException("A query batch can only be executed once.");
+    }
+    executed = true;
+    for (SequentialResult<?> result : results) {
+      result.complete();
+    }
+  }
+
+  private <T> Result<T> add(String statement, Supplier<T> select) {
+    if (executed) {
+      throw new SqlSessionException("Cannot add a select to a query batch that has already been executed.");
+    }
+    SequentialResult<T> result = new SequentialResult<>(statement, select);
+    results.add(result);
+    return result;
+  }
+
+  private static class SequentialResult<T> implements Result<T> {
+
+    private final String statement;
+    private final Supplier<T> select;
+    private boolean done;
+    private T value;
+
+    SequentialResult(String statement, Supplier<T> select) {
+      this.statement = statement;
+      this.select = select;
+    }
+
+    void complete() {
+      value = select.get();
+      done = true;
+    }
+
+    @Override
+    public T get() {
+      if (!done) {
+        throw new SqlSessionException("The result of '" + statement + "' is not available before the query batch is executed.");
+      }
+      return value;
+    }
+  }
+
+}
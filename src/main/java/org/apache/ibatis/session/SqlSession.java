@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,8 +17,10 @@ package org.apache.ibatis.session;
 
 import java.io.Closeable;
 import java.sql.Connection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
@@ -144,6 +146,19 @@ public interface SqlSession extends Closeable {
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * Creates a batch of selects that are executed together, in one round trip to the database where possible.
+   * Implementations that cannot combine the selects may execute them one by one. This default implementation
+   * executes them one by one with {@link #selectOne(String, Object)}, {@link #selectList(String, Object)} and
+   * {@link #selectMap(String, Object, String)} of this session.
+   *
+   * @return an empty query batch bound to this session
+   * @since 3.5.12
+   */
+  default QueryBatch newQueryBatch() {
+    return new SequentialQueryBatch(this);
+  }
+
   /**
    * Retrieve a single row mapped from the statement key and parameter
    * using a {@code ResultHandler}.
@@ -193,6 +208,49 @@ public interface SqlSession extends Closeable {
    */
   int insert(String statement, Object parameter);
 
+  /**
+   * Inserts many rows with an insert statement, streaming them to the database. When the statement is a plain
+   * <code>INSERT INTO table (columns) VALUES (?, ...)</code> and a registered
+   * {@link org.apache.ibatis.executor.bulk.BulkWriter} supports the database (e.g. PostgreSQL COPY), the rows are
+   * loaded through it; otherwise they are inserted with multi-row batches. The rows are encoded with the parameter
+   * mappings and type handlers of the statement. Statements with a key generator always use the batch fallback, so
+   * that generated keys are assigned to the parameter objects.
+   * <p>
+   * This default implementation executes the statement once per row.
+   *
+   * @param statement
+   *          Unique identifier matching the insert statement to use.
+   * @param parameters
+   *          The parameter objects of the rows; consumed only once.
+   * @return The number of rows inserted.
+   * @since 3.5.12
+   */
+  default long bulkInsert(String statement, Iterator<?> parameters) {
+    long rows = 0;
+    while (parameters.hasNext()) {
+      rows += insert(statement, parameters.next());
+    }
+    return rows;
+  }
+
+  /**
+   * Inserts many rows with an insert statement, streaming them to the database. The stream is closed once the rows
+   * have been inserted.
+   *
+   * @param statement
+   *          Unique identifier matching the insert statement to use.
+   * @param parameters
+   *          The parameter objects of the rows.
+   * @return The number of rows inserted.
+   * @since 3.5.12
+   * @see #bulkInsert(String, Iterator)
+   */
+  default long bulkInsert(String statement, Stream<?> parameters) {
+    try (Stream<?> rows = parameters) {
+      return bulkInsert(statement, rows.iterator());
+    }
+  }
+
   /**
    * Execute an update statement. The number of rows affected will be returned.
    * @param statement Unique identifier matching the statement to execute.
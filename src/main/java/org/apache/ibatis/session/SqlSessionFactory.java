@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@ package org.apache.ibatis.session;
 
 import java.sql.Connection;
 
+import org.apache.ibatis.session.defaults.DefaultAsyncSqlSession;
+
 /**
  * Creates an {@link SqlSession} out of a connection or a DataSource
  *
@@ -42,4 +44,15 @@ public interface SqlSessionFactory {
 
   Configuration getConfiguration();
 
+  /**
+   * Opens a session that runs every statement asynchronously on a session of its own.
+   *
+   * @return the async session
+   * @since 3.5.12
+   * @see Configuration#getAsyncExecutor()
+   */
+  default AsyncSqlSession openAsyncSession() {
+    return new DefaultAsyncSqlSession(this, getConfiguration().getAsyncExecutor());
+  }
+
 }
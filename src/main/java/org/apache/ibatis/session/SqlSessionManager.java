@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,9 +21,11 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
@@ -196,6 +198,16 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.selectCursor(statement, parameter, rowBounds);
   }
 
+  @Override
+  public QueryBatch newQueryBatch() {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession != null) {
+      return sqlSession.newQueryBatch();
+    }
+    // 没有受管会话时逐条执行，每条查询都在各自的自动会话中完成
+    return SqlSession.super.newQueryBatch();
+  }
+
   @Override
   public <E> List<E> selectList(String statement) {
     return sqlSessionProxy.selectList(statement);
@@ -236,6 +248,16 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.insert(statement, parameter);
   }
 
+  @Override
+  public long bulkInsert(String statement, Iterator<?> parameters) {
+    return sqlSessionProxy.bulkInsert(statement, parameters);
+  }
+
+  @Override
+  public long bulkInsert(String statement, Stream<?> parameters) {
+    return sqlSessionProxy.bulkInsert(statement, parameters);
+  }
+
   @Override
   public int update(String statement) {
     return sqlSessionProxy.update(statement);
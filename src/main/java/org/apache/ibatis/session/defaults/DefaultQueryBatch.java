@@ -0,0 +1,170 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.result.DefaultMapResultHandler;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.QueryBatch;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+
+/**
+ * The default implementation for {@link QueryBatch}.
+ * <p>
+ * The selects are handed together to the batch executor of the session, see
+ * {@link org.apache.ibatis.executor.Executor#queryBatch(List)}, or executed one by one through the session if it has
+ * none.
+ *
+ * @since 3.5.12
+ */
+public class DefaultQueryBatch implements QueryBatch {
+
+  private final SqlSession sqlSession;
+  private final BiFunction<List<String>, List<Object>, List<List<Object>>> batchExecutor;
+  private final List<String> statements = new ArrayList<>();
+  private final List<Object> parameters = new ArrayList<>();
+  private final List<DefaultResult<?>> results = new ArrayList<>();
+  private boolean executed;
+
+  /**
+   * Creates a query batch.
+   *
+   * @param sqlSession
+   *          the session the selects are executed with
+   * @param batchExecutor
+   *          executes all the selects, given their statement ids and parameters, or <code>null</code> to execute them
+   *          one by one through the session
+   */
+  public DefaultQueryBatch(SqlSession sqlSession,
+      BiFunction<List<String>, List<Object>, List<List<Object>>> batchExecutor) {
+    this.sqlSession = sqlSession;
+    this.batchExecutor = batchExecutor;
+  }
+
+  @Override
+  public <T> Result<T> selectOne(String statement, Object parameter) {
+    return add(statement, parameter, list -> {
+      if (list.size() > 1) {
+        throw new TooManyResultsException("Expected one result (or null) to be returned by selectOne(), but found: " + list.size());
+      }
+      @SuppressWarnings("unchecked")
+      T result = list.isEmpty() ? null : (T) list.get(0);
+      return result;
+    });
+  }
+
+  @Override
+  public <E> Result<List<E>> selectList(String statement) {
+    return selectList(statement, null);
+  }
+
+  @Override
+  public <E> Result<List<E>> selectList(String statement, Object parameter) {
+    return add(statement, parameter, list -> {
+      @SuppressWarnings("unchecked")
+      List<E> result = (List<E>) list;
+      return result;
+    });
+  }
+
+  @Override
+  public <K, V> Result<Map<K, V>> selectMap(String statement, Object parameter, String mapKey) {
+    return add(statement, parameter, list -> {
+      Configuration configuration = sqlSession.getConfiguration();
+      final DefaultMapResultHandler<K, V> mapResultHandler = new DefaultMapResultHandler<>(mapKey,
+          configuration.getObjectFactory(), configuration.getObjectWrapperFactory(), configuration.getReflectorFactory());
+      final DefaultResultContext<V> context = new DefaultResultContext<>();
+      for (Object o : list) {
+        @SuppressWarnings("unchecked")
+        V value = (V) o;
+        context.nextResultObject(value);
+        mapResultHandler.handleResult(context);
+      }
+      return mapResultHandler.getMappedResults();
+    });
+  }
+
+  @Override
+  public int size() {
+    return statements.size();
+  }
+
+  @Override
+  public void execute() {
+    if (executed) {
+      throw new SqlSessionException("A query batch can only be executed once.");
+    }
+    executed = true;
+    List<List<Object>> lists = batchExecutor != null ? batchExecutor.apply(statements, parameters) : executeOnSession();
+    for (int i = 0; i < results.size(); i++) {
+      results.get(i).complete(lists.get(i));
+    }
+  }
+
+  private List<List<Object>> executeOnSession() {
+    List<List<Object>> lists = new ArrayList<>(statements.size());
+    for (int i = 0; i < statements.size(); i++) {
+      lists.add(sqlSession.selectList(statements.get(i), parameters.get(i)));
+    }
+    return lists;
+  }
+
+  private <T> Result<T> add(String statement, Object parameter, Function<List<Object>, T> extractor) {
+    if (executed) {
+      throw new SqlSessionException("Cannot add a select to a query batch that has already been executed.");
+    }
+    statements.add(statement);
+    parameters.add(parameter);
+    DefaultResult<T> result = new DefaultResult<>(statement, extractor);
+    results.add(result);
+    return result;
+  }
+
+  private static class DefaultResult<T> implements Result<T> {
+
+    private final String statement;
+    private final Function<List<Object>, T> extractor;
+    private boolean done;
+    private T value;
+
+    DefaultResult(String statement, Function<List<Object>, T> extractor) {
+      this.statement = statement;
+      this.extractor = extractor;
+    }
+
+    void complete(List<Object> list) {
+      value = extractor.apply(list);
+      done = true;
+    }
+
+    @Override
+    public T get() {
+      if (!done) {
+        throw new SqlSessionException("The result of '" + statement + "' is not available before the query batch is executed.");
+      }
+      return value;
+    }
+  }
+
+}
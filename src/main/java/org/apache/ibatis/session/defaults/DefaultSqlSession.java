@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +29,7 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.BatchedQuery;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.result.DefaultMapResultHandler;
@@ -35,6 +37,7 @@ import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.QueryBatch;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
@@ -158,6 +161,27 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  @Override
+  public QueryBatch newQueryBatch() {
+    return new DefaultQueryBatch(this, this::selectBatch);
+  }
+
+  private List<List<Object>> selectBatch(List<String> statements, List<Object> parameters) {
+    try {
+      List<BatchedQuery> queries = new ArrayList<>(statements.size());
+      for (int i = 0; i < statements.size(); i++) {
+        MappedStatement ms = configuration.getMappedStatement(statements.get(i));
+        dirty |= ms.isDirtySelect();
+        queries.add(new BatchedQuery(ms, wrapCollection(parameters.get(i))));
+      }
+      return executor.queryBatch(queries);
+    } catch (Exception e) {
+      throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
   @Override
   public void select(String statement, Object parameter, ResultHandler handler) {
     select(statement, parameter, RowBounds.DEFAULT, handler);
@@ -183,6 +207,19 @@ public class DefaultSqlSession implements SqlSession {
     return update(statement, parameter);
   }
 
+  @Override
+  public long bulkInsert(String statement, Iterator<?> parameters) {
+    try {
+      dirty = true;
+      MappedStatement ms = configuration.getMappedStatement(statement);
+      return executor.bulkInsert(ms, parameters);
+    } catch (Exception e) {
+      throw ExceptionFactory.wrapException("Error inserting rows in bulk.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
   @Override
   public int update(String statement) {
     return update(statement, null);
@@ -0,0 +1,35 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+/**
+ * Routes integral keys by their value modulo the shard count and any other key by its hash code.
+ *
+ * @since 3.5.12
+ */
+public class HashShardRouter implements ShardRouter {
+
+  @Override
+  public int getShardIndex(Object shardKey, int shardCount) {
+    if (shardKey instanceof Long || shardKey instanceof Integer || shardKey instanceof Short
+        || shardKey instanceof Byte) {
+      // Integer 和 Long 的同一个值必须落在同一个分片上
+      return (int) Math.floorMod(((Number) shardKey).longValue(), (long) shardCount);
+    }
+    return Math.floorMod(shardKey.hashCode(), shardCount);
+  }
+
+}
@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
+
+/**
+ * Reads the shard key from a property of the parameter object, e.g. <code>tenantId</code> of a bean or of the
+ * <code>@Param</code> map of a mapper method.
+ *
+ * @since 3.5.12
+ */
+public class PropertyShardKeyResolver implements ShardKeyResolver {
+
+  private final String property;
+
+  public PropertyShardKeyResolver(String property) {
+    this.property = property;
+  }
+
+  @Override
+  public Object resolveShardKey(MappedStatement ms, Object parameter) {
+    // 简单类型的参数（如主键）没有属性可读，视为不带分片键
+    if (parameter == null || ms.getConfiguration().getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+      return null;
+    }
+    MetaObject metaObject = ms.getConfiguration().newMetaObject(parameter);
+    return metaObject.hasGetter(property) ? metaObject.getValue(property) : null;
+  }
+
+}
@@ -0,0 +1,39 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Extracts the shard key of a statement execution from its parameter.
+ *
+ * @since 3.5.12
+ */
+@FunctionalInterface
+public interface ShardKeyResolver {
+
+  /**
+   * Returns the shard key of an execution.
+   *
+   * @param ms
+   *          the statement being executed
+   * @param parameter
+   *          the parameter object of the statement
+   * @return the shard key, or <code>null</code> when the execution is not bound to a shard
+   */
+  Object resolveShardKey(MappedStatement ms, Object parameter);
+
+}
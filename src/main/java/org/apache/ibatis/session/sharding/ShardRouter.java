@@ -0,0 +1,37 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+/**
+ * Maps a shard key to the index of the shard that holds its rows.
+ *
+ * @since 3.5.12
+ */
+@FunctionalInterface
+public interface ShardRouter {
+
+  /**
+   * Returns the shard of a key.
+   *
+   * @param shardKey
+   *          the non-null shard key
+   * @param shardCount
+   *          the number of shards
+   * @return an index between <code>0</code> (inclusive) and <code>shardCount</code> (exclusive)
+   */
+  int getShardIndex(Object shardKey, int shardCount);
+
+}
@@ -0,0 +1,466 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.result.DefaultMapResultHandler;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.KeysetRowBounds;
+import org.apache.ibatis.session.QueryBatch;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultQueryBatch;
+
+/**
+ * A session over all the shards of a {@link ShardedSqlSessionFactory}.
+ * <p>
+ * An execution whose parameter carries a shard key runs on the shard of that key only. Without a key, selects and
+ * updates/deletes run on all shards in parallel: select results are concatenated in shard order, or merged in the
+ * registered merge order, and update counts are summed. Inserts and cursors always need a shard key. Every shard keeps
+ * its own local session and transaction, opened on first use; committing is not atomic across shards.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 3.5.12
+ */
+public class ShardedSqlSession implements SqlSession {
+
+  private final ShardedSqlSessionFactory factory;
+  private final Configuration configuration;
+  private final ExecutorType execType;
+  private final boolean autoCommit;
+  private final SqlSession[] sessions;
+
+  ShardedSqlSession(ShardedSqlSessionFactory factory, ExecutorType execType, boolean autoCommit) {
+    this.factory = factory;
+    this.configuration = factory.getConfiguration();
+    this.execType = execType;
+    this.autoCommit = autoCommit;
+    this.sessions = new SqlSession[factory.getShards().size()];
+  }
+
+  /**
+   * Returns the session of one shard, opening it if needed.
+   *
+   * @param index
+   *          the shard index
+   * @return the session of the shard
+   */
+  public SqlSession getShardSession(int index) {
+    SqlSession session = sessions[index];
+    if (session == null) {
+      session = factory.openShardSession(index, execType, autoCommit);
+      sessions[index] = session;
+    }
+    return session;
+  }
+
+  public int getShardCount() {
+    return sessions.length;
+  }
+
+  @Override
+  public <T> T selectOne(String statement) {
+    return this.selectOne(statement, null);
+  }
+
+  @Override
+  public <T> T selectOne(String statement, Object parameter) {
+    List<T> list = this.selectList(statement, parameter);
+    if (list.size() == 1) {
+      return list.get(0);
+    } else if (list.size() > 1) {
+      throw new TooManyResultsException("Expected one result (or null) to be returned by selectOne(), but found: " + list.size());
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement) {
+    return this.selectList(statement, null);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter) {
+    return this.selectList(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
+    return selectList(statement, parameter, rowBounds, (Comparator<? super E>) factory.getMergeOrder(statement));
+  }
+
+  /**
+   * Executes a select, merging the results of the shards in the given order when it has no shard key.
+   * <p>
+   * Each shard is asked for the first <code>offset + limit</code> rows, which a dialect can push down into its SQL, and
+   * the bounds are applied to the merged result. With a {@link KeysetRowBounds} every shard returns its next page after
+   * the key and the merged result is cut to the limit.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          unique identifier matching the statement to use
+   * @param parameter
+   *          a parameter object to pass to the statement
+   * @param rowBounds
+   *          bounds to limit object retrieval
+   * @param comparator
+   *          the order every shard returns its rows in, or <code>null</code> to concatenate them in shard order
+   * @return list of mapped objects
+   */
+  public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds,
+      Comparator<? super E> comparator) {
+    Integer shard = resolveShard(statement, parameter);
+    if (shard != null) {
+      return getShardSession(shard).selectList(statement, parameter, rowBounds);
+    }
+    final RowBounds shardRowBounds = toShardRowBounds(rowBounds);
+    List<List<E>> results = scatter(session -> session.selectList(statement, parameter, shardRowBounds));
+    int offset = rowBounds instanceof KeysetRowBounds ? RowBounds.NO_ROW_OFFSET : rowBounds.getOffset();
+    return merge(results, comparator, offset, rowBounds.getLimit());
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, String mapKey) {
+    return this.selectMap(statement, null, mapKey, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey) {
+    return this.selectMap(statement, parameter, mapKey, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey, RowBounds rowBounds) {
+    final List<? extends V> list = selectList(statement, parameter, rowBounds);
+    final DefaultMapResultHandler<K, V> mapResultHandler = new DefaultMapResultHandler<>(mapKey,
+        configuration.getObjectFactory(), configuration.getObjectWrapperFactory(), configuration.getReflectorFactory());
+    final DefaultResultContext<V> context = new DefaultResultContext<>();
+    for (V o : list) {
+      context.nextResultObject(o);
+      mapResultHandler.handleResult(context);
+    }
+    return mapResultHandler.getMappedResults();
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement) {
+    return selectCursor(statement, null);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter) {
+    return selectCursor(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    return getShardSession(requireShard(statement, parameter)).selectCursor(statement, parameter, rowBounds);
+  }
+
+  @Override
+  public QueryBatch newQueryBatch() {
+    // 各条查询可能路由到不同的分片，逐条执行
+    return new DefaultQueryBatch(this, null);
+  }
+
+  @Override
+  public void select(String statement, Object parameter, ResultHandler handler) {
+    select(statement, parameter, RowBounds.DEFAULT, handler);
+  }
+
+  @Override
+  public void select(String statement, ResultHandler handler) {
+    select(statement, null, RowBounds.DEFAULT, handler);
+  }
+
+  /**
+   * Streams the rows of the shard of the parameter, or of every shard one after the other, to the handler. Without a
+   * shard key the bounds apply to each shard separately.
+   */
+  @Override
+  public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    Integer shard = resolveShard(statement, parameter);
+    if (shard != null) {
+      getShardSession(shard).select(statement, parameter, rowBounds, handler);
+      return;
+    }
+    // ResultHandler 通常不是线程安全的，所以逐个分片执行
+    for (int i = 0; i < sessions.length; i++) {
+      getShardSession(i).select(statement, parameter, rowBounds, handler);
+    }
+  }
+
+  @Override
+  public int insert(String statement) {
+    return insert(statement, null);
+  }
+
+  @Override
+  public int insert(String statement, Object parameter) {
+    return getShardSession(requireShard(statement, parameter)).insert(statement, parameter);
+  }
+
+  @Override
+  public int update(String statement) {
+    return update(statement, null);
+  }
+
+  @Override
+  public int update(String statement, Object parameter) {
+    Integer shard = resolveShard(statement, parameter);
+    if (shard != null) {
+      return getShardSession(shard).update(statement, parameter);
+    }
+    int count = 0;
+    for (Integer shardCount : scatter(session -> session.update(statement, parameter))) {
+      count += shardCount;
+    }
+    return count;
+  }
+
+  @Override
+  public int delete(String statement) {
+    return update(statement, null);
+  }
+
+  @Override
+  public int delete(String statement, Object parameter) {
+    return update(statement, parameter);
+  }
+
+  @Override
+  public void commit() {
+    commit(false);
+  }
+
+  @Override
+  public void commit(boolean force) {
+    for (SqlSession session : sessions) {
+      if (session != null) {
+        session.commit(force);
+      }
+    }
+  }
+
+  @Override
+  public void rollback() {
+    rollback(false);
+  }
+
+  @Override
+  public void rollback(boolean force) {
+    for (SqlSession session : sessions) {
+      if (session != null) {
+        session.rollback(force);
+      }
+    }
+  }
+
+  @Override
+  public List<BatchResult> flushStatements() {
+    List<BatchResult> results = new ArrayList<>();
+    for (SqlSession session : sessions) {
+      if (session != null) {
+        results.addAll(session.flushStatements());
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public void close() {
+    RuntimeException failure = null;
+    for (int i = 0; i < sessions.length; i++) {
+      if (sessions[i] != null) {
+        try {
+          sessions[i].close();
+        } catch (RuntimeException e) {
+          // 继续关闭其余分片，只抛出第一个异常
+          if (failure == null) {
+            failure = e;
+          }
+        }
+        sessions[i] = null;
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public void clearCache() {
+    for (SqlSession session : sessions) {
+      if (session != null) {
+        session.clearCache();
+      }
+    }
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  @Override
+  public <T> T getMapper(Class<T> type) {
+    return configuration.getMapper(type, this);
+  }
+
+  /**
+   * A sharded session has a connection per shard; use {@link #getShardSession(int)} to get one of them.
+   */
+  @Override
+  public Connection getConnection() {
+    throw new ShardingException("A sharded session has no single connection. Use getShardSession(int).getConnection() instead.");
+  }
+
+  private Integer resolveShard(String statement, Object parameter) {
+    if (sessions.length == 1) {
+      return 0;
+    }
+    MappedStatement ms = configuration.getMappedStatement(statement);
+    Object shardKey = factory.getShardKeyResolver().resolveShardKey(ms, parameter);
+    if (shardKey == null) {
+      return null;
+    }
+    int index = factory.getShardRouter().getShardIndex(shardKey, sessions.length);
+    if (index < 0 || index >= sessions.length) {
+      throw new ShardingException("The shard router returned the shard index " + index + " for the key '" + shardKey
+          + "' but there are " + sessions.length + " shards.");
+    }
+    return index;
+  }
+
+  private int requireShard(String statement, Object parameter) {
+    Integer shard = resolveShard(statement, parameter);
+    if (shard == null) {
+      throw new ShardingException("The statement '" + statement + "' can only be executed with a shard key but its parameter has none.");
+    }
+    return shard;
+  }
+
+  private <T> List<T> scatter(Function<SqlSession, T> work) {
+    // 先在调用线程中打开所有分片的会话，每个分片的会话只会被一个任务使用
+    List<CompletableFuture<T>> futures = new ArrayList<>(sessions.length);
+    for (int i = 0; i < sessions.length; i++) {
+      final SqlSession session = getShardSession(i);
+      futures.add(CompletableFuture.supplyAsync(() -> work.apply(session), configuration.getAsyncExecutor()));
+    }
+    // 等待所有分片结束后再抛出异常，避免会话在仍被使用时被关闭
+    List<T> results = new ArrayList<>(sessions.length);
+    RuntimeException failure = null;
+    for (CompletableFuture<T> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+
+  private static RowBounds toShardRowBounds(RowBounds rowBounds) {
+    if (rowBounds instanceof KeysetRowBounds || rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET) {
+      return rowBounds;
+    }
+    if (rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT) {
+      return RowBounds.DEFAULT;
+    }
+    // 全局第 offset 行之后的 limit 行，一定在每个分片的前 offset + limit 行之中
+    long limit = (long) rowBounds.getOffset() + rowBounds.getLimit();
+    return new RowBounds(RowBounds.NO_ROW_OFFSET, (int) Math.min(limit, RowBounds.NO_ROW_LIMIT));
+  }
+
+  private static <E> List<E> merge(List<List<E>> results, Comparator<? super E> comparator, int offset, int limit) {
+    List<E> merged = new ArrayList<>();
+    long end = (long) offset + limit;
+    if (comparator == null) {
+      for (List<E> result : results) {
+        merged.addAll(result);
+      }
+      if (offset >= merged.size()) {
+        return new ArrayList<>();
+      }
+      return new ArrayList<>(merged.subList(offset, (int) Math.min(end, merged.size())));
+    }
+    // 多路归并：每个分片的结果已经有序，每次取出各分片头部最小的元素
+    PriorityQueue<MergeSource<E>> queue = new PriorityQueue<>(Math.max(1, results.size()),
+        (a, b) -> comparator.compare(a.head, b.head));
+    for (List<E> result : results) {
+      Iterator<E> iterator = result.iterator();
+      if (iterator.hasNext()) {
+        queue.add(new MergeSource<>(iterator));
+      }
+    }
+    int position = 0;
+    while (!queue.isEmpty() && position < end) {
+      MergeSource<E> source = queue.poll();
+      if (position++ >= offset) {
+        merged.add(source.head);
+      }
+      if (source.advance()) {
+        queue.add(source);
+      }
+    }
+    return merged;
+  }
+
+  private static class MergeSource<E> {
+    private final Iterator<E> iterator;
+    private E head;
+
+    MergeSource(Iterator<E> iterator) {
+      this.iterator = iterator;
+      this.head = iterator.next();
+    }
+
+    boolean advance() {
+      if (iterator.hasNext()) {
+        head = iterator.next();
+        return true;
+      }
+      return false;
+    }
+  }
+
+}
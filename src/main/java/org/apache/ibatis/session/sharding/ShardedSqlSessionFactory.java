@@ -0,0 +1,147 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionFactory;
+
+/**
+ * Opens {@link ShardedSqlSession}s over several identical schemas. Every shard is an {@link Environment} of its own
+ * while the mapped statements, caches and settings come from one shared {@link Configuration}.
+ * <p>
+ * Statements are routed by the shard key the {@link ShardKeyResolver} extracts from their parameter. Selects without a
+ * key run on all shards in parallel on the {@link Configuration#getAsyncExecutor() async executor} and their results
+ * are merged; a merge order registered with {@link #registerMergeOrder(String, Comparator)} makes it an ordered merge.
+ *
+ * @since 3.5.12
+ */
+public class ShardedSqlSessionFactory {
+
+  private final Configuration configuration;
+  private final List<Environment> shards;
+  private final ShardKeyResolver shardKeyResolver;
+  private final ShardRouter shardRouter;
+  private final Map<String, Comparator<?>> mergeOrders = new ConcurrentHashMap<>();
+
+  public ShardedSqlSessionFactory(Configuration configuration, List<Environment> shards,
+      ShardKeyResolver shardKeyResolver) {
+    this(configuration, shards, shardKeyResolver, new HashShardRouter());
+  }
+
+  public ShardedSqlSessionFactory(Configuration configuration, List<Environment> shards,
+      ShardKeyResolver shardKeyResolver, ShardRouter shardRouter) {
+    if (shards == null || shards.isEmpty()) {
+      throw new ShardingException("At least one shard environment is required.");
+    }
+    for (Environment shard : shards) {
+      if (shard.getTransactionFactory() == null) {
+        throw new ShardingException("The shard environment '" + shard.getId() + "' has no transaction factory.");
+      }
+    }
+    this.configuration = configuration;
+    this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    this.shardKeyResolver = shardKeyResolver;
+    this.shardRouter = shardRouter;
+  }
+
+  public ShardedSqlSession openSession() {
+    return openSession(configuration.getDefaultExecutorType(), false);
+  }
+
+  public ShardedSqlSession openSession(boolean autoCommit) {
+    return openSession(configuration.getDefaultExecutorType(), autoCommit);
+  }
+
+  public ShardedSqlSession openSession(ExecutorType execType) {
+    return openSession(execType, false);
+  }
+
+  public ShardedSqlSession openSession(ExecutorType execType, boolean autoCommit) {
+    return new ShardedSqlSession(this, execType, autoCommit);
+  }
+
+  /**
+   * Sets the order in which the per-shard results of a statement are merged when it is executed on all shards. The
+   * statement must return the rows of every shard in this order.
+   *
+   * @param statementId
+   *          the fully qualified id of a select statement
+   * @param comparator
+   *          the order of the statement results
+   */
+  public void registerMergeOrder(String statementId, Comparator<?> comparator) {
+    mergeOrders.put(statementId, comparator);
+  }
+
+  Comparator<?> getMergeOrder(String statementId) {
+    return mergeOrders.get(statementId);
+  }
+
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  public List<Environment> getShards() {
+    return shards;
+  }
+
+  public ShardKeyResolver getShardKeyResolver() {
+    return shardKeyResolver;
+  }
+
+  public ShardRouter getShardRouter() {
+    return shardRouter;
+  }
+
+  SqlSession openShardSession(int index, ExecutorType execType, boolean autoCommit) {
+    final Environment environment = shards.get(index);
+    Transaction tx = null;
+    try {
+      // 与 DefaultSqlSessionFactory 相同，只是事务来自分片自己的 Environment
+      final TransactionFactory transactionFactory = environment.getTransactionFactory();
+      tx = transactionFactory.newTransaction(environment.getDataSource(), null, autoCommit);
+      final Executor executor = configuration.newExecutor(tx, execType, environment);
+      return new DefaultSqlSession(configuration, executor, autoCommit);
+    } catch (Exception e) {
+      if (tx != null) {
+        try {
+          tx.close();
+        } catch (Exception ignore) {
+          // Intentionally ignore. Prefer previous error.
+        }
+      }
+      throw ExceptionFactory.wrapException("Error opening session on shard '" + environment.getId() + "'.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
+}
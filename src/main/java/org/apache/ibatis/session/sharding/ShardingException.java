@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import org.apache.ibatis.session.SqlSessionException;
+
+/**
+ * @since 3.5.12
+ */
+public class ShardingException extends SqlSessionException {
+
+  private static final long serialVersionUID = -4160232316378413062L;
+
+  public ShardingException() {
+    super();
+  }
+
+  public ShardingException(String message) {
+    super(message);
+  }
+
+  public ShardingException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  public ShardingException(Throwable cause) {
+    super(cause);
+  }
+}
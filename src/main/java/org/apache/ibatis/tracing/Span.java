@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+/**
+ * A traced operation, created by a {@link Tracer}. A span is ended exactly once, on the thread that ran the operation
+ * or, for asynchronous mapper calls, on the thread that completed it.
+ *
+ * @since 3.5.12
+ */
+public interface Span {
+
+  /**
+   * Adds a tag to the span.
+   *
+   * @param key
+   *          the key
+   * @param value
+   *          the value
+   */
+  default void setTag(String key, Object value) {
+    // NOP
+  }
+
+  /**
+   * Records the exception that ended the operation.
+   *
+   * @param error
+   *          the exception
+   */
+  default void setError(Throwable error) {
+    // NOP
+  }
+
+  void end();
+
+}
@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+/**
+ * The operations that are traced.
+ *
+ * @since 3.5.12
+ */
+public enum SpanKind {
+  /**
+   * A call of a mapper method, named after its statement id.
+   */
+  MAPPER_METHOD,
+  /**
+   * <code>Executor.query</code>, named after the statement id. Nested selects are children of the query that mapped
+   * their parent rows.
+   */
+  QUERY,
+  /**
+   * <code>Executor.update</code>, named after the statement id.
+   */
+  UPDATE,
+  /**
+   * <code>Executor.flushStatements</code>, named <code>flushStatements</code>.
+   */
+  FLUSH_STATEMENTS,
+  /**
+   * <code>ResultLoader.loadResult</code>, a lazy load named after the nested statement id. Its parent is the query
+   * that created the lazy property, wherever and whenever the property is loaded.
+   */
+  LOAD_RESULT
+}
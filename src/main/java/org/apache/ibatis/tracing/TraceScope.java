@@ -0,0 +1,153 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Makes a span the current span of the thread until the scope is closed, so that the operations it runs become its
+ * children.
+ * <p>
+ * The static methods return null when no {@link Tracer} is configured, so callers pay a single check:
+ *
+ * <pre>
+ * TraceScope scope = TraceScope.start(configuration, SpanKind.QUERY, ms.getId());
+ * try {
+ *   ...
+ * } catch (Throwable t) {
+ *   TraceScope.fail(scope, t);
+ *   throw t;
+ * } finally {
+ *   TraceScope.close(scope);
+ * }
+ * </pre>
+ *
+ * @since 3.5.12
+ */
+public final class TraceScope implements AutoCloseable {
+
+  private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+  private final Span span;
+  private final Span previous;
+  // activate() 打开的作用域不负责结束 Span
+  private final boolean endOnClose;
+
+  private TraceScope(Span span, boolean endOnClose) {
+    this.span = span;
+    this.previous = CURRENT.get();
+    this.endOnClose = endOnClose;
+    CURRENT.set(span);
+  }
+
+  /**
+   * Returns the current span of the thread.
+   *
+   * @return the span, or null if no span is active
+   */
+  public static Span currentSpan() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Starts a span as a child of the current span and makes it current.
+   *
+   * @param configuration
+   *          the configuration that holds the tracer
+   * @param kind
+   *          the kind of operation
+   * @param name
+   *          the name of the span
+   *
+   * @return the scope, or null if no tracer is configured
+   */
+  public static TraceScope start(Configuration configuration, SpanKind kind, String name) {
+    Tracer tracer = configuration.getTracer();
+    if (tracer == null) {
+      return null;
+    }
+    return new TraceScope(tracer.startSpan(kind, name, CURRENT.get()), true);
+  }
+
+  /**
+   * Starts a span as a child of the given parent and makes it current.
+   *
+   * @param configuration
+   *          the configuration that holds the tracer
+   * @param kind
+   *          the kind of operation
+   * @param name
+   *          the name of the span
+   * @param parent
+   *          the parent span, or null for a root span
+   *
+   * @return the scope, or null if no tracer is configured
+   */
+  public static TraceScope start(Configuration configuration, SpanKind kind, String name, Span parent) {
+    Tracer tracer = configuration.getTracer();
+    if (tracer == null) {
+      return null;
+    }
+    return new TraceScope(tracer.startSpan(kind, name, parent), true);
+  }
+
+  /**
+   * Makes a span that was started elsewhere current on this thread, without ending it on close.
+   *
+   * @return the scope, or null if the span is null
+   */
+  public static TraceScope activate(Span span) {
+    return span == null ? null : new TraceScope(span, false);
+  }
+
+  public Span getSpan() {
+    return span;
+  }
+
+  /**
+   * Records the exception on the span of the scope, if any.
+   */
+  public static void fail(TraceScope scope, Throwable error) {
+    if (scope != null) {
+      scope.span.setError(error);
+    }
+  }
+
+  /**
+   * Closes the scope, if any.
+   */
+  public static void close(TraceScope scope) {
+    if (scope != null) {
+      scope.close();
+    }
+  }
+
+  /**
+   * Restores the previous current span and ends the span of the scope if the scope started it.
+   */
+  @Override
+  public void close() {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+    if (endOnClose) {
+      span.end();
+    }
+  }
+
+}
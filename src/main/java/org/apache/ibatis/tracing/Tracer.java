@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+/**
+ * Creates the spans of traced operations; the adapter to a tracing library.
+ * <p>
+ * The parent of a span is passed explicitly, so an adapter does not need to propagate any context of its own. It is
+ * the span of the enclosing operation on the same thread or, for lazy loads and asynchronous mapper calls, the span
+ * that was current when the load or call was created.
+ *
+ * @since 3.5.12
+ *
+ * @see org.apache.ibatis.session.Configuration#setTracer(Tracer)
+ */
+public interface Tracer {
+
+  /**
+   * Starts a span.
+   *
+   * @param kind
+   *          the kind of operation
+   * @param name
+   *          the name of the span, usually a statement id
+   * @param parent
+   *          the parent span, or null for a root span
+   *
+   * @return the span, never null
+   */
+  Span startSpan(SpanKind kind, String name, Span parent);
+
+}
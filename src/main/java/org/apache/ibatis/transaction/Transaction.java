@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.apache.ibatis.transaction;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import org.apache.ibatis.mapping.MappedStatement;
+
 /**
  * Wraps a database connection.
  * Handles the connection lifecycle that comprises: its creation, preparation, commit/rollback and close.
@@ -34,6 +36,21 @@ public interface Transaction {
    */
   Connection getConnection() throws SQLException;
 
+  /**
+   * Retrieve the database connection a statement is executed on. A transaction that spreads its statements over
+   * several databases, e.g. a primary and its read replicas, chooses the connection here.
+   *
+   * @param ms
+   *          the statement about to be executed
+   * @return DataBase connection
+   * @throws SQLException
+   *           the SQL exception
+   * @since 3.5.12
+   */
+  default Connection getConnection(MappedStatement ms) throws SQLException {
+    return getConnection();
+  }
+
   /**
    * Commit inner database connection.
    * @throws SQLException
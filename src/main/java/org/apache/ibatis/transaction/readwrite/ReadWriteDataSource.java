@@ -0,0 +1,156 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.readwrite;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * A primary {@link DataSource} together with its read replicas.
+ * <p>
+ * Used as the data source of an {@link org.apache.ibatis.mapping.Environment} whose transaction factory is a
+ * {@link ReadWriteTransactionFactory}. Anything that asks this data source for a connection directly gets one of the
+ * primary.
+ *
+ * @since 3.5.12
+ */
+public class ReadWriteDataSource implements DataSource {
+
+  private final DataSource primary;
+  private final List<Replica> replicas;
+  private final AtomicInteger nextReplica = new AtomicInteger();
+  private Long defaultMaxReplicaLag;
+  private long replicaRetryInterval = 30000L;
+
+  public ReadWriteDataSource(DataSource primary, List<Replica> replicas) {
+    this.primary = primary;
+    this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+  }
+
+  public DataSource getPrimary() {
+    return primary;
+  }
+
+  public List<Replica> getReplicas() {
+    return replicas;
+  }
+
+  /**
+   * Returns the replication lag tolerated by the selects that have no <code>maxReplicaLag</code> hint.
+   *
+   * @return the lag in milliseconds, or <code>null</code> if any available replica is acceptable
+   */
+  public Long getDefaultMaxReplicaLag() {
+    return defaultMaxReplicaLag;
+  }
+
+  public void setDefaultMaxReplicaLag(Long defaultMaxReplicaLag) {
+    this.defaultMaxReplicaLag = defaultMaxReplicaLag;
+  }
+
+  public long getReplicaRetryInterval() {
+    return replicaRetryInterval;
+  }
+
+  /**
+   * Sets how long a replica that failed to hand out a connection stays out of the rotation.
+   *
+   * @param replicaRetryInterval
+   *          the interval in milliseconds
+   */
+  public void setReplicaRetryInterval(long replicaRetryInterval) {
+    this.replicaRetryInterval = replicaRetryInterval;
+  }
+
+  /**
+   * Chooses the available replica with the fewest open connections among those within the tolerated lag. Ties are
+   * broken round-robin.
+   *
+   * @param maxReplicaLag
+   *          the tolerated lag in milliseconds, or <code>null</code> for any
+   * @return the replica, or <code>null</code> if none can serve the read
+   */
+  public Replica selectReplica(Long maxReplicaLag) {
+    final int size = replicas.size();
+    if (size == 0) {
+      return null;
+    }
+    final int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+    Replica selected = null;
+    for (int i = 0; i < size; i++) {
+      Replica replica = replicas.get((start + i) % size);
+      if (replica.isAvailable() && replica.canServe(maxReplicaLag)
+          && (selected == null || replica.getActiveConnections() < selected.getActiveConnections())) {
+        selected = replica;
+      }
+    }
+    return selected;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return primary.getConnection(username, password);
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return primary.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    primary.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    primary.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return primary.getLoginTimeout();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    throw new SQLException(getClass().getName() + " is not a wrapper.");
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) {
+    return false;
+  }
+
+  @Override
+  public Logger getParentLogger() {
+    return Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.readwrite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+
+/**
+ * {@link Transaction} that runs selects on a read replica until the first write.
+ * <p>
+ * The primary connection is managed like a {@link JdbcTransaction}. A select goes to a replica of the
+ * {@link ReadWriteDataSource} unless it is a <code>selectKey</code>, it affects data, its <code>maxReplicaLag</code>
+ * hint is <code>0</code> or the chosen replica lags more than the hint allows. Once a statement other than a select
+ * has been executed, or the connection has been requested without a statement, every later statement of the
+ * transaction runs on the primary so that it reads its own writes, also after a commit.
+ * <p>
+ * The replica connection is opened on the first routed select and kept, in auto-commit mode, until the transaction is
+ * closed.
+ *
+ * @since 3.5.12
+ * @see ReadWriteTransactionFactory
+ */
+public class ReadWriteTransaction implements Transaction {
+
+  private static final Log log = LogFactory.getLog(ReadWriteTransaction.class);
+
+  private final ReadWriteDataSource dataSource;
+  private final JdbcTransaction primary;
+  private Replica replica;
+  private Connection replicaConnection;
+  // 执行过写操作之后，所有语句都固定在主库上执行
+  private boolean primaryPinned;
+
+  public ReadWriteTransaction(ReadWriteDataSource dataSource, TransactionIsolationLevel level, boolean autoCommit,
+      boolean skipSetAutoCommitOnClose) {
+    this.dataSource = dataSource;
+    this.primary = new JdbcTransaction(dataSource.getPrimary(), level, autoCommit, skipSetAutoCommitOnClose);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    // 调用者直接使用连接，无法判断是否会写入，固定到主库
+    primaryPinned = true;
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(MappedStatement ms) throws SQLException {
+    if (primaryPinned || ms.getSqlCommandType() != SqlCommandType.SELECT || ms.isDirtySelect()) {
+      return getConnection();
+    }
+    Long maxReplicaLag = ms.getMaxReplicaLag() != null ? ms.getMaxReplicaLag() : dataSource.getDefaultMaxReplicaLag();
+    Connection connection = maxReplicaLag != null && maxReplicaLag == 0 ? null : getReplicaConnection(maxReplicaLag);
+    // 没有满足条件的从库时读主库，但不固定到主库
+    return connection != null ? connection : primary.getConnection();
+  }
+
+  public boolean isPrimaryPinned() {
+    return primaryPinned;
+  }
+
+  /**
+   * Returns the replica this transaction reads from.
+   *
+   * @return the replica, or <code>null</code> if no select has been routed to a replica yet
+   */
+  public Replica getReplica() {
+    return replica;
+  }
+
+  private Connection getReplicaConnection(Long maxReplicaLag) {
+    if (replicaConnection != null) {
+      return replica.canServe(maxReplicaLag) ? replicaConnection : null;
+    }
+    // 每次失败都会把从库移出轮询，因此最多尝试从库个数次
+    for (int attempt = 0; attempt < dataSource.getReplicas().size(); attempt++) {
+      Replica candidate = dataSource.selectReplica(maxReplicaLag);
+      if (candidate == null) {
+        return null;
+      }
+      try {
+        Connection connection = candidate.getDataSource().getConnection();
+        if (!connection.getAutoCommit()) {
+          connection.setAutoCommit(true);
+        }
+        candidate.connectionOpened();
+        if (log.isDebugEnabled()) {
+          log.debug("Reading from replica '" + candidate + "' with JDBC Connection [" + connection + "]");
+        }
+        replica = candidate;
+        replicaConnection = connection;
+        return connection;
+      } catch (SQLException e) {
+        log.warn("Error opening a connection to replica '" + candidate + "'. Retrying in "
+            + dataSource.getReplicaRetryInterval() + "ms.  Cause: " + e);
+        candidate.markUnavailable(dataSource.getReplicaRetryInterval());
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    primary.commit();
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    primary.rollback();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    try {
+      if (replicaConnection != null) {
+        Connection connection = replicaConnection;
+        replicaConnection = null;
+        replica.connectionClosed();
+        if (log.isDebugEnabled()) {
+          log.debug("Closing JDBC Connection [" + connection + "] of replica '" + replica + "'");
+        }
+        connection.close();
+      }
+    } finally {
+      primary.close();
+    }
+  }
+
+  @Override
+  public Integer getTimeout() throws SQLException {
+    return primary.getTimeout();
+  }
+
+}
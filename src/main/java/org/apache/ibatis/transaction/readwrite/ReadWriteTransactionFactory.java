@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.readwrite;
+
+import java.sql.Connection;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+
+/**
+ * Creates {@link ReadWriteTransaction} instances for a {@link ReadWriteDataSource} and plain
+ * {@link JdbcTransaction}s for any other data source or connection.
+ *
+ * @since 3.5.12
+ * @see ReadWriteTransaction
+ */
+public class ReadWriteTransactionFactory implements TransactionFactory {
+
+  private boolean skipSetAutoCommitOnClose;
+
+  @Override
+  public void setProperties(Properties props) {
+    if (props == null) {
+      return;
+    }
+    String value = props.getProperty("skipSetAutoCommitOnClose");
+    if (value != null) {
+      skipSetAutoCommitOnClose = Boolean.parseBoolean(value);
+    }
+  }
+
+  @Override
+  public Transaction newTransaction(Connection conn) {
+    return new JdbcTransaction(conn);
+  }
+
+  @Override
+  public Transaction newTransaction(DataSource ds, TransactionIsolationLevel level, boolean autoCommit) {
+    if (ds instanceof ReadWriteDataSource) {
+      return new ReadWriteTransaction((ReadWriteDataSource) ds, level, autoCommit, skipSetAutoCommitOnClose);
+    }
+    return new JdbcTransaction(ds, level, autoCommit, skipSetAutoCommitOnClose);
+  }
+}
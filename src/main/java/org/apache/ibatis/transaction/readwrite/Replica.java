@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.readwrite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * A read replica of a {@link ReadWriteDataSource}.
+ * <p>
+ * The replication lag is reported by the application, e.g. from a monitoring job, with
+ * {@link #setReplicationLag(long)}. A replica that fails to hand out a connection is skipped until its retry interval
+ * has passed.
+ *
+ * @since 3.5.12
+ */
+public class Replica {
+
+  private final String name;
+  private final DataSource dataSource;
+  // 当前从库上打开的连接数，用于负载均衡
+  private final AtomicInteger activeConnections = new AtomicInteger();
+  private volatile long replicationLag;
+  private volatile long unavailableUntil;
+
+  public Replica(String name, DataSource dataSource) {
+    this.name = name;
+    this.dataSource = dataSource;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public DataSource getDataSource() {
+    return dataSource;
+  }
+
+  /**
+   * Returns the replication lag last reported for this replica.
+   *
+   * @return the lag in milliseconds
+   */
+  public long getReplicationLag() {
+    return replicationLag;
+  }
+
+  public void setReplicationLag(long replicationLag) {
+    this.replicationLag = replicationLag;
+  }
+
+  public int getActiveConnections() {
+    return activeConnections.get();
+  }
+
+  public boolean isAvailable() {
+    return System.currentTimeMillis() >= unavailableUntil;
+  }
+
+  /**
+   * Takes this replica out of the rotation.
+   *
+   * @param retryInterval
+   *          the milliseconds before the replica is tried again
+   */
+  public void markUnavailable(long retryInterval) {
+    unavailableUntil = System.currentTimeMillis() + retryInterval;
+  }
+
+  /**
+   * Puts this replica back into the rotation.
+   */
+  public void markAvailable() {
+    unavailableUntil = 0;
+  }
+
+  boolean canServe(Long maxReplicaLag) {
+    return maxReplicaLag == null || replicationLag <= maxReplicaLag;
+  }
+
+  void connectionOpened() {
+    activeConnections.incrementAndGet();
+  }
+
+  void connectionClosed() {
+    activeConnections.decrementAndGet();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+}
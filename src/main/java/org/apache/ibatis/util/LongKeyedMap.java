@@ -0,0 +1,199 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map with primitive <code>long</code> keys, stored in open-addressing arrays with linear probing. Keys are neither
+ * boxed nor wrapped in entries, which takes a fraction of the memory of a <code>HashMap&lt;Long, V&gt;</code>. The
+ * primitive accessors avoid boxing; the {@link java.util.Map} view boxes keys on access.
+ * <p>
+ * Entries cannot be removed. Iteration order is unspecified.
+ *
+ * @since 3.5.12
+ */
+public class LongKeyedMap<V> extends AbstractMap<Long, V> {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+  private long[] keys;
+  private Object[] values;
+  private boolean[] used;
+  private int size;
+  private int resizeThreshold;
+
+  public LongKeyedMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public LongKeyedMap(int expectedSize) {
+    // 装载因子为 0.75，容量取 2 的幂
+    int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize * 4 / 3 + 1) - 1) << 1;
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    used = new boolean[capacity];
+    resizeThreshold = capacity / 4 * 3;
+  }
+
+  private int indexOf(long key) {
+    int mask = keys.length - 1;
+    int index = (int) ((key * GOLDEN_RATIO) >>> 32) & mask;
+    while (used[index] && keys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  public boolean containsKey(long key) {
+    return used[indexOf(key)];
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    return (V) values[indexOf(key)];
+  }
+
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    int index = indexOf(key);
+    if (used[index]) {
+      V previous = (V) values[index];
+      values[index] = value;
+      return previous;
+    }
+    keys[index] = key;
+    values[index] = value;
+    used[index] = true;
+    if (++size > resizeThreshold) {
+      resize();
+    }
+    return null;
+  }
+
+  private void resize() {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(oldKeys.length * 2);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int index = indexOf(oldKeys[i]);
+        keys[index] = oldKeys[i];
+        values[index] = oldValues[i];
+        used[index] = true;
+      }
+    }
+  }
+
+  /**
+   * Returns the keys of this map.
+   *
+   * @return a new array of the keys, in iteration order
+   */
+  public long[] keyArray() {
+    long[] result = new long[size];
+    int n = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        result[n++] = keys[i];
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof Long && containsKey(((Long) key).longValue());
+  }
+
+  @Override
+  public V get(Object key) {
+    return key instanceof Long ? get(((Long) key).longValue()) : null;
+  }
+
+  @Override
+  public V put(Long key, V value) {
+    return put(key.longValue(), value);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, null);
+    Arrays.fill(used, false);
+    size = 0;
+  }
+
+  @Override
+  public Set<Entry<Long, V>> entrySet() {
+    return new AbstractSet<Entry<Long, V>>() {
+      @Override
+      public Iterator<Entry<Long, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private class EntryIterator implements Iterator<Entry<Long, V>> {
+
+    private int next = advance(0);
+
+    private int advance(int from) {
+      int index = from;
+      while (index < used.length && !used[index]) {
+        index++;
+      }
+      return index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < used.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Entry<Long, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<Long, V> entry = MapUtil.entry(keys[next], (V) values[next]);
+      next = advance(next + 1);
+      return entry;
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Times the variants of an operation for the {@link Benchmark} tests.
+ * <p>
+ * The variants run alternately for a few warm-up rounds and then for the measured rounds. The best round of each
+ * variant is reported, together with the bytes the calling thread allocated per operation when the JVM can tell.
+ */
+public final class Benchmarks {
+
+  public static final String ENABLED_PROPERTY = "mybatis.benchmark";
+
+  private static final int WARM_UP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private Benchmarks() {
+  }
+
+  @FunctionalInterface
+  public interface Operation {
+    void run() throws Exception;
+  }
+
+  /**
+   * The best round of a variant.
+   */
+  public static final class Result {
+
+    private final double nanosPerOperation;
+    private final long bytesPerOperation;
+
+    Result(double nanosPerOperation, long bytesPerOperation) {
+      this.nanosPerOperation = nanosPerOperation;
+      this.bytesPerOperation = bytesPerOperation;
+    }
+
+    public double getNanosPerOperation() {
+      return nanosPerOperation;
+    }
+
+    /**
+     * Returns the allocated bytes per operation, or -1 if the JVM does not measure allocations.
+     */
+    public long getBytesPerOperation() {
+      return bytesPerOperation;
+    }
+
+    @Override
+    public String toString() {
+      String time = nanosPerOperation >= 1_000_000 ? String.format("%.2f ms/op", nanosPerOperation / 1_000_000)
+          : nanosPerOperation >= 10_000 ? String.format("%.1f us/op", nanosPerOperation / 1_000)
+              : String.format("%.1f ns/op", nanosPerOperation);
+      return bytesPerOperation < 0 ? time : time + ", " + bytesPerOperation + " B/op";
+    }
+  }
+
+  /**
+   * Measures a single operation.
+   *
+   * @param name
+   *          the name of the benchmark
+   * @param iterations
+   *          the number of operations per round
+   * @param operation
+   *          the operation
+   * @return the best round
+   * @throws Exception
+   *           if the operation failed
+   */
+  public static Result measure(String name, int iterations, Operation operation) throws Exception {
+    return compare(name, iterations, Collections.singletonMap(name, operation)).get(name);
+  }
+
+  /**
+   * Measures the variants of an operation, in the order of the map, and prints the best round of each.
+   *
+   * @param name
+   *          the name of the benchmark
+   * @param iterations
+   *          the number of operations per round
+   * @param variants
+   *          the operation of each variant
+   * @return the best round of each variant
+   * @throws Exception
+   *           if an operation failed
+   */
+  public static Map<String, Result> compare(String name, int iterations, Map<String, Operation> variants)
+      throws Exception {
+    Map<String, Result> results = new LinkedHashMap<>();
+    for (int round = 0; round < WARM_UP_ROUNDS + MEASURED_ROUNDS; round++) {
+      for (Map.Entry<String, Operation> variant : variants.entrySet()) {
+        Result result = run(iterations, variant.getValue());
+        if (round >= WARM_UP_ROUNDS) {
+          results.merge(variant.getKey(), result,
+              (best, next) -> next.nanosPerOperation < best.nanosPerOperation ? next : best);
+        }
+      }
+    }
+    for (Map.Entry<String, Result> result : results.entrySet()) {
+      System.out.println("[benchmark] " + name + (variants.size() > 1 ? " / " + result.getKey() : "") + ": "
+          + result.getValue());
+    }
+    return results;
+  }
+
+  private static Result run(int iterations, Operation operation) throws Exception {
+    long allocated = allocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      operation.run();
+    }
+    long elapsed = System.nanoTime() - start;
+    long bytes = allocated < 0 ? -1 : allocatedBytes() - allocated;
+    return new Result((double) elapsed / iterations, bytes < 0 ? -1 : bytes / iterations);
+  }
+
+  private static long allocatedBytes() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+
+}
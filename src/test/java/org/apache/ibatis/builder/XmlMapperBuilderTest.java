@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,9 +20,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.BDDAssertions.then;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.regex.Pattern;
 
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
@@ -221,4 +223,21 @@ class XmlMapperBuilderTest {
        assertThat(exception.getMessage()).isEqualTo(message);
      }
    }
+
+  @Test
+  void incompleteElementsAreReturnedAsSnapshots() throws Exception {
+    Configuration configuration = new Configuration();
+    String resource = "org/apache/ibatis/builder/ProblemResultMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+      builder.parse();
+    }
+    Collection<XMLStatementBuilder> incomplete = configuration.getIncompleteStatements();
+    assertThat(incomplete).hasSize(1);
+    Assertions.assertThrows(UnsupportedOperationException.class, incomplete::clear);
+
+    configuration.addIncompleteStatement(incomplete.iterator().next());
+    assertThat(incomplete).hasSize(1);
+    assertThat(configuration.getIncompleteStatements()).hasSize(2);
+  }
 }
@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class LazyStatementCompilationTest {
+
+  private static final String CONFIG = "src/test/resources/org/apache/ibatis/builder/ParallelMapperConfig.xml";
+
+  @Test
+  void shouldCompileTheSameStatementsLazily() throws Exception {
+    String config = new String(Files.readAllBytes(Paths.get(CONFIG)), StandardCharsets.UTF_8);
+    String eager = config.replace("<setting name=\"parallelMapperParsingEnabled\" value=\"true\"/>",
+        "<setting name=\"lazyStatementCompilationEnabled\" value=\"false\"/>");
+    String lazy = eager.replace("value=\"false\"", "value=\"true\"");
+
+    Configuration expected = new XMLConfigBuilder(new StringReader(eager)).parse();
+    Configuration actual = new XMLConfigBuilder(new StringReader(lazy)).parse();
+
+    assertThat(expected.getDeferredStatements()).isEmpty();
+    assertThat(actual.getDeferredStatements()).isNotEmpty();
+    assertThat(actual.validateDeferredStatements()).isEmpty();
+    assertThat(ParallelMapperParserTest.describe(actual)).isEqualTo(ParallelMapperParserTest.describe(expected));
+    assertThat(actual.getDeferredStatements()).isEmpty();
+  }
+
+}
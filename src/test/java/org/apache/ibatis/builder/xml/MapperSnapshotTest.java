@@ -0,0 +1,176 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.ibatis.Benchmark;
+import org.apache.ibatis.Benchmarks;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class MapperSnapshotTest {
+
+  private static final String CONFIG = "src/test/resources/org/apache/ibatis/builder/ParallelMapperConfig.xml";
+  private static final String SNAPSHOT = "org/apache/ibatis/builder/xml/MapperSnapshotTest.snapshot";
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" "
+      + "\"https://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"snapshot\">\n"
+      + "  <select id=\"select\" resultType=\"map\">\n"
+      + "    <![CDATA[select * from ${table} where id < #{id}]]>\n"
+      + "    <if test=\"name != null\">and name = #{name}</if>\n"
+      + "  </select>\n"
+      + "</mapper>\n";
+
+  @Test
+  void shouldBuildTheSameConfigurationFromASnapshot() throws Exception {
+    String config = config("<setting name=\"mapperSnapshot\" value=\"" + SNAPSHOT + "\"/>");
+    File snapshotFile = snapshotFile();
+    Files.deleteIfExists(snapshotFile.toPath());
+    try {
+      // without a snapshot every mapper file is parsed and recorded
+      Configuration recorded = new XMLConfigBuilder(new StringReader(config)).parse();
+      MapperSnapshot recording = recorded.getMapperSnapshot();
+      assertThat(recording.getReusedDocuments()).isZero();
+      assertThat(recording.getParsedDocuments()).isGreaterThan(3);
+      assertThat(recording.contains("org/apache/ibatis/builder/AuthorMapper.xml")).isTrue();
+      try (OutputStream out = Files.newOutputStream(snapshotFile.toPath())) {
+        recording.write(out);
+      }
+
+      Configuration restored = new XMLConfigBuilder(new StringReader(config)).parse();
+      MapperSnapshot snapshot = restored.getMapperSnapshot();
+      assertThat(snapshot.getParsedDocuments()).isZero();
+      assertThat(snapshot.getReusedDocuments()).isEqualTo(recording.getParsedDocuments());
+      assertThat(ParallelMapperParserTest.describe(restored))
+          .isEqualTo(ParallelMapperParserTest.describe(recorded));
+
+      Map<String, Object> parameter = new HashMap<>();
+      parameter.put("id", 1);
+      parameter.put("ids", new int[] { 1, 2 });
+      String statement = "org.apache.ibatis.domain.blog.mappers.PostMapper.findPost";
+      assertThat(restored.getMappedStatement(statement).getBoundSql(parameter).getSql())
+          .isEqualTo(recorded.getMappedStatement(statement).getBoundSql(parameter).getSql());
+    } finally {
+      Files.deleteIfExists(snapshotFile.toPath());
+    }
+  }
+
+  /**
+   * Compares building the configuration of the test mappers by parsing them and from a snapshot.
+   */
+  @Benchmark
+  void benchmarkConfigurationBuilding() throws Exception {
+    String parsing = config("<setting name=\"cacheEnabled\" value=\"true\"/>");
+    String fromSnapshot = config("<setting name=\"mapperSnapshot\" value=\"" + SNAPSHOT + "\"/>");
+    File snapshotFile = snapshotFile();
+    try {
+      try (OutputStream out = Files.newOutputStream(snapshotFile.toPath())) {
+        new XMLConfigBuilder(new StringReader(fromSnapshot)).parse().getMapperSnapshot().write(out);
+      }
+      Map<String, Benchmarks.Operation> variants = new LinkedHashMap<>();
+      variants.put("parsing", () -> new XMLConfigBuilder(new StringReader(parsing)).parse());
+      variants.put("snapshot", () -> new XMLConfigBuilder(new StringReader(fromSnapshot)).parse());
+      Benchmarks.compare("building the configuration", 50, variants);
+    } finally {
+      Files.deleteIfExists(snapshotFile.toPath());
+    }
+  }
+
+  @Test
+  void shouldKeepTextCdataAndAttributes() throws Exception {
+    MapperSnapshot snapshot = roundTrip(snapshotOf(MAPPER));
+    Properties variables = new Properties();
+    variables.setProperty("table", "users");
+    Configuration configuration = new Configuration();
+    configuration.setVariables(variables);
+    new XMLMapperBuilder(snapshot.newParser("snapshot.xml", stream(MAPPER), variables), configuration, "snapshot.xml",
+        configuration.getSqlFragments(), null).parse();
+
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("id", 1);
+    parameter.put("name", "a");
+    MappedStatement ms = configuration.getMappedStatement("snapshot.select");
+    assertThat(snapshot.getReusedDocuments()).isEqualTo(1);
+    assertThat(ms.getBoundSql(parameter).getSql().replaceAll("\\s+", " ").trim())
+        .isEqualTo("select * from users where id < ? and name = ?");
+  }
+
+  @Test
+  void shouldParseAgainWhenTheResourceChanged() throws Exception {
+    MapperSnapshot snapshot = roundTrip(snapshotOf(MAPPER));
+    String changed = MAPPER.replace("id < #{id}", "id > #{id}");
+
+    snapshot.newParser("snapshot.xml", stream(changed), new Properties());
+    snapshot.newParser("snapshot.xml", stream(changed), new Properties());
+
+    assertThat(snapshot.getParsedDocuments()).isEqualTo(1);
+    assertThat(snapshot.getReusedDocuments()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectAStreamThatIsNotASnapshot() {
+    assertThatThrownBy(() -> MapperSnapshot.read(stream(MAPPER))).isInstanceOf(IOException.class)
+        .hasMessage("Not a mapper snapshot.");
+  }
+
+  private static String config(String setting) throws IOException {
+    return new String(Files.readAllBytes(Paths.get(CONFIG)), StandardCharsets.UTF_8)
+        .replace("<setting name=\"parallelMapperParsingEnabled\" value=\"true\"/>", setting);
+  }
+
+  private static File snapshotFile() throws IOException {
+    // the snapshot is written next to the test classes, so that it can be loaded as a resource
+    return new File(Resources.getResourceAsFile("org/apache/ibatis/builder/ParallelMapperConfig.xml").getParentFile(),
+        "xml/MapperSnapshotTest.snapshot");
+  }
+
+  private static MapperSnapshot snapshotOf(String mapper) {
+    MapperSnapshot snapshot = new MapperSnapshot();
+    snapshot.newParser("snapshot.xml", stream(mapper), new Properties());
+    return snapshot;
+  }
+
+  private static MapperSnapshot roundTrip(MapperSnapshot snapshot) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    snapshot.write(out);
+    return MapperSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private static ByteArrayInputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+}
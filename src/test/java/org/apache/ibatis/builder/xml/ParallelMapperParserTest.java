@@ -0,0 +1,113 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.CachedAuthorMapper;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class ParallelMapperParserTest {
+
+  private static final String CONFIG = "src/test/resources/org/apache/ibatis/builder/ParallelMapperConfig.xml";
+
+  @Test
+  void shouldBuildTheSameConfigurationAsSequentialParsing() throws Exception {
+    String config = new String(Files.readAllBytes(Paths.get(CONFIG)), StandardCharsets.UTF_8);
+    Configuration parallel = new XMLConfigBuilder(new StringReader(config)).parse();
+    Configuration sequential = new XMLConfigBuilder(
+        new StringReader(config.replace("\"parallelMapperParsingEnabled\" value=\"true\"",
+            "\"parallelMapperParsingEnabled\" value=\"false\""))).parse();
+
+    assertThat(parallel.isParallelMapperParsingEnabled()).isTrue();
+    assertThat(sequential.isParallelMapperParsingEnabled()).isFalse();
+    assertThat(parallel.getMappedStatementNames()).hasSizeGreaterThan(50);
+    assertThat(describe(parallel)).isEqualTo(describe(sequential));
+  }
+
+  @Test
+  void shouldFailOnTheFirstBrokenMapperInDeclarationOrder() {
+    Configuration configuration = new Configuration();
+    ParallelMapperParser parser = new ParallelMapperParser(configuration);
+    parser.addResource("org/apache/ibatis/builder/AuthorMapper.xml");
+    parser.addResource("org/apache/ibatis/builder/Missing.xml");
+    parser.addResource("org/apache/ibatis/builder/BlogMapper.xml");
+
+    assertThatThrownBy(parser::parse).isInstanceOf(BuilderException.class)
+        .hasMessageContaining("org/apache/ibatis/builder/Missing.xml");
+    assertThat(configuration.isResourceLoaded("org/apache/ibatis/builder/AuthorMapper.xml")).isTrue();
+    assertThat(configuration.isResourceLoaded("org/apache/ibatis/builder/BlogMapper.xml")).isFalse();
+  }
+
+  @Test
+  void shouldRejectAMapperThatIsAlreadyKnown() {
+    Configuration configuration = new Configuration();
+    ParallelMapperParser parser = new ParallelMapperParser(configuration);
+    parser.addMapper(CachedAuthorMapper.class);
+    parser.addMapper(CachedAuthorMapper.class);
+
+    assertThatThrownBy(parser::parse).isInstanceOf(BindingException.class).hasMessageContaining("already known");
+    assertThat(configuration.hasMapper(CachedAuthorMapper.class)).isTrue();
+    assertThat(configuration.hasStatement(CachedAuthorMapper.class.getName() + ".selectAllAuthors")).isTrue();
+  }
+
+  static Map<String, String> describe(Configuration configuration) {
+    Map<String, String> description = new TreeMap<>();
+    // short names may be ambiguous, the full names are enough for the comparison
+    for (String name : configuration.getMappedStatementNames()) {
+      if (name.indexOf('.') == -1) {
+        continue;
+      }
+      MappedStatement ms = configuration.getMappedStatement(name);
+      description.put("statement " + name, ms.getId() + " " + ms.getSqlCommandType() + " "
+          + ms.getSqlSource().getClass().getSimpleName() + " " + ms.getKeyGenerator().getClass().getSimpleName()
+          + " " + ms.getResultMaps().stream().map(ResultMap::getId).collect(Collectors.toList())
+          + " " + (ms.getCache() == null ? null : ms.getCache().getId()));
+    }
+    for (String name : configuration.getResultMapNames()) {
+      if (name.indexOf('.') == -1) {
+        continue;
+      }
+      ResultMap resultMap = configuration.getResultMap(name);
+      description.put("resultMap " + name, resultMap.getId() + " " + resultMap.getType() + " "
+          + resultMap.getResultMappings().stream().map(ResultMapping::getProperty).collect(Collectors.toList()));
+    }
+    configuration.getCacheNames().forEach(name -> description.put("cache " + name, name));
+    configuration.getMapperRegistry().getMappers()
+        .forEach(type -> description.put("mapper " + type.getName(), type.getName()));
+    configuration.getSqlFragments().keySet().forEach(name -> description.put("sql " + name, name));
+    description.put("incomplete", configuration.getIncompleteStatements().size() + " "
+        + configuration.getIncompleteResultMaps().size() + " " + configuration.getIncompleteCacheRefs().size() + " "
+        + configuration.getIncompleteMethods().size());
+    return description;
+  }
+
+}
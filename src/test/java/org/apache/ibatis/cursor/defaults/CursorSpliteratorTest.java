@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+class CursorSpliteratorTest {
+
+  @Test
+  void shouldSplitOffFixedSizeBatches() {
+    Spliterator<Integer> spliterator = new CursorSpliterator<>(range(250), 100);
+    Spliterator<Integer> first = spliterator.trySplit();
+    Spliterator<Integer> second = spliterator.trySplit();
+    Spliterator<Integer> third = spliterator.trySplit();
+
+    assertThat(first.estimateSize()).isEqualTo(100);
+    assertThat(second.estimateSize()).isEqualTo(100);
+    assertThat(third.estimateSize()).isEqualTo(50);
+    assertThat(spliterator.trySplit()).isNull();
+    assertThat(first.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+    first.tryAdvance(value -> assertThat(value).isZero());
+  }
+
+  @Test
+  void shouldKeepOrderInParallelStream() {
+    assertThat(StreamSupport.stream(new CursorSpliterator<>(range(10000), 64), true).map(i -> i * 2)
+        .collect(Collectors.toList()))
+        .containsExactlyElementsOf(IntStream.range(0, 10000).map(i -> i * 2).boxed().collect(Collectors.toList()));
+  }
+
+  @Test
+  void shouldStopSplittingAfterMaxBatches() {
+    Spliterator<Integer> spliterator = new CursorSpliterator<>(range(1000), 100, 2);
+    assertThat(spliterator.trySplit().estimateSize()).isEqualTo(100);
+    assertThat(spliterator.trySplit().estimateSize()).isEqualTo(100);
+    assertThat(spliterator.trySplit()).isNull();
+
+    List<Integer> rest = new ArrayList<>();
+    spliterator.forEachRemaining(rest::add);
+    assertThat(rest).hasSize(800).startsWith(200);
+  }
+
+  @Test
+  void shouldBoundBufferedItemsInParallelStream() {
+    AtomicInteger processed = new AtomicInteger();
+    AtomicInteger maxBuffered = new AtomicInteger();
+    Iterator<Integer> source = range(100000);
+    Iterator<Integer> iterator = new Iterator<Integer>() {
+      private int read;
+
+      @Override
+      public boolean hasNext() {
+        return source.hasNext();
+      }
+
+      @Override
+      public Integer next() {
+        read++;
+        maxBuffered.accumulateAndGet(read - processed.get(), Math::max);
+        return source.next();
+      }
+    };
+
+    long count = StreamSupport.stream(new CursorSpliterator<>(iterator, 64, 4), true)
+        .peek(i -> processed.incrementAndGet()).count();
+
+    assertThat(count).isEqualTo(100000);
+    // 已读取但尚未处理的数据不超过 4 个批次
+    assertThat(maxBuffered.get()).isLessThanOrEqualTo(4 * 64 + 1);
+  }
+
+  @Test
+  void shouldNotReportNonNull() {
+    Spliterator<Integer> spliterator = new CursorSpliterator<>(range(1));
+    assertThat(spliterator.hasCharacteristics(Spliterator.NONNULL)).isFalse();
+    assertThat(spliterator.hasCharacteristics(Spliterator.SIZED)).isFalse();
+  }
+
+  @Test
+  void shouldRejectNonPositiveBatchSize() {
+    assertThatThrownBy(() -> new CursorSpliterator<>(range(1), 0)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new CursorSpliterator<>(range(1), 1, -1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Iterator<Integer> range(int size) {
+    return IntStream.range(0, size).iterator();
+  }
+
+}
@@ -0,0 +1,52 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  @Test
+  void shouldRepeatTheValuesGroup() {
+    MultiRowInsert insert = MultiRowInsert.parse(null, "INSERT INTO t (a, b) VALUES (?, lower(?))");
+    assertThat(insert).isNotNull();
+    assertThat(insert.getSql(1)).isEqualTo("INSERT INTO t (a, b) VALUES (?, lower(?))");
+    assertThat(insert.getSql(3))
+        .isEqualTo("INSERT INTO t (a, b) VALUES (?, lower(?)), (?, lower(?)), (?, lower(?))");
+  }
+
+  @Test
+  void shouldIgnoreKeywordsAndParenthesesInLiterals() {
+    MultiRowInsert insert = MultiRowInsert.parse(null, "insert into \"values\" (a, b) values ('x) values (', ?)");
+    assertThat(insert).isNotNull();
+    assertThat(insert.getSql(2))
+        .isEqualTo("insert into \"values\" (a, b) values ('x) values (', ?), ('x) values (', ?)");
+  }
+
+  @Test
+  void shouldRejectInsertsThatCannotBeRewritten() {
+    assertThat(MultiRowInsert.parse(null, "insert into t (a) values (?), (?)")).isNull();
+    assertThat(MultiRowInsert.parse(null, "insert into t (a) values (?) on duplicate key update a = values(a)")).isNull();
+    assertThat(MultiRowInsert.parse(null, "insert into t (a) values (?) returning id")).isNull();
+    assertThat(MultiRowInsert.parse(null, "insert into t (a) select ? from (values (0))")).isNull();
+    assertThat(MultiRowInsert.parse(null, "insert into t (a) values (? /* a */)")).isNull();
+    assertThat(MultiRowInsert.parse(null, "insert into t (a) values ('unterminated)")).isNull();
+    assertThat(MultiRowInsert.parse(null, "insert into t default values")).isNull();
+  }
+
+}
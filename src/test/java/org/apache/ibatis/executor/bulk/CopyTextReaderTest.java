@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+class CopyTextReaderTest {
+
+  @Test
+  void shouldEncodeRowsInCopyTextFormat() throws IOException {
+    Iterator<Object[]> rows = Arrays.asList(new Object[] { 1, "a\tb", null, true },
+        new Object[] { 2L, "back\\slash\nnew line\r", "x", false }).iterator();
+    assertThat(readAll(new CopyTextReader(rows), 1024))
+        .isEqualTo("1\ta\\tb\t\\N\tt\n2\tback\\\\slash\\nnew line\\r\tx\tf\n");
+  }
+
+  @Test
+  void shouldEncodeBinaryAndStreamedValues() throws IOException {
+    Object[] row = { new byte[] { 0x01, (byte) 0xAB }, new ByteArrayInputStream(new byte[] { 0x7F }),
+        new StringReader("clob\ttext"), Timestamp.valueOf("2023-01-02 03:04:05") };
+    assertThat(readAll(new CopyTextReader(Collections.singletonList(row).iterator()), 1024))
+        .isEqualTo("\\\\x01ab\t\\\\x7f\tclob\\ttext\t2023-01-02 03:04:05.0\n");
+  }
+
+  @Test
+  void shouldEncodeRowsLazily() throws IOException {
+    int[] encoded = { 0 };
+    Iterator<Object[]> rows = new Iterator<Object[]>() {
+      @Override
+      public boolean hasNext() {
+        return encoded[0] < 1000;
+      }
+
+      @Override
+      public Object[] next() {
+        return new Object[] { encoded[0]++, "row" };
+      }
+    };
+    try (CopyTextReader reader = new CopyTextReader(rows)) {
+      char[] buffer = new char[4];
+      assertThat(reader.read(buffer, 0, 4)).isEqualTo(4);
+      assertThat(new String(buffer)).isEqualTo("0\tro");
+      assertThat(encoded[0]).isEqualTo(1);
+      assertThat(readAll(reader, 3)).startsWith("w\n1\trow\n").endsWith("999\trow\n");
+    }
+    assertThat(encoded[0]).isEqualTo(1000);
+  }
+
+  @Test
+  void shouldReturnEndOfStreamForNoRows() throws IOException {
+    assertThat(new CopyTextReader(Collections.emptyIterator()).read(new char[8], 0, 8)).isEqualTo(-1);
+  }
+
+  private static String readAll(Reader reader, int chunkSize) throws IOException {
+    StringBuilder text = new StringBuilder();
+    char[] chunk = new char[chunkSize];
+    int n;
+    while ((n = reader.read(chunk, 0, chunkSize)) != -1) {
+      text.append(chunk, 0, n);
+    }
+    return text.toString();
+  }
+
+}
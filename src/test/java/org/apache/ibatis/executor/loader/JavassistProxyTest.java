@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javassist.util.proxy.Proxy;
 
@@ -48,6 +54,75 @@ class JavassistProxyTest extends SerializableProxyTest {
     assertTrue(author2 instanceof Proxy);
   }
 
+  @Test
+  void shouldLoadPropertyOnceWhenAccessedConcurrently() throws Exception {
+    Configuration configuration = new Configuration();
+    ResultLoaderMap loader = new ResultLoaderMap();
+    Author proxy = (Author) proxyFactory.createProxy(author, loader, configuration, new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    AtomicInteger loadCount = new AtomicInteger();
+    loader.addLoader("bio", configuration.newMetaObject(proxy), new ResultLoader(configuration, null, null, null, String.class, null, null) {
+      @Override
+      public Object loadResult() {
+        loadCount.incrementAndGet();
+        return "loaded bio";
+      }
+    });
+    assertFalse(loader.isEmpty());
+
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executorService.submit(() -> {
+          start.await();
+          return proxy.getBio();
+        }));
+      }
+      start.countDown();
+      for (Future<String> result : results) {
+        assertEquals("loaded bio", result.get());
+      }
+    } finally {
+      executorService.shutdown();
+    }
+    assertEquals(1, loadCount.get());
+    assertTrue(loader.isEmpty());
+    assertEquals("loaded bio", proxy.getBio());
+  }
+
+  @Test
+  void shouldReuseTheProxyClassOfAType() {
+    Configuration configuration = new Configuration();
+    Object proxy1 = proxyFactory.createProxy(author, new ResultLoaderMap(), configuration, new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    Object proxy2 = proxyFactory.createProxy(author, new ResultLoaderMap(), configuration, new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    assertNotSame(proxy1, proxy2);
+    assertSame(proxy1.getClass(), proxy2.getClass());
+    assertEquals(author, proxy2);
+  }
+
+  @Test
+  void shouldNotProxyAFinalClass() {
+    ResultLoaderMap loader = new ResultLoaderMap();
+    FinalBean bean = new FinalBean();
+    Object result = proxyFactory.createProxy(bean, loader, new Configuration(), new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    assertSame(bean, result);
+    assertFalse(loader.isLazyLoadingSupported());
+  }
+
+  static final class FinalBean {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
   @Test
   void shouldFailCallingAnUnloadedProperty() {
     // yes, it must go in uppercase
@@ -0,0 +1,249 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TypeIndexProcessorTest {
+
+  private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+  static {
+    SOURCES.put("idx/Base.java", "package idx; public interface Base {}");
+    SOURCES.put("idx/Marker.java", "package idx; import java.lang.annotation.*;"
+        + " @Inherited @Retention(RetentionPolicy.RUNTIME) public @interface Marker { String[] value() default {}; }");
+    SOURCES.put("idx/Entity.java", "package idx; @Marker({ \"a\", \"b\" }) @Deprecated"
+        + " public class Entity implements Base, java.io.Serializable { public static class Nested {} }");
+    SOURCES.put("idx/Child.java", "package idx; public class Child extends Entity {}");
+    SOURCES.put("idx/Other.java", "package idx; public enum Other { A }");
+    SOURCES.put("idx/sub/SubEntity.java", "package idx.sub; public class SubEntity implements idx.Base {}");
+  }
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldIndexTheSameMetadataAsTheClassFiles() throws Exception {
+    Path classes = compile(tempDir, true, SOURCES.keySet().toArray(new String[0]));
+    Map<String, ClassMetadata> index = readIndex(classes);
+
+    assertThat(index.keySet()).containsExactlyInAnyOrder("idx.Base", "idx.Marker", "idx.Entity", "idx.Entity$Nested",
+        "idx.Child", "idx.Other", "idx.sub.SubEntity");
+    assertThat(index.get("idx.Entity").toIndexLine())
+        .isEqualTo("idx.Entity java.lang.Object idx.Base,java.io.Serializable idx.Marker,java.lang.Deprecated");
+    for (ClassMetadata metadata : index.values()) {
+      try (InputStream in = Files.newInputStream(classes.resolve(metadata.getClassName().replace('.', '/') + ".class"))) {
+        assertThat(metadata.toIndexLine()).isEqualTo(ClassMetadata.read(in).toIndexLine());
+      }
+    }
+  }
+
+  @Test
+  void shouldReadTheClassFilesOfTheClassPath() throws Exception {
+    ClassMetadataReader reader = new ClassMetadataReader(getClass().getClassLoader());
+
+    ClassMetadata configuration = reader.getMetadata("org.apache.ibatis.session.Configuration");
+    assertThat(configuration.getSuperClassName()).isEqualTo("java.lang.Object");
+    assertThat(configuration.getAnnotationNames()).isEmpty();
+    assertThat(reader.getMetadata("org.apache.ibatis.submitted.autodiscover.aliases.DummyTypeAlias")
+        .getAnnotationNames()).containsExactly("org.apache.ibatis.type.Alias");
+    assertThat(reader.mayBeAssignableTo("org.apache.ibatis.io.DefaultVFS", "org.apache.ibatis.io.VFS")).isTrue();
+    assertThat(reader.mayBeAssignableTo("org.apache.ibatis.io.Resources", "org.apache.ibatis.io.VFS")).isFalse();
+    assertThat(reader.getMetadata("org.apache.ibatis.Missing")).isNull();
+    assertThat(reader.getIndexedClassNames("org/apache/ibatis")).isEmpty();
+  }
+
+  @Test
+  void shouldKeepTheEntriesOfAPreviousCompilation() throws Exception {
+    Path classes = compile(tempDir, true, "idx/Base.java", "idx/Marker.java", "idx/Entity.java");
+    compile(tempDir, true, "idx/Child.java");
+
+    assertThat(readIndex(classes).keySet()).containsExactlyInAnyOrder("idx.Base", "idx.Marker", "idx.Entity",
+        "idx.Entity$Nested", "idx.Child");
+  }
+
+  @Test
+  void shouldTakeTheClassesOfADeclaredPackageFromTheIndex() throws Exception {
+    Path classes = compile(tempDir, Arrays.asList("-A" + TypeIndexProcessor.PACKAGES_OPTION + "=idx"),
+        SOURCES.keySet().toArray(new String[0]));
+    Path index = classes.resolve(ClassMetadataReader.INDEX_RESOURCE);
+    assertThat(Files.readAllLines(index, StandardCharsets.UTF_8)).contains("@package idx");
+    removeSubPackageEntries(index);
+
+    try (RecordingClassLoader loader = new RecordingClassLoader(classes)) {
+      Class<?> base = loader.loadClass("idx.Base");
+      // idx 及其子包由索引完整覆盖，未列在索引中的 idx.sub.SubEntity 不会被找到
+      assertThat(find(loader, new ResolverUtil.IsA(base), "idx")).containsExactlyInAnyOrder("idx.Base", "idx.Entity",
+          "idx.Child");
+    }
+  }
+
+  @Test
+  void shouldListThePackagesThatAreNotDeclared() throws Exception {
+    Path classes = compile(tempDir, Arrays.asList("-A" + TypeIndexProcessor.PACKAGES_OPTION + "=idx.sub"),
+        SOURCES.keySet().toArray(new String[0]));
+    removeSubPackageEntries(classes.resolve(ClassMetadataReader.INDEX_RESOURCE));
+
+    try (RecordingClassLoader loader = new RecordingClassLoader(classes)) {
+      Class<?> base = loader.loadClass("idx.Base");
+      // idx 只有子包被声明，仍然扫描类路径，不会漏掉未列在索引中的类
+      assertThat(find(loader, new ResolverUtil.IsA(base), "idx")).containsExactlyInAnyOrder("idx.Base", "idx.Entity",
+          "idx.Child", "idx.sub.SubEntity");
+      assertThat(find(loader, new ResolverUtil.IsA(base), "idx.sub")).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldListThePackagesOfAnIndexWithoutDeclarations() throws Exception {
+    Path classes = compile(tempDir, true, SOURCES.keySet().toArray(new String[0]));
+    removeSubPackageEntries(classes.resolve(ClassMetadataReader.INDEX_RESOURCE));
+
+    try (RecordingClassLoader loader = new RecordingClassLoader(classes)) {
+      Class<?> base = loader.loadClass("idx.Base");
+      assertThat(find(loader, new ResolverUtil.IsA(base), "idx")).containsExactlyInAnyOrder("idx.Base", "idx.Entity",
+          "idx.Child", "idx.sub.SubEntity");
+    }
+  }
+
+  private static void removeSubPackageEntries(Path index) throws IOException {
+    List<String> lines = Files.readAllLines(index, StandardCharsets.UTF_8).stream()
+        .filter(line -> !line.startsWith("idx.sub.")).collect(Collectors.toList());
+    Files.write(index, lines, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void shouldNotLoadTheClassesThatCannotMatch() throws Exception {
+    Path classes = compile(tempDir, false, SOURCES.keySet().toArray(new String[0]));
+    assertThat(classes.resolve(ClassMetadataReader.INDEX_RESOURCE)).doesNotExist();
+
+    try (RecordingClassLoader loader = new RecordingClassLoader(classes)) {
+      Class<?> base = loader.loadClass("idx.Base");
+      assertThat(find(loader, new ResolverUtil.IsA(base), "idx")).containsExactlyInAnyOrder("idx.Base", "idx.Entity",
+          "idx.Child", "idx.sub.SubEntity");
+      assertThat(loader.loaded).doesNotContain("idx.Other", "idx.Entity$Nested", "idx.Marker");
+    }
+
+    try (RecordingClassLoader loader = new RecordingClassLoader(classes)) {
+      @SuppressWarnings("unchecked")
+      Class<? extends java.lang.annotation.Annotation> marker = (Class<? extends java.lang.annotation.Annotation>) loader
+          .loadClass("idx.Marker");
+      // the annotation is @Inherited, so the sub class matches too
+      assertThat(find(loader, new ResolverUtil.AnnotatedWith(marker), "idx")).containsExactlyInAnyOrder("idx.Entity",
+          "idx.Child");
+      assertThat(loader.loaded).doesNotContain("idx.Other", "idx.Entity$Nested", "idx.sub.SubEntity");
+    }
+  }
+
+  private static List<String> find(ClassLoader loader, ResolverUtil.Test test, String packageName) {
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(loader);
+    try {
+      ResolverUtil<Object> resolverUtil = new ResolverUtil<>();
+      resolverUtil.setClassLoader(loader);
+      resolverUtil.find(test, packageName);
+      return resolverUtil.getClasses().stream().map(Class::getName).collect(Collectors.toList());
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+  }
+
+  private static Map<String, ClassMetadata> readIndex(Path classes) throws IOException {
+    Map<String, ClassMetadata> index = new LinkedHashMap<>();
+    for (String line : Files.readAllLines(classes.resolve(ClassMetadataReader.INDEX_RESOURCE))) {
+      if (!line.startsWith("#") && !line.startsWith(ClassMetadataReader.PACKAGE_PREFIX)) {
+        ClassMetadata metadata = ClassMetadata.fromIndexLine(line);
+        index.put(metadata.getClassName(), metadata);
+      }
+    }
+    return index;
+  }
+
+  private static Path compile(Path dir, boolean index, String... sources) throws IOException {
+    return compile(dir, index ? Collections.emptyList() : null, sources);
+  }
+
+  /**
+   * Compiles the sources, with the type index processor and the given processor options unless they are null.
+   */
+  private static Path compile(Path dir, List<String> processorOptions, String... sources) throws IOException {
+    Path sourceDir = dir.resolve("src");
+    Path classes = dir.resolve("classes");
+    Files.createDirectories(classes);
+    List<String> arguments = new ArrayList<>(Arrays.asList("-d", classes.toString(), "-classpath",
+        classes + java.io.File.pathSeparator + System.getProperty("java.class.path")));
+    if (processorOptions != null) {
+      arguments.addAll(Arrays.asList("-processor", TypeIndexProcessor.class.getName()));
+      arguments.addAll(processorOptions);
+    } else {
+      arguments.add("-proc:none");
+    }
+    for (String source : sources) {
+      Path file = sourceDir.resolve(source);
+      Files.createDirectories(file.getParent());
+      Files.write(file, SOURCES.get(source).getBytes(StandardCharsets.UTF_8));
+      arguments.add(file.toString());
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertThat(compiler.run(null, null, null, arguments.toArray(new String[0]))).isZero();
+    return classes;
+  }
+
+  private static class RecordingClassLoader extends URLClassLoader {
+
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+
+    RecordingClassLoader(Path classes) throws IOException {
+      super(new URL[] { classes.toUri().toURL() }, TypeIndexProcessorTest.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (name.startsWith("idx.")) {
+        synchronized (getClassLoadingLock(name)) {
+          loaded.add(name);
+          Class<?> type = findLoadedClass(name);
+          return type != null ? type : findClass(name);
+        }
+      }
+      return super.loadClass(name, resolve);
+    }
+
+  }
+
+}
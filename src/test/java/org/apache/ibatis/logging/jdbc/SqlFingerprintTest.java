@@ -0,0 +1,53 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class SqlFingerprintTest {
+
+  @Test
+  void shouldCollapseWhitespace() {
+    assertEquals("select * from users where id = ?", SqlFingerprint.normalize("  select *\n  from users\twhere id = ?  "));
+  }
+
+  @Test
+  void shouldReplaceLiterals() {
+    assertEquals("select * from t1 where name = ? and age > ? and rate < ?",
+        SqlFingerprint.normalize("select * from t1 where name = 'O''Brien' and age > 42 and rate < 0.5"));
+  }
+
+  @Test
+  void shouldCollapsePlaceholderLists() {
+    assertEquals("select * from users where id in (?...) and name = ?",
+        SqlFingerprint.normalize("select * from users where id in (?, ?, ?) and name = ?"));
+    assertEquals("insert into users values (?...)", SqlFingerprint.normalize("insert into users values (?,?)"));
+    assertEquals("select * from users where id in (?...)", SqlFingerprint.normalize("select * from users where id in (\n ?\n ,\n ?\n)"));
+    assertEquals("select * from users where id in (?...)", SqlFingerprint.normalize("select * from users where id in (1, 2)"));
+  }
+
+  @Test
+  void shouldComputeStableFingerprints() {
+    String fingerprint = SqlFingerprint.of("select * from users where id in (?, ?)");
+    assertEquals(16, fingerprint.length());
+    assertEquals(fingerprint, SqlFingerprint.of("select * from users\n where id in (?,?,?,?)"));
+    assertNotEquals(fingerprint, SqlFingerprint.of("select * from users where name in (?, ?)"));
+  }
+
+}
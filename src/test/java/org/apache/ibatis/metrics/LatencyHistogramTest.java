@@ -0,0 +1,73 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldMapValuesToBucketsThatContainThem() {
+    for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123_456_789, 1L << 40 }) {
+      int bucket = LatencyHistogram.bucketOf(value);
+      assertThat(LatencyHistogram.lowerBoundOf(bucket)).isLessThanOrEqualTo(value);
+      assertThat(LatencyHistogram.upperBoundOf(bucket)).isGreaterThanOrEqualTo(value);
+    }
+    assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.bucketOf(1L << 41));
+  }
+
+  @Test
+  void shouldComputePercentilesWithinOneSixteenth() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    assertThat(histogram.getCount()).isEqualTo(1000);
+    assertThat(histogram.getSumNanos()).isEqualTo(500_500_000L);
+    assertThat(histogram.getMaxNanos()).isEqualTo(1_000_000L);
+    assertThat(histogram.getPercentileNanos(0.5)).isBetween(500_000L * 15 / 16, 500_000L * 17 / 16);
+    assertThat(histogram.getPercentileNanos(0.99)).isBetween(990_000L * 15 / 16, 1_000_000L);
+    assertThat(histogram.getPercentileNanos(1.0)).isEqualTo(1_000_000L);
+
+    histogram.reset();
+    assertThat(histogram.getCount()).isZero();
+    assertThat(histogram.getPercentileNanos(0.5)).isZero();
+  }
+
+  @Test
+  void shouldRecordConcurrently() throws Exception {
+    LatencyHistogram histogram = new LatencyHistogram();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int t = 0; t < 4; t++) {
+      executor.execute(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          histogram.record(i);
+        }
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    assertThat(histogram.getCount()).isEqualTo(40_000);
+    assertThat(histogram.getMaxNanos()).isEqualTo(9_999);
+  }
+
+}
@@ -0,0 +1,227 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.parsing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.Benchmark;
+import org.apache.ibatis.Benchmarks;
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+class StreamingDocumentBuilderTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" "
+      + "\"https://mybatis.org/dtd/mybatis-3-mapper.dtd\" [\n"
+      + "  <!ENTITY columns \"id, name\">\n"
+      + "]>\n"
+      + "<?processing instruction?>\n"
+      + "<mapper namespace=\"streaming\">\n"
+      + "  <!-- comments are dropped -->\n"
+      + "  <select id=\"select\" resultType=\"map\" statementType=\" PREPARED \">\n"
+      + "    select &columns; <!-- merged --> from users\n"
+      + "    <![CDATA[where id < #{id}]]><![CDATA[]]>\n"
+      + "    <if test=\"name != null\">and name = #{name}</if>\n"
+      + "  </select>\n"
+      + "</mapper>\n";
+
+  @Test
+  void shouldBuildTheSameDocumentAsTheDomParser() {
+    Document streamed = streamingParse(bytes(MAPPER));
+    assertThat(describe(streamed)).isEqualTo(describe(domParse(bytes(MAPPER))));
+    assertThat(describe(streamed.getDocumentElement().getElementsByTagName("select").item(0)))
+        .contains("T[\n    select id, name  from users\n    ]C[where id < #{id}]C[]T[\n    ]");
+  }
+
+  @Test
+  void shouldBuildTheSameDocumentsForTheTestMappers() throws IOException {
+    List<Path> mappers = testMappers();
+    assertThat(mappers).hasSizeGreaterThan(100);
+    for (Path mapper : mappers) {
+      byte[] content = Files.readAllBytes(mapper);
+      Document dom;
+      try {
+        dom = domParse(content);
+      } catch (BuilderException e) {
+        // 校验失败的文件，流式解析同样应当失败
+        assertThatThrownBy(() -> streamingParse(content)).as(mapper.toString()).isInstanceOf(BuilderException.class);
+        continue;
+      }
+      assertThat(describe(streamingParse(content))).as(mapper.toString()).isEqualTo(describe(dom));
+    }
+  }
+
+  @Test
+  void shouldValidateAgainstTheDtd() {
+    String invalid = MAPPER.replace("<if test", "<unknown test").replace("</if>", "</unknown>");
+    assertThatThrownBy(() -> streamingParse(bytes(invalid))).isInstanceOf(BuilderException.class)
+        .hasMessageContaining("unknown");
+    assertThat(new StreamingDocumentBuilder(false, new XMLMapperEntityResolver())
+        .parse(new InputSource(new ByteArrayInputStream(bytes(invalid)))).getDocumentElement().getNodeName())
+            .isEqualTo("mapper");
+  }
+
+  @Test
+  void shouldSelectSimplePathsLikeXPath() throws IOException {
+    for (Path mapper : testMappers()) {
+      XPathParser parser;
+      try (InputStream in = Files.newInputStream(mapper)) {
+        parser = new XPathParser(in, false, null, new XMLMapperEntityResolver());
+      }
+      // 带有轴的表达式不会走快速路径，由 XPath 计算作为对照
+      XNode root = parser.evalNode("/mapper");
+      assertThat(describe(root)).as(mapper.toString()).isEqualTo(describe(parser.evalNode("/child::mapper")));
+      if (root == null) {
+        continue;
+      }
+      assertThat(describe(parser.evalNodes("/mapper/sql"))).as(mapper.toString())
+          .isEqualTo(describe(parser.evalNodes("/mapper/child::sql")));
+      assertThat(describe(root.evalNodes("select|insert | update|delete"))).as(mapper.toString())
+          .isEqualTo(describe(root.evalNodes("child::select|insert|update|delete")));
+      assertThat(describe(root.evalNode("resultMap"))).as(mapper.toString())
+          .isEqualTo(describe(root.evalNode("child::resultMap")));
+    }
+  }
+
+  @Benchmark
+  void benchmarkParsing() throws Exception {
+    List<byte[]> corpus = new ArrayList<>();
+    for (Path mapper : testMappers()) {
+      byte[] content = Files.readAllBytes(mapper);
+      try {
+        domParse(content);
+        corpus.add(content);
+      } catch (BuilderException e) {
+        // skip the invalid mappers
+      }
+    }
+    // 每次操作解析语料中的下一个文档
+    int[] next = new int[1];
+    Map<String, Benchmarks.Operation> variants = new LinkedHashMap<>();
+    variants.put("dom", () -> parse(domParse(corpus.get(next[0]++ % corpus.size()))));
+    variants.put("streaming", () -> parse(streamingParse(corpus.get(next[0]++ % corpus.size()))));
+    Benchmarks.compare("parsing a mapper document", 20 * corpus.size(), variants);
+  }
+
+  private static void parse(Document document) {
+    touch(new XPathParser(document, false, null, null).evalNode("/mapper"));
+  }
+
+  private static void touch(XNode node) {
+    if (node != null) {
+      // 与映射文件的解析一样，访问全部的属性和子节点
+      node.getStringAttribute("id");
+      for (XNode child : node.getChildren()) {
+        touch(child);
+      }
+    }
+  }
+
+  private static List<Path> testMappers() throws IOException {
+    try (Stream<Path> files = Files.walk(Paths.get("src/test/resources"))) {
+      return files.filter(path -> path.toString().endsWith(".xml")).filter(path -> {
+        try {
+          return new String(Files.readAllBytes(path), StandardCharsets.UTF_8).contains("mybatis-3-mapper.dtd");
+        } catch (IOException e) {
+          return false;
+        }
+      }).sorted().collect(Collectors.toList());
+    }
+  }
+
+  private static Document domParse(byte[] content) {
+    XPathParser parser = new XPathParser(new ByteArrayInputStream(content), true, null, new XMLMapperEntityResolver());
+    return parser.evalNode("/*").getNode().getOwnerDocument();
+  }
+
+  private static Document streamingParse(byte[] content) {
+    return new StreamingDocumentBuilder(true, new XMLMapperEntityResolver())
+        .parse(new InputSource(new ByteArrayInputStream(content)));
+  }
+
+  private static byte[] bytes(String content) {
+    return content.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String describe(List<XNode> nodes) {
+    return nodes.stream().map(StreamingDocumentBuilderTest::describe).collect(Collectors.joining());
+  }
+
+  private static String describe(XNode node) {
+    return node == null ? "null" : describe(node.getNode());
+  }
+
+  private static String describe(Node node) {
+    StringBuilder builder = new StringBuilder();
+    describe(node, builder);
+    return builder.toString();
+  }
+
+  private static void describe(Node node, StringBuilder builder) {
+    switch (node.getNodeType()) {
+      case Node.ELEMENT_NODE:
+        Map<String, String> attributes = new TreeMap<>();
+        NamedNodeMap attributeNodes = node.getAttributes();
+        for (int i = 0; i < attributeNodes.getLength(); i++) {
+          attributes.put(attributeNodes.item(i).getNodeName(), attributeNodes.item(i).getNodeValue());
+        }
+        builder.append('<').append(node.getNodeName()).append(attributes).append('>');
+        break;
+      case Node.TEXT_NODE:
+        builder.append("T[").append(node.getNodeValue()).append(']');
+        break;
+      case Node.CDATA_SECTION_NODE:
+        builder.append("C[").append(node.getNodeValue()).append(']');
+        break;
+      case Node.PROCESSING_INSTRUCTION_NODE:
+        builder.append("P[").append(node.getNodeName()).append(' ').append(node.getNodeValue()).append(']');
+        break;
+      case Node.DOCUMENT_NODE:
+        break;
+      default:
+        return;
+    }
+    for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+      describe(child, builder);
+    }
+    if (node.getNodeType() == Node.ELEMENT_NODE) {
+      builder.append("</>");
+    }
+  }
+
+}
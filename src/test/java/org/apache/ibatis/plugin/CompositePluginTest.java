@@ -0,0 +1,334 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.Benchmark;
+import org.apache.ibatis.Benchmarks;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.Test;
+
+class CompositePluginTest {
+
+  @Test
+  void shouldCallInterceptorsInTheOrderOfNestedProxies() throws Exception {
+    assertEquals(record(false), record(true));
+    assertEquals(
+        "[second:set, first:set, target:set(ps), second:get, target:get]",
+        record(true).toString());
+  }
+
+  @Test
+  void shouldPassThroughMethodsThatAreNotIntercepted() throws Exception {
+    List<String> log = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new SetParametersInterceptor("first", log));
+    ParameterHandler handler = chain.pluginAll(new RecordingParameterHandler(log), ParameterHandler.class);
+    assertTrue(handler instanceof ParameterHandlerPlugin);
+    assertEquals("parameter", handler.getParameterObject());
+    assertEquals("[target:get]", log.toString());
+  }
+
+  @Test
+  void shouldPassViewsOfTheChainToTheInterceptors() throws Exception {
+    List<Object> targets = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    RecordingParameterHandler target = new RecordingParameterHandler(new ArrayList<>());
+    chain.addInterceptor(new TargetCollectingInterceptor(targets));
+    chain.addInterceptor(new UnrelatedInterceptor());
+    chain.addInterceptor(new TargetCollectingInterceptor(targets));
+    ParameterHandler handler = chain.pluginAll(target, ParameterHandler.class);
+    handler.setParameters(null);
+    assertEquals(2, targets.size());
+    // 外层拦截器看到的是只包含内层拦截器的视图，最内层拦截器看到的是原始对象
+    assertTrue(targets.get(0) instanceof ParameterHandlerPlugin);
+    assertFalse(targets.get(0) == handler);
+    assertSame(target, targets.get(1));
+    assertEquals(target.toString(), handler.toString());
+  }
+
+  @Test
+  void shouldReturnTheTargetIfNoInterceptorApplies() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new UnrelatedInterceptor());
+    RecordingParameterHandler target = new RecordingParameterHandler(new ArrayList<>());
+    assertSame(target, chain.pluginAll(target, ParameterHandler.class));
+    assertSame(target, new InterceptorChain().pluginAll(target, ParameterHandler.class));
+  }
+
+  @Test
+  void shouldRethrowExceptionsAsNestedProxiesDo() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new ThrowingInterceptor(new SQLException("sql")));
+    ParameterHandler handler = chain.pluginAll(new RecordingParameterHandler(new ArrayList<>()),
+        ParameterHandler.class);
+    assertEquals("sql", assertThrows(SQLException.class, () -> handler.setParameters(null)).getMessage());
+    UndeclaredThrowableException e = assertThrows(UndeclaredThrowableException.class, handler::getParameterObject);
+    assertEquals("sql", e.getUndeclaredThrowable().getMessage());
+
+    InterceptorChain nested = new InterceptorChain();
+    nested.addInterceptor(new ThrowingInterceptor(new SQLException("sql")));
+    ParameterHandler proxy = (ParameterHandler) nested.pluginAll(new RecordingParameterHandler(new ArrayList<>()));
+    assertThrows(SQLException.class, () -> proxy.setParameters(null));
+    assertThrows(UndeclaredThrowableException.class, proxy::getParameterObject);
+  }
+
+  @Test
+  void shouldUnwrapExceptionsOfProceed() {
+    List<String> log = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new SetParametersInterceptor("first", log));
+    chain.addInterceptor(new SetParametersInterceptor("second", log));
+    RecordingParameterHandler target = new RecordingParameterHandler(log);
+    target.failure = new SQLException("target");
+    ParameterHandler handler = chain.pluginAll(target, ParameterHandler.class);
+    assertEquals("target", assertThrows(SQLException.class, () -> handler.setParameters(null)).getMessage());
+  }
+
+  @Test
+  void shouldFallBackToNestedProxiesForCustomPluginMethods() throws Exception {
+    List<String> log = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new SetParametersInterceptor("first", log));
+    chain.addInterceptor(new CustomPluginInterceptor());
+    ParameterHandler handler = chain.pluginAll(new RecordingParameterHandler(log), ParameterHandler.class);
+    assertTrue(Proxy.isProxyClass(handler.getClass()));
+    handler.setParameters(null);
+    assertEquals("[first:set, target:set(null)]", log.toString());
+  }
+
+  @Test
+  void shouldRebuildTheDispatchTableWhenAnInterceptorIsAdded() throws Exception {
+    List<String> log = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    RecordingParameterHandler target = new RecordingParameterHandler(log);
+    chain.addInterceptor(new UnrelatedInterceptor());
+    assertSame(target, chain.pluginAll(target, ParameterHandler.class));
+    chain.addInterceptor(new SetParametersInterceptor("first", log));
+    chain.pluginAll(target, ParameterHandler.class).setParameters(null);
+    assertEquals("[first:set, target:set(null)]", log.toString());
+  }
+
+  @Test
+  void shouldApplyTheCompositeChainToExecutorsAndHandlers() {
+    Configuration configuration = new Configuration();
+    ExecutorInterceptor interceptor = new ExecutorInterceptor();
+    configuration.addInterceptor(interceptor);
+    Executor executor = configuration.newExecutor(new JdbcTransaction(null));
+    assertTrue(Proxy.isProxyClass(executor.getClass()));
+
+    configuration.setCompositePluginChainEnabled(true);
+    executor = configuration.newExecutor(new JdbcTransaction(null));
+    assertTrue(executor instanceof ExecutorPlugin);
+    assertFalse(executor.isClosed());
+    executor.close(false);
+    assertTrue(executor.isClosed());
+    assertEquals(2, interceptor.calls);
+  }
+
+  @Test
+  void shouldProvideMethodsForEveryPluginType() {
+    assertEquals(Executor.class.getMethods().length, ExecutorPlugin.METHODS.length);
+    assertEquals(StatementHandler.class.getMethods().length, StatementHandlerPlugin.METHODS.length);
+    assertEquals(ParameterHandler.class.getMethods().length, ParameterHandlerPlugin.METHODS.length);
+    assertEquals(ResultSetHandler.class.getMethods().length, ResultSetHandlerPlugin.METHODS.length);
+  }
+
+  @Benchmark
+  void benchmarkDispatch() throws Exception {
+    List<String> log = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    for (int i = 0; i < 4; i++) {
+      chain.addInterceptor(new GetParameterObjectInterceptor("interceptor" + i, log));
+    }
+    RecordingParameterHandler target = new RecordingParameterHandler(log);
+    Map<String, Benchmarks.Operation> variants = new LinkedHashMap<>();
+    variants.put("nested proxies", () -> dispatch((ParameterHandler) chain.pluginAll(target), log));
+    variants.put("composite", () -> dispatch(chain.pluginAll(target, ParameterHandler.class), log));
+    Benchmarks.compare("plugging and calling a handler", 200_000, variants);
+  }
+
+  private static void dispatch(ParameterHandler handler, List<String> log) throws SQLException {
+    handler.setParameters(null);
+    handler.getParameterObject();
+    log.clear();
+  }
+
+  private static List<String> record(boolean composite) throws SQLException {
+    List<String> log = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new SetParametersInterceptor("first", log));
+    chain.addInterceptor(new UnrelatedInterceptor());
+    chain.addInterceptor(new SetParametersInterceptor("second", log));
+    chain.addInterceptor(new GetParameterObjectInterceptor("second", log));
+    RecordingParameterHandler target = new RecordingParameterHandler(log);
+    ParameterHandler handler = composite ? chain.pluginAll(target, ParameterHandler.class)
+        : (ParameterHandler) chain.pluginAll(target);
+    handler.setParameters(new FakePreparedStatement().proxy);
+    handler.getParameterObject();
+    return log;
+  }
+
+  static class FakePreparedStatement {
+    final PreparedStatement proxy = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { PreparedStatement.class }, (p, m, a) -> "toString".equals(m.getName()) ? "ps" : null);
+  }
+
+  static class RecordingParameterHandler implements ParameterHandler {
+    private final List<String> log;
+    SQLException failure;
+
+    RecordingParameterHandler(List<String> log) {
+      this.log = log;
+    }
+
+    @Override
+    public Object getParameterObject() {
+      log.add("target:get");
+      return "parameter";
+    }
+
+    @Override
+    public void setParameters(PreparedStatement ps) throws SQLException {
+      if (failure != null) {
+        throw failure;
+      }
+      log.add("target:set(" + ps + ")");
+    }
+
+    @Override
+    public String toString() {
+      return "RecordingParameterHandler";
+    }
+  }
+
+  @Intercepts(@Signature(type = ParameterHandler.class, method = "setParameters", args = PreparedStatement.class))
+  static class SetParametersInterceptor implements Interceptor {
+    private final String name;
+    private final List<String> log;
+
+    SetParametersInterceptor(String name, List<String> log) {
+      this.name = name;
+      this.log = log;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      log.add(name + ":set");
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts(@Signature(type = ParameterHandler.class, method = "getParameterObject", args = {}))
+  static class GetParameterObjectInterceptor implements Interceptor {
+    private final String name;
+    private final List<String> log;
+
+    GetParameterObjectInterceptor(String name, List<String> log) {
+      this.name = name;
+      this.log = log;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      log.add(name + ":get");
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts(@Signature(type = ParameterHandler.class, method = "setParameters", args = PreparedStatement.class))
+  static class TargetCollectingInterceptor implements Interceptor {
+    private final List<Object> targets;
+
+    TargetCollectingInterceptor(List<Object> targets) {
+      this.targets = targets;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      targets.add(invocation.getTarget());
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = ParameterHandler.class, method = "setParameters", args = PreparedStatement.class),
+      @Signature(type = ParameterHandler.class, method = "getParameterObject", args = {}) })
+  static class ThrowingInterceptor implements Interceptor {
+    private final Exception exception;
+
+    ThrowingInterceptor(Exception exception) {
+      this.exception = exception;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      throw exception;
+    }
+  }
+
+  @Intercepts(@Signature(type = ResultSetHandler.class, method = "handleResultSets", args = java.sql.Statement.class))
+  static class UnrelatedInterceptor implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts(@Signature(type = ParameterHandler.class, method = "getParameterObject", args = {}))
+  static class CustomPluginInterceptor implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+  }
+
+  @Intercepts(@Signature(type = Executor.class, method = "isClosed", args = {}))
+  static class ExecutorInterceptor implements Interceptor {
+    int calls;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls++;
+      return invocation.proceed();
+    }
+  }
+
+}
@@ -0,0 +1,203 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.AsyncSqlSession;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class AsyncMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static ExecutorService asyncExecutor;
+  private static final AtomicInteger submittedTasks = new AtomicInteger();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create an SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/async_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    asyncExecutor = Executors.newFixedThreadPool(4);
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(task -> {
+      submittedTasks.incrementAndGet();
+      asyncExecutor.execute(task);
+    });
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/async_mapper/CreateDB.sql");
+  }
+
+  @AfterAll
+  static void tearDown() {
+    asyncExecutor.shutdown();
+  }
+
+  @Test
+  void shouldRunMapperMethodsOnTheAsyncExecutor() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      int tasks = submittedTasks.get();
+
+      CompletableFuture<User> user = mapper.getUser(1);
+      CompletableFuture<Optional<User>> missingUser = mapper.findUser(99);
+      CompletableFuture<List<User>> users = mapper.getUsers();
+      CompletableFuture<Map<Integer, User>> userMap = mapper.getUserMap();
+
+      assertThat(user.join().getName()).isEqualTo("User1");
+      assertThat(missingUser.join()).isEmpty();
+      assertThat(users.join()).extracting(User::getName).startsWith("User1", "User2", "User3");
+      assertThat(userMap.join().get(2).getName()).isEqualTo("User2");
+      assertThat(submittedTasks.get() - tasks).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void shouldCommitAsyncUpdates() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(100);
+      user.setName("Async");
+      assertThat(mapper.insertUser(user).join()).isEqualTo(1);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUser(100).join().getName()).isEqualTo("Async");
+    }
+  }
+
+  @Test
+  void shouldNotJoinTheTransactionOfTheCallingSession() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(101);
+      user.setName("Independent");
+      assertThat(mapper.insertUser(user).join()).isEqualTo(1);
+      sqlSession.rollback(true);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUser(101).join().getName()).isEqualTo("Independent");
+    }
+  }
+
+  @Test
+  void shouldCompleteExceptionallyWhenTheStatementFails() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<List<User>> users = mapper.getUsersFromMissingTable();
+      assertThatThrownBy(users::join).isInstanceOf(CompletionException.class)
+          .hasCauseInstanceOf(PersistenceException.class);
+    }
+  }
+
+  @Test
+  void shouldRunStatementsOnAnAsyncSession() {
+    AsyncSqlSession asyncSqlSession = sqlSessionFactory.openAsyncSession();
+    CompletableFuture<User> user = asyncSqlSession.selectOne("org.apache.ibatis.submitted.async_mapper.Mapper.getUser", 3);
+    CompletableFuture<Integer> count = asyncSqlSession
+        .execute(session -> session.getMapper(Mapper.class).countUsers().join());
+    assertThat(user.join().getName()).isEqualTo("User3");
+    assertThat(count.join()).isGreaterThanOrEqualTo(3);
+  }
+
+  @Test
+  void shouldRejectAsyncCursors() {
+    sqlSessionFactory.getConfiguration().addMapper(Mapper.CursorMapper.class);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper.CursorMapper mapper = sqlSession.getMapper(Mapper.CursorMapper.class);
+      assertThatThrownBy(mapper::getUsers).isInstanceOf(BindingException.class)
+          .hasMessageContaining("cannot return a Cursor asynchronously");
+    }
+  }
+
+  @Test
+  void shouldBoundTheDefaultAsyncExecutorByThePoolSize() {
+    PooledDataSource dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:async_mapper", "sa",
+        null);
+    dataSource.setPoolMaximumActiveConnections(3);
+    Configuration configuration = new Configuration(
+        new Environment("bounded", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(Mapper.class);
+    assertThat(configuration.getAsyncSqlSessionFactory()).isSameAs(configuration.getAsyncSqlSessionFactory());
+
+    List<CompletableFuture<User>> users = new ArrayList<>();
+    try (SqlSession sqlSession = new DefaultSqlSessionFactory(configuration).openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 50; i++) {
+        users.add(mapper.getUser(1));
+      }
+      users.forEach(user -> assertThat(user.join().getName()).isEqualTo("User1"));
+    }
+    // 50 个并发调用只使用与连接数相同的线程
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) configuration.getAsyncExecutor();
+    assertThat(executor).isSameAs(configuration.getAsyncExecutor());
+    assertThat(executor.getMaximumPoolSize()).isEqualTo(3);
+    assertThat(executor.getLargestPoolSize()).isLessThanOrEqualTo(3);
+    assertThat(executor.getQueue().remainingCapacity()).isEqualTo(1024);
+    assertThat(executor.getRejectedExecutionHandler()).isInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class);
+  }
+
+  @Test
+  void shouldRunNestedCallsOnThePoolThread() throws Exception {
+    PooledDataSource dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:async_mapper", "sa",
+        null);
+    dataSource.setPoolMaximumActiveConnections(1);
+    Configuration configuration = new Configuration(
+        new Environment("nested", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(Mapper.class);
+
+    // 线程池只有一个线程，嵌套调用如果排队等待就会死锁
+    CompletableFuture<String> name = configuration.getAsyncSqlSessionFactory().openAsyncSession()
+        .execute(session -> Thread.currentThread().getName() + " "
+            + session.getMapper(Mapper.class).getUser(1).thenApply(user -> Thread.currentThread().getName()).join());
+    String[] threads = name.get(5, TimeUnit.SECONDS).split(" ");
+    assertThat(threads[0]).startsWith("mybatis-async-").isEqualTo(threads[1]);
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchNestedSelectTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create an SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    sqlSessionFactory.getConfiguration().setNestedQueryBatchSize(100);
+    StatementCounter.executedSql.clear();
+  }
+
+  @Test
+  void shouldLoadEagerNestedSelectsWithOneQueryPerProperty() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.selectBlogs();
+      assertThat(StatementCounter.executedSql).hasSize(3);
+      assertBlogs(blogs);
+      assertThat(StatementCounter.executedSql).hasSize(3);
+    }
+  }
+
+  @Test
+  void shouldSplitKeysByNestedQueryBatchSize() {
+    sqlSessionFactory.getConfiguration().setNestedQueryBatchSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.selectBlogs();
+      // 2 authors in one batch, 3 blogs split into 2 batches
+      assertThat(StatementCounter.executedSql).hasSize(4);
+      assertBlogs(blogs);
+    }
+  }
+
+  @Test
+  void shouldLoadLazyNestedSelectsForAllParentsAtOnce() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.selectBlogsLazily();
+      assertThat(StatementCounter.executedSql).hasSize(1);
+      assertThat(blogs.get(0).getAuthor().getName()).isEqualTo("jim");
+      assertThat(StatementCounter.executedSql).hasSize(2);
+      assertThat(blogs.get(2).getAuthor().getName()).isEqualTo("sally");
+      assertThat(StatementCounter.executedSql).hasSize(2);
+      assertThat(blogs.get(1).getPosts()).hasSize(1);
+      assertThat(StatementCounter.executedSql).hasSize(3);
+      assertBlogs(blogs);
+      assertThat(StatementCounter.executedSql).hasSize(3);
+    }
+  }
+
+  @Test
+  void shouldLoadLazyNestedSelectsAfterSessionIsClosed() {
+    List<Blog> blogs;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      blogs = sqlSession.getMapper(Mapper.class).selectBlogsLazily();
+    }
+    assertBlogs(blogs);
+    assertThat(StatementCounter.executedSql).hasSize(3);
+  }
+
+  private void assertBlogs(List<Blog> blogs) {
+    assertThat(blogs).hasSize(3);
+    assertThat(blogs.get(0).getAuthor().getName()).isEqualTo("jim");
+    assertThat(blogs.get(1).getAuthor().getName()).isEqualTo("jim");
+    assertThat(blogs.get(2).getAuthor().getName()).isEqualTo("sally");
+    assertThat(blogs.get(0).getPosts()).extracting(Post::getSubject).containsExactly("post1", "post2");
+    assertThat(blogs.get(1).getPosts()).extracting(Post::getSubject).containsExactly("post3");
+    assertThat(blogs.get(2).getPosts()).isEmpty();
+  }
+
+}
@@ -0,0 +1,211 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.bulk_insert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.bulk.BulkInsert;
+import org.apache.ibatis.executor.bulk.BulkWriter;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkInsertTest {
+
+  private static final String INSERT_USER = Mapper.class.getName() + ".insertUser";
+  private static final String INSERT_USER_WITHOUT_KEY = Mapper.class.getName() + ".insertUserWithoutKey";
+  private static final String INSERT_USER_WITH_SELECT_KEY = Mapper.class.getName() + ".insertUserWithSelectKey";
+  private static final String INSERT_USER_WITH_DEFAULT_NOTE = Mapper.class.getName() + ".insertUserWithDefaultNote";
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final RecordingWriter writer = new RecordingWriter();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/bulk_insert/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addBulkWriter(writer);
+  }
+
+  @BeforeEach
+  void resetDatabase() throws Exception {
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/bulk_insert/CreateDB.sql");
+  }
+
+  @AfterEach
+  void disableWriter() {
+    writer.enabled = false;
+    writer.rows.clear();
+    writer.insert = null;
+  }
+
+  @Test
+  void shouldFallBackToMultiRowBatches() {
+    List<User> users = users(150);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      long rows = sqlSession.bulkInsert(INSERT_USER, users.stream());
+
+      assertThat(rows).isEqualTo(150);
+      assertThat(users).extracting(User::getId)
+          .containsExactlyElementsOf(IntStream.rangeClosed(1, 150).boxed().collect(Collectors.toList()));
+      List<User> loaded = sqlSession.getMapper(Mapper.class).getUsers();
+      assertThat(loaded).hasSize(150);
+      assertThat(loaded.get(1).getName()).isEqualTo("User1");
+      assertThat(loaded.get(1).getStatus()).isEqualTo(Status.BLOCKED);
+      assertThat(loaded.get(1).getNote()).isNull();
+      assertThat(loaded.get(2).getNote()).isEqualTo("Note2");
+    }
+  }
+
+  @Test
+  void shouldEncodeRowsWithTypeHandlersForRegisteredWriter() {
+    writer.enabled = true;
+    List<User> users = users(3);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      long rows = sqlSession.bulkInsert(INSERT_USER_WITHOUT_KEY, users.iterator());
+
+      assertThat(rows).isEqualTo(3);
+      assertThat(writer.insert.getTable()).isEqualTo("users");
+      assertThat(writer.insert.getColumns()).containsExactly("name", "status", "note");
+      assertThat(writer.rows).containsExactly(new Object[] { "User0", 0, "Note0" }, new Object[] { "User1", 1, null },
+          new Object[] { "User2", 0, "Note2" });
+      assertThat(users).extracting(User::getId).containsOnlyNulls();
+      assertThat(sqlSession.getMapper(Mapper.class).getUsers()).extracting(User::getName)
+          .containsExactly("User0", "User1", "User2");
+    }
+  }
+
+  @Test
+  void shouldNotUseWriterForGeneratedKeys() {
+    writer.enabled = true;
+    List<User> users = users(3);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      long rows = sqlSession.bulkInsert(INSERT_USER, users.iterator());
+
+      assertThat(rows).isEqualTo(3);
+      // 数据库原生的加载方式无法回填主键
+      assertThat(writer.insert).isNull();
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3);
+      assertThat(sqlSession.getMapper(Mapper.class).getUsers()).extracting(User::getId).containsExactly(1, 2, 3);
+    }
+  }
+
+  @Test
+  void shouldNotUseWriterForDynamicSql() {
+    writer.enabled = true;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      long rows = sqlSession.bulkInsert(INSERT_USER_WITH_DEFAULT_NOTE, users(5).stream());
+
+      assertThat(rows).isEqualTo(5);
+      assertThat(writer.insert).isNull();
+      assertThat(sqlSession.getMapper(Mapper.class).getUsers()).extracting(User::getNote)
+          .containsExactly("Note0", "none", "Note2", "none", "Note4");
+    }
+  }
+
+  @Test
+  void shouldNotUseWriterForSelectKeyBefore() {
+    writer.enabled = true;
+    List<User> users = users(3);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      long rows = sqlSession.bulkInsert(INSERT_USER_WITH_SELECT_KEY, users.iterator());
+
+      assertThat(rows).isEqualTo(3);
+      // 主键由 selectKey 在插入前生成，数据库原生的加载方式无法执行它
+      assertThat(writer.insert).isNull();
+      assertThat(users).extracting(User::getId).containsExactly(100, 101, 102);
+      assertThat(sqlSession.getMapper(Mapper.class).getUsers()).extracting(User::getId).containsExactly(100, 101, 102);
+    }
+  }
+
+  @Test
+  void shouldExecutePendingBatchBeforeLoading() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User first = new User("First", Status.ACTIVE, null);
+      mapper.insertUser(first);
+      sqlSession.bulkInsert(INSERT_USER, users(2).stream());
+
+      assertThat(first.getId()).isEqualTo(1);
+      assertThat(mapper.getUsers()).extracting(User::getName).containsExactly("First", "User0", "User1");
+    }
+  }
+
+  @Test
+  void shouldCloseTheStream() {
+    List<Boolean> closed = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.bulkInsert(INSERT_USER, users(2).stream().onClose(() -> closed.add(true)));
+    }
+    assertThat(closed).containsExactly(true);
+  }
+
+  private static List<User> users(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new User("User" + i, i % 2 == 0 ? Status.ACTIVE : Status.BLOCKED, i % 2 == 0 ? "Note" + i : null))
+        .collect(Collectors.toList());
+  }
+
+  static class RecordingWriter implements BulkWriter {
+
+    private volatile boolean enabled;
+    private BulkInsert insert;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @Override
+    public boolean supports(Connection connection) {
+      return enabled;
+    }
+
+    @Override
+    public long write(Connection connection, BulkInsert insert, Iterator<Object[]> rows) throws SQLException {
+      this.insert = insert;
+      String sql = "insert into " + insert.getTable() + " (" + String.join(", ", insert.getColumns())
+          + ") values (?, ?, ?)";
+      try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        while (rows.hasNext()) {
+          Object[] values = rows.next();
+          this.rows.add(values);
+          for (int i = 0; i < values.length; i++) {
+            ps.setObject(i + 1, values[i]);
+          }
+          ps.addBatch();
+        }
+        return ps.executeBatch().length;
+      }
+    }
+  }
+
+}
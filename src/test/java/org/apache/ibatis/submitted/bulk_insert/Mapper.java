@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.bulk_insert;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.SelectKey;
+import org.apache.ibatis.type.EnumOrdinalTypeHandler;
+
+public interface Mapper {
+
+  @Insert("insert into users (name, status, note) values (#{name}, #{status,typeHandler=org.apache.ibatis.type.EnumOrdinalTypeHandler}, #{note})")
+  @Options(useGeneratedKeys = true, keyProperty = "id")
+  int insertUser(User user);
+
+  @Insert("insert into users (name, status, note) values (#{name}, #{status,typeHandler=org.apache.ibatis.type.EnumOrdinalTypeHandler}, #{note})")
+  int insertUserWithoutKey(User user);
+
+  @Insert("insert into users (id, name, status, note) values (#{id}, #{name}, #{status,typeHandler=org.apache.ibatis.type.EnumOrdinalTypeHandler}, #{note})")
+  @SelectKey(statement = "call next value for user_seq", keyProperty = "id", before = true, resultType = Integer.class)
+  int insertUserWithSelectKey(User user);
+
+  @Insert({ "<script>",
+      "insert into users (name, status, note) values (#{name}, #{status,typeHandler=org.apache.ibatis.type.EnumOrdinalTypeHandler},",
+      "<choose><when test='note != null'>#{note}</when><otherwise>'none'</otherwise></choose>)",
+      "</script>" })
+  int insertUserWithDefaultNote(User user);
+
+  @Select("select * from users order by id")
+  @Result(property = "status", column = "status", typeHandler = EnumOrdinalTypeHandler.class)
+  List<User> getUsers();
+
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.bulk_insert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.testcontainers.PgContainer;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("TestcontainersTests")
+class PostgresBulkInsertTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    Configuration configuration = new Configuration();
+    Environment environment = new Environment("development", new JdbcTransactionFactory(),
+        PgContainer.getUnpooledDataSource());
+    configuration.setEnvironment(environment);
+    configuration.addMapper(Mapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+    try (Connection connection = environment.getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("drop table if exists users");
+      statement.execute("create table users (id serial primary key, name varchar(30), status int, note varchar(30))");
+    }
+  }
+
+  @Test
+  void shouldLoadRowsWithCopy() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      long rows = sqlSession.bulkInsert(Mapper.class.getName() + ".insertUserWithoutKey",
+          IntStream.range(0, 1000).mapToObj(i -> new User("User\t" + i, Status.values()[i % 2], i % 3 == 0 ? null : "a\\b")));
+      assertThat(rows).isEqualTo(1000);
+
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers();
+      assertThat(users).hasSize(1000);
+      assertThat(users.get(1).getName()).isEqualTo("User\t1");
+      assertThat(users.get(1).getStatus()).isEqualTo(Status.BLOCKED);
+      assertThat(users.get(0).getNote()).isNull();
+      assertThat(users.get(1).getNote()).isEqualTo("a\\b");
+      sqlSession.commit();
+    }
+  }
+
+}
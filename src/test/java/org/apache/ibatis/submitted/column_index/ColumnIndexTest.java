@@ -0,0 +1,168 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.column_index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.Benchmark;
+import org.apache.ibatis.Benchmarks;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ColumnIndexTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/column_index/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+  }
+
+  @BeforeEach
+  void resetDatabase() throws Exception {
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/column_index/CreateDB.sql");
+    RecordingStringTypeHandler.reset();
+  }
+
+  @AfterEach
+  void restoreSettings() {
+    sqlSessionFactory.getConfiguration().setUseColumnIndex(true);
+    sqlSessionFactory.getConfiguration().setUseColumnLabel(true);
+  }
+
+  @Test
+  void shouldReadPropertyMappingsAndAutoMappingsByIndex() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersWithFriends();
+
+      assertUsersWithFriends(users);
+      assertThat(RecordingStringTypeHandler.byLabel).hasValue(0);
+      // name and friend_name of three rows
+      assertThat(RecordingStringTypeHandler.byIndex).hasValue(6);
+    }
+  }
+
+  @Test
+  void shouldReadByLabelWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setUseColumnIndex(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersWithFriends();
+
+      assertUsersWithFriends(users);
+      assertThat(RecordingStringTypeHandler.byLabel).hasValue(6);
+      assertThat(RecordingStringTypeHandler.byIndex).hasValue(0);
+    }
+  }
+
+  @Test
+  void shouldReadByLabelWhenColumnNamesAreUsed() {
+    sqlSessionFactory.getConfiguration().setUseColumnLabel(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers();
+
+      assertThat(users).extracting(User::getName).containsExactly("User1", "User2", "User3");
+      assertThat(RecordingStringTypeHandler.byIndex).hasValue(0);
+    }
+  }
+
+  @Test
+  void shouldResolveIndexesForEachColumnOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers();
+      List<User> reversed = mapper.getUsersInReverseColumnOrder();
+
+      assertThat(users).extracting(User::getId, User::getName, User::getScore)
+          .containsExactly(tuple(1, "User1", 10), tuple(2, "User2", 20), tuple(3, "User3", null));
+      assertThat(reversed).extracting(User::getId, User::getName, User::getScore)
+          .containsExactly(tuple(1, "User1", 10), tuple(2, "User2", 20), tuple(3, "User3", null));
+    }
+  }
+
+  @Test
+  void shouldReadTheFirstOfDuplicateColumnsLikeTheDriver() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> byIndex = sqlSession.getMapper(Mapper.class).getUsersWithDuplicateColumn();
+      sqlSessionFactory.getConfiguration().setUseColumnIndex(false);
+      sqlSession.clearCache();
+      List<User> byLabel = sqlSession.getMapper(Mapper.class).getUsersWithDuplicateColumn();
+
+      assertThat(byIndex).extracting(User::getName).containsExactly("Shadow1", "Shadow2", "Shadow3");
+      assertThat(byLabel).extracting(User::getName).containsExactly("Shadow1", "Shadow2", "Shadow3");
+    }
+  }
+
+  /**
+   * Compares the mapping cost of label and index access, per query of 100,000 rows.
+   */
+  @Benchmark
+  void benchmarkColumnAccess() throws Exception {
+    int rows = 100_000;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Connection connection = sqlSession.getConnection();
+      try (PreparedStatement ps = connection.prepareStatement("insert into users (id, name, score) values (?, ?, ?)")) {
+        for (int i = 100; i < 100 + rows; i++) {
+          ps.setInt(1, i);
+          ps.setString(2, "User" + i);
+          ps.setInt(3, i % 100);
+          ps.addBatch();
+        }
+        ps.executeBatch();
+      }
+      sqlSession.commit();
+    }
+    Map<String, Benchmarks.Operation> variants = new LinkedHashMap<>();
+    variants.put("label", () -> mapRows(false, rows));
+    variants.put("index", () -> mapRows(true, rows));
+    Benchmarks.compare("mapping " + rows + " rows", 1, variants);
+  }
+
+  private static void mapRows(boolean useColumnIndex, int rows) {
+    sqlSessionFactory.getConfiguration().setUseColumnIndex(useColumnIndex);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUsersByRange(100, 100 + rows)).hasSize(rows);
+    }
+  }
+
+  private static void assertUsersWithFriends(List<User> users) {
+    assertThat(users).extracting(User::getId, User::getName, User::getScore)
+        .containsExactly(tuple(1, "User1", 10), tuple(2, "User2", 20), tuple(3, "User3", null));
+    assertThat(users.get(0).getFriend()).extracting(User::getId, User::getName, User::getScore)
+        .containsExactly(2, "User2", 20);
+    assertThat(users.get(1).getFriend()).isNull();
+    assertThat(users.get(2).getFriend()).extracting(User::getId, User::getName, User::getScore)
+        .containsExactly(1, "User1", 10);
+  }
+
+}
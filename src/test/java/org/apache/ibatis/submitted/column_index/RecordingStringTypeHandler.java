@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.column_index;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.type.StringTypeHandler;
+
+public class RecordingStringTypeHandler extends StringTypeHandler {
+
+  static final AtomicInteger byLabel = new AtomicInteger();
+  static final AtomicInteger byIndex = new AtomicInteger();
+
+  static void reset() {
+    byLabel.set(0);
+    byIndex.set(0);
+  }
+
+  @Override
+  public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+    byLabel.incrementAndGet();
+    return super.getNullableResult(rs, columnName);
+  }
+
+  @Override
+  public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+    byIndex.incrementAndGet();
+    return super.getNullableResult(rs, columnIndex);
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_simple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.CursorRowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PrefetchingCursorTest {
+
+  private static final String GET_ALL_USERS = "org.apache.ibatis.submitted.cursor_simple.Mapper.getAllUsers";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_simple/CreateDB.sql");
+  }
+
+  @Test
+  void shouldPrefetchAllUsers() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = sqlSession.selectCursor(GET_ALL_USERS, null, new CursorRowBounds(2, 2));
+      assertThat(cursor).isInstanceOf(PrefetchingCursor.class);
+      assertThat(cursor.isOpen()).isFalse();
+      assertThat(cursor.getCurrentIndex()).isEqualTo(-1);
+
+      List<String> names = new ArrayList<>();
+      Iterator<User> iterator = cursor.iterator();
+      assertThat(iterator.hasNext()).isTrue();
+      assertThat(cursor.isOpen()).isTrue();
+      while (iterator.hasNext()) {
+        names.add(iterator.next().getName());
+      }
+
+      assertThat(names).containsExactly("User1", "User2", "User3", "User4", "User5");
+      assertThat(cursor.getCurrentIndex()).isEqualTo(4);
+      assertThat(cursor.isConsumed()).isTrue();
+      assertThat(cursor.isOpen()).isFalse();
+    }
+  }
+
+  @Test
+  void shouldApplyOffsetAndLimit() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = sqlSession.selectCursor(GET_ALL_USERS, null, new CursorRowBounds(1, 2, 1, 1));
+      List<String> names = new ArrayList<>();
+      cursor.forEach(user -> names.add(user.getName()));
+      assertThat(names).containsExactly("User2", "User3");
+      assertThat(cursor.getCurrentIndex()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldPrefetchNullRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = new ArrayList<>();
+      mapper.getNullUsers(new CursorRowBounds(null, 2)).forEach(users::add);
+      assertThat(users).hasSize(4);
+      assertThat(users.get(1).getId()).isEqualTo(99);
+    }
+  }
+
+  @Test
+  void shouldStopPrefetchingWhenClosed() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = sqlSession.selectCursor(GET_ALL_USERS, null, new CursorRowBounds(null, 1));
+      Iterator<User> iterator = cursor.iterator();
+      assertThat(iterator.next().getName()).isEqualTo("User1");
+
+      cursor.close();
+      assertThat(cursor.isOpen()).isFalse();
+      assertThat(cursor.isConsumed()).isFalse();
+      assertThat(iterator.hasNext()).isFalse();
+
+      // the connection can be used again once the cursor is closed
+      List<User> users = sqlSession.selectList(GET_ALL_USERS);
+      assertThat(users).hasSize(5);
+    }
+  }
+
+  @Test
+  void shouldCloseTheCursorWithTheStream() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = sqlSession.selectCursor(GET_ALL_USERS, null, new CursorRowBounds(null, 2));
+      List<String> names;
+      try (Stream<User> stream = cursor.stream()) {
+        names = stream.limit(3).map(User::getName).collect(Collectors.toList());
+      }
+      assertThat(names).containsExactly("User1", "User2", "User3");
+      assertThat(cursor.isOpen()).isFalse();
+      assertThat(cursor.isConsumed()).isFalse();
+    }
+  }
+
+  @Test
+  void shouldStopPrefetchingWhenTheSessionCloses() {
+    Cursor<User> cursor;
+    Iterator<User> iterator;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      cursor = sqlSession.selectCursor(GET_ALL_USERS, null, new CursorRowBounds(null, 1));
+      iterator = cursor.iterator();
+      assertThat(iterator.next().getName()).isEqualTo("User1");
+    }
+    assertThat(cursor.isOpen()).isFalse();
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test
+  void shouldStopTheProducerOfADroppedCursor() throws Exception {
+    EndlessCursor source = new EndlessCursor();
+    Iterator<Integer> iterator = new PrefetchingCursor<>(source, 1).iterator();
+    assertThat(iterator.next()).isZero();
+    // 游标被丢弃（没有关闭也没有读完），被回收之后生产者关闭底层游标
+    iterator = null;
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!source.closed && System.nanoTime() < deadline) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertThat(source.closed).isTrue();
+  }
+
+  @Test
+  void shouldWakeAConsumerWaitingWhenClosedFromAnotherThread() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      BlockingCursor source = new BlockingCursor();
+      PrefetchingCursor<Integer> cursor = new PrefetchingCursor<>(source, 1);
+      Iterator<Integer> iterator = cursor.iterator();
+      FutureTask<Boolean> consumer = new FutureTask<>(iterator::hasNext);
+      Thread consumerThread = new Thread(consumer);
+      consumerThread.start();
+      awaitWaiting(consumerThread);
+
+      Thread closer = new Thread(cursor::close);
+      closer.start();
+      awaitWaiting(closer);
+      source.release.countDown();
+
+      assertThat(consumer.get(5, TimeUnit.SECONDS)).isFalse();
+      closer.join(TimeUnit.SECONDS.toMillis(5));
+      assertThat(closer.isAlive()).isFalse();
+      assertThat(cursor.isOpen()).isFalse();
+      assertThat(cursor.isConsumed()).isFalse();
+      assertThat(source.closed).isTrue();
+    }
+  }
+
+  private static void awaitWaiting(Thread thread) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING
+        && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+  }
+
+  /**
+   * A cursor whose first row never arrives, and which reports its end once released.
+   */
+  private static class BlockingCursor implements Cursor<Integer> {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean closed;
+
+    @Override
+    public boolean isOpen() {
+      return !closed;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return false;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return -1;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<Integer>() {
+        @Override
+        public boolean hasNext() {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return false;
+        }
+
+        @Override
+        public Integer next() {
+          throw new NoSuchElementException();
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private static class EndlessCursor implements Cursor<Integer> {
+
+    private volatile boolean closed;
+
+    @Override
+    public boolean isOpen() {
+      return !closed;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return false;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return -1;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<Integer>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return !closed;
+        }
+
+        @Override
+        public Integer next() {
+          return next++;
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+}
@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_simple;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.RowBounds;
+
+public interface StreamMapper {
+
+  @Select("select * from users order by id")
+  Stream<User> getAllUsers();
+
+  @Select("select * from users order by id")
+  Stream<User> getUsers(RowBounds rowBounds);
+
+  @Select("select id from users order by id")
+  IntStream getIds();
+
+  @Select("select id from users order by id")
+  LongStream getLongIds();
+
+  @Select("select cast(null as int) from users")
+  IntStream getNullIds();
+
+  @Select("select * from users order by id")
+  CompletableFuture<Stream<User>> getAllUsersAsync();
+
+}
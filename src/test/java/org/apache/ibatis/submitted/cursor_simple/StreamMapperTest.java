@@ -0,0 +1,158 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_simple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StreamMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final List<Cursor<?>> openedCursors = new ArrayList<>();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addMapper(StreamMapper.class);
+    sqlSessionFactory.getConfiguration().addInterceptor(new CursorRecorder());
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_simple/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void clearCursors() {
+    openedCursors.clear();
+  }
+
+  @Test
+  void shouldStreamAllUsers() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StreamMapper mapper = sqlSession.getMapper(StreamMapper.class);
+      try (Stream<User> users = mapper.getAllUsers()) {
+        assertThat(users.map(User::getName)).containsExactly("User1", "User2", "User3", "User4", "User5");
+      }
+    }
+  }
+
+  @Test
+  void shouldCloseCursorWhenStreamIsClosed() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StreamMapper mapper = sqlSession.getMapper(StreamMapper.class);
+      Stream<User> users = mapper.getAllUsers();
+      Iterator<User> iterator = users.iterator();
+      assertThat(iterator.next().getName()).isEqualTo("User1");
+      Cursor<?> cursor = openedCursors.get(0);
+      assertThat(cursor.isOpen()).isTrue();
+
+      users.close();
+      assertThat(cursor.isOpen()).isFalse();
+      assertThat(cursor.isConsumed()).isFalse();
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StreamMapper mapper = sqlSession.getMapper(StreamMapper.class);
+      try (Stream<User> users = mapper.getUsers(new RowBounds(1, 2))) {
+        assertThat(users.map(User::getName)).containsExactly("User2", "User3");
+      }
+    }
+  }
+
+  @Test
+  void shouldStreamPrimitiveColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StreamMapper mapper = sqlSession.getMapper(StreamMapper.class);
+      try (IntStream ids = mapper.getIds()) {
+        assertThat(ids.toArray()).containsExactly(1, 2, 3, 4, 5);
+      }
+      assertThat(mapper.getLongIds().sum()).isEqualTo(15L);
+      assertThat(openedCursors).hasSize(2).noneMatch(Cursor::isOpen);
+    }
+  }
+
+  @Test
+  void shouldKeepOrderInParallelStream() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StreamMapper mapper = sqlSession.getMapper(StreamMapper.class);
+      try (Stream<User> users = mapper.getAllUsers().parallel()) {
+        assertThat(users.map(User::getName).collect(Collectors.toList()))
+            .containsExactly("User1", "User2", "User3", "User4", "User5");
+      }
+    }
+  }
+
+  @Test
+  void shouldRejectNullValuesInPrimitiveStream() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StreamMapper mapper = sqlSession.getMapper(StreamMapper.class);
+      try (IntStream values = mapper.getNullIds()) {
+        assertThatThrownBy(values::sum).isInstanceOf(BindingException.class)
+            .hasMessageContaining("cannot return null as an element of a IntStream");
+      }
+    }
+  }
+
+  @Test
+  void shouldRejectAsyncStream() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StreamMapper mapper = sqlSession.getMapper(StreamMapper.class);
+      assertThatThrownBy(mapper::getAllUsersAsync).isInstanceOf(BindingException.class)
+          .hasMessageContaining("cannot return a Stream asynchronously");
+    }
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "queryCursor", args = Statement.class))
+  public static class CursorRecorder implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      Cursor<?> cursor = (Cursor<?>) invocation.proceed();
+      openedCursors.add(cursor);
+      return cursor;
+    }
+  }
+
+}
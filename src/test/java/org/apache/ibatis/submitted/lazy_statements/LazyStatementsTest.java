@@ -0,0 +1,178 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.lazy_statements;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.DeferredStatement;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LazyStatementsTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.lazy_statements.Mapper";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/lazy_statements/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/lazy_statements/CreateDB.sql");
+  }
+
+  @Test
+  void shouldCompileStatementsOnFirstUse() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    assertThat(configuration.isLazyStatementCompilationEnabled()).isTrue();
+    assertThat(deferredIds(configuration)).containsExactlyInAnyOrder(NAMESPACE + ".getUser",
+        NAMESPACE + ".getUsers", NAMESPACE + ".countUsers", NAMESPACE + ".insertUser");
+    assertThat(configuration.hasStatement(NAMESPACE + ".getUser")).isTrue();
+    assertThat(configuration.getMappedStatementNames()).contains(NAMESPACE + ".getUsers", "getUsers");
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User user = sqlSession.getMapper(Mapper.class).getUser(1);
+      assertThat(user.getName()).isEqualTo("User1");
+      // short names resolve the deferred statements as well
+      List<User> users = sqlSession.selectList("getUsers");
+      assertThat(users).extracting(User::getName).containsExactly("User1", "User2");
+    }
+    assertThat(deferredIds(configuration)).containsExactlyInAnyOrder(NAMESPACE + ".countUsers",
+        NAMESPACE + ".insertUser");
+  }
+
+  @Test
+  void shouldCompileTheSelectKeyWithItsStatement() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    MappedStatement selectKey = configuration.getMappedStatement(NAMESPACE + ".insertUser!selectKey");
+    assertThat(selectKey.getId()).isEqualTo(NAMESPACE + ".insertUser!selectKey");
+    assertThat(configuration.getDeferredStatement(NAMESPACE + ".insertUser")).isNull();
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User user = new User("User10");
+      assertThat(sqlSession.getMapper(Mapper.class).insertUser(user)).isEqualTo(1);
+      assertThat(user.getId()).isEqualTo(10);
+      assertThat(sqlSession.getMapper(Mapper.class).getUser(10).getName()).isEqualTo("User10");
+    }
+  }
+
+  @Test
+  void shouldCompileAStatementOnlyOnce() throws Exception {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<MappedStatement>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return configuration.getMappedStatement(NAMESPACE + ".getUsers");
+        }));
+      }
+      start.countDown();
+      MappedStatement first = futures.get(0).get();
+      for (Future<MappedStatement> future : futures) {
+        assertThat(future.get()).isSameAs(first);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(configuration.getDeferredStatement(NAMESPACE + ".getUsers")).isNull();
+  }
+
+  @Test
+  void shouldPreferTheStatementOfTheCurrentDatabase() throws Exception {
+    Configuration configuration = new Configuration(sqlSessionFactory.getConfiguration().getEnvironment());
+    configuration.setLazyStatementCompilationEnabled(true);
+    configuration.setDatabaseId("hsql");
+    configuration.addMapper(Mapper.class);
+
+    assertThat(configuration.getDeferredStatement(NAMESPACE + ".countUsers").getDatabaseId()).isEqualTo("hsql");
+    try (SqlSession sqlSession = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).countUsers()).isEqualTo(1002);
+    }
+  }
+
+  @Test
+  void shouldReportBrokenReferencesWithoutCompiling() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementCompilationEnabled(true);
+    String resource = "org/apache/ibatis/submitted/lazy_statements/BrokenMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments()).parse();
+    }
+
+    CompletableFuture<List<String>> validation = configuration.validateDeferredStatementsAsync();
+    assertThat(validation.get()).containsExactlyInAnyOrder(
+        "The statement 'broken.unknownResultMap' of '" + resource
+            + "' references an unknown result map 'broken.missingResult'.",
+        "The statement 'broken.unknownType' of '" + resource
+            + "' references an unknown type 'org.apache.ibatis.submitted.lazy_statements.Missing'.",
+        "The statement 'broken.unknownFragment' of '" + resource
+            + "' references an unknown SQL fragment 'broken.missingColumns'.");
+    assertThat(deferredIds(configuration)).hasSize(4);
+
+    assertThat(configuration.getMappedStatement("broken.valid").getId()).isEqualTo("broken.valid");
+    assertThatThrownBy(() -> configuration.getMappedStatement("broken.unknownType"))
+        .isInstanceOf(BuilderException.class)
+        .hasMessageContaining("Error compiling the statement 'broken.unknownType' of '" + resource + "'");
+    // a statement that could not be compiled stays deferred
+    assertThat(configuration.getDeferredStatement("broken.unknownType")).isNotNull();
+  }
+
+  @Test
+  void shouldRejectDuplicateStatements() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementCompilationEnabled(true);
+    String resource = "org/apache/ibatis/submitted/lazy_statements/DuplicateMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, resource,
+          configuration.getSqlFragments());
+      assertThatThrownBy(builder::parse).isInstanceOf(BuilderException.class)
+          .hasMessageContaining("Mapped Statements collection already contains value for duplicate.select");
+    }
+  }
+
+  private static List<String> deferredIds(Configuration configuration) {
+    return configuration.getDeferredStatements().stream().map(DeferredStatement::getId).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,179 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.multi_row_insert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  private static final String INSERT_1 = "insert into users (name) values (?)";
+  private static final String INSERT_2 = "insert into users (name) values (?), (?)";
+  private static final String INSERT_4 = "insert into users (name) values (?), (?), (?), (?)";
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final List<String> preparedSql = new ArrayList<>();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/multi_row_insert/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(new PrepareRecorder());
+  }
+
+  @BeforeEach
+  void resetDatabase() throws Exception {
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/multi_row_insert/CreateDB.sql");
+    preparedSql.clear();
+  }
+
+  @AfterEach
+  void restoreMultiRowInsertSize() {
+    sqlSessionFactory.getConfiguration().setMultiRowInsertSize(4);
+  }
+
+  @Test
+  void shouldInsertFullChunksAndTailWithStableSql() {
+    List<User> users = users(11);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      users.forEach(mapper::insertUser);
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      // 11 = 4 + 4 + 2 + 1
+      assertThat(preparedSql).containsExactly(INSERT_4, INSERT_2, INSERT_1);
+      assertThat(results).extracting(BatchResult::getSql).containsExactly(INSERT_4, INSERT_2, INSERT_1);
+      assertThat(results.get(0).getParameterObjects()).containsExactlyElementsOf(users.subList(0, 8));
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1, 1, 1, 1, 1, 1, 1);
+      assertThat(results.get(1).getUpdateCounts()).containsExactly(1, 1);
+      assertThat(results.get(2).getUpdateCounts()).containsExactly(1);
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+
+      assertThat(mapper.getUsers()).extracting(User::getName)
+          .containsExactlyElementsOf(users.stream().map(User::getName).collect(Collectors.toList()));
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldKeepTheOrderOfInterleavedStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = users(5);
+      users.subList(0, 3).forEach(mapper::insertUser);
+      User renamed = new User("Renamed");
+      renamed.setId(3);
+      mapper.updateUser(renamed);
+      users.subList(3, 5).forEach(mapper::insertUser);
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).extracting(BatchResult::getSql)
+          .containsExactly(INSERT_2, INSERT_1, "update users set name = ? where id = ?", INSERT_2);
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3, 4, 5);
+      assertThat(mapper.getUsers()).extracting(User::getName)
+          .containsExactly("User0", "User1", "Renamed", "User3", "User4");
+    }
+  }
+
+  @Test
+  void shouldFlushPendingRowsBeforeSelect() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      users(6).forEach(mapper::insertUser);
+      assertThat(mapper.getUsers()).hasSize(6);
+      assertThat(preparedSql).startsWith(INSERT_4, INSERT_2);
+    }
+  }
+
+  @Test
+  void shouldNotRewriteInsertsWithoutTrailingValuesGroup() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      users(5).forEach(mapper::insertUserFromSelect);
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).hasSize(1);
+      assertThat(results.get(0).getSql()).isEqualTo("insert into users (name) select ? from (values (0))");
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1, 1, 1, 1);
+      assertThat(mapper.getUsers()).hasSize(5);
+    }
+  }
+
+  @Test
+  void shouldSendOneRowPerStatementWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setMultiRowInsertSize(0);
+    List<User> users = users(5);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      users.forEach(mapper::insertUser);
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(preparedSql).containsExactly(INSERT_1);
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1, 1, 1, 1);
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3, 4, 5);
+    }
+  }
+
+  @Test
+  void shouldDiscardPendingRowsOnRollback() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      users(3).forEach(mapper::insertUser);
+      sqlSession.rollback();
+      assertThat(mapper.getUsers()).isEmpty();
+    }
+  }
+
+  private static List<User> users(int count) {
+    return IntStream.range(0, count).mapToObj(i -> new User("User" + i)).collect(Collectors.toList());
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class, Integer.class }))
+  public static class PrepareRecorder implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      StatementHandler handler = (StatementHandler) invocation.getTarget();
+      preparedSql.add(handler.getBoundSql().getSql());
+      return invocation.proceed();
+    }
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.primitive_results;
+
+import org.apache.ibatis.annotations.MapKey;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.util.LongKeyedMap;
+
+public interface Mapper {
+
+  @Select("select id from users order by name")
+  long[] getIds();
+
+  @Select("select score from users where score is not null order by name")
+  int[] getScores(RowBounds rowBounds);
+
+  @Select("select score from users order by name")
+  int[] getAllScores();
+
+  @Select("select * from users order by name")
+  @MapKey("id")
+  LongKeyedMap<User> getUsersById();
+
+  @Select("select * from users order by name")
+  LongKeyedMap<User> getUsersWithoutKey();
+
+}
@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.primitive_results;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.LongKeyedMapResultHandler;
+import org.apache.ibatis.executor.result.PrimitiveArrayResultHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.util.LongKeyedMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PrimitiveResultsTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/primitive_results/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/primitive_results/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReturnLongArray() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getIds()).containsExactly(3000000000L, 2L, 3L, 4L);
+    }
+  }
+
+  @Test
+  void shouldReturnIntArrayWithinRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getScores(new RowBounds(1, 1))).containsExactly(30);
+      assertThat(mapper.getScores(RowBounds.DEFAULT)).containsExactly(10, 30, 40);
+    }
+  }
+
+  @Test
+  void shouldRejectNullInPrimitiveArray() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(mapper::getAllScores).isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("Row 2 has a null value, which cannot be stored in a int[]");
+    }
+  }
+
+  @Test
+  void shouldReturnLongKeyedMap() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      LongKeyedMap<User> users = mapper.getUsersById();
+      assertThat(users).hasSize(4);
+      assertThat(users.get(3000000000L).getName()).isEqualTo("User1");
+      assertThat(users.get(2L).getScore()).isNull();
+      assertThat(users.containsKey(5L)).isFalse();
+      assertThat(users.keyArray()).containsExactlyInAnyOrder(3000000000L, 2L, 3L, 4L);
+    }
+  }
+
+  @Test
+  void shouldRequireMapKeyForLongKeyedMap() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(mapper::getUsersWithoutKey).isInstanceOf(BindingException.class)
+          .hasMessageContaining("must name its key column with @MapKey");
+    }
+  }
+
+  @Test
+  void shouldReadNamedColumnsWithResultHandlers() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PrimitiveArrayResultHandler ids = new PrimitiveArrayResultHandler(long.class, "id");
+      sqlSession.select(Mapper.class.getName() + ".getUsersById", ids);
+      assertThat(ids.toLongArray()).containsExactly(3000000000L, 2L, 3L, 4L);
+      assertThatThrownBy(ids::toIntArray).isInstanceOf(ExecutorException.class)
+          .hasMessage("Row 1 has the value 3000000000, which cannot be stored in a int[].");
+
+      PrimitiveArrayResultHandler intIds = new PrimitiveArrayResultHandler(int.class, "id");
+      assertThatThrownBy(() -> sqlSession.select(Mapper.class.getName() + ".getUsersById", intIds))
+          .isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("Row 1 has the value 3000000000, which cannot be stored in a int[].");
+
+      // 多次查询累积到同一个 handler，超出初始容量后继续增长
+      PrimitiveArrayResultHandler scores = new PrimitiveArrayResultHandler(int.class, "score");
+      for (int i = 0; i < 10; i++) {
+        sqlSession.select(Mapper.class.getName() + ".getScores", scores);
+      }
+      assertThat(scores.size()).isEqualTo(30);
+      assertThat((int[]) scores.toArray()).hasSize(30).startsWith(10, 30, 40, 10).endsWith(40);
+      assertThat(scores.toLongArray()).hasSize(30).startsWith(10L, 30L, 40L, 10L).endsWith(40L);
+
+      LongKeyedMapResultHandler<User> byScore = new LongKeyedMapResultHandler<>("score");
+      sqlSession.select(Mapper.class.getName() + ".getScores", null, new RowBounds(0, 2), byScore);
+      assertThat(byScore.getMappedResults().keyArray()).containsExactlyInAnyOrder(10L, 30L);
+    }
+  }
+
+}
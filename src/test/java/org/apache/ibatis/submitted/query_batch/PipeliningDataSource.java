@@ -0,0 +1,161 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.query_batch;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * Emulates a driver that accepts several statements, separated by semicolons, in one prepared statement. HSQLDB does
+ * not, so the statements are executed one after the other behind a single prepared statement.
+ */
+public class PipeliningDataSource implements DataSource {
+
+  private final DataSource delegate;
+  private final List<String> preparedSql = new ArrayList<>();
+
+  public PipeliningDataSource(DataSource delegate) {
+    this.delegate = delegate;
+  }
+
+  public List<String> getPreparedSql() {
+    return preparedSql;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    Connection connection = delegate.getConnection();
+    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] { Connection.class },
+        (proxy, method, args) -> {
+          if (method.getName().equals("prepareStatement")) {
+            String sql = (String) args[0];
+            preparedSql.add(sql);
+            String[] parts = sql.split(";\n");
+            if (parts.length > 1) {
+              return multiStatement((Connection) proxy, connection, parts);
+            }
+          }
+          return invoke(method, connection, args);
+        });
+  }
+
+  private PreparedStatement multiStatement(Connection proxy, Connection connection, String[] sqls)
+      throws SQLException {
+    List<PreparedStatement> parts = new ArrayList<>();
+    List<Integer> firstIndexes = new ArrayList<>();
+    int parameters = 0;
+    for (String sql : sqls) {
+      parts.add(connection.prepareStatement(sql));
+      firstIndexes.add(parameters + 1);
+      parameters += sql.length() - sql.replace("?", "").length();
+    }
+    int[] current = new int[1];
+    return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class[] { PreparedStatement.class }, (p, method, args) -> {
+          String name = method.getName();
+          if (method.getDeclaringClass() == PreparedStatement.class && name.startsWith("set") && args.length > 1) {
+            int index = (Integer) args[0];
+            int part = firstIndexes.size() - 1;
+            while (firstIndexes.get(part) > index) {
+              part--;
+            }
+            args[0] = index - firstIndexes.get(part) + 1;
+            return invoke(method, parts.get(part), args);
+          }
+          switch (name) {
+            case "execute":
+              for (PreparedStatement part : parts) {
+                part.execute();
+              }
+              return true;
+            case "getResultSet":
+              return current[0] < parts.size() ? parts.get(current[0]).getResultSet() : null;
+            case "getMoreResults":
+              current[0]++;
+              return current[0] < parts.size();
+            case "getUpdateCount":
+              return -1;
+            case "getConnection":
+              return proxy;
+            default:
+              Object result = null;
+              for (PreparedStatement part : parts) {
+                result = invoke(method, part, args);
+              }
+              return result;
+          }
+        });
+  }
+
+  private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() {
+    return Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    throw new SQLException("Not a wrapper");
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) {
+    return false;
+  }
+
+}
@@ -0,0 +1,214 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.query_batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.QueryBatch;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+class QueryBatchTest {
+
+  private static final String GET_USER = Mapper.class.getName() + ".getUser";
+  private static final String GET_USERS = Mapper.class.getName() + ".getUsers";
+  private static final String FIND_POSTS = Mapper.class.getName() + ".findPosts";
+  private static final String COUNT_POSTS = Mapper.class.getName() + ".countPosts";
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static PipeliningDataSource dataSource;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/query_batch/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    Environment environment = sqlSessionFactory.getConfiguration().getEnvironment();
+    BaseDataTest.runScript(environment.getDataSource(), "org/apache/ibatis/submitted/query_batch/CreateDB.sql");
+    dataSource = new PipeliningDataSource(environment.getDataSource());
+    sqlSessionFactory.getConfiguration()
+        .setEnvironment(new Environment(environment.getId(), environment.getTransactionFactory(), dataSource));
+  }
+
+  @BeforeEach
+  void clearRecordedSql() {
+    dataSource.getPreparedSql().clear();
+  }
+
+  @AfterEach
+  void enableMultiStatementQueries() {
+    sqlSessionFactory.getConfiguration().setMultiStatementQueriesEnabled(true);
+  }
+
+  @Test
+  void shouldExecuteAllSelectsInOneRoundTrip() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      QueryBatch batch = sqlSession.newQueryBatch();
+      QueryBatch.Result<User> user = batch.selectOne(GET_USER, 1);
+      QueryBatch.Result<List<Post>> posts = batch.selectList(FIND_POSTS, params(1, "Post%"));
+      QueryBatch.Result<Integer> count = batch.selectOne(COUNT_POSTS, null);
+      QueryBatch.Result<Map<Integer, User>> users = batch.selectMap(GET_USERS, null, "id");
+      assertThat(batch.size()).isEqualTo(4);
+      batch.execute();
+
+      assertThat(user.get().getName()).isEqualTo("User1");
+      assertThat(posts.get()).extracting(Post::getTitle).containsExactly("Post1", "Post2");
+      assertThat(count.get()).isEqualTo(3);
+      assertThat(users.get()).containsOnlyKeys(1, 2);
+      assertThat(dataSource.getPreparedSql()).hasSize(1);
+      assertThat(dataSource.getPreparedSql().get(0).split(";\n")).hasSize(4);
+    }
+  }
+
+  @Test
+  void shouldNotSendSelectsAnsweredByTheLocalCache() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User cached = sqlSession.getMapper(Mapper.class).getUser(2);
+      QueryBatch batch = sqlSession.newQueryBatch();
+      QueryBatch.Result<User> user = batch.selectOne(GET_USER, 2);
+      QueryBatch.Result<List<Post>> posts = batch.selectList(FIND_POSTS, params(2, "%"));
+      QueryBatch.Result<Integer> count = batch.selectOne(COUNT_POSTS, null);
+      batch.execute();
+
+      assertThat(user.get()).isSameAs(cached);
+      assertThat(posts.get()).extracting(Post::getTitle).containsExactly("Post3");
+      assertThat(count.get()).isEqualTo(3);
+      assertThat(dataSource.getPreparedSql()).hasSize(2);
+      assertThat(dataSource.getPreparedSql().get(1).split(";\n")).hasSize(2);
+    }
+  }
+
+  @Test
+  void shouldExecuteTheSelectsOneByOneWhenMultiStatementQueriesAreDisabled() {
+    sqlSessionFactory.getConfiguration().setMultiStatementQueriesEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      QueryBatch batch = sqlSession.newQueryBatch();
+      QueryBatch.Result<User> user = batch.selectOne(GET_USER, 1);
+      QueryBatch.Result<Integer> count = batch.selectOne(COUNT_POSTS, null);
+      batch.execute();
+
+      assertThat(user.get().getName()).isEqualTo("User1");
+      assertThat(count.get()).isEqualTo(3);
+      assertThat(dataSource.getPreparedSql()).hasSize(2);
+    }
+  }
+
+  @Test
+  void shouldRejectTooManyResultsForSelectOne() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      QueryBatch batch = sqlSession.newQueryBatch();
+      batch.selectOne(GET_USERS, null);
+      batch.selectOne(COUNT_POSTS, null);
+      assertThatThrownBy(batch::execute).isInstanceOf(TooManyResultsException.class);
+    }
+  }
+
+  @Test
+  void shouldOnlyExposeResultsOfAnExecutedBatch() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      QueryBatch batch = sqlSession.newQueryBatch();
+      QueryBatch.Result<User> user = batch.selectOne(GET_USER, 1);
+      assertThatThrownBy(user::get).isInstanceOf(SqlSessionException.class);
+      batch.execute();
+      assertThat(user.get().getId()).isEqualTo(1);
+      assertThatThrownBy(batch::execute).isInstanceOf(SqlSessionException.class);
+      assertThatThrownBy(() -> batch.selectOne(GET_USER, 2)).isInstanceOf(SqlSessionException.class);
+    }
+  }
+
+  @Test
+  void shouldExecuteTheSelectsOneByOneByDefault() {
+    SqlSession sqlSession = mock(SqlSession.class);
+    when(sqlSession.newQueryBatch()).thenCallRealMethod();
+    when(sqlSession.selectOne(GET_USER, 1)).thenReturn(new User());
+    when(sqlSession.selectList(GET_USERS, null)).thenReturn(Arrays.asList(new User(), new User()));
+    when(sqlSession.selectMap(GET_USERS, null, "id")).thenReturn(Collections.emptyMap());
+
+    QueryBatch batch = sqlSession.newQueryBatch();
+    QueryBatch.Result<User> user = batch.selectOne(GET_USER, 1);
+    QueryBatch.Result<List<User>> users = batch.selectList(GET_USERS);
+    QueryBatch.Result<Map<Integer, User>> map = batch.selectMap(GET_USERS, null, "id");
+    assertThat(batch.size()).isEqualTo(3);
+    assertThatThrownBy(user::get).isInstanceOf(SqlSessionException.class);
+    batch.execute();
+
+    assertThat(user.get()).isNotNull();
+    assertThat(users.get()).hasSize(2);
+    assertThat(map.get()).isEmpty();
+    InOrder order = inOrder(sqlSession);
+    order.verify(sqlSession).selectOne(GET_USER, 1);
+    order.verify(sqlSession).selectList(GET_USERS, null);
+    order.verify(sqlSession).selectMap(GET_USERS, null, "id");
+    assertThatThrownBy(batch::execute).isInstanceOf(SqlSessionException.class);
+  }
+
+  @Test
+  void shouldBatchTheSelectsOfAManagedSession() {
+    SqlSessionManager manager = SqlSessionManager.newInstance(sqlSessionFactory);
+    QueryBatch batch = manager.newQueryBatch();
+    QueryBatch.Result<User> user = batch.selectOne(GET_USER, 1);
+    QueryBatch.Result<Integer> count = batch.selectOne(COUNT_POSTS, null);
+    batch.execute();
+    assertThat(user.get().getName()).isEqualTo("User1");
+    assertThat(count.get()).isEqualTo(3);
+    assertThat(dataSource.getPreparedSql()).hasSize(2);
+
+    dataSource.getPreparedSql().clear();
+    manager.startManagedSession();
+    try {
+      batch = manager.newQueryBatch();
+      user = batch.selectOne(GET_USER, 1);
+      count = batch.selectOne(COUNT_POSTS, null);
+      batch.execute();
+      assertThat(user.get().getName()).isEqualTo("User1");
+      assertThat(count.get()).isEqualTo(3);
+      assertThat(dataSource.getPreparedSql()).hasSize(1);
+    } finally {
+      manager.close();
+    }
+  }
+
+  private static Map<String, Object> params(int userId, String title) {
+    Map<String, Object> params = new HashMap<>();
+    params.put("userId", userId);
+    params.put("title", title);
+    return params;
+  }
+
+}
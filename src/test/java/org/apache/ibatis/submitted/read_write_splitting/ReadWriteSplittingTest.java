@@ -0,0 +1,161 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.read_write_splitting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.transaction.readwrite.ReadWriteDataSource;
+import org.apache.ibatis.transaction.readwrite.ReadWriteTransactionFactory;
+import org.apache.ibatis.transaction.readwrite.Replica;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReadWriteSplittingTest {
+
+  private static Configuration configuration;
+  private static DataSource primary;
+  private static DataSource replica1;
+  private static DataSource replica2;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/read_write_splitting/mybatis-config.xml")) {
+      configuration = new SqlSessionFactoryBuilder().build(reader).getConfiguration();
+    }
+    primary = configuration.getEnvironment().getDataSource();
+    replica1 = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:read_write_replica1", "sa", "");
+    replica2 = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:read_write_replica2", "sa", "");
+    // every database knows its own name, so a select tells where it has been routed
+    createDatabase(primary, "primary");
+    createDatabase(replica1, "replica1");
+    createDatabase(replica2, "replica2");
+  }
+
+  private static void createDatabase(DataSource dataSource, String name) throws Exception {
+    BaseDataTest.runScript(dataSource, "org/apache/ibatis/submitted/read_write_splitting/CreateDB.sql");
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.executeUpdate("insert into server (name) values ('" + name + "')");
+    }
+  }
+
+  private Replica first;
+  private Replica second;
+  private ReadWriteDataSource dataSource;
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void createFactory() {
+    first = new Replica("replica1", replica1);
+    second = new Replica("replica2", replica2);
+    useDataSource(new ReadWriteDataSource(primary, Arrays.asList(first, second)));
+  }
+
+  private void useDataSource(ReadWriteDataSource dataSource) {
+    this.dataSource = dataSource;
+    configuration.setEnvironment(new Environment("read_write", new ReadWriteTransactionFactory(), dataSource));
+    sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+  }
+
+  @Test
+  void shouldReadFromAReplicaUntilTheFirstWrite() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.whereAmI()).startsWith("replica");
+      mapper.insertUser(1, "User1");
+      assertThat(mapper.whereAmI()).isEqualTo("primary");
+      sqlSession.rollback();
+      assertThat(mapper.whereAmI()).isEqualTo("primary");
+    }
+  }
+
+  @Test
+  void shouldReadFromThePrimaryAfterTheConnectionWasHandedOut() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getConnection();
+      assertThat(sqlSession.getMapper(Mapper.class).whereAmI()).isEqualTo("primary");
+    }
+  }
+
+  @Test
+  void shouldHonourTheLagHints() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.whereAmIFresh()).isEqualTo("primary");
+      assertThat(mapper.whereAmIFromXml()).isEqualTo("primary");
+    }
+    first.setReplicationLag(5000);
+    second.setReplicationLag(5000);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.whereAmIWithinOneSecond()).isEqualTo("primary");
+      assertThat(mapper.whereAmI()).startsWith("replica");
+    }
+    second.setReplicationLag(10);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).whereAmIWithinOneSecond()).isEqualTo("replica2");
+    }
+    dataSource.setDefaultMaxReplicaLag(0L);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).whereAmI()).isEqualTo("primary");
+    }
+  }
+
+  @Test
+  void shouldSpreadConcurrentSessionsOverTheReplicas() {
+    try (SqlSession sqlSession1 = sqlSessionFactory.openSession();
+        SqlSession sqlSession2 = sqlSessionFactory.openSession()) {
+      String server1 = sqlSession1.getMapper(Mapper.class).whereAmI();
+      String server2 = sqlSession2.getMapper(Mapper.class).whereAmI();
+      assertThat(Arrays.asList(server1, server2)).containsExactlyInAnyOrder("replica1", "replica2");
+      assertThat(first.getActiveConnections()).isEqualTo(1);
+      assertThat(second.getActiveConnections()).isEqualTo(1);
+    }
+    assertThat(first.getActiveConnections()).isZero();
+    assertThat(second.getActiveConnections()).isZero();
+  }
+
+  @Test
+  void shouldSkipAReplicaThatIsDown() {
+    Replica broken = new Replica("broken",
+        new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:unknown:read_write_broken", "sa", ""));
+    useDataSource(new ReadWriteDataSource(primary, Arrays.asList(broken, first)));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).whereAmI()).isEqualTo("replica1");
+    }
+    assertThat(broken.isAvailable()).isFalse();
+    broken.markAvailable();
+    assertThat(broken.isAvailable()).isTrue();
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.rowbounds_pushdown;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.RowBounds;
+
+public interface Mapper {
+
+  @Select("select id, name from users order by id")
+  List<User> selectUsers(RowBounds rowBounds);
+
+  @Select("select mod(id, 3) as grp, id, name from users")
+  List<User> selectUsersInGroups(RowBounds rowBounds);
+
+  @Select("select id, name from users order by id; -- all users")
+  List<User> selectUsersWithTrailingComment(RowBounds rowBounds);
+
+  @Select("select id, name from users order by id limit 10")
+  List<User> selectFirstUsers(RowBounds rowBounds);
+
+  @Select("select id, name from (select id, name from users order by id limit 10) first_users order by id")
+  List<User> selectFromFirstUsers(RowBounds rowBounds);
+
+  @Select({
+    "<script>",
+    "select id, name from users where id in",
+    "<foreach item='id' collection='ids' open='(' separator=',' close=')'>#{id}</foreach>",
+    "order by id",
+    "</script>" })
+  List<User> selectUsersByIds(@Param("ids") List<Integer> ids, RowBounds rowBounds);
+
+}
@@ -0,0 +1,223 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.rowbounds_pushdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.dialect.OffsetFetchDialect;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RowBoundsPushdownTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create an SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/rowbounds_pushdown/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/rowbounds_pushdown/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void reset() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setRowBoundsPushdownEnabled(true);
+    configuration.setDialect(null);
+    configuration.setDatabaseId("hsql");
+    SqlRecorder.preparedSql.clear();
+  }
+
+  @Test
+  void shouldPushRowBoundsDownIntoTheSql() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectUsers(new RowBounds(5, 3)))).containsExactly(6, 7, 8);
+      assertThat(ids(mapper.selectUsers(new RowBounds(15, 10)))).containsExactly(16, 17, 18, 19, 20);
+      assertThat(SqlRecorder.preparedSql).hasSize(2);
+      assertThat(SqlRecorder.preparedSql.get(0)).endsWith("LIMIT ? OFFSET ?").isEqualTo(SqlRecorder.preparedSql.get(1));
+    }
+  }
+
+  @Test
+  void shouldPushOffsetOnlyRowBoundsDownIntoTheSql() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectUsers(new RowBounds(18, RowBounds.NO_ROW_LIMIT)))).containsExactly(19, 20);
+      assertThat(SqlRecorder.preparedSql.get(0)).endsWith("LIMIT ? OFFSET ?");
+    }
+  }
+
+  @Test
+  void shouldRemoveTrailingSemicolonsAndComments() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectUsersWithTrailingComment(new RowBounds(5, 3)))).containsExactly(6, 7, 8);
+      assertThat(SqlRecorder.preparedSql.get(0)).isEqualTo("select id, name from users order by id LIMIT ? OFFSET ?");
+    }
+  }
+
+  @Test
+  void shouldSkipRowsOfASelectThatEndsWithAPagingClause() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectFirstUsers(new RowBounds(5, 3)))).containsExactly(6, 7, 8);
+      assertThat(ids(mapper.selectFirstUsers(new RowBounds(8, 5)))).containsExactly(9, 10);
+      assertThat(SqlRecorder.preparedSql.get(0)).isEqualTo("select id, name from users order by id limit 10");
+      assertThatThrownBy(() -> mapper.selectFirstUsers(new KeysetRowBounds("id", 3, 3)))
+          .isInstanceOf(PersistenceException.class).hasMessageContaining("ends with a paging or locking clause");
+    }
+  }
+
+  @Test
+  void shouldPageASelectWithAPagedSubquery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectFromFirstUsers(new RowBounds(8, 5)))).containsExactly(9, 10);
+      assertThat(SqlRecorder.preparedSql.get(0)).endsWith("LIMIT ? OFFSET ?");
+    }
+  }
+
+  @Test
+  void shouldKeepTheParametersOfDynamicSql() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.selectUsersByIds(Arrays.asList(2, 4, 6, 8, 10), new RowBounds(1, 2));
+      assertThat(ids(users)).containsExactly(4, 6);
+    }
+  }
+
+  @Test
+  void shouldUseAnExplicitDialect() {
+    sqlSessionFactory.getConfiguration().setDialect(new OffsetFetchDialect());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectUsers(new RowBounds(5, 3)))).containsExactly(6, 7, 8);
+      assertThat(SqlRecorder.preparedSql.get(0)).endsWith("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+    }
+  }
+
+  @Test
+  void shouldSkipRowsWhenPushdownIsDisabled() {
+    sqlSessionFactory.getConfiguration().setRowBoundsPushdownEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectUsers(new RowBounds(5, 3)))).containsExactly(6, 7, 8);
+      assertThat(SqlRecorder.preparedSql.get(0)).isEqualTo("select id, name from users order by id");
+    }
+  }
+
+  @Test
+  void shouldSkipRowsWithoutDialect() {
+    sqlSessionFactory.getConfiguration().setDatabaseId("unknown");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectUsers(new RowBounds(5, 3)))).containsExactly(6, 7, 8);
+      assertThat(SqlRecorder.preparedSql.get(0)).isEqualTo("select id, name from users order by id");
+    }
+  }
+
+  @Test
+  void shouldReadPagesAfterTheLastKey() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectUsers(new KeysetRowBounds("id", null, 3)))).containsExactly(1, 2, 3);
+      assertThat(ids(mapper.selectUsers(new KeysetRowBounds("id", 3, 3)))).containsExactly(4, 5, 6);
+      assertThat(ids(mapper.selectUsers(new KeysetRowBounds("id", 18, 3)))).containsExactly(19, 20);
+      assertThat(SqlRecorder.preparedSql.get(1)).contains("WHERE id > ?").endsWith("ORDER BY id LIMIT ? OFFSET ?");
+    }
+  }
+
+  @Test
+  void shouldReadPagesAfterACompositeKey() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      String[] keyColumns = { "grp", "id" };
+      assertThat(ids(mapper.selectUsersInGroups(new KeysetRowBounds(keyColumns, null, false, 3))))
+          .containsExactly(3, 6, 9);
+      assertThat(ids(mapper.selectUsersInGroups(new KeysetRowBounds(keyColumns, new Object[] { 0, 18 }, false, 3))))
+          .containsExactly(1, 4, 7);
+      assertThat(ids(mapper.selectUsersInGroups(new KeysetRowBounds(keyColumns, new Object[] { 1, 19 }, false, 3))))
+          .containsExactly(2, 5, 8);
+      assertThat(SqlRecorder.preparedSql.get(1))
+          .contains("WHERE (grp > ?) OR (grp = ? AND id > ?)").endsWith("ORDER BY grp, id LIMIT ? OFFSET ?");
+    }
+  }
+
+  @Test
+  void shouldReadPagesInDescendingKeyOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      String[] keyColumns = { "id" };
+      assertThat(ids(mapper.selectUsers(new KeysetRowBounds(keyColumns, null, true, 3)))).containsExactly(20, 19, 18);
+      assertThat(ids(mapper.selectUsers(new KeysetRowBounds(keyColumns, new Object[] { 5 }, true, 3))))
+          .containsExactly(4, 3, 2);
+      assertThat(SqlRecorder.preparedSql.get(1)).contains("WHERE id < ?").endsWith("ORDER BY id DESC LIMIT ? OFFSET ?");
+    }
+  }
+
+  @Test
+  void shouldOnlyAcceptIdentifiersAsKeyColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.selectUsers(new KeysetRowBounds("\"ID\"", 3, 3)))).containsExactly(4, 5, 6);
+    }
+    assertThatThrownBy(() -> new KeysetRowBounds("id > 0 or 1 = 1 --", 3, 3))
+        .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Invalid key column");
+    assertThatThrownBy(() -> new KeysetRowBounds("\"id\" or \"x\"", 3, 3))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new KeysetRowBounds(new String[] { "grp", "id" }, new Object[] { 1 }, false, 3))
+        .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("2 key columns but 1 last keys");
+  }
+
+  @Test
+  void shouldRequireADialectForKeysetPagination() {
+    sqlSessionFactory.getConfiguration().setDatabaseId("unknown");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(() -> mapper.selectUsers(new KeysetRowBounds("id", 3, 3)))
+          .isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("requires a dialect");
+    }
+  }
+
+  private static List<Integer> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+}
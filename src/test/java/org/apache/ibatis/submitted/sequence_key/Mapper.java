@@ -0,0 +1,47 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.sequence_key;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Insert("insert into users (id, name) values (#{id}, #{name})")
+  @Options(keyProperty = "id")
+  void insertUser(User user);
+
+  @Insert("<script>insert into users (id, name) values "
+      + "<foreach item='user' collection='list' separator=','>(#{user.id}, #{user.name})</foreach></script>")
+  @Options(keyProperty = "id")
+  void insertUsers(List<User> users);
+
+  @Insert("insert into users (id, name) values (#{id}, #{name})")
+  @Options(keyProperty = "id")
+  void insertUserMap(Map<String, Object> user);
+
+  @Select("select * from users order by id")
+  List<User> getUsers();
+
+  @Insert("insert into items (name) values (#{name})")
+  @Options(useGeneratedKeys = true, keyProperty = "id")
+  void insertItem(Item item);
+
+}
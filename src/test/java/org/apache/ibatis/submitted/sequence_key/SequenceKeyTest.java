@@ -0,0 +1,186 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.sequence_key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.executor.keygen.SequenceKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.submitted.sequence_key.Item.SpecialItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SequenceKeyTest {
+
+  private static final String NEXT_VALUE = "select next value for users_seq from (values(0))";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/sequence_key/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    // the generators must be registered before the mapper is loaded
+    SequenceKeyGenerator keyGenerator = new SequenceKeyGenerator(NEXT_VALUE, 10);
+    for (String statement : Arrays.asList("insertUser", "insertUsers", "insertUserMap")) {
+      configuration.addKeyGenerator(Mapper.class.getName() + "." + statement + SelectKeyGenerator.SELECT_KEY_SUFFIX,
+          keyGenerator);
+    }
+    configuration.addMapper(Mapper.class);
+    BaseDataTest.runScript(configuration.getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/sequence_key/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReserveOneBlockOfKeysPerRoundTrip() throws SQLException {
+    List<User> users = users(25);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      users.forEach(mapper::insertUser);
+      sqlSession.flushStatements();
+
+      assertThat(users).extracting(User::getId)
+          .containsExactlyElementsOf(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()));
+      assertThat(mapper.getUsers()).extracting(User::getName)
+          .containsExactlyElementsOf(users.stream().map(User::getName).collect(Collectors.toList()));
+      // three blocks (1, 11 and 21) were reserved
+      assertThat(nextSequenceValue(sqlSession)).isEqualTo(31);
+    }
+  }
+
+  @Test
+  void shouldAssignKeysBeforeMultiRowInserts() {
+    sqlSessionFactory.getConfiguration().setMultiRowInsertSize(4);
+    List<User> users = users(6);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      users.forEach(mapper::insertUser);
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).extracting(BatchResult::getSql).containsExactly(
+          "insert into users (id, name) values (?, ?), (?, ?), (?, ?), (?, ?)",
+          "insert into users (id, name) values (?, ?), (?, ?)");
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3, 4, 5, 6);
+      assertThat(mapper.getUsers()).extracting(User::getId).containsExactly(1, 2, 3, 4, 5, 6);
+    }
+  }
+
+  @Test
+  void shouldAssignAKeyToEveryElementOfACollection() {
+    List<User> users = users(3);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUsers(users);
+
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3);
+      assertThat(mapper.getUsers()).extracting(User::getName).containsExactly("User1", "User2", "User3");
+    }
+  }
+
+  @Test
+  void shouldAssignAKeyToAMap() {
+    Map<String, Object> user = new HashMap<>();
+    user.put("name", "Map");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUserMap(user);
+
+      assertThat(user).containsEntry("id", 1L);
+      assertThat(mapper.getUsers()).extracting(User::getName).containsExactly("Map");
+    }
+  }
+
+  @Test
+  void shouldNotHandOutTheSameKeyTwiceAcrossSessions() throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<List<User>>> futures = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        futures.add(executorService.submit(() -> {
+          List<User> users = users(20);
+          try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+            users.forEach(sqlSession.getMapper(Mapper.class)::insertUser);
+          }
+          return users;
+        }));
+      }
+      List<Integer> ids = new ArrayList<>();
+      for (Future<List<User>> future : futures) {
+        future.get().forEach(user -> ids.add(user.getId()));
+      }
+      assertThat(ids).containsExactlyInAnyOrderElementsOf(
+          IntStream.rangeClosed(1, 40).boxed().collect(Collectors.toList()));
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  void shouldAssignGeneratedKeysToParametersOfDifferentClassesInABatch() {
+    List<Item> items = Arrays.asList(new Item("A"), new SpecialItem("B"), new Item("C"), new SpecialItem("D"));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      items.forEach(mapper::insertItem);
+      sqlSession.flushStatements();
+
+      assertThat(items).extracting(Item::getId).containsExactly(100L, 101L, 102L, 103L);
+    }
+  }
+
+  @Test
+  void shouldRejectAnEmptyBlock() {
+    assertThrows(IllegalArgumentException.class, () -> new SequenceKeyGenerator(NEXT_VALUE, 0));
+  }
+
+  private static long nextSequenceValue(SqlSession sqlSession) throws SQLException {
+    try (Statement statement = sqlSession.getConnection().createStatement();
+        ResultSet rs = statement.executeQuery(NEXT_VALUE)) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private static List<User> users(int count) {
+    return IntStream.rangeClosed(1, count).mapToObj(i -> new User("User" + i)).collect(Collectors.toList());
+  }
+
+}
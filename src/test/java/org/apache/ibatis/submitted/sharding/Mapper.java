@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.sharding;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.One;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.FetchType;
+import org.apache.ibatis.session.RowBounds;
+
+@CacheNamespace
+public interface Mapper {
+
+  @Insert("insert into users (id, tenant_id, name) values (#{id}, #{tenantId}, #{name})")
+  int insertUser(User user);
+
+  @Select("select * from users where tenant_id = #{tenantId} order by id")
+  List<User> getUsersOfTenant(@Param("tenantId") int tenantId);
+
+  @Select("select * from users where id = #{id}")
+  User getUser(int id);
+
+  @Select("select u.*, 1 as shard_info_id from users u where id = #{id}")
+  @Result(property = "shard", column = "shard_info_id", one = @One(select = "getShardName"))
+  User getUserWithShard(int id);
+
+  @Select("select u.*, 1 as shard_info_id from users u where id = #{id}")
+  @Result(property = "shard", column = "shard_info_id", one = @One(select = "getShardName", fetchType = FetchType.LAZY))
+  User getUserWithLazyShard(int id);
+
+  @Select("select name from shard_info where id = #{id}")
+  String getShardName(int id);
+
+  @Insert("insert into shard_info (id, name) values (#{id}, #{name})")
+  int insertShardInfo(@Param("id") int id, @Param("name") String name);
+
+  @Select("select * from users order by id")
+  List<User> getUsers(RowBounds rowBounds);
+
+  @Update("update users set name = #{name} where id = #{id} and tenant_id = #{tenantId}")
+  int updateUser(User user);
+
+  @Delete("delete from users where name like #{pattern}")
+  int deleteUsers(String pattern);
+
+}
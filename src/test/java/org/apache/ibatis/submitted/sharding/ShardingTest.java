@@ -0,0 +1,188 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.sharding.PropertyShardKeyResolver;
+import org.apache.ibatis.session.sharding.ShardedSqlSession;
+import org.apache.ibatis.session.sharding.ShardedSqlSessionFactory;
+import org.apache.ibatis.session.sharding.ShardingException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardingTest {
+
+  private static final String CONFIG = "org/apache/ibatis/submitted/sharding/mybatis-config.xml";
+
+  private static Configuration configuration;
+  private static List<Environment> shards;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader(CONFIG)) {
+      configuration = new SqlSessionFactoryBuilder().build(reader).getConfiguration();
+    }
+    Environment shard1;
+    try (Reader reader = Resources.getResourceAsReader(CONFIG)) {
+      shard1 = new SqlSessionFactoryBuilder().build(reader, "shard1").getConfiguration().getEnvironment();
+    }
+    shards = Arrays.asList(configuration.getEnvironment(), shard1);
+  }
+
+  @BeforeEach
+  void populate() throws Exception {
+    for (Environment shard : shards) {
+      BaseDataTest.runScript(shard.getDataSource(), "org/apache/ibatis/submitted/sharding/CreateDB.sql");
+    }
+    // tenant 1 lives on shard 1, tenant 2 on shard 0
+    try (ShardedSqlSession sqlSession = newFactory().openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int id = 1; id <= 6; id++) {
+        int tenantId = id % 2 == 1 ? 1 : 2;
+        mapper.insertUser(new User(id, tenantId, (tenantId == 1 ? "a" : "b") + id));
+      }
+      for (int shard = 0; shard < shards.size(); shard++) {
+        sqlSession.getShardSession(shard).getMapper(Mapper.class).insertShardInfo(1, "shard" + shard);
+      }
+      sqlSession.commit();
+    }
+  }
+
+  private static ShardedSqlSessionFactory newFactory() {
+    return new ShardedSqlSessionFactory(configuration, shards, new PropertyShardKeyResolver("tenantId"));
+  }
+
+  @Test
+  void shouldRouteByShardKey() {
+    try (ShardedSqlSession sqlSession = newFactory().openSession()) {
+      assertThat(ids(sqlSession.getShardSession(0).getMapper(Mapper.class).getUsers(RowBounds.DEFAULT)))
+          .containsExactly(2, 4, 6);
+      assertThat(ids(sqlSession.getShardSession(1).getMapper(Mapper.class).getUsers(RowBounds.DEFAULT)))
+          .containsExactly(1, 3, 5);
+      assertThat(ids(sqlSession.getMapper(Mapper.class).getUsersOfTenant(1))).containsExactly(1, 3, 5);
+    }
+  }
+
+  @Test
+  void shouldConcatenateUnkeyedSelectsInShardOrder() {
+    try (ShardedSqlSession sqlSession = newFactory().openSession()) {
+      assertThat(ids(sqlSession.getMapper(Mapper.class).getUsers(RowBounds.DEFAULT))).containsExactly(2, 4, 6, 1, 3, 5);
+    }
+  }
+
+  @Test
+  void shouldMergeUnkeyedSelectsInOrderAndApplyTheBounds() {
+    ShardedSqlSessionFactory factory = newFactory();
+    factory.registerMergeOrder(Mapper.class.getName() + ".getUsers", Comparator.comparing(User::getId));
+    try (ShardedSqlSession sqlSession = factory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(ids(mapper.getUsers(RowBounds.DEFAULT))).containsExactly(1, 2, 3, 4, 5, 6);
+      assertThat(ids(mapper.getUsers(new RowBounds(1, 3)))).containsExactly(2, 3, 4);
+      assertThat(ids(mapper.getUsers(new RowBounds(5, 3)))).containsExactly(6);
+    }
+  }
+
+  @Test
+  void shouldFindASingleRowOnAnyShard() {
+    try (ShardedSqlSession sqlSession = newFactory().openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUser(5).getName()).isEqualTo("a5");
+      assertThat(mapper.getUser(4).getName()).isEqualTo("b4");
+      assertThat(mapper.getUser(99)).isNull();
+    }
+  }
+
+  @Test
+  void shouldBroadcastUnkeyedUpdates() {
+    try (ShardedSqlSession sqlSession = newFactory().openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.updateUser(new User(4, 2, "x4"))).isEqualTo(1);
+      assertThat(mapper.updateUser(new User(4, 1, "x4"))).isZero();
+      assertThat(mapper.deleteUsers("b%")).isEqualTo(2);
+      sqlSession.commit();
+      assertThat(ids(mapper.getUsers(RowBounds.DEFAULT))).containsExactly(4, 1, 3, 5);
+    }
+  }
+
+  @Test
+  void shouldRejectInsertsWithoutShardKey() {
+    try (ShardedSqlSession sqlSession = newFactory().openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(() -> mapper.insertUser(new User(7, null, "c7"))).isInstanceOf(ShardingException.class)
+          .hasMessageContaining("shard key");
+    }
+  }
+
+  @Test
+  void shouldNotShareCachedRowsBetweenShards() {
+    ShardedSqlSessionFactory factory = newFactory();
+    try (ShardedSqlSession sqlSession = factory.openSession()) {
+      assertThat(ids(sqlSession.getShardSession(0).getMapper(Mapper.class).getUsers(RowBounds.DEFAULT)))
+          .containsExactly(2, 4, 6);
+      sqlSession.commit();
+    }
+    try (ShardedSqlSession sqlSession = factory.openSession()) {
+      assertThat(ids(sqlSession.getShardSession(1).getMapper(Mapper.class).getUsers(RowBounds.DEFAULT)))
+          .containsExactly(1, 3, 5);
+    }
+  }
+
+  @Test
+  void shouldNotShareCachedNestedRowsBetweenShards() {
+    ShardedSqlSessionFactory factory = newFactory();
+    try (ShardedSqlSession sqlSession = factory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUserWithShard(2).getShard()).isEqualTo("shard0");
+      sqlSession.commit();
+    }
+    try (ShardedSqlSession sqlSession = factory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUserWithShard(1).getShard()).isEqualTo("shard1");
+      sqlSession.commit();
+    }
+    try (ShardedSqlSession sqlSession = factory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUserWithShard(4).getShard()).isEqualTo("shard0");
+      assertThat(sqlSession.getMapper(Mapper.class).getUserWithShard(3).getShard()).isEqualTo("shard1");
+    }
+  }
+
+  @Test
+  void shouldLoadLazilyFromTheShardAfterClose() {
+    User user;
+    try (ShardedSqlSession sqlSession = newFactory().openSession()) {
+      user = sqlSession.getMapper(Mapper.class).getUserWithLazyShard(1);
+    }
+    assertThat(user.getShard()).isEqualTo("shard1");
+  }
+
+  private static List<Integer> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,186 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.metrics.StatementExecution;
+import org.apache.ibatis.metrics.StatementMetricsRegistry;
+import org.apache.ibatis.metrics.StatementStats;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementMetricsTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.statement_metrics.Mapper";
+
+  private SqlSessionFactory sqlSessionFactory;
+  private StatementMetricsRegistry registry;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/statement_metrics/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/statement_metrics/CreateDB.sql");
+    registry = (StatementMetricsRegistry) sqlSessionFactory.getConfiguration().getStatementMetricsCollector();
+  }
+
+  @Test
+  void shouldRecordThePhasesOfEachExecution() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUsers()).hasSize(3);
+      assertThat(mapper.getUser(1).getName()).isEqualTo("User1");
+      // 第二次查询命中一级缓存
+      assertThat(mapper.getUser(1).getName()).isEqualTo("User1");
+      User user = new User();
+      user.setId(4);
+      user.setName("User4");
+      assertThat(mapper.insertUser(user)).isEqualTo(1);
+    }
+
+    StatementStats users = registry.getStatementStats(NAMESPACE + ".getUsers");
+    assertThat(users.getExecutions()).isEqualTo(1);
+    assertThat(users.getRows()).isEqualTo(3);
+    assertThat(users.getFailures()).isZero();
+    assertThat(users.getPrepare().getCount()).isEqualTo(1);
+    assertThat(users.getPrepare().getSumNanos()).isPositive();
+    assertThat(users.getExecute().getSumNanos()).isPositive();
+    assertThat(users.getFetch().getSumNanos()).isPositive();
+    assertThat(users.getTotal().getSumNanos()).isEqualTo(
+        users.getPrepare().getSumNanos() + users.getExecute().getSumNanos() + users.getFetch().getSumNanos());
+
+    StatementStats user = registry.getStatementStats(NAMESPACE + ".getUser");
+    assertThat(user.getExecutions()).isEqualTo(1);
+    assertThat(user.getCacheHits()).isEqualTo(1);
+
+    StatementStats insert = registry.getStatementStats(NAMESPACE + ".insertUser");
+    assertThat(insert.getExecutions()).isEqualTo(1);
+    assertThat(insert.getRows()).isEqualTo(1);
+    assertThat(insert.getExecute().getSumNanos()).isPositive();
+    assertThat(insert.getFetch().getSumNanos()).isZero();
+  }
+
+  @Test
+  void shouldRecordCursorsAndFailures() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try (Cursor<User> cursor = mapper.getUserCursor()) {
+        assertThat(cursor).hasSize(3);
+      }
+      assertThatThrownBy(mapper::getFromMissingTable).isInstanceOf(PersistenceException.class);
+    }
+    StatementStats cursor = registry.getStatementStats(NAMESPACE + ".getUserCursor");
+    assertThat(cursor.getExecutions()).isEqualTo(1);
+    assertThat(cursor.getRows()).isZero();
+
+    StatementStats missing = registry.getStatementStats(NAMESPACE + ".getFromMissingTable");
+    assertThat(missing.getExecutions()).isEqualTo(1);
+    assertThat(missing.getFailures()).isEqualTo(1);
+    assertThat(missing.getExecute().getSumNanos()).isZero();
+  }
+
+  @Test
+  void shouldReportSlowStatementsWithTheirSql() {
+    List<StatementExecution> slowExecutions = new ArrayList<>();
+    registry.setSlowStatementListener(slowExecutions::add);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUser(1);
+      registry.setSlowStatementThreshold(1, TimeUnit.NANOSECONDS);
+      mapper.getUser(2);
+      registry.setSlowStatementThreshold(1, TimeUnit.HOURS);
+      mapper.getUser(3);
+    }
+    assertThat(slowExecutions).hasSize(1);
+    assertThat(slowExecutions.get(0).getBoundSql().getSql()).isEqualTo("select * from users where id = ?");
+    assertThat(slowExecutions.get(0).getBoundSql().getParameterObject()).isEqualTo(2);
+    assertThat(slowExecutions.get(0).getRows()).isEqualTo(1);
+    assertThat(registry.getStatementStats(NAMESPACE + ".getUser").getSlowExecutions()).isEqualTo(1);
+    assertThat(registry.getSlowStatementThresholdMillis()).isEqualTo(TimeUnit.HOURS.toMillis(1));
+  }
+
+  @Test
+  void shouldExportTheMetricsAsText() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers();
+    }
+    String text = registry.getText();
+    assertThat(text).contains("# TYPE mybatis_statement_executions_total counter\n")
+        .contains("mybatis_statement_executions_total{statement=\"" + NAMESPACE + ".getUsers\"} 1\n")
+        .contains("mybatis_statement_rows_total{statement=\"" + NAMESPACE + ".getUsers\"} 3\n")
+        .contains("mybatis_statement_seconds_count{statement=\"" + NAMESPACE + ".getUsers\",phase=\"fetch\"} 1\n")
+        .containsPattern("mybatis_statement_seconds\\{statement=\"" + NAMESPACE.replace(".", "\\.")
+            + "\\.getUsers\",phase=\"execute\",quantile=\"0\\.99\"\\} \\d+\\.\\d{9}\n");
+
+    registry.reset();
+    assertThat(registry.getStatementStats(NAMESPACE + ".getUsers").getExecutions()).isZero();
+  }
+
+  @Test
+  void shouldExposeTheMetricsThroughJmx() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers();
+    }
+    ObjectName objectName = registry.registerMBean("statement_metrics");
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      CompositeData[] statements = (CompositeData[]) server.getAttribute(objectName, "Statements");
+      assertThat(statements).hasSize(1);
+      assertThat(statements[0].get("statementId")).isEqualTo(NAMESPACE + ".getUsers");
+      assertThat(statements[0].get("rows")).isEqualTo(3L);
+      assertThat(((CompositeData) statements[0].get("execute")).get("count")).isEqualTo(1L);
+      assertThat((String) server.getAttribute(objectName, "Text")).contains("mybatis_statement_executions_total");
+
+      server.setAttribute(objectName, new javax.management.Attribute("SlowStatementThresholdMillis", 250L));
+      assertThat(registry.getSlowStatementThresholdMillis()).isEqualTo(250L);
+    } finally {
+      registry.unregisterMBean();
+    }
+    assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)).isFalse();
+  }
+
+  @Test
+  void shouldNotRecordWithoutCollector() {
+    sqlSessionFactory.getConfiguration().setStatementMetricsCollector(null);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers();
+    }
+    assertThat(registry.getStatementStats()).isEmpty();
+  }
+
+}
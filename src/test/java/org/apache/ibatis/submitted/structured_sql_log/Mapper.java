@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.structured_sql_log;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
+
+public interface Mapper {
+
+  @Select("select * from users where id = #{id}")
+  User getUser(Integer id);
+
+  @Select({ "<script>", "select * from users where id in",
+      "<foreach item='id' collection='ids' open='(' separator=',' close=')'>#{id}</foreach>",
+      "and name like #{pattern}", "</script>" })
+  List<User> getUsers(@Param("ids") List<Integer> ids, @Param("pattern") String pattern);
+
+  @Select("select * from users order by id")
+  @ResultType(User.class)
+  void getAllUsers(ResultHandler<User> handler);
+
+  @Select("select * from users order by id")
+  Cursor<User> getUserCursor();
+
+  @Select("select * from missing_table")
+  List<User> getFromMissingTable();
+
+  @Insert("insert into users (id, name) values (#{id}, #{name})")
+  int insertUser(User user);
+
+}
@@ -0,0 +1,33 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.structured_sql_log;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.logging.jdbc.SqlLogEntry;
+import org.apache.ibatis.logging.jdbc.SqlLogHandler;
+
+public class RecordingSqlLogHandler implements SqlLogHandler {
+
+  static final List<SqlLogEntry> entries = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void log(SqlLogEntry entry) {
+    entries.add(entry);
+  }
+
+}
@@ -0,0 +1,145 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.structured_sql_log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.jdbc.SqlLogEntry;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StructuredSqlLogTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.submitted.structured_sql_log.Mapper";
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/structured_sql_log/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/structured_sql_log/CreateDB.sql");
+    RecordingSqlLogHandler.entries.clear();
+  }
+
+  @Test
+  void shouldLogEachExecutionOnce() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUser(1).getName()).isEqualTo("User1");
+      User user = new User();
+      user.setId(4);
+      user.setName("User4");
+      assertThat(mapper.insertUser(user)).isEqualTo(1);
+    }
+    List<SqlLogEntry> entries = RecordingSqlLogHandler.entries;
+    assertThat(entries).hasSize(2);
+
+    SqlLogEntry select = entries.get(0);
+    assertThat(select.getStatementId()).isEqualTo(NAMESPACE + ".getUser");
+    assertThat(select.getParameterTypes()).containsExactly("Integer");
+    assertThat(select.getRows()).isEqualTo(1);
+    assertThat(select.getDurationNanos()).isPositive();
+    assertThat(select.getFailure()).isNull();
+    assertThat(select.toString()).startsWith("id=" + NAMESPACE + ".getUser fingerprint=" + select.getFingerprint()
+        + " types=[Integer] duration=").endsWith("ms rows=1");
+
+    SqlLogEntry insert = entries.get(1);
+    assertThat(insert.getStatementId()).isEqualTo(NAMESPACE + ".insertUser");
+    assertThat(insert.getParameterTypes()).containsExactly("Integer", "String");
+    assertThat(insert.getRows()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldGroupExecutionsByFingerprint() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUsers(Arrays.asList(1, 2), "User%")).hasSize(2);
+      assertThat(mapper.getUsers(Arrays.asList(1, 2, 3), "User%")).hasSize(3);
+    }
+    List<SqlLogEntry> entries = RecordingSqlLogHandler.entries;
+    assertThat(entries).hasSize(2);
+    assertThat(entries.get(0).getSql()).isNotEqualTo(entries.get(1).getSql());
+    assertThat(entries.get(0).getFingerprint()).isEqualTo(entries.get(1).getFingerprint());
+    assertThat(entries.get(1).getParameterTypes()).containsExactly("Integer", "Integer", "Integer", "String");
+  }
+
+  @Test
+  void shouldLogUnknownRowCountsAndFailures() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getAllUsers(context -> {
+      });
+      try (Cursor<User> cursor = mapper.getUserCursor()) {
+        assertThat(cursor).hasSize(3);
+      }
+      assertThatThrownBy(mapper::getFromMissingTable).isInstanceOf(PersistenceException.class);
+    }
+    List<SqlLogEntry> entries = RecordingSqlLogHandler.entries;
+    assertThat(entries).hasSize(3);
+    assertThat(entries.get(0).getRows()).isEqualTo(-1);
+    assertThat(entries.get(1).getRows()).isEqualTo(-1);
+    assertThat(entries.get(2).getStatementId()).isEqualTo(NAMESPACE + ".getFromMissingTable");
+    assertThat(entries.get(2).getFailure()).isInstanceOf(SQLException.class);
+    assertThat(entries.get(2).toString()).endsWith("rows=-1 error=" + entries.get(2).getFailure().getClass().getSimpleName());
+  }
+
+  @Test
+  void shouldSampleExecutions() {
+    sqlSessionFactory.getConfiguration().setSqlLogSampleRate(0.0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 10; i++) {
+        mapper.getUser(1);
+        sqlSession.clearCache();
+      }
+      assertThat(RecordingSqlLogHandler.entries).isEmpty();
+
+      sqlSessionFactory.getConfiguration().setSqlLogSampleRate(0.5);
+      for (int i = 0; i < 200; i++) {
+        mapper.getUser(1);
+        sqlSession.clearCache();
+      }
+    }
+    assertThat(RecordingSqlLogHandler.entries).hasSizeBetween(40, 160);
+  }
+
+  @Test
+  void shouldNotLogWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setStructuredSqlLoggingEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUser(1);
+    }
+    assertThat(RecordingSqlLogHandler.entries).isEmpty();
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.tracing;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.One;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.FetchType;
+
+public interface Mapper {
+
+  @Select("select id, name, team_id from users where id = #{id}")
+  @Result(property = "team", column = "team_id", one = @One(select = "getTeam", fetchType = FetchType.EAGER))
+  User getUser(Integer id);
+
+  @Select("select id, name, team_id from users where id = #{id}")
+  @Result(property = "team", column = "team_id", one = @One(select = "getTeam", fetchType = FetchType.LAZY))
+  User getUserWithLazyTeam(Integer id);
+
+  @Select("select id, name from teams where id = #{id}")
+  Team getTeam(Integer id);
+
+  @Select("select id, name from users order by id")
+  CompletableFuture<List<User>> getUsersAsync();
+
+  @Select("select id, name from missing_table")
+  List<User> getFromMissingTable();
+
+  @Insert("insert into users (id, name) values (#{id}, #{name})")
+  int insertUser(User user);
+
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.tracing;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.tracing.Span;
+import org.apache.ibatis.tracing.SpanKind;
+import org.apache.ibatis.tracing.Tracer;
+
+public class RecordingTracer implements Tracer {
+
+  static final List<RecordedSpan> spans = new CopyOnWriteArrayList<>();
+
+  @Override
+  public Span startSpan(SpanKind kind, String name, Span parent) {
+    RecordedSpan span = new RecordedSpan(kind, name, (RecordedSpan) parent);
+    spans.add(span);
+    return span;
+  }
+
+  static class RecordedSpan implements Span {
+
+    final SpanKind kind;
+    final String name;
+    final RecordedSpan parent;
+    final Map<String, Object> tags = new HashMap<>();
+    volatile Throwable error;
+    volatile boolean ended;
+
+    RecordedSpan(SpanKind kind, String name, RecordedSpan parent) {
+      this.kind = kind;
+      this.name = name;
+      this.parent = parent;
+    }
+
+    @Override
+    public void setTag(String key, Object value) {
+      tags.put(key, value);
+    }
+
+    @Override
+    public void setError(Throwable error) {
+      this.error = error;
+    }
+
+    @Override
+    public void end() {
+      ended = true;
+    }
+
+    @Override
+    public String toString() {
+      return kind + " " + name.substring(name.lastIndexOf('.') + 1);
+    }
+  }
+
+}
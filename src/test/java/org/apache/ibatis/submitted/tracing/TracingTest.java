@@ -0,0 +1,170 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.submitted.tracing.RecordingTracer.RecordedSpan;
+import org.apache.ibatis.tracing.SpanKind;
+import org.apache.ibatis.tracing.TraceScope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TracingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/tracing/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/tracing/CreateDB.sql");
+    RecordingTracer.spans.clear();
+  }
+
+  @Test
+  void shouldNestQueriesUnderTheMapperCall() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUser(1).getTeam().getName()).isEqualTo("Team1");
+    }
+    List<RecordedSpan> spans = RecordingTracer.spans;
+    assertThat(spans).hasToString("[MAPPER_METHOD getUser, QUERY getUser, LOAD_RESULT getTeam, QUERY getTeam]");
+    assertThat(spans.get(0).parent).isNull();
+    assertThat(spans.get(1).parent).isSameAs(spans.get(0));
+    assertThat(spans.get(2).parent).isSameAs(spans.get(1));
+    assertThat(spans.get(3).parent).isSameAs(spans.get(2));
+    assertThat(spans).allMatch(span -> span.ended && span.error == null);
+    assertThat(TraceScope.currentSpan()).isNull();
+  }
+
+  @Test
+  void shouldTagLocalCacheHits() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getTeam(1);
+      mapper.getTeam(1);
+    }
+    List<RecordedSpan> spans = RecordingTracer.spans;
+    assertThat(spans).hasToString("[MAPPER_METHOD getTeam, QUERY getTeam, MAPPER_METHOD getTeam, QUERY getTeam]");
+    assertThat(spans.get(1).tags).isEmpty();
+    assertThat(spans.get(3).tags).containsEntry("localCache", "hit");
+  }
+
+  @Test
+  void shouldParentLazyLoadsOnTheQueryThatCreatedThem() {
+    User user;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      user = sqlSession.getMapper(Mapper.class).getUserWithLazyTeam(1);
+    }
+    // 会话关闭之后在其他线程上触发延迟加载
+    Team team = CompletableFuture.supplyAsync(user::getTeam).join();
+    assertThat(team.getName()).isEqualTo("Team1");
+
+    List<RecordedSpan> spans = RecordingTracer.spans;
+    assertThat(spans).hasToString(
+        "[MAPPER_METHOD getUserWithLazyTeam, QUERY getUserWithLazyTeam, LOAD_RESULT getTeam, QUERY getTeam]");
+    assertThat(spans.get(2).parent).isSameAs(spans.get(1));
+    assertThat(spans.get(3).parent).isSameAs(spans.get(2));
+    assertThat(spans).allMatch(span -> span.ended);
+  }
+
+  @Test
+  void shouldTraceUpdatesAndBatchFlushes() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int id = 3; id <= 4; id++) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User" + id);
+        mapper.insertUser(user);
+      }
+      sqlSession.flushStatements();
+      sqlSession.commit();
+    }
+    List<RecordedSpan> spans = RecordingTracer.spans;
+    assertThat(spans).hasToString(
+        "[MAPPER_METHOD insertUser, UPDATE insertUser, MAPPER_METHOD insertUser, UPDATE insertUser, FLUSH_STATEMENTS flushStatements]");
+    assertThat(spans.get(1).parent).isSameAs(spans.get(0));
+    assertThat(spans.get(4).parent).isNull();
+    assertThat(spans.get(4).tags).containsEntry("statements", 1);
+  }
+
+  @Test
+  void shouldActivateTheMapperSpanOnTheAsyncThread() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUsersAsync().join()).hasSize(2);
+    }
+    List<RecordedSpan> spans = RecordingTracer.spans;
+    assertThat(spans).hasToString("[MAPPER_METHOD getUsersAsync, QUERY getUsersAsync]");
+    assertThat(spans.get(1).parent).isSameAs(spans.get(0));
+    assertThat(spans).allMatch(span -> span.ended);
+  }
+
+  @Test
+  void shouldCancelTheAsyncExecution() {
+    List<Runnable> tasks = new ArrayList<>();
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(tasks::add);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CompletableFuture<List<User>> future = sqlSession.getMapper(Mapper.class).getUsersAsync();
+      assertThat(future.cancel(true)).isTrue();
+      tasks.forEach(Runnable::run);
+    }
+    List<RecordedSpan> spans = RecordingTracer.spans;
+    assertThat(spans).hasToString("[MAPPER_METHOD getUsersAsync]");
+    assertThat(spans.get(0).ended).isTrue();
+    assertThat(spans.get(0).error).isInstanceOf(CancellationException.class);
+  }
+
+  @Test
+  void shouldRecordErrors() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(mapper::getFromMissingTable).isInstanceOf(PersistenceException.class);
+    }
+    List<RecordedSpan> spans = RecordingTracer.spans;
+    assertThat(spans).hasToString("[MAPPER_METHOD getFromMissingTable, QUERY getFromMissingTable]");
+    assertThat(spans).allMatch(span -> span.ended && span.error != null);
+    assertThat(TraceScope.currentSpan()).isNull();
+  }
+
+  @Test
+  void shouldNotTraceWithoutTracer() {
+    sqlSessionFactory.getConfiguration().setTracer(null);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUser(1).getTeam()).isNotNull();
+    }
+    assertThat(RecordingTracer.spans).isEmpty();
+    assertThat(SpanKind.values()).hasSize(5);
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.virtual_threads;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.Benchmark;
+import org.apache.ibatis.Benchmarks;
+import org.apache.ibatis.datasource.pooled.PoolState;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadsTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create an SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/virtual_threads/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/virtual_threads/CreateDB.sql");
+  }
+
+  @Test
+  void shouldServeManyCallersFromASmallPool() throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(50);
+    try {
+      int tasks = 500;
+      long requests = poolState().getRequestCount();
+      List<String> names = run(executorService, tasks);
+      assertThat(names).hasSize(tasks).allMatch(name -> name.startsWith("User"));
+      // half of the calls use the uncached statement
+      assertThat(poolState().getRequestCount() - requests).isGreaterThanOrEqualTo(tasks / 2);
+      assertThat(poolState().getActiveConnectionCount()).isZero();
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  /**
+   * Runs 10,000 virtual threads against a pool of 5 connections. Requires Java 21.
+   */
+  @Benchmark
+  void benchmarkVirtualThreads() throws Exception {
+    ExecutorService executorService = newVirtualThreadPerTaskExecutor();
+    assumeTrue(executorService != null, "Virtual threads are not available");
+    try {
+      int tasks = 10_000;
+      Benchmarks.measure(tasks + " virtual threads", 1,
+          () -> assertThat(run(executorService, tasks)).hasSize(tasks));
+      assertThat(poolState().getActiveConnectionCount()).isZero();
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  private static List<String> run(ExecutorService executorService, int tasks) throws Exception {
+    List<Future<String>> futures = new ArrayList<>(tasks);
+    for (int i = 0; i < tasks; i++) {
+      final int id = i % 3 + 1;
+      final boolean cached = i % 2 == 0;
+      Callable<String> task = () -> {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+          Mapper mapper = sqlSession.getMapper(Mapper.class);
+          return (cached ? mapper.getUser(id) : mapper.getUserUncached(id)).getName();
+        }
+      };
+      futures.add(executorService.submit(task));
+    }
+    List<String> names = new ArrayList<>(tasks);
+    for (Future<String> future : futures) {
+      names.add(future.get(30, TimeUnit.SECONDS));
+    }
+    return names;
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static PoolState poolState() {
+    return ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource()).getPoolState();
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LongKeyedMapTest {
+
+  @Test
+  void shouldBehaveLikeHashMap() {
+    LongKeyedMap<String> map = new LongKeyedMap<>();
+    Map<Long, String> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      long key = random.nextInt(5000) - 2500L + (i % 3 == 0 ? Long.MIN_VALUE : 0);
+      String value = "v" + i;
+      assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+    }
+    assertThat(map).hasSameSizeAs(expected).isEqualTo(expected);
+    assertThat(expected).isEqualTo(map);
+    for (Map.Entry<Long, String> entry : expected.entrySet()) {
+      assertThat(map.get(entry.getKey().longValue())).isEqualTo(entry.getValue());
+    }
+    assertThat(map.keyArray()).hasSize(expected.size());
+  }
+
+  @Test
+  void shouldSupportZeroKeyAndNullValues() {
+    LongKeyedMap<String> map = new LongKeyedMap<>(0);
+    map.put(0L, null);
+    assertThat(map.containsKey(0L)).isTrue();
+    assertThat(map.get(0L)).isNull();
+    assertThat(map.containsKey(1L)).isFalse();
+    assertThat(map).hasSize(1).containsEntry(0L, null);
+  }
+
+  @Test
+  void shouldIgnoreKeysOfOtherTypes() {
+    LongKeyedMap<String> map = new LongKeyedMap<>();
+    map.put(1L, "one");
+    assertThat(map.get((Object) 1)).isNull();
+    assertThat(map.containsKey((Object) "1")).isFalse();
+    assertThat(map.get((Object) 1L)).isEqualTo("one");
+  }
+
+  @Test
+  void shouldClear() {
+    LongKeyedMap<String> map = new LongKeyedMap<>();
+    map.put(1L, "one");
+    map.clear();
+    assertThat(map).isEmpty();
+    assertThat(map.containsKey(1L)).isFalse();
+    map.put(1L, "uno");
+    assertThat(map.get(1L)).isEqualTo("uno");
+  }
+
+}
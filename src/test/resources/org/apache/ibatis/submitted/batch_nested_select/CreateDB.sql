@@ -0,0 +1,48 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table post if exists;
+drop table blog if exists;
+drop table author if exists;
+
+create table author (
+  id int,
+  name varchar(20)
+);
+
+create table blog (
+  id int,
+  title varchar(20),
+  author_id int
+);
+
+create table post (
+  id int,
+  blog_id int,
+  subject varchar(20)
+);
+
+insert into author (id, name) values(101, 'jim');
+insert into author (id, name) values(102, 'sally');
+
+insert into blog (id, title, author_id) values(1, 'blog1', 101);
+insert into blog (id, title, author_id) values(2, 'blog2', 101);
+insert into blog (id, title, author_id) values(3, 'blog3', 102);
+
+insert into post (id, blog_id, subject) values(1, 1, 'post1');
+insert into post (id, blog_id, subject) values(2, 1, 'post2');
+insert into post (id, blog_id, subject) values(3, 2, 'post3');